@@ -75,6 +75,21 @@ public interface Axis extends AxisDescription, EventSource {
      */
     double getDisplayPosition(double value);
 
+    /**
+     * Bulk version of {@link #getDisplayPosition(double)}: computes the display positions of {@code values[from]} to
+     * {@code values[to - 1]} in one go and avoids the per-sample (virtual) call overhead of the axis transform.
+     *
+     * @param values the data values to work out the display positions for
+     * @param displayPositions output display positions (may be the same array as {@code values})
+     * @param from first index (inclusive)
+     * @param to last index (exclusive)
+     */
+    default void getDisplayPositions(final double[] values, final double[] displayPositions, final int from, final int to) {
+        for (int i = from; i < to; i++) {
+            displayPositions[i] = getDisplayPosition(values[i]);
+        }
+    }
+
     double getHeight();
 
     /**
@@ -23,6 +23,21 @@ public interface AxisTransform {
      */
     double forward(double val);
 
+    /**
+     * bulk version of {@link #forward(double)}, e.g. to transform whole data set arrays in one tight (JIT vectorisable)
+     * loop
+     *
+     * @param values input values
+     * @param transformed output values (may be the same array as {@code values})
+     * @param from first index (inclusive)
+     * @param to last index (exclusive)
+     */
+    default void forward(final double[] values, final double[] transformed, final int from, final int to) {
+        for (int i = from; i < to; i++) {
+            transformed[i] = forward(values[i]);
+        }
+    }
+
     double getMaximumRange();
 
     double getMinimumRange();
@@ -74,6 +74,15 @@ public class LogarithmicAxisTransform extends AbstractAxisTransform {
         return Math.log10(value) / logBaseCache;
     }
 
+    @Override
+    public void forward(final double[] values, final double[] transformed, final int from, final int to) {
+        final double logBase = logBaseCache;
+        for (int i = from; i < to; i++) {
+            final double value = values[i];
+            transformed[i] = value <= 0 ? Double.NaN : Math.log10(value) / logBase;
+        }
+    }
+
     /**
      * Base of the logarithm used by the axis, must be grater than 1.
      * <p>
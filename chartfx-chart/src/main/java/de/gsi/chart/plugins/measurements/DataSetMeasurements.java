@@ -69,6 +69,7 @@ import de.gsi.math.DataSetMath.MathOp;
 import de.gsi.math.MathDataSet;
 import de.gsi.math.MathDataSet.DataSetsFunction;
 import de.gsi.math.MultiDimDataSetMath;
+import de.gsi.math.spectra.Apodization;
 
 public class DataSetMeasurements extends AbstractChartMeasurement {
     private static final Logger LOGGER = LoggerFactory.getLogger(DataSetMeasurements.class);
@@ -485,35 +486,35 @@ public class DataSetMeasurements extends AbstractChartMeasurement {
             // basic math
             case ADD_FUNCTIONS:
                 FXUtils.runFX(() -> yAxis.set("∑(" + name1 + " + " + name2 + ")", yAxisUnit));
-                outputDataSet.set(DataSetMath.mathFunction(firstDataSet, secondDataSet, MathOp.ADD));
+                DataSetMath.mathFunction(firstDataSet, secondDataSet, MathOp.ADD, outputDataSet);
                 break;
             case ADD_VALUE:
                 FXUtils.runFX(() -> yAxis.set("∑(" + name1 + " + " + functionValue + ")", yAxisUnit));
-                outputDataSet.set(DataSetMath.mathFunction(firstDataSet, functionValue, MathOp.ADD));
+                DataSetMath.mathFunction(firstDataSet, functionValue, MathOp.ADD, outputDataSet);
                 break;
             case SUBTRACT_FUNCTIONS:
                 FXUtils.runFX(() -> yAxis.set("∆(" + name1 + " - " + name2 + ")", yAxisUnit));
-                outputDataSet.set(DataSetMath.mathFunction(firstDataSet, secondDataSet, MathOp.SUBTRACT));
+                DataSetMath.mathFunction(firstDataSet, secondDataSet, MathOp.SUBTRACT, outputDataSet);
                 break;
             case SUBTRACT_VALUE:
                 FXUtils.runFX(() -> yAxis.set("∆(" + name1 + " - " + functionValue + ")", yAxisUnit));
-                outputDataSet.set(DataSetMath.mathFunction(firstDataSet, functionValue, MathOp.SUBTRACT));
+                DataSetMath.mathFunction(firstDataSet, functionValue, MathOp.SUBTRACT, outputDataSet);
                 break;
             case MULTIPLY_FUNCTIONS:
                 FXUtils.runFX(() -> yAxis.set("∏(" + name1 + " * " + name2 + ")", yAxisUnit));
-                outputDataSet.set(DataSetMath.mathFunction(firstDataSet, secondDataSet, MathOp.MULTIPLY));
+                DataSetMath.mathFunction(firstDataSet, secondDataSet, MathOp.MULTIPLY, outputDataSet);
                 break;
             case MULTIPLY_VALUE:
                 FXUtils.runFX(() -> yAxis.set("∏(" + name1 + " * " + functionValue + ")", yAxisUnit));
-                outputDataSet.set(DataSetMath.mathFunction(firstDataSet, functionValue, MathOp.MULTIPLY));
+                DataSetMath.mathFunction(firstDataSet, functionValue, MathOp.MULTIPLY, outputDataSet);
                 break;
             case DIVIDE_FUNCTIONS:
                 FXUtils.runFX(() -> yAxis.set("(" + name1 + " / " + name2 + ")", yAxisUnit));
-                outputDataSet.set(DataSetMath.mathFunction(firstDataSet, secondDataSet, MathOp.DIVIDE));
+                DataSetMath.mathFunction(firstDataSet, secondDataSet, MathOp.DIVIDE, outputDataSet);
                 break;
             case DIVIDE_VALUE:
                 FXUtils.runFX(() -> yAxis.set("(" + name1 + " / " + functionValue + ")", yAxisUnit));
-                outputDataSet.set(DataSetMath.mathFunction(firstDataSet, functionValue, MathOp.DIVIDE));
+                DataSetMath.mathFunction(firstDataSet, functionValue, MathOp.DIVIDE, outputDataSet);
                 break;
             case SUB_RANGE:
                 FXUtils.runFX(() -> yAxis.set("sub-range(" + name1 + ")", yAxisUnit));
@@ -538,35 +539,35 @@ public class DataSetMeasurements extends AbstractChartMeasurement {
             // math functions
             case SQUARE:
                 FXUtils.runFX(() -> yAxis.set("(" + name1 + ")²", yAxisUnit));
-                outputDataSet.set(DataSetMath.sqrFunction(firstDataSet));
+                DataSetMath.mathFunction(firstDataSet, 0.0, MathOp.SQR, outputDataSet);
                 break;
             case SQUARE_FULL:
                 FXUtils.runFX(() -> yAxis.set("(" + name1 + ", " + name2 + ")²", yAxisUnit));
-                outputDataSet.set(DataSetMath.mathFunction(firstDataSet, secondDataSet, MathOp.SQR));
+                DataSetMath.mathFunction(firstDataSet, secondDataSet, MathOp.SQR, outputDataSet);
                 break;
             case SQUARE_ROOT:
                 FXUtils.runFX(() -> yAxis.set("√(" + name1 + ")", yAxisUnit));
-                outputDataSet.set(DataSetMath.sqrtFunction(firstDataSet));
+                DataSetMath.mathFunction(firstDataSet, 0.0, MathOp.SQRT, outputDataSet);
                 break;
             case SQUARE_ROOT_FULL:
                 FXUtils.runFX(() -> yAxis.set("√(" + name1 + ", " + name2 + ")", yAxisUnit));
-                outputDataSet.set(DataSetMath.mathFunction(firstDataSet, secondDataSet, MathOp.SQRT));
+                DataSetMath.mathFunction(firstDataSet, secondDataSet, MathOp.SQRT, outputDataSet);
                 break;
             case INTEGRAL:
                 FXUtils.runFX(() -> yAxis.set("∫(" + name1 + ")d" + xAxisName, xAxisUnit + "*" + yAxisUnit));
-                outputDataSet.set(DataSetMath.integrateFunction(firstDataSet, newValueMarker1, newValueMarker2));
+                DataSetMath.integrateFunction(firstDataSet, newValueMarker1, newValueMarker2, outputDataSet);
                 break;
             case INTEGRAL_FULL:
                 FXUtils.runFX(() -> yAxis.set("∫(" + name1 + ")d" + xAxisName, xAxisUnit + "*" + yAxisUnit));
-                outputDataSet.set(DataSetMath.integrateFunction(firstDataSet));
+                DataSetMath.integrateFunction(firstDataSet, Double.NaN, Double.NaN, outputDataSet);
                 break;
             case DIFFERENTIATE:
                 FXUtils.runFX(() -> yAxis.set("∂(" + name1 + ")/∂" + xAxisName, xAxisUnit + "*" + yAxisUnit));
-                outputDataSet.set(DataSetMath.derivativeFunction(firstDataSet));
+                DataSetMath.derivativeFunction(firstDataSet, +1.0, outputDataSet);
                 break;
             case DIFFERENTIATE_WITH_SCALLING:
                 FXUtils.runFX(() -> yAxis.set("∂(" + name1 + ")/∂" + xAxisName, xAxisUnit + "*" + yAxisUnit));
-                outputDataSet.set(DataSetMath.derivativeFunction(firstDataSet, functionValue));
+                DataSetMath.derivativeFunction(firstDataSet, functionValue, outputDataSet);
                 break;
             case NORMALISE_TO_INTEGRAL:
                 FXUtils.runFX(() -> yAxis.set("normalised(" + name1 + ")", "1"));
@@ -580,31 +581,31 @@ public class DataSetMeasurements extends AbstractChartMeasurement {
             // filter routines
             case FILTER_MEAN:
                 FXUtils.runFX(() -> yAxis.set("<" + name1 + ", " + functionValue + ">", xAxisUnit));
-                outputDataSet.set(DataSetMath.filterFunction(firstDataSet, functionValue, Filter.MEAN));
+                DataSetMath.filterFunction(firstDataSet, functionValue, Filter.MEAN, outputDataSet);
                 break;
             case FILTER_MEDIAN:
                 FXUtils.runFX(() -> yAxis.set("median(" + name1 + ", " + functionValue + ")", xAxisUnit));
-                outputDataSet.set(DataSetMath.filterFunction(firstDataSet, Math.max(3, functionValue), Filter.MEDIAN));
+                DataSetMath.filterFunction(firstDataSet, Math.max(3, functionValue), Filter.MEDIAN, outputDataSet);
                 break;
             case FILTER_MIN:
                 FXUtils.runFX(() -> yAxis.set("min(" + name1 + ", " + functionValue + ")", xAxisUnit));
-                outputDataSet.set(DataSetMath.filterFunction(firstDataSet, functionValue, Filter.MIN));
+                DataSetMath.filterFunction(firstDataSet, functionValue, Filter.MIN, outputDataSet);
                 break;
             case FILTER_MAX:
                 FXUtils.runFX(() -> yAxis.set("max(" + name1 + ", " + functionValue + ")", xAxisUnit));
-                outputDataSet.set(DataSetMath.filterFunction(firstDataSet, functionValue, Filter.MAX));
+                DataSetMath.filterFunction(firstDataSet, functionValue, Filter.MAX, outputDataSet);
                 break;
             case FILTER_P2P:
                 FXUtils.runFX(() -> yAxis.set("peak-to-peak(" + name1 + ", " + functionValue + ")", xAxisUnit));
-                outputDataSet.set(DataSetMath.filterFunction(firstDataSet, functionValue, Filter.P2P));
+                DataSetMath.filterFunction(firstDataSet, functionValue, Filter.P2P, outputDataSet);
                 break;
             case FILTER_RMS:
                 FXUtils.runFX(() -> yAxis.set("rms(" + name1 + ", " + functionValue + ")", xAxisUnit));
-                outputDataSet.set(DataSetMath.filterFunction(firstDataSet, functionValue, Filter.RMS));
+                DataSetMath.filterFunction(firstDataSet, functionValue, Filter.RMS, outputDataSet);
                 break;
             case FILTER_GEOMMEAN:
                 FXUtils.runFX(() -> yAxis.set("geo.-mean(" + name1 + ", " + functionValue + ")", xAxisUnit));
-                outputDataSet.set(DataSetMath.filterFunction(firstDataSet, functionValue, Filter.GEOMMEAN));
+                DataSetMath.filterFunction(firstDataSet, functionValue, Filter.GEOMMEAN, outputDataSet);
                 break;
             case FILTER_LOWPASS_IIR:
                 FXUtils.runFX(() -> yAxis.set("IIR-low-pass(" + name1 + ", " + functionValue + ")", xAxisUnit));
@@ -697,58 +698,58 @@ public class DataSetMeasurements extends AbstractChartMeasurement {
             case FFT_DB:
                 FXUtils.runFX(() -> xAxis.set(FREQUENCY, "Hz"));
                 FXUtils.runFX(() -> yAxis.set(MAG + name1 + ")", "dB"));
-                outputDataSet.set(DataSetMath.magnitudeSpectrumDecibel(firstDataSet));
+                DataSetMath.magnitudeSpectrum(firstDataSet, Apodization.Hann, true, false, outputDataSet);
                 break;
             case FFT_DB_RANGED:
                 FXUtils.runFX(() -> xAxis.set(FREQUENCY, "Hz"));
                 FXUtils.runFX(() -> yAxis.set(MAG + name1 + ")", "dB"));
                 subRange = DataSetMath.getSubRange(firstDataSet, newValueMarker1, newValueMarker2);
                 if (subRange.getDataCount() >= MIN_FFT_BINS) {
-                    outputDataSet.set(DataSetMath.magnitudeSpectrumDecibel(subRange));
+                    DataSetMath.magnitudeSpectrum(subRange, Apodization.Hann, true, false, outputDataSet);
                 }
                 break;
             case FFT_NORM_DB:
                 FXUtils.runFX(() -> xAxis.set(FREQUENCY, "Hz"));
                 FXUtils.runFX(() -> yAxis.set(MAG + name1 + ")", "dB"));
-                outputDataSet.set(DataSetMath.normalisedMagnitudeSpectrumDecibel(firstDataSet));
+                DataSetMath.magnitudeSpectrum(firstDataSet, Apodization.Hann, true, true, outputDataSet);
                 break;
             case FFT_NORM_DB_RANGED:
                 FXUtils.runFX(() -> xAxis.set(FREQUENCY, "Hz"));
                 FXUtils.runFX(() -> yAxis.set(MAG + name1 + ")", "dB"));
                 subRange = DataSetMath.getSubRange(firstDataSet, newValueMarker1, newValueMarker2);
                 if (subRange.getDataCount() >= MIN_FFT_BINS) {
-                    outputDataSet.set(DataSetMath.normalisedMagnitudeSpectrumDecibel(subRange));
+                    DataSetMath.magnitudeSpectrum(subRange, Apodization.Hann, true, true, outputDataSet);
                 }
                 break;
             case FFT_LIN:
                 FXUtils.runFX(() -> xAxis.set(FREQUENCY, "Hz"));
                 FXUtils.runFX(() -> yAxis.set(MAG + name1 + ")", yAxisUnit + "/rtHz"));
-                outputDataSet.set(DataSetMath.magnitudeSpectrum(firstDataSet));
+                DataSetMath.magnitudeSpectrum(firstDataSet, Apodization.Hann, false, false, outputDataSet);
                 break;
             case FFT_LIN_RANGED:
                 FXUtils.runFX(() -> xAxis.set(FREQUENCY, "Hz"));
                 FXUtils.runFX(() -> yAxis.set(MAG + name1 + ")", "/rtHz"));
-                outputDataSet.set(DataSetMath.magnitudeSpectrum(DataSetMath.getSubRange(firstDataSet, newValueMarker1, newValueMarker2)));
+                DataSetMath.magnitudeSpectrum(DataSetMath.getSubRange(firstDataSet, newValueMarker1, newValueMarker2), Apodization.Hann, false, false, outputDataSet);
                 break;
             case CONVERT_TO_DB:
                 FXUtils.runFX(() -> yAxis.set(MAG + name1 + ")", "dB(" + yAxisUnit + ")"));
-                outputDataSet.set(DataSetMath.dbFunction(firstDataSet));
+                DataSetMath.mathFunction(firstDataSet, 0.0, MathOp.DB, outputDataSet);
                 break;
             case CONVERT2_TO_DB:
                 FXUtils.runFX(() -> yAxis.set(MAG + name1 + ")", "dB(" + yAxisUnit + ")"));
-                outputDataSet.set(DataSetMath.dbFunction(firstDataSet, secondDataSet));
+                DataSetMath.mathFunction(firstDataSet, secondDataSet, MathOp.DB, outputDataSet);
                 break;
             case CONVERT_FROM_DB:
                 FXUtils.runFX(() -> yAxis.set(MAG + name1 + ")", "a.u."));
-                outputDataSet.set(DataSetMath.inversedbFunction(firstDataSet));
+                DataSetMath.mathFunction(firstDataSet, 1.0, MathOp.INV_DB, outputDataSet);
                 break;
             case CONVERT_TO_LOG10:
                 FXUtils.runFX(() -> yAxis.set(MAG + name1 + ")", "log10"));
-                outputDataSet.set(DataSetMath.log10Function(firstDataSet));
+                DataSetMath.mathFunction(firstDataSet, 0.0, MathOp.LOG10, outputDataSet);
                 break;
             case CONVERT2_TO_LOG10:
                 FXUtils.runFX(() -> yAxis.set(MAG + name1 + " + " + name2 + ")", "log10"));
-                outputDataSet.set(DataSetMath.log10Function(firstDataSet, secondDataSet));
+                DataSetMath.mathFunction(firstDataSet, secondDataSet, MathOp.LOG10, outputDataSet);
                 break;
 
                 // Trending
@@ -50,6 +50,8 @@ public abstract class AbstractContourDataSetRendererParameter<R extends Abstract
         }
     };
 
+    private final BooleanProperty scrollingHeatMap = new SimpleBooleanProperty(this, "scrollingHeatMap", false);
+
     private final BooleanProperty smooth = new SimpleBooleanProperty(this, "smooth", false) {
         @Override
         protected void invalidated() {
@@ -163,6 +165,15 @@ public abstract class AbstractContourDataSetRendererParameter<R extends Abstract
         return altImplementationProperty().get();
     }
 
+    /**
+     * Returns the value of the {@link #scrollingHeatMapProperty()}.
+     *
+     * @return {@code true} if the heatmap image is updated incrementally for scrolling data
+     */
+    public boolean isScrollingHeatMap() {
+        return scrollingHeatMapProperty().get();
+    }
+
     /**
      * Returns the value of the {@link #smoothProperty()}.
      *
@@ -265,6 +276,30 @@ public abstract class AbstractContourDataSetRendererParameter<R extends Abstract
         reductionTypeProperty().set(value);
     }
 
+    /**
+     * Indicates if the (non-hexagon) heatmap should be updated incrementally for scrolling (waterfall- or
+     * spectrogram-type) data: the image is retained across frames, existing pixels are shifted and only newly appended
+     * rows or columns are colour-mapped. The image is fully redrawn on axis or colour-scale changes. N.B. for best
+     * performance, the z-axis range should be fixed (ie. no auto-ranging or local range computation).
+     * <p>
+     * By default the scrolling heatmap is disabled.
+     * </p>
+     *
+     * @return scrollingHeatMap property
+     */
+    public BooleanProperty scrollingHeatMapProperty() {
+        return scrollingHeatMap;
+    }
+
+    /**
+     * Sets the value of the {@link #scrollingHeatMapProperty()}.
+     *
+     * @param value {@code true} to enable incremental updates of the heatmap for scrolling data
+     */
+    public void setScrollingHeatMap(final boolean value) {
+        scrollingHeatMapProperty().set(value);
+    }
+
     /**
      * Sets the value of the {@link #smoothProperty()}.
      *
@@ -468,6 +468,7 @@ public abstract class AbstractErrorDataSetRendererParameter<R extends AbstractEr
         errorStyleProperty().bind(other.errorStyleProperty());
         pointReductionProperty().bind(other.pointReductionProperty());
         assumeSortedDataProperty().bind(other.assumeSortedDataProperty());
+        levelOfDetailProperty().bind(other.levelOfDetailProperty());
         dashSizeProperty().bind(other.dashSizeProperty());
         minRequiredReductionSizeProperty().bind(other.minRequiredReductionSizeProperty());
         markerSizeProperty().bind(other.markerSizeProperty());
@@ -505,6 +506,7 @@ public abstract class AbstractErrorDataSetRendererParameter<R extends AbstractEr
     protected R unbind() {
         errorStyleProperty().unbind();
         pointReductionProperty().unbind();
+        levelOfDetailProperty().unbind();
         dashSizeProperty().unbind();
         minRequiredReductionSizeProperty().unbind();
         markerSizeProperty().unbind();
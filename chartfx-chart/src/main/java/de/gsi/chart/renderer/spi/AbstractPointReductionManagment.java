@@ -18,6 +18,7 @@ public abstract class AbstractPointReductionManagment<R extends AbstractPointRed
     private final BooleanProperty parallelImplementation = new SimpleBooleanProperty(this, "parallelImplementation",
             true);
     private final BooleanProperty pointReduction = new SimpleBooleanProperty(this, "pointReduction", true);
+    private final BooleanProperty levelOfDetail = new SimpleBooleanProperty(this, "levelOfDetail", false);
 
     public AbstractPointReductionManagment() {
         super();
@@ -69,6 +70,16 @@ public abstract class AbstractPointReductionManagment<R extends AbstractPointRed
         return assumeSortedData.get();
     }
 
+    /**
+     * Indicates whether data sets providing a min/max pyramid (see {@link de.gsi.dataset.DataSetLevelOfDetail}) are
+     * rendered using only their ~2 representative data points per pixel column.
+     *
+     * @return true if level-of-detail rendering is enabled
+     */
+    public boolean isLevelOfDetail() {
+        return levelOfDetail.get();
+    }
+
     /**
      * whether renderer should aim at parallelising sub-functionalities
      *
@@ -89,6 +100,17 @@ public abstract class AbstractPointReductionManagment<R extends AbstractPointRed
         return pointReduction.get();
     }
 
+    /**
+     * Sets whether data sets providing a min/max pyramid (see {@link de.gsi.dataset.DataSetLevelOfDetail}) are
+     * rendered using only their ~2 representative data points per pixel column, i.e. in O(pixels · log n) rather than
+     * O(n). Requires sorted data (see {@link #assumeSortedDataProperty()}).
+     *
+     * @return true if level-of-detail rendering is enabled (default: false)
+     */
+    public BooleanProperty levelOfDetailProperty() {
+        return levelOfDetail;
+    }
+
     public IntegerProperty minRequiredReductionSizeProperty() {
         return minRequiredReductionSize;
     }
@@ -124,6 +146,18 @@ public abstract class AbstractPointReductionManagment<R extends AbstractPointRed
         return getThis();
     }
 
+    /**
+     * Sets whether data sets providing a min/max pyramid (see {@link de.gsi.dataset.DataSetLevelOfDetail}) are
+     * rendered using only their ~2 representative data points per pixel column.
+     *
+     * @param state true if level-of-detail rendering is enabled
+     * @return itself (fluent design)
+     */
+    public R setLevelOfDetail(final boolean state) {
+        levelOfDetail.set(state);
+        return getThis();
+    }
+
     /**
      * @param size the minimum number of samples before performing data reduction
      * @return itself (fluent design)
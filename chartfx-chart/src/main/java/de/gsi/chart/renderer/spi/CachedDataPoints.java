@@ -4,9 +4,10 @@ import static de.gsi.dataset.DataSet.DIM_X;
 import static de.gsi.dataset.DataSet.DIM_Y;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 
 import de.gsi.chart.XYChartCss;
@@ -67,8 +68,20 @@ class CachedDataPoints {
     protected double maxRadius;
     protected int maxDataCount;
     protected int actualDataCount; // number of data points that remain after data reduction
+    private final boolean pooled; // buffers are owned and retained by this instance (renderer arena)
+    private long allocationCount; // number of buffer (re-)allocations of a pooled instance
+    private long allocatedBytes; // cumulative size of buffer (re-)allocations of a pooled instance
+
+    /**
+     * pooled instance (e.g. renderer/data set specific arena) whose buffers are grown on demand by
+     * {@link #resize(int, int, int, boolean)} and retained across frames without any cache look-ups
+     */
+    CachedDataPoints() {
+        pooled = true;
+    }
 
     public CachedDataPoints(final int indexMin, final int indexMax, final int dataLength, final boolean full) {
+        pooled = false;
         maxDataCount = dataLength;
         xValues = DoubleArrayCache.getInstance().getArrayExact(maxDataCount);
         yValues = DoubleArrayCache.getInstance().getArrayExact(maxDataCount);
@@ -85,6 +98,63 @@ class CachedDataPoints {
         ArrayUtils.fillArray(styles, null);
     }
 
+    /**
+     * @return cumulative size in bytes of the buffer (re-)allocations of a pooled instance
+     */
+    long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * @return number of buffer (re-)allocations of a pooled instance
+     */
+    long getAllocationCount() {
+        return allocationCount;
+    }
+
+    /**
+     * (re-)initialises a pooled instance for a new frame. The buffers are only re-allocated if their capacity is
+     * insufficient (monotonic growth, never shrinking), i.e. no allocation occurs in steady-state.
+     *
+     * @param indexMin first index (inclusive)
+     * @param indexMax last index (exclusive)
+     * @param dataLength required buffer length
+     * @param full whether x-error buffers are required
+     * @return itself (fluent design)
+     */
+    CachedDataPoints resize(final int indexMin, final int indexMax, final int dataLength, final boolean full) {
+        if (!pooled) {
+            throw new IllegalStateException("resize only supported for pooled instances");
+        }
+        maxDataCount = dataLength;
+        this.indexMin = indexMin;
+        this.indexMax = indexMax;
+        minDistanceX = Integer.MAX_VALUE;
+        actualDataCount = 0;
+        // N.B. all buffers share the same capacity (required e.g. by the RendererDataReducer implementations)
+        final int capacity = xValues == null ? 0 : xValues.length;
+        if (capacity < dataLength || (full && errorXNeg == null)) {
+            // geometric growth: continuously appended data sets are re-allocated only O(log n) times
+            final int newCapacity = Math.max(dataLength, capacity + (capacity >> 1));
+            xValues = new double[newCapacity];
+            yValues = new double[newCapacity];
+            errorYNeg = new double[newCapacity];
+            errorYPos = new double[newCapacity];
+            errorXNeg = full || errorXNeg != null ? new double[newCapacity] : null;
+            errorXPos = full || errorXPos != null ? new double[newCapacity] : null;
+            selected = new boolean[newCapacity];
+            styles = new String[newCapacity];
+            allocationCount++;
+            // N.B. String[] size assumes compressed object references
+            allocatedBytes += (long) newCapacity * ((errorXNeg == null ? 4 : 6) * Double.BYTES + 1 + Integer.BYTES);
+        } else {
+            // N.B. reset state of the previous frame (fresh arrays are already cleared)
+            Arrays.fill(styles, 0, dataLength, null);
+            Arrays.fill(selected, 0, dataLength, false);
+        }
+        return this;
+    }
+
     protected void computeBoundaryVariables(final Axis xAxis, final Axis yAxis) {
         xAxisInverted = xAxis.isInvertedAxis();
         yAxisInverted = yAxis.isInvertedAxis();
@@ -236,29 +306,21 @@ class CachedDataPoints {
         final int divThread = (int) Math
                                       .ceil(Math.abs(max - min) / (double) CachedDaemonThreadFactory.getNumbersOfThreads());
         final int stepSize = Math.max(divThread, minthreshold);
-        final List<Callable<Boolean>> workers = new ArrayList<>();
-        for (int i = min; i < max; i += stepSize) {
+        // N.B. the first chunk is computed on the calling thread, the remaining ones via the common pool
+        // (following the global ExecutorStrategy, e.g. work-stealing or virtual threads)
+        final ExecutorService executorService = CachedDaemonThreadFactory.getCommonPool();
+        final List<Future<?>> jobs = new ArrayList<>();
+        for (int i = min + stepSize; i < max; i += stepSize) {
             final int start = i;
-            workers.add(() -> {
-                if (polarPlot) {
-                    computeScreenCoordinatesPolar(yAxis, dataSet, start, Math.min(max, start + stepSize));
-                } else {
-                    computeScreenCoordinatesEuclidean(xAxis, yAxis, dataSet, start, Math.min(max, start + stepSize));
-                }
-                return Boolean.TRUE;
-            });
+            jobs.add(executorService.submit(() -> computeScreenCoordinatesNonThreaded(xAxis, yAxis, dataSet, start, Math.min(max, start + stepSize))));
         }
-
+        boolean callerChunkCompleted = false;
         try {
-            final List<Future<Boolean>> jobs = CachedDaemonThreadFactory.getCommonPool().invokeAll(workers);
-            for (final Future<Boolean> future : jobs) {
-                final Boolean r = future.get();
-                if (!r) {
-                    throw new IllegalStateException("one parallel worker thread finished execution with error");
-                }
-            }
-        } catch (final InterruptedException | ExecutionException e) {
-            throw new IllegalStateException("one parallel worker thread finished execution with error", e);
+            computeScreenCoordinatesNonThreaded(xAxis, yAxis, dataSet, min, Math.min(max, min + stepSize));
+            callerChunkCompleted = true;
+        } finally {
+            // N.B. also if the calling thread's chunk failed: no worker may write into the buffers after returning
+            joinJobs(jobs, callerChunkCompleted);
         }
     }
 
@@ -289,18 +351,20 @@ class CachedDataPoints {
                 final DataSetError ds = (DataSetError) dataSet;
                 for (int index = min; index < max; index++) {
                     final double value = dataSet.get(dimIndex, index);
+                    values[index] = value;
+                    valuesEN[index] = value - ds.getErrorNegative(dimIndex, index);
+                    valuesEP[index] = value + ds.getErrorPositive(dimIndex, index);
+                }
+                yAxis.getDisplayPositions(values, values, min, max);
+                yAxis.getDisplayPositions(valuesEN, valuesEN, min, max);
+                yAxis.getDisplayPositions(valuesEP, valuesEP, min, max);
 
-                    values[index] = yAxis.getDisplayPosition(value);
-
-                    if (!Double.isNaN(values[index])) {
-                        // if (Double.isFinite(values[index])) {
-                        valuesEN[index] = yAxis.getDisplayPosition(value - ds.getErrorNegative(dimIndex, index));
-                        valuesEP[index] = yAxis.getDisplayPosition(value + ds.getErrorPositive(dimIndex, index));
-                        continue;
+                for (int index = min; index < max; index++) {
+                    if (Double.isNaN(values[index])) {
+                        values[index] = minValue;
+                        valuesEN[index] = minValue;
+                        valuesEP[index] = minValue;
                     }
-                    values[index] = minValue;
-                    valuesEN[index] = minValue;
-                    valuesEP[index] = minValue;
                 }
             });
             return;
@@ -314,7 +378,11 @@ class CachedDataPoints {
             final double minValue = dimIndex == DIM_X ? xMin : yMin;
 
             for (int index = min; index < max; index++) {
-                values[index] = yAxis.getDisplayPosition(dataSet.get(dimIndex, index));
+                values[index] = dataSet.get(dimIndex, index);
+            }
+            yAxis.getDisplayPositions(values, values, min, max);
+
+            for (int index = min; index < max; index++) {
                 if (Double.isFinite(values[index])) {
                     valuesEN[index] = values[index];
                     valuesEP[index] = values[index];
@@ -339,16 +407,20 @@ class CachedDataPoints {
                     final double value = dataSet.get(dimIndex, index);
 
                     if (!Double.isFinite(value)) {
+                        // N.B. NaN is propagated by the axis transform
                         values[index] = Double.NaN;
                         valuesEN[index] = Double.NaN;
                         valuesEP[index] = Double.NaN;
                         continue;
                     }
 
-                    values[index] = yAxis.getDisplayPosition(value);
-                    valuesEN[index] = yAxis.getDisplayPosition(value - ds.getErrorNegative(dimIndex, index));
-                    valuesEP[index] = yAxis.getDisplayPosition(value + ds.getErrorPositive(dimIndex, index));
+                    values[index] = value;
+                    valuesEN[index] = value - ds.getErrorNegative(dimIndex, index);
+                    valuesEP[index] = value + ds.getErrorPositive(dimIndex, index);
                 }
+                yAxis.getDisplayPositions(values, values, min, max);
+                yAxis.getDisplayPositions(valuesEN, valuesEN, min, max);
+                yAxis.getDisplayPositions(valuesEP, valuesEP, min, max);
             });
             return;
         }
@@ -360,8 +432,11 @@ class CachedDataPoints {
             final double[] valuesEP = dimIndex == DIM_X ? errorXPos : errorYPos;
 
             for (int index = min; index < max; index++) {
-                values[index] = yAxis.getDisplayPosition(dataSet.get(dimIndex, index));
+                values[index] = dataSet.get(dimIndex, index);
+            }
+            yAxis.getDisplayPositions(values, values, min, max);
 
+            for (int index = min; index < max; index++) {
                 if (Double.isFinite(values[index])) {
                     valuesEN[index] = values[index];
                     valuesEP[index] = values[index];
@@ -381,10 +456,11 @@ class CachedDataPoints {
             final double[] values = dimIndex == DIM_X ? xValues : yValues;
             final double minValue = dimIndex == DIM_X ? xMin : yMin;
             for (int index = min; index < max; index++) {
-                final double value = dataSet.get(dimIndex, index);
-
-                values[index] = axis.getDisplayPosition(value);
+                values[index] = dataSet.get(dimIndex, index);
+            }
+            axis.getDisplayPositions(values, values, min, max);
 
+            for (int index = min; index < max; index++) {
                 // if (!Double.isFinite(values[index])) {
                 if (Double.isNaN(values[index])) {
                     yValues[index] = minValue;
@@ -404,11 +480,12 @@ class CachedDataPoints {
         dataSet.lock().readLockGuardOptimistic(() -> {
             final double[] values = dimIndex == DIM_X ? xValues : yValues;
             for (int index = min; index < max; index++) {
-                final double value = dataSet.get(dimIndex, index);
+                values[index] = dataSet.get(dimIndex, index);
+            }
+            axis.getDisplayPositions(values, values, min, max);
 
-                if (Double.isFinite(value)) {
-                    values[index] = axis.getDisplayPosition(value);
-                } else {
+            for (int index = min; index < max; index++) {
+                if (!Double.isFinite(values[index])) {
                     values[index] = Double.NaN;
                 }
             }
@@ -522,7 +599,36 @@ class CachedDataPoints {
         minDataPointDistanceX();
     }
 
+    /**
+     * waits for all jobs to finish. Jobs that have not been awaited when the calling thread is interrupted are
+     * cancelled.
+     *
+     * @param jobs the submitted jobs
+     * @param throwOnError {@code true}: throw if a job failed, {@code false}: another exception is already propagating
+     */
+    private static void joinJobs(final List<Future<?>> jobs, final boolean throwOnError) {
+        Exception error = null;
+        for (final Future<?> future : jobs) {
+            try {
+                future.get();
+            } catch (final InterruptedException e) {
+                future.cancel(true);
+                Thread.currentThread().interrupt(); // N.B. subsequent get() calls fail fast and cancel their job
+                error = error == null ? e : error;
+            } catch (final ExecutionException e) {
+                error = error == null ? e : error;
+            }
+        }
+        if (error != null && throwOnError) {
+            throw new IllegalStateException("one parallel worker thread finished execution with error", error);
+        }
+    }
+
     public void release() {
+        if (pooled) {
+            // buffers are retained for the next frame
+            return;
+        }
         DoubleArrayCache.getInstance().add(xValues);
         DoubleArrayCache.getInstance().add(yValues);
         DoubleArrayCache.getInstance().add(errorYNeg);
@@ -548,7 +654,9 @@ class CachedDataPoints {
     }
 
     protected void setErrorType(final DataSet dataSet, final ErrorStyle errorStyle) {
-        errorType = new ErrorType[dataSet.getDimension()];
+        if (errorType == null || errorType.length != dataSet.getDimension()) {
+            errorType = new ErrorType[dataSet.getDimension()];
+        }
         if (dataSet instanceof DataSetError) {
             final DataSetError ds = (DataSetError) dataSet;
             for (int dimIndex = 0; dimIndex < ds.getDimension(); dimIndex++) {
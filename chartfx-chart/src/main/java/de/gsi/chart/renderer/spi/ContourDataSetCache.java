@@ -24,6 +24,7 @@ import de.gsi.chart.renderer.ContourType;
 import de.gsi.chart.renderer.datareduction.DefaultDataReducer3D;
 import de.gsi.chart.renderer.datareduction.ReductionType;
 import de.gsi.chart.renderer.spi.utils.ColorGradient;
+import de.gsi.chart.renderer.spi.utils.ColorLookupTable;
 import de.gsi.chart.utils.WritableImageCache;
 import de.gsi.dataset.DataSet;
 import de.gsi.dataset.spi.DataRange;
@@ -163,9 +164,15 @@ class ContourDataSetCache extends WritableImageCache {
         if (axisTransform == null) {
             throw new IllegalArgumentException("zAxis of renderer needs to have an axis transform for its z-Axis");
         }
-        final int nQuant = renderer.getNumberQuantisationLevels();
-        quantizeData(reduced, xSize, ySize, zInverted, zMin, zMax, axisTransform, nQuant);
-        ProcessingProfiler.getTimeDiff(start, "quantized data");
+        // N.B. the heatmap and hexagon maps quantise and colour-map the raw values in one pass via the ColorLookupTable
+        final ContourType contourType = renderer.getContourType();
+        final boolean colourMappedViaLookupTable = contourType == ContourType.HEATMAP_HEXAGON
+                                                   || (!renderer.isAltImplementation() && (contourType == ContourType.HEATMAP || contourType == ContourType.CONTOUR_HEXAGON));
+        if (!colourMappedViaLookupTable) {
+            final int nQuant = renderer.getNumberQuantisationLevels();
+            quantizeData(reduced, xSize, ySize, zInverted, zMin, zMax, axisTransform, nQuant);
+            ProcessingProfiler.getTimeDiff(start, "quantized data");
+        }
     }
 
     /**
@@ -392,6 +399,26 @@ class ContourDataSetCache extends WritableImageCache {
         return image;
     }
 
+    protected WritableImage convertDataArrayToImage(final double[] inputData, final int dataWidth, final int dataHeight,
+            final ColorLookupTable lookupTable) {
+        final byte[] byteBuffer = ByteArrayCache.getInstance().getArrayExact(dataWidth * dataHeight * BGRA_BYTE_SIZE);
+        final WritableImage image = this.getImage(dataWidth, dataHeight);
+        final PixelWriter pixelWriter = image.getPixelWriter();
+        if (pixelWriter == null) {
+            if (LOGGER.isErrorEnabled()) {
+                LOGGER.atError().log("Could not get PixelWriter for image");
+            }
+            return image;
+        }
+
+        lookupTable.toBgra(inputData, dataWidth, dataHeight, byteBuffer);
+
+        pixelWriter.setPixels(0, 0, dataWidth, dataHeight, PixelFormat.getByteBgraPreInstance(), byteBuffer, 0,
+                BGRA_BYTE_SIZE * dataWidth);
+        ByteArrayCache.getInstance().add(byteBuffer);
+        return image;
+    }
+
     protected static int roundDownEven(double d) {
         return (int) Math.floor(d / 2) * 2;
     }
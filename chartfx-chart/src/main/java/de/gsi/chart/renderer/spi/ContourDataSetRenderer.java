@@ -7,8 +7,9 @@ import static de.gsi.dataset.DataSet.DIM_Y;
 
 import java.security.InvalidParameterException;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.concurrent.ExecutionException;
+import java.util.Map;
 
 import javafx.collections.ObservableList;
 import javafx.geometry.Orientation;
@@ -35,13 +36,14 @@ import de.gsi.chart.axes.Axis;
 import de.gsi.chart.axes.AxisTransform;
 import de.gsi.chart.axes.spi.DefaultNumericAxis;
 import de.gsi.chart.plugins.Zoomer;
+import de.gsi.chart.renderer.ContourType;
 import de.gsi.chart.renderer.Renderer;
 import de.gsi.chart.renderer.spi.hexagon.Hexagon;
 import de.gsi.chart.renderer.spi.hexagon.HexagonMap;
 import de.gsi.chart.renderer.spi.hexagon.HexagonMap.Direction;
-import de.gsi.chart.renderer.spi.marchingsquares.GeneralPath;
-import de.gsi.chart.renderer.spi.marchingsquares.MarchingSquares;
+import de.gsi.chart.renderer.spi.marchingsquares.Isoline;
 import de.gsi.chart.renderer.spi.utils.ColorGradient;
+import de.gsi.chart.renderer.spi.utils.ColorLookupTable;
 import de.gsi.chart.ui.geometry.Side;
 import de.gsi.chart.utils.WritableImageCache;
 import de.gsi.dataset.DataSet;
@@ -68,6 +70,10 @@ import de.gsi.dataset.utils.ProcessingProfiler;
  * DOWN_SAMPLE) via {@link #setReductionType}, and the {@link #setReductionFactorX(int)} and
  * {@link #setReductionFactorY(int)} functions.
  * 
+ * For scrolling (waterfall- or spectrogram-type) data, the HEATMAP image may be updated incrementally via
+ * {@link #setScrollingHeatMap(boolean)}, ie. only newly appended rows or columns are colour-mapped. The CONTOUR isolines
+ * are computed by a tiled marching-squares algorithm and are cached as long as the visible data grid does not change.
+ * 
  * N.B. Regarding implementation of user-level DataSet interfaces: While the DataSet3D::getZ(int) and
  * DataSet::get(DIM_Z, int) routines should match, the DataSet3D is considered a convenience interface primarily to be
  * used for external user-level code.
@@ -82,6 +88,9 @@ public class ContourDataSetRenderer extends AbstractContourDataSetRendererParame
         implements Renderer {
     private static final Logger LOGGER = LoggerFactory.getLogger(ContourDataSetRenderer.class);
     private ContourDataSetCache localCache;
+    private final Map<DataSet, ScrollingHeatMapCache> scrollingCaches = new IdentityHashMap<>();
+    private final Map<DataSet, ContourIsolineCache> isolineCaches = new IdentityHashMap<>();
+    private ColorLookupTable lookupTable; // colour look-up table of the last heatmap/hexagon map frame
     private Axis zAxis;
     protected final Rectangle gradientRect = new Rectangle();
 
@@ -89,60 +98,62 @@ public class ContourDataSetRenderer extends AbstractContourDataSetRendererParame
         return Math.max(Math.min(value, range), 0);
     }
 
+    /**
+     * quantises and colour-maps the raw z values in one pass via the colour look-up table of the last frame (re-computed
+     * only if the gradient, z range or number of quantisation levels changed)
+     *
+     * @param lCache data set cache holding the non-quantised z values
+     * @return image with one pixel per (reduced) data point
+     */
+    private WritableImage convertDataArrayToImage(final ContourDataSetCache lCache) {
+        final ColorGradient gradient = getColorGradient();
+        final AxisTransform zTransform = lCache.zAxis.getAxisTransform();
+        final int nLevels = getNumberQuantisationLevels();
+        if (lookupTable == null || lookupTable.getColorGradient() != gradient || !lookupTable.matches(zTransform, lCache.zMin, lCache.zMax, lCache.zInverted, nLevels)) {
+            lookupTable = gradient.getLookupTable(zTransform, lCache.zMin, lCache.zMax, lCache.zInverted, nLevels);
+        }
+        return localCache.convertDataArrayToImage(lCache.reduced, lCache.xSize, lCache.ySize, lookupTable);
+    }
+
     private void drawContour(final GraphicsContext gc, final ContourDataSetCache lCache) {
         final double[] levels = new double[getNumberQuantisationLevels()];
         for (int i = 0; i < levels.length; i++) {
             levels[i] = (i + 1) / (double) levels.length;
         }
 
-        final int xSize = lCache.xSize;
-        final int ySize = lCache.ySize;
-        final double[][] data = new double[ySize][xSize];
-        for (int yIndex = 0; yIndex < ySize; yIndex++) {
-            for (int xIndex = 0; xIndex < xSize; xIndex++) {
-                final double offset = lCache.reduced[yIndex * xSize + xIndex];
-                data[ySize - 1 - yIndex][xIndex] = offset;
-            }
-        }
-
         // abort if min/max == 0 -> cannot compute contours
         final double zRange = Math.abs(lCache.zMax - lCache.zMin);
         if (zRange <= 0) {
             return;
         }
 
+        final int xSize = lCache.xSize;
+        final int ySize = lCache.ySize;
+        final ContourIsolineCache isolineCache = isolineCaches.computeIfAbsent(lCache.dataSet, ds -> new ContourIsolineCache());
+        final Isoline[] isolines = isolineCache.getIsolines(lCache.reduced, xSize, ySize, levels, isParallelImplementation());
+
+        // N.B. isolines are in grid-index units with the first data row being drawn at the bottom
         final ColorGradient colorGradient = getColorGradient();
-        final MarchingSquares marchingSquares = new MarchingSquares();
         final double scaleX = lCache.xDataPixelRange / xSize;
         final double scaleY = lCache.yDataPixelRange / ySize;
         gc.save();
-        gc.translate(lCache.xDataPixelMin, lCache.yDataPixelMin);
-        gc.scale(scaleX, scaleY);
-        final GeneralPath[] isolines;
-        try {
-            isolines = marchingSquares.buildContours(data, levels);
-            int levelCount = 0;
-            for (final GeneralPath path : isolines) {
-                if (path.size() > getMaxContourSegments()) {
-                    levelCount++;
-                    continue;
-                }
-                final Color color = lCache.zInverted ? colorGradient.getColor(1 - levels[levelCount++])
-                                                     : colorGradient.getColor(levels[levelCount++]);
-                gc.setStroke(color);
-                gc.setLineDashes(1.0);
-                gc.setMiterLimit(10);
-                gc.setFill(color);
-                gc.setLineWidth(0.5);
-                path.draw(gc);
-            }
-        } catch (InterruptedException | ExecutionException e) {
-            if (LOGGER.isErrorEnabled()) {
-                LOGGER.atError().setCause(e).log("marchingSquares algorithm");
+        gc.translate(lCache.xDataPixelMin + 0.5 * scaleX, lCache.yDataPixelMin + (ySize - 0.5) * scaleY);
+        gc.scale(scaleX, -scaleY);
+        gc.setLineDashes(1.0);
+        gc.setMiterLimit(10);
+        gc.setLineWidth(0.5);
+        for (int levelCount = 0; levelCount < isolines.length; levelCount++) {
+            final Isoline isoline = isolines[levelCount];
+            if (isoline.getPointCount() == 0 || isoline.getPointCount() > getMaxContourSegments()) {
+                continue;
             }
-        } finally {
-            gc.restore();
+            final Color color = lCache.zInverted ? colorGradient.getColor(1 - levels[levelCount])
+                                                 : colorGradient.getColor(levels[levelCount]);
+            gc.setStroke(color);
+            gc.setFill(color);
+            isoline.draw(gc);
         }
+        gc.restore();
     }
 
     private void drawContourFast(final GraphicsContext gc, final AxisTransform axisTransform,
@@ -217,8 +228,19 @@ public class ContourDataSetRenderer extends AbstractContourDataSetRendererParame
         // N.B. works only since OpenJFX 12!! fall-back for JDK8 is the old implementation
         gc.setImageSmoothing(isSmooth());
 
+        if (isScrollingHeatMapActive()) {
+            // scrolling heatmap: re-uses the image and colour-maps only the newly appended data
+            final ScrollingHeatMapCache scrollingCache = scrollingCaches.computeIfAbsent(lCache.dataSet, ds -> new ScrollingHeatMapCache());
+            final WritableImage image = scrollingCache.update(lCache, getColorGradient(), getNumberQuantisationLevels());
+            ProcessingProfiler.getTimeDiff(start, "scrolling color map");
+
+            gc.drawImage(image, lCache.xDataPixelMin, lCache.yDataPixelMin, lCache.xDataPixelRange, lCache.yDataPixelRange);
+            ProcessingProfiler.getTimeDiff(start, "drawHeatMap");
+            return;
+        }
+
         // process z quantisation to colour transform
-        final WritableImage image = localCache.convertDataArrayToImage(lCache.reduced, lCache.xSize, lCache.ySize, getColorGradient());
+        final WritableImage image = convertDataArrayToImage(lCache);
         ProcessingProfiler.getTimeDiff(start, "color map");
 
         gc.drawImage(image, lCache.xDataPixelMin, lCache.yDataPixelMin, lCache.xDataPixelRange, lCache.yDataPixelRange);
@@ -286,7 +308,7 @@ public class ContourDataSetRenderer extends AbstractContourDataSetRendererParame
         final long start = ProcessingProfiler.getTimeStamp();
 
         // process z quantisation to colour transform
-        final WritableImage image = localCache.convertDataArrayToImage(lCache.reduced, lCache.xSize, lCache.ySize, getColorGradient());
+        final WritableImage image = convertDataArrayToImage(lCache);
 
         final int tileSize = Math.max(getMinHexTileSizeProperty(), (int) lCache.xAxisWidth / lCache.xSize);
         final int nWidthInTiles = (int) (lCache.xAxisWidth / (tileSize * Math.sqrt(3))) + 1;
@@ -322,7 +344,7 @@ public class ContourDataSetRenderer extends AbstractContourDataSetRendererParame
         final long start = ProcessingProfiler.getTimeStamp();
 
         // process z quantisation to colour transform
-        final WritableImage image = localCache.convertDataArrayToImage(lCache.reduced, lCache.xSize, lCache.ySize, getColorGradient());
+        final WritableImage image = convertDataArrayToImage(lCache);
 
         final int tileSize = Math.max(getMinHexTileSizeProperty(), (int) lCache.xAxisWidth / lCache.xSize);
         final int nWidthInTiles = (int) (lCache.xAxisWidth / (tileSize * Math.sqrt(3)));
@@ -472,6 +494,14 @@ public class ContourDataSetRenderer extends AbstractContourDataSetRendererParame
         return null;
     }
 
+    /**
+     * @return {@code true} if the scrolling heatmap is enabled and applicable to the selected contour type
+     * @see #scrollingHeatMapProperty()
+     */
+    protected boolean isScrollingHeatMapActive() {
+        return isScrollingHeatMap() && getContourType() == ContourType.HEATMAP && !isAltImplementation();
+    }
+
     /**
      * @return the instance of this ContourDataSetRenderer.
      */
@@ -603,6 +633,24 @@ public class ContourDataSetRenderer extends AbstractContourDataSetRendererParame
             return;
         }
 
+        // release the scrolling heatmap and isoline state of data sets that are no longer drawn as such
+        final boolean scrollingHeatMap = isScrollingHeatMapActive();
+        scrollingCaches.entrySet().removeIf(entry -> {
+            final boolean stale = !scrollingHeatMap || localDataSetList.stream().noneMatch(ds -> ds == entry.getKey());
+            if (stale) {
+                entry.getValue().clear();
+            }
+            return stale;
+        });
+        final boolean contour = getContourType() == ContourType.CONTOUR;
+        isolineCaches.entrySet().removeIf(entry -> {
+            final boolean stale = !contour || localDataSetList.stream().noneMatch(ds -> ds == entry.getKey());
+            if (stale) {
+                entry.getValue().clear();
+            }
+            return stale;
+        });
+
         final XYChart xyChart = (XYChart) chart;
         long mid = ProcessingProfiler.getTimeDiff(start, "init");
         // N.B. importance of reverse order: start with last index, so that
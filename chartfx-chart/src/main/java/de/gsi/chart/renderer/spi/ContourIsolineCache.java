@@ -0,0 +1,65 @@
+package de.gsi.chart.renderer.spi;
+
+import java.util.Arrays;
+
+import de.gsi.chart.renderer.spi.marchingsquares.Isoline;
+import de.gsi.chart.renderer.spi.marchingsquares.TiledMarchingSquares;
+
+/**
+ * Keeps the isolines of the last contour computation of a given DataSet.
+ * <p>
+ * The isolines are stored in grid-index coordinates and are re-used as long as the (reduced and quantised) grid data
+ * and iso-levels are unchanged, e.g. for redraws caused by other DataSets, layout or axis range changes that do not
+ * affect the visible data grid. In this case only the screen transform needs to be re-applied. Since generic DataSets
+ * do not provide a revision counter, the data content itself serves as cache key.
+ */
+class ContourIsolineCache {
+    private final TiledMarchingSquares marchingSquares = new TiledMarchingSquares();
+    private double[] values = new double[0];
+    private double[] levels = new double[0];
+    private int width;
+    private int height;
+    private Isoline[] isolines;
+
+    /**
+     * releases the buffers and invalidates the cached isolines
+     */
+    public void clear() {
+        values = new double[0];
+        levels = new double[0];
+        width = 0;
+        height = 0;
+        isolines = null;
+    }
+
+    /**
+     * @param data row-major grid data
+     * @param dataWidth number of columns
+     * @param dataHeight number of rows
+     * @param isoLevels iso-levels
+     * @param parallel whether tiles and levels may be processed in parallel
+     * @return the cached or (if the grid or levels changed) newly computed isolines
+     */
+    public Isoline[] getIsolines(final double[] data, final int dataWidth, final int dataHeight, final double[] isoLevels,
+            final boolean parallel) {
+        final int length = dataWidth * dataHeight;
+        if (isolines != null && isValid(data, dataWidth, dataHeight, isoLevels)) {
+            return isolines;
+        }
+
+        isolines = marchingSquares.buildContours(data, dataWidth, dataHeight, isoLevels, parallel);
+        if (values.length != length) {
+            values = new double[length];
+        }
+        System.arraycopy(data, 0, values, 0, length);
+        levels = Arrays.copyOf(isoLevels, isoLevels.length);
+        width = dataWidth;
+        height = dataHeight;
+        return isolines;
+    }
+
+    private boolean isValid(final double[] data, final int dataWidth, final int dataHeight, final double[] isoLevels) {
+        return dataWidth == width && dataHeight == height && Arrays.equals(isoLevels, levels)
+                && Arrays.equals(data, 0, width * height, values, 0, width * height);
+    }
+}
@@ -31,8 +31,11 @@ import de.gsi.chart.renderer.spi.utils.DefaultRenderColorScheme;
 import de.gsi.chart.utils.StyleParser;
 import de.gsi.dataset.DataSet;
 import de.gsi.dataset.DataSetError.ErrorType;
+import de.gsi.dataset.DataSetLevelOfDetail;
+import de.gsi.dataset.spi.DoubleBufferedDataSet;
 import de.gsi.dataset.spi.utils.Triple;
 import de.gsi.dataset.utils.DoubleArrayCache;
+import de.gsi.dataset.utils.MinMaxPyramid;
 import de.gsi.dataset.utils.ProcessingProfiler;
 
 /**
@@ -51,6 +54,11 @@ import de.gsi.dataset.utils.ProcessingProfiler;
 public class ErrorDataSetRenderer extends AbstractErrorDataSetRendererParameter<ErrorDataSetRenderer>
         implements Renderer {
     private static final Logger LOGGER = LoggerFactory.getLogger(ErrorDataSetRenderer.class);
+    private static final int LEVEL_OF_DETAIL_MIN_POINTS_PER_PIXEL = 4;
+    private final LevelOfDetailDataSet levelOfDetailDataSet = new LevelOfDetailDataSet();
+    private final List<CachedDataPoints> cachedDataPointsArena = new ArrayList<>(); // re-used per data set index
+    private long cachedDataPointsAllocationCount;
+    private long cachedDataPointsAllocatedBytes;
     private Marker marker = DefaultMarker.RECTANGLE; // default: rectangle
     private long stopStamp;
 
@@ -144,6 +152,7 @@ public class ErrorDataSetRenderer extends AbstractErrorDataSetRendererParameter<
 
         // If there are no data sets
         if (localDataSetList.isEmpty()) {
+            cachedDataPointsArena.clear();
             return;
         }
 
@@ -169,84 +178,107 @@ public class ErrorDataSetRenderer extends AbstractErrorDataSetRendererParameter<
         for (int dataSetIndex = localDataSetList.size() - 1; dataSetIndex >= 0; dataSetIndex--) {
             final int ldataSetIndex = dataSetIndex;
             stopStamp = ProcessingProfiler.getTimeStamp();
-            final DataSet dataSet = localDataSetList.get(dataSetIndex);
-
-            // N.B. print out for debugging purposes, please keep (used for
-            // detecting redundant or too frequent render updates)
-            // System.err.println(String.format("render for range [%f,%f] and dataset = '%s'", xMin, xMax, dataSet.getName()));
-
-            // update categories in case of category axes for the first (index == '0') indexed data set
-            if (dataSetIndex == 0) {
-                if (getFirstAxis(Orientation.HORIZONTAL) instanceof CategoryAxis) {
-                    final CategoryAxis axis = (CategoryAxis) getFirstAxis(Orientation.HORIZONTAL);
-                    dataSet.lock().readLockGuard(() -> axis.updateCategories(dataSet));
-                }
-
-                if (getFirstAxis(Orientation.VERTICAL) instanceof CategoryAxis) {
-                    final CategoryAxis axis = (CategoryAxis) getFirstAxis(Orientation.VERTICAL);
-                    dataSet.lock().readLockGuard(() -> axis.updateCategories(dataSet));
-                }
-            }
+            final DataSet sourceDataSet = localDataSetList.get(dataSetIndex);
+            // pin one snapshot per frame that is shared by all (possibly parallel) readers to avoid torn frames
+            final DoubleBufferedDataSet.SnapshotView snapshotView = sourceDataSet instanceof DoubleBufferedDataSet ? ((DoubleBufferedDataSet) sourceDataSet).pinSnapshot() : null;
+            final DataSet dataSet = snapshotView == null ? sourceDataSet : snapshotView;
+            try {
+                // N.B. print out for debugging purposes, please keep (used for
+                // detecting redundant or too frequent render updates)
+                // System.err.println(String.format("render for range [%f,%f] and dataset = '%s'", xMin, xMax, dataSet.getName()));
+
+                // update categories in case of category axes for the first (index == '0') indexed data set
+                if (dataSetIndex == 0) {
+                    if (getFirstAxis(Orientation.HORIZONTAL) instanceof CategoryAxis) {
+                        final CategoryAxis axis = (CategoryAxis) getFirstAxis(Orientation.HORIZONTAL);
+                        dataSet.lock().readLockGuard(() -> axis.updateCategories(dataSet));
+                    }
 
-            // check for potentially reduced data range we are supposed to plot
-            final Optional<CachedDataPoints> cachedPoints = dataSet.lock().readLockGuard(() -> {
-                int indexMin;
-                int indexMax; /* indexMax is excluded in the drawing */
-                if (isAssumeSortedData()) {
-                    indexMin = Math.max(0, dataSet.getIndex(DataSet.DIM_X, xMin) - 1);
-                    indexMax = Math.min(dataSet.getIndex(DataSet.DIM_X, xMax) + 2, dataSet.getDataCount(DataSet.DIM_X));
-                } else {
-                    indexMin = 0;
-                    indexMax = dataSet.getDataCount(DataSet.DIM_X);
-                }
-                if (xAxis.isInvertedAxis()) {
-                    final int temp = indexMin;
-                    indexMin = indexMax - 1;
-                    indexMax = temp + 1;
+                    if (getFirstAxis(Orientation.VERTICAL) instanceof CategoryAxis) {
+                        final CategoryAxis axis = (CategoryAxis) getFirstAxis(Orientation.VERTICAL);
+                        dataSet.lock().readLockGuard(() -> axis.updateCategories(dataSet));
+                    }
                 }
 
-                if (indexMax - indexMin <= 0) {
-                    // zero length/range data set -> nothing to be drawn
-                    return Optional.empty();
-                }
+                // check for potentially reduced data range we are supposed to plot
+                final Optional<CachedDataPoints> cachedPoints = dataSet.lock().readLockGuard(() -> {
+                    int indexMin;
+                    int indexMax; /* indexMax is excluded in the drawing */
+                    if (isAssumeSortedData()) {
+                        indexMin = Math.max(0, dataSet.getIndex(DataSet.DIM_X, xMin) - 1);
+                        indexMax = Math.min(dataSet.getIndex(DataSet.DIM_X, xMax) + 2, dataSet.getDataCount(DataSet.DIM_X));
+                    } else {
+                        indexMin = 0;
+                        indexMax = dataSet.getDataCount(DataSet.DIM_X);
+                    }
+                    if (xAxis.isInvertedAxis()) {
+                        final int temp = indexMin;
+                        indexMin = indexMax - 1;
+                        indexMax = temp + 1;
+                    }
 
-                if (ProcessingProfiler.getDebugState()) {
-                    stopStamp = ProcessingProfiler.getTimeDiff(stopStamp,
-                            "get min/max" + String.format(" from:%d to:%d", indexMin, indexMax));
-                }
+                    if (indexMax - indexMin <= 0) {
+                        // zero length/range data set -> nothing to be drawn
+                        return Optional.empty();
+                    }
 
-                final CachedDataPoints localCachedPoints = new CachedDataPoints(indexMin, indexMax,
-                        dataSet.getDataCount(DataSet.DIM_X), true);
-                if (ProcessingProfiler.getDebugState()) {
-                    stopStamp = ProcessingProfiler.getTimeDiff(stopStamp, "get CachedPoints");
-                }
+                    if (ProcessingProfiler.getDebugState()) {
+                        stopStamp = ProcessingProfiler.getTimeDiff(stopStamp,
+                                "get min/max" + String.format(" from:%d to:%d", indexMin, indexMax));
+                    }
 
-                // compute local screen coordinates
-                final boolean isPolarPlot = ((XYChart) chart).isPolarPlot();
-                if (isParallelImplementation()) {
-                    localCachedPoints.computeScreenCoordinatesInParallel(xAxis, yAxis, dataSet,
-                            dataSetOffset + ldataSetIndex, indexMin, indexMax, getErrorType(), isPolarPlot,
-                            isallowNaNs());
-                } else {
-                    localCachedPoints.computeScreenCoordinates(xAxis, yAxis, dataSet, dataSetOffset + ldataSetIndex,
-                            indexMin, indexMax, getErrorType(), isPolarPlot, isallowNaNs());
-                }
-                if (ProcessingProfiler.getDebugState()) {
-                    stopStamp = ProcessingProfiler.getTimeDiff(stopStamp, "computeScreenCoordinates()");
-                }
-                return Optional.of(localCachedPoints);
-            });
+                    // optional level-of-detail reduction to the ~2 representative points per pixel column
+                    final boolean isPolarPlot = ((XYChart) chart).isPolarPlot();
+                    try {
+                        final DataSet localDataSet = getLevelOfDetailDataSet(dataSet, xAxis, indexMin, indexMax, isPolarPlot);
+                        if (localDataSet != dataSet) { // NOPMD - identity check intended
+                            indexMin = 0;
+                            indexMax = localDataSet.getDataCount(DataSet.DIM_X);
+                            if (ProcessingProfiler.getDebugState()) {
+                                stopStamp = ProcessingProfiler.getTimeDiff(stopStamp, "level-of-detail reduction to " + indexMax);
+                            }
+                        }
+
+                        final CachedDataPoints localCachedPoints = getCachedDataPoints(ldataSetIndex, indexMin, indexMax,
+                                localDataSet.getDataCount(DataSet.DIM_X));
+                        if (ProcessingProfiler.getDebugState()) {
+                            stopStamp = ProcessingProfiler.getTimeDiff(stopStamp, "get CachedPoints");
+                        }
+
+                        // compute local screen coordinates
+                        if (isParallelImplementation()) {
+                            localCachedPoints.computeScreenCoordinatesInParallel(xAxis, yAxis, localDataSet,
+                                    dataSetOffset + ldataSetIndex, indexMin, indexMax, getErrorType(), isPolarPlot,
+                                    isallowNaNs());
+                        } else {
+                            localCachedPoints.computeScreenCoordinates(xAxis, yAxis, localDataSet, dataSetOffset + ldataSetIndex,
+                                    indexMin, indexMax, getErrorType(), isPolarPlot, isallowNaNs());
+                        }
+                        if (ProcessingProfiler.getDebugState()) {
+                            stopStamp = ProcessingProfiler.getTimeDiff(stopStamp, "computeScreenCoordinates()");
+                        }
+                        return Optional.of(localCachedPoints);
+                    } finally {
+                        // N.B. also on exceptions, the view must not keep a reference to the source data set
+                        levelOfDetailDataSet.release();
+                    }
+                });
 
-            cachedPoints.ifPresent(value -> {
-                // invoke data reduction algorithm
-                value.reduce(rendererDataReducerProperty().get(), isReducePoints(),
-                        getMinRequiredReductionSize());
+                cachedPoints.ifPresent(value -> {
+                    // invoke data reduction algorithm
+                    value.reduce(rendererDataReducerProperty().get(), isReducePoints(),
+                            getMinRequiredReductionSize());
 
-                // draw individual plot components
-                drawChartCompontents(gc, value);
+                    // draw individual plot components
+                    drawChartCompontents(gc, value);
 
-                value.release();
-            });
+                    value.release();
+                });
+            } finally {
+                if (snapshotView != null) {
+                    snapshotView.close();
+                }
+            }
 
             stopStamp = ProcessingProfiler.getTimeStamp();
 
@@ -254,9 +286,74 @@ public class ErrorDataSetRenderer extends AbstractErrorDataSetRendererParameter<
                 ProcessingProfiler.getTimeDiff(stopStamp, "localCachedPoints.release()");
             }
         } // end of 'dataSetIndex' loop
+        // release buffers of data sets that are no longer rendered
+        while (cachedDataPointsArena.size() > localDataSetList.size()) {
+            cachedDataPointsArena.remove(cachedDataPointsArena.size() - 1);
+        }
         ProcessingProfiler.getTimeDiff(start);
     }
 
+    /**
+     * @return cumulative size in bytes of the (re-)allocated screen-coordinate buffers, constant in steady-state
+     *         rendering (i.e. for non-growing data sets)
+     */
+    public long getCachedDataPointsAllocatedBytes() {
+        return cachedDataPointsAllocatedBytes;
+    }
+
+    /**
+     * @return number of (re-)allocations of the screen-coordinate buffers, constant in steady-state rendering (i.e.
+     *         for non-growing data sets)
+     */
+    public long getCachedDataPointsAllocationCount() {
+        return cachedDataPointsAllocationCount;
+    }
+
+    /**
+     * @param dataSetIndex index of the data set within the list of rendered data sets
+     * @param indexMin first index (inclusive)
+     * @param indexMax last index (exclusive)
+     * @param dataLength required buffer length
+     * @return renderer and data set specific screen-coordinate buffers that are grown on demand and re-used across
+     *         frames
+     */
+    private CachedDataPoints getCachedDataPoints(final int dataSetIndex, final int indexMin, final int indexMax,
+            final int dataLength) {
+        while (cachedDataPointsArena.size() <= dataSetIndex) {
+            cachedDataPointsArena.add(new CachedDataPoints());
+        }
+        final CachedDataPoints cachedPoints = cachedDataPointsArena.get(dataSetIndex);
+        final long allocationCount = cachedPoints.getAllocationCount();
+        final long allocatedBytes = cachedPoints.getAllocatedBytes();
+        cachedPoints.resize(indexMin, indexMax, dataLength, true);
+        cachedDataPointsAllocationCount += cachedPoints.getAllocationCount() - allocationCount;
+        cachedDataPointsAllocatedBytes += cachedPoints.getAllocatedBytes() - allocatedBytes;
+        return cachedPoints;
+    }
+
+    /**
+     * @param dataSet the source data set (N.B. read lock needs to be held by caller)
+     * @param xAxis the horizontal axis
+     * @param indexMin first visible index (inclusive)
+     * @param indexMax last visible index (exclusive)
+     * @param isPolarPlot whether the chart is a polar plot
+     * @return view onto the ~2 representative data points per pixel column if level-of-detail rendering is enabled and
+     *         applicable, the source data set otherwise
+     */
+    private DataSet getLevelOfDetailDataSet(final DataSet dataSet, final Axis xAxis, final int indexMin,
+            final int indexMax, final boolean isPolarPlot) {
+        if (!isLevelOfDetail() || !isAssumeSortedData() || isPolarPlot || xAxis.isInvertedAxis()
+                || !(dataSet instanceof DataSetLevelOfDetail)) {
+            return dataSet;
+        }
+        final MinMaxPyramid pyramid = ((DataSetLevelOfDetail) dataSet).getMinMaxPyramid();
+        final int nColumns = Math.max(1, (int) Math.ceil(xAxis.getWidth()));
+        if (pyramid == null || indexMax - indexMin < LEVEL_OF_DETAIL_MIN_POINTS_PER_PIXEL * nColumns) {
+            return dataSet;
+        }
+        return levelOfDetailDataSet.set(dataSet, pyramid, xAxis::getValueForDisplay, nColumns, indexMin, indexMax);
+    }
+
     /**
      * Replaces marker used by this renderer.
      *
@@ -0,0 +1,137 @@
+package de.gsi.chart.renderer.spi;
+
+import java.util.function.IntToDoubleFunction;
+
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.DataSetError;
+import de.gsi.dataset.spi.AbstractErrorDataSet;
+import de.gsi.dataset.utils.MinMaxPyramid;
+
+/**
+ * package private light-weight view onto the ~2 representative (min/max) data points per pixel column of a source
+ * DataSet as selected via its {@link MinMaxPyramid}. Used by ErrorDataSetRenderer for level-of-detail rendering and
+ * re-used across frames to minimise allocation.
+ * <p>
+ * N.B. the view is only valid while holding the source's read lock.
+ */
+class LevelOfDetailDataSet extends AbstractErrorDataSet<LevelOfDetailDataSet> {
+    private static final long serialVersionUID = 1L;
+    private transient DataSet source;
+    private transient DataSetError sourceError;
+    private int[] columnStart = new int[0];
+    private int[] indices = new int[0];
+    private int nIndices;
+
+    LevelOfDetailDataSet() {
+        super(LevelOfDetailDataSet.class.getSimpleName(), 2, ErrorType.NO_ERROR, ErrorType.ASYMMETRIC);
+    }
+
+    @Override
+    public double get(final int dimIndex, final int index) {
+        return source.get(dimIndex, indices[index]);
+    }
+
+    @Override
+    public int getDataCount(final int dimIndex) {
+        return nIndices;
+    }
+
+    @Override
+    public String getDataLabel(final int index) {
+        return source.getDataLabel(indices[index]);
+    }
+
+    @Override
+    public double getErrorNegative(final int dimIndex, final int index) {
+        return sourceError == null ? 0.0 : sourceError.getErrorNegative(dimIndex, indices[index]);
+    }
+
+    @Override
+    public double getErrorPositive(final int dimIndex, final int index) {
+        return sourceError == null ? 0.0 : sourceError.getErrorPositive(dimIndex, indices[index]);
+    }
+
+    @Override
+    public String getName() {
+        return source == null ? super.getName() : source.getName();
+    }
+
+    @Override
+    public String getStyle() {
+        return source == null ? super.getStyle() : source.getStyle();
+    }
+
+    @Override
+    public String getStyle(final int index) {
+        return source.getStyle(indices[index]);
+    }
+
+    @Override
+    public double getValue(final int dimIndex, final double x) {
+        return source.getValue(dimIndex, x);
+    }
+
+    /**
+     * releases the reference to the source data set
+     */
+    void release() {
+        source = null; // NOPMD - release reference
+        sourceError = null; // NOPMD - release reference
+        nIndices = 0;
+    }
+
+    /**
+     * @param dataSet source data set (N.B. read lock needs to be held by caller)
+     * @param pyramid min/max pyramid of the source data set
+     * @param columnToValue function returning the x-coordinate for a given pixel column
+     * @param nColumns number of pixel columns
+     * @param indexMin first visible index (inclusive)
+     * @param indexMax last visible index (exclusive)
+     * @return itself (fluent design)
+     */
+    LevelOfDetailDataSet set(final DataSet dataSet, final MinMaxPyramid pyramid, final IntToDoubleFunction columnToValue,
+            final int nColumns, final int indexMin, final int indexMax) {
+        source = dataSet;
+        sourceError = dataSet instanceof DataSetError ? (DataSetError) dataSet : null;
+        for (int dimIndex = 0; dimIndex < 2; dimIndex++) {
+            // N.B. plain DataSets fall back to ASYMMETRIC (zero) y-errors as in CachedDataPoints
+            final ErrorType errorType = sourceError == null ? (dimIndex == DIM_Y ? ErrorType.ASYMMETRIC : ErrorType.NO_ERROR) : sourceError.getErrorType(dimIndex);
+            if (getErrorType(dimIndex) != errorType) {
+                // only updated if the source (or its error type) changed
+                setErrorType(dimIndex, errorType);
+            }
+        }
+
+        if (columnStart.length < nColumns) {
+            columnStart = new int[nColumns];
+            indices = new int[2 * nColumns + 2];
+        }
+        // pixel column boundaries via binary search on the (sorted) x coordinates
+        columnStart[0] = indexMin;
+        for (int column = 1; column < nColumns; column++) {
+            final int index = ceilIndex(dataSet, columnToValue.applyAsDouble(column), columnStart[column - 1], indexMax);
+            columnStart[column] = Math.max(columnStart[column - 1], Math.min(indexMax, index));
+        }
+        nIndices = pyramid.reduce(columnStart, nColumns, indexMax, indices);
+        return this;
+    }
+
+    /**
+     * @param dataSet source data set with sorted x coordinates
+     * @param value x coordinate of the pixel column boundary
+     * @param indexMin lower index bound (inclusive)
+     * @param indexMax upper index bound (exclusive)
+     * @return first index within [indexMin, indexMax] whose x coordinate is not smaller than {@code value} (N.B.
+     *         {@link DataSet#getIndex(int, double)} returns the nearest rather than the next sample)
+     */
+    static int ceilIndex(final DataSet dataSet, final double value, final int indexMin, final int indexMax) {
+        int index = Math.max(indexMin, Math.min(indexMax, dataSet.getIndex(DIM_X, value)));
+        while (index < indexMax && dataSet.get(DIM_X, index) < value) {
+            index++;
+        }
+        while (index > indexMin && dataSet.get(DIM_X, index - 1) >= value) {
+            index--;
+        }
+        return index;
+    }
+}
@@ -0,0 +1,245 @@
+package de.gsi.chart.renderer.spi;
+
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.gsi.chart.axes.AxisTransform;
+import de.gsi.chart.renderer.spi.utils.ColorGradient;
+import de.gsi.chart.renderer.spi.utils.ColorLookupTable;
+import de.gsi.chart.utils.WritableImageCache;
+
+/**
+ * Keeps the colour-mapped heatmap image and its BGRA byte buffer across frames for scrolling (waterfall-/spectrogram-type)
+ * data.
+ * <p>
+ * The (un-quantised) values of the previous frame are retained: if the new frame equals the previous one shifted by a
+ * number of rows (or columns) the existing pixels are moved and only the newly exposed rows (or columns) are colour
+ * mapped. Since the shift is verified against the actual data content, any other change (e.g. zoom, new data) safely
+ * falls back to a full update. The image is fully invalidated if the geometry or colour-scale (gradient, z-range, z-axis
+ * transform, inversion or number of quantisation levels) changes.
+ */
+class ScrollingHeatMapCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScrollingHeatMapCache.class);
+    private static final int BGRA_BYTE_SIZE = 4;
+    private static final int COMPARE_BUDGET_FACTOR = 2; // max. number of compared values relative to the image size
+
+    private double[] values = new double[0]; // un-quantised values of the last frame (row 0: bottom of the image)
+    private byte[] byteBuffer = new byte[0]; // BGRA pixels of the last frame (row 0: top of the image)
+    private WritableImage image;
+    private int width;
+    private int height;
+    private int shiftRows;
+    private int shiftColumns;
+    private long compareBudget;
+
+    private ColorLookupTable lookupTable; // colour-scale the buffer has been computed with
+
+    /**
+     * releases the image and buffers and invalidates the cached state
+     */
+    public void clear() {
+        if (image != null) {
+            WritableImageCache.getInstance().add(image);
+            image = null;
+        }
+        values = new double[0];
+        byteBuffer = new byte[0];
+        width = 0;
+        height = 0;
+        lookupTable = null;
+    }
+
+    /**
+     * @return the BGRA pixels of the last frame (row-major, first row is the top of the image)
+     */
+    public byte[] getByteBuffer() {
+        return byteBuffer;
+    }
+
+    /**
+     * @return number of rows the last frame has been shifted with respect to its predecessor
+     */
+    public int getShiftRows() {
+        return shiftRows;
+    }
+
+    /**
+     * @return number of columns the last frame has been shifted with respect to its predecessor
+     */
+    public int getShiftColumns() {
+        return shiftColumns;
+    }
+
+    /**
+     * @param lCache the (un-quantised) data of the current frame
+     * @param gradient colour gradient
+     * @param nLevels number of quantisation levels
+     * @return the updated image
+     */
+    public WritableImage update(final ContourDataSetCache lCache, final ColorGradient gradient, final int nLevels) {
+        final int nUpdated = updateBuffer(lCache.reduced, lCache.xSize, lCache.ySize, gradient, lCache.zAxis.getAxisTransform(), //
+                lCache.zMin, lCache.zMax, lCache.zInverted, nLevels);
+
+        final boolean newImage = image == null || (int) image.getWidth() != width || (int) image.getHeight() != height;
+        if (newImage) {
+            if (image != null) {
+                WritableImageCache.getInstance().add(image);
+            }
+            image = WritableImageCache.getInstance().getImage(width, height);
+        } else if (nUpdated == 0) {
+            // identical frame -> nothing to transfer
+            return image;
+        }
+
+        final PixelWriter pixelWriter = image.getPixelWriter();
+        if (pixelWriter == null) {
+            if (LOGGER.isErrorEnabled()) {
+                LOGGER.atError().log("Could not get PixelWriter for image");
+            }
+            return image;
+        }
+        pixelWriter.setPixels(0, 0, width, height, PixelFormat.getByteBgraPreInstance(), byteBuffer, 0, width * BGRA_BYTE_SIZE);
+        return image;
+    }
+
+    /**
+     * updates the BGRA byte buffer to the new frame
+     *
+     * @param data un-quantised data (row-major, row 0: bottom of the image)
+     * @param dataWidth number of columns
+     * @param dataHeight number of rows
+     * @param gradient colour gradient
+     * @param transform z-axis transform
+     * @param zMin minimum of the z range
+     * @param zMax maximum of the z range
+     * @param inverted whether the z-axis is inverted
+     * @param nLevels number of quantisation levels
+     * @return number of pixels that had to be colour-mapped
+     */
+    protected int updateBuffer(final double[] data, final int dataWidth, final int dataHeight, final ColorGradient gradient, final AxisTransform transform, //
+            final double zMin, final double zMax, final boolean inverted, final int nLevels) {
+        // N.B. compare the mapping rather than the table identity (gradients and their cached tables are shared)
+        final boolean sameTable = lookupTable != null && lookupTable.getColorGradient() == gradient && lookupTable.matches(transform, zMin, zMax, inverted, nLevels);
+        final ColorLookupTable table = sameTable ? lookupTable : gradient.getLookupTable(transform, zMin, zMax, inverted, nLevels);
+        final boolean sameScale = dataWidth == width && dataHeight == height && sameTable;
+        shiftRows = 0;
+        shiftColumns = 0;
+        final int length = dataWidth * dataHeight;
+        if (!sameScale || !findShift(data)) {
+            // full invalidation
+            width = dataWidth;
+            height = dataHeight;
+            lookupTable = table;
+            if (values.length != length) {
+                values = new double[length];
+                byteBuffer = new byte[length * BGRA_BYTE_SIZE];
+            }
+            table.toBgra(data, width, height, byteBuffer);
+            System.arraycopy(data, 0, values, 0, length);
+            return length;
+        }
+
+        final int rowSizeInBytes = width * BGRA_BYTE_SIZE;
+        final int nUpdated;
+        if (shiftRows > 0) {
+            // N.B. buffer row r is drawn at image row (height - 1 - r)
+            System.arraycopy(byteBuffer, 0, byteBuffer, shiftRows * rowSizeInBytes, (height - shiftRows) * rowSizeInBytes);
+            colorMap(data, height - shiftRows, height, 0, width);
+            nUpdated = shiftRows * width;
+        } else if (shiftRows < 0) {
+            System.arraycopy(byteBuffer, -shiftRows * rowSizeInBytes, byteBuffer, 0, (height + shiftRows) * rowSizeInBytes);
+            colorMap(data, 0, -shiftRows, 0, width);
+            nUpdated = -shiftRows * width;
+        } else if (shiftColumns > 0) {
+            for (int row = 0; row < height; row++) {
+                final int rowOffset = row * rowSizeInBytes;
+                System.arraycopy(byteBuffer, rowOffset + shiftColumns * BGRA_BYTE_SIZE, byteBuffer, rowOffset, (width - shiftColumns) * BGRA_BYTE_SIZE);
+            }
+            colorMap(data, 0, height, width - shiftColumns, width);
+            nUpdated = shiftColumns * height;
+        } else if (shiftColumns < 0) {
+            for (int row = 0; row < height; row++) {
+                final int rowOffset = row * rowSizeInBytes;
+                System.arraycopy(byteBuffer, rowOffset, byteBuffer, rowOffset - shiftColumns * BGRA_BYTE_SIZE, (width + shiftColumns) * BGRA_BYTE_SIZE);
+            }
+            colorMap(data, 0, height, 0, -shiftColumns);
+            nUpdated = -shiftColumns * height;
+        } else {
+            // unchanged
+            return 0;
+        }
+        System.arraycopy(data, 0, values, 0, length);
+        return nUpdated;
+    }
+
+    private void colorMap(final double[] data, final int rowMin, final int rowMax, final int columnMin, final int columnMax) {
+        lookupTable.toBgra(data, width, height, rowMin, rowMax, columnMin, columnMax, byteBuffer);
+    }
+
+    /**
+     * searches the row or column shift for which the new frame matches the retained values, i.e. data[r][c] ==
+     * values[r + shiftRows][c + shiftColumns] for all overlapping indices. The search is limited to half of the image
+     * and to a fixed number of compared values.
+     *
+     * @param data the new frame
+     * @return {@code true} if a shift has been found
+     */
+    private boolean findShift(final double[] data) {
+        compareBudget = (long) COMPARE_BUDGET_FACTOR * width * height;
+        if (matches(data, 0, 0)) {
+            return true;
+        }
+        for (int shift = 1; shift <= height / 2; shift++) {
+            if (matches(data, shift, 0)) {
+                shiftRows = shift;
+                return true;
+            }
+            if (matches(data, -shift, 0)) {
+                shiftRows = -shift;
+                return true;
+            }
+            if (compareBudget <= 0) {
+                return false;
+            }
+        }
+        for (int shift = 1; shift <= width / 2; shift++) {
+            if (matches(data, 0, shift)) {
+                shiftColumns = shift;
+                return true;
+            }
+            if (matches(data, 0, -shift)) {
+                shiftColumns = -shift;
+                return true;
+            }
+            if (compareBudget <= 0) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private boolean matches(final double[] data, final int dRow, final int dColumn) {
+        final int rowMin = Math.max(0, -dRow);
+        final int rowMax = Math.min(height, height - dRow);
+        final int columnMin = Math.max(0, -dColumn);
+        final int columnMax = Math.min(width, width - dColumn);
+        for (int row = rowMin; row < rowMax; row++) {
+            final int rowIndex = row * width;
+            final int oldRowIndex = (row + dRow) * width + dColumn;
+            for (int column = columnMin; column < columnMax; column++) {
+                final double newValue = data[rowIndex + column];
+                final double oldValue = values[oldRowIndex + column];
+                if (newValue != oldValue && !(Double.isNaN(newValue) && Double.isNaN(oldValue))) {
+                    compareBudget -= (long) (row - rowMin) * (columnMax - columnMin) + column - columnMin + 1;
+                    return false;
+                }
+            }
+        }
+        compareBudget -= (long) (rowMax - rowMin) * (columnMax - columnMin);
+        return true;
+    }
+}
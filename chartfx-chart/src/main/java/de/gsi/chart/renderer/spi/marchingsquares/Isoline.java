@@ -0,0 +1,111 @@
+package de.gsi.chart.renderer.spi.marchingsquares;
+
+import javafx.scene.canvas.GraphicsContext;
+
+/**
+ * Contour lines of one iso-level stored as flat primitive coordinate arrays.
+ * <p>
+ * The coordinates of all polylines are concatenated into a single x and y array, polyline {@code i} spans the indices
+ * [{@link #getPolylineStart(int)}, {@link #getPolylineEnd(int)}). Closed polylines repeat their first point at the
+ * end. The coordinates are given in grid-index units, i.e. the data sample at (row, column) is located at (x = column,
+ * y = row), so that the isolines can be cached and only need to be transformed to screen coordinates when drawn.
+ */
+public final class Isoline {
+    private final double level;
+    private final double[] x;
+    private final double[] y;
+    private final int[] polylineOffsets; // nPolylines + 1 entries
+
+    Isoline(final double level, final double[] x, final double[] y, final int[] polylineOffsets) {
+        this.level = level;
+        this.x = x;
+        this.y = y;
+        this.polylineOffsets = polylineOffsets;
+    }
+
+    /**
+     * adds the polylines as sub-paths to the current path of the graphics context and strokes them
+     *
+     * @param gc the graphics context (N.B. the caller is responsible for the transform and stroke style)
+     * @return number of drawn points
+     */
+    public int draw(final GraphicsContext gc) {
+        gc.beginPath();
+        for (int polyline = 0; polyline < getPolylineCount(); polyline++) {
+            final int start = polylineOffsets[polyline];
+            final int end = polylineOffsets[polyline + 1];
+            gc.moveTo(x[start], y[start]);
+            for (int index = start + 1; index < end; index++) {
+                gc.lineTo(x[index], y[index]);
+            }
+        }
+        gc.stroke();
+        return getPointCount();
+    }
+
+    /**
+     * @return the iso-level the lines have been computed for
+     */
+    public double getLevel() {
+        return level;
+    }
+
+    /**
+     * @return total number of points of all polylines
+     */
+    public int getPointCount() {
+        return polylineOffsets[polylineOffsets.length - 1];
+    }
+
+    /**
+     * @return number of polylines
+     */
+    public int getPolylineCount() {
+        return polylineOffsets.length - 1;
+    }
+
+    /**
+     * @param polyline polyline index
+     * @return index of the last point of the polyline (exclusive)
+     */
+    public int getPolylineEnd(final int polyline) {
+        return polylineOffsets[polyline + 1];
+    }
+
+    /**
+     * @param polyline polyline index
+     * @return index of the first point of the polyline
+     */
+    public int getPolylineStart(final int polyline) {
+        return polylineOffsets[polyline];
+    }
+
+    /**
+     * @return x coordinates (column index units) of all polylines, N.B. internal array, do not modify
+     */
+    public double[] getX() {
+        return x;
+    }
+
+    /**
+     * @return y coordinates (row index units) of all polylines, N.B. internal array, do not modify
+     */
+    public double[] getY() {
+        return y;
+    }
+
+    /**
+     * @param polyline polyline index
+     * @return whether the polyline is closed (first point equals last point)
+     */
+    public boolean isClosed(final int polyline) {
+        final int start = polylineOffsets[polyline];
+        final int last = polylineOffsets[polyline + 1] - 1;
+        return last > start && x[start] == x[last] && y[start] == y[last];
+    }
+
+    @Override
+    public String toString() {
+        return "Isoline{level=" + level + ", polylines=" + getPolylineCount() + ", points=" + getPointCount() + '}';
+    }
+}
@@ -0,0 +1,303 @@
+package de.gsi.chart.renderer.spi.marchingsquares;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import de.gsi.dataset.utils.AssertUtils;
+import de.gsi.dataset.utils.CachedDaemonThreadFactory;
+import de.gsi.dataset.utils.ProcessingProfiler;
+
+/**
+ * <p>
+ * Tiled implementation of the Marching Squares algorithm described in:
+ * {@code https://en.wikipedia.org/wiki/Marching_squares} operating directly on row-major data arrays.
+ * </p>
+ * <p>
+ * The grid is split into tiles of rows that are processed together with the iso-levels in parallel. Each cell
+ * contributes line segments between its edge crossings. The crossings are identified by their (global) grid edge
+ * index and their position is computed from the two adjacent data samples only, so that segments of neighbouring
+ * cells and tiles are stitched exactly into polylines. Contours reaching the grid boundary or cells with NaN corners
+ * remain open. The result per level is returned as {@link Isoline} with flat primitive coordinate arrays.
+ * </p>
+ */
+public class TiledMarchingSquares {
+    public static final int DEFAULT_TILE_ROWS = 64;
+    private static final String PARALLEL_WORKER_ERROR = "one parallel worker thread finished execution with error";
+    private static final int MIN_PARALLEL_CELLS = 1 << 14; // minimum number of cells x levels for parallel processing
+    private final int tileRows;
+
+    /**
+     * default constructor using {@link #DEFAULT_TILE_ROWS} rows per tile
+     */
+    public TiledMarchingSquares() {
+        this(DEFAULT_TILE_ROWS);
+    }
+
+    /**
+     * @param tileRows number of grid rows per tile
+     */
+    public TiledMarchingSquares(final int tileRows) {
+        AssertUtils.gtThanZero("tileRows", tileRows);
+        this.tileRows = tileRows;
+    }
+
+    /**
+     * @param data row-major data
+     * @param width number of columns
+     * @param height number of rows
+     * @param levels iso-levels
+     * @param parallel whether tiles and levels should be processed in parallel
+     * @return isolines for each level
+     */
+    public Isoline[] buildContours(final double[] data, final int width, final int height, final double[] levels,
+            final boolean parallel) {
+        AssertUtils.notNull("data", data);
+        AssertUtils.notNull("levels", levels);
+        AssertUtils.gtOrEqual("data length", width * height, data.length);
+        final long start = ProcessingProfiler.getTimeStamp();
+        final int nTiles = Math.max(1, (height - 1 + tileRows - 1) / tileRows);
+        final boolean parallelImplementation = parallel && CachedDaemonThreadFactory.getNumbersOfThreads() > 1
+                                               && (long) width * height * levels.length >= MIN_PARALLEL_CELLS;
+
+        // extract the cell segments of each tile and level
+        final SegmentBuffer[][] segments = new SegmentBuffer[levels.length][nTiles];
+        final List<Runnable> extractors = new ArrayList<>();
+        for (int level = 0; level < levels.length; level++) {
+            for (int tile = 0; tile < nTiles; tile++) {
+                final int levelIndex = level;
+                final int tileIndex = tile;
+                extractors.add(() -> {
+                    final int rowMin = tileIndex * tileRows;
+                    final int rowMax = Math.min(rowMin + tileRows, height - 1);
+                    segments[levelIndex][tileIndex] = extractSegments(data, width, height, rowMin, rowMax, levels[levelIndex]);
+                });
+            }
+        }
+        execute(extractors, parallelImplementation);
+
+        // stitch the segments of all tiles of a given level
+        final Isoline[] result = new Isoline[levels.length];
+        final List<Runnable> stitchers = new ArrayList<>();
+        for (int level = 0; level < levels.length; level++) {
+            final int levelIndex = level;
+            stitchers.add(() -> {
+                result[levelIndex] = stitch(data, width, height, levels[levelIndex], segments[levelIndex]);
+            });
+        }
+        execute(stitchers, parallelImplementation);
+
+        ProcessingProfiler.getTimeDiff(start, "built " + levels.length + " contours");
+        return result;
+    }
+
+    /**
+     * @return number of grid rows per tile
+     */
+    public int getTileRows() {
+        return tileRows;
+    }
+
+    private static int addPoint(final double[] data, final int width, final int height, final double isovalue,
+            final int edge, final double[] x, final double[] y, final int index) {
+        final int nHorizontal = width * height;
+        if (edge < nHorizontal) {
+            // edge between (row, column) and (row, column + 1)
+            final int row = edge / width;
+            final int column = edge - row * width;
+            final double a = data[edge];
+            x[index] = column + (isovalue - a) / (data[edge + 1] - a);
+            y[index] = row;
+        } else {
+            // edge between (row, column) and (row + 1, column)
+            final int sample = edge - nHorizontal;
+            final int row = sample / width;
+            final double a = data[sample];
+            x[index] = sample - row * width;
+            y[index] = row + (isovalue - a) / (data[sample + width] - a);
+        }
+        return index + 1;
+    }
+
+    private static void execute(final List<Runnable> workers, final boolean parallel) {
+        if (!parallel) {
+            workers.forEach(Runnable::run);
+            return;
+        }
+        final List<Callable<Boolean>> callables = new ArrayList<>(workers.size());
+        for (final Runnable worker : workers) {
+            callables.add(() -> {
+                worker.run();
+                return Boolean.TRUE;
+            });
+        }
+
+        try {
+            final List<Future<Boolean>> jobs = CachedDaemonThreadFactory.getCommonPool().invokeAll(callables);
+            for (final Future<Boolean> future : jobs) {
+                final Boolean r = future.get();
+                if (Boolean.FALSE.equals(r)) {
+                    throw new IllegalStateException(PARALLEL_WORKER_ERROR);
+                }
+            }
+        } catch (final InterruptedException | ExecutionException e) {
+            throw new IllegalStateException(PARALLEL_WORKER_ERROR, e);
+        }
+    }
+
+    private static SegmentBuffer extractSegments(final double[] data, final int width, final int height,
+            final int rowMin, final int rowMax, final double isovalue) {
+        final SegmentBuffer segments = new SegmentBuffer();
+        final int verticalOffset = width * height; // index offset of the vertical edges
+        for (int r = rowMin; r < rowMax; r++) {
+            for (int c = 0; c < width - 1; c++) {
+                final int index = r * width + c;
+                final double bl = data[index];
+                final double br = data[index + 1];
+                final double tl = data[index + width];
+                final double tr = data[index + width + 1];
+                if (Double.isNaN(bl) || Double.isNaN(br) || Double.isNaN(tl) || Double.isNaN(tr)) {
+                    continue;
+                }
+                // Compose the 4 bits at the corners of the cell to build a binary
+                // index (same convention as MarchingSquares)
+                int ndx = 0;
+                ndx |= tl > isovalue ? 0 : 8;
+                ndx |= tr > isovalue ? 0 : 4;
+                ndx |= br > isovalue ? 0 : 2;
+                ndx |= bl > isovalue ? 0 : 1;
+                if (ndx == 0 || ndx == 15) {
+                    continue;
+                }
+                final int bottom = index;
+                final int top = index + width;
+                final int left = verticalOffset + index;
+                final int right = verticalOffset + index + 1;
+                switch (ndx) {
+                case 1:
+                case 14:
+                    segments.add(left, bottom);
+                    break;
+                case 2:
+                case 13:
+                    segments.add(bottom, right);
+                    break;
+                case 3:
+                case 12:
+                    segments.add(left, right);
+                    break;
+                case 4:
+                case 11:
+                    segments.add(top, right);
+                    break;
+                case 6:
+                case 9:
+                    segments.add(bottom, top);
+                    break;
+                case 7:
+                case 8:
+                    segments.add(left, top);
+                    break;
+                case 5:
+                case 10:
+                    // resolve the ambiguity by using the average data value for the
+                    // center of the cell to choose between the two possible connections
+                    final boolean flipped = (tl + tr + br + bl) / 4 < isovalue;
+                    if ((ndx == 5) == flipped) {
+                        // separate top-left and bottom-right corners
+                        segments.add(left, top);
+                        segments.add(bottom, right);
+                    } else {
+                        // separate bottom-left and top-right corners
+                        segments.add(left, bottom);
+                        segments.add(top, right);
+                    }
+                    break;
+                default: // shouldn't happen
+                    throw new IllegalStateException("Unexpected cell index " + ndx);
+                }
+            }
+        }
+        return segments;
+    }
+
+    private static Isoline stitch(final double[] data, final int width, final int height, final double isovalue,
+            final SegmentBuffer[] tiles) {
+        int nSegments = 0;
+        for (final SegmentBuffer tile : tiles) {
+            nSegments += tile.size;
+        }
+        final int[] edges = new int[2 * nSegments]; // end points of segment s: edges[2s] and edges[2s + 1]
+        int offset = 0;
+        for (final SegmentBuffer tile : tiles) {
+            System.arraycopy(tile.edges, 0, edges, offset, 2 * tile.size);
+            offset += 2 * tile.size;
+        }
+
+        // each grid edge is shared by at most two segment end points -> pair them by sorting the edge indices
+        final long[] keys = new long[edges.length];
+        for (int endPoint = 0; endPoint < edges.length; endPoint++) {
+            keys[endPoint] = (long) edges[endPoint] << 32 | endPoint;
+        }
+        Arrays.sort(keys);
+        final int[] partner = new int[edges.length];
+        Arrays.fill(partner, -1);
+        for (int i = 0; i < keys.length - 1; i++) {
+            if (keys[i] >>> 32 == keys[i + 1] >>> 32) {
+                final int a = (int) keys[i];
+                final int b = (int) keys[i + 1];
+                partner[a] = b;
+                partner[b] = a;
+                i++;
+            }
+        }
+
+        final double[] x = new double[edges.length];
+        final double[] y = new double[edges.length];
+        int[] polylineOffsets = new int[16];
+        int nPolylines = 0;
+        int nPoints = 0;
+        final boolean[] visited = new boolean[nSegments];
+        // open polylines start at unpaired end points, the remaining segments form closed polylines
+        for (int pass = 0; pass < 2; pass++) {
+            for (int endPoint = 0; endPoint < edges.length; endPoint++) {
+                if (visited[endPoint >> 1] || (pass == 0 && partner[endPoint] >= 0)) {
+                    continue;
+                }
+                if (nPolylines + 1 >= polylineOffsets.length) {
+                    polylineOffsets = Arrays.copyOf(polylineOffsets, 2 * polylineOffsets.length);
+                }
+                polylineOffsets[nPolylines++] = nPoints;
+                nPoints = addPoint(data, width, height, isovalue, edges[endPoint], x, y, nPoints);
+                int current = endPoint;
+                while (current >= 0 && !visited[current >> 1]) {
+                    visited[current >> 1] = true;
+                    final int other = current ^ 1;
+                    nPoints = addPoint(data, width, height, isovalue, edges[other], x, y, nPoints);
+                    current = partner[other];
+                }
+            }
+        }
+        polylineOffsets[nPolylines] = nPoints;
+
+        return new Isoline(isovalue, Arrays.copyOf(x, nPoints), Arrays.copyOf(y, nPoints),
+                Arrays.copyOf(polylineOffsets, nPolylines + 1));
+    }
+
+    private static final class SegmentBuffer {
+        private int[] edges = new int[64];
+        private int size;
+
+        void add(final int edgeA, final int edgeB) {
+            if (2 * size + 2 > edges.length) {
+                edges = Arrays.copyOf(edges, 2 * edges.length);
+            }
+            edges[2 * size] = edgeA;
+            edges[2 * size + 1] = edgeB;
+            size++;
+        }
+    }
+}
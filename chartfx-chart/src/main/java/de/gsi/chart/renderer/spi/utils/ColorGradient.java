@@ -4,8 +4,11 @@
  */
 package de.gsi.chart.renderer.spi.utils;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
 import java.util.WeakHashMap;
 
@@ -14,6 +17,9 @@ import javafx.scene.paint.CycleMethod;
 import javafx.scene.paint.LinearGradient;
 import javafx.scene.paint.Stop;
 
+import de.gsi.chart.axes.AxisTransform;
+import de.gsi.dataset.utils.AssertUtils;
+
 /**
  * @author braeun
  */
@@ -108,10 +114,12 @@ public class ColorGradient {
     public static final ColorGradient RAINBOW_EQ = ColorGradient.cetR2();
 
     public static final ColorGradient DEFAULT = RAINBOW;
+    private static final int MAX_CACHED_LOOKUP_TABLES = 8;
     private final List<Stop> stops;
     private final String name;
     private final WeakHashMap<Double, Color> colorMap = new WeakHashMap<>();
     private final WeakHashMap<Double, int[]> colorMapBytes = new WeakHashMap<>();
+    private final Deque<ColorLookupTable> lookupTables = new ArrayDeque<>(); // most recently used first, guarded by itself
 
     /**
      * Creates a new instance of ColorGradient.**
@@ -169,29 +177,7 @@ public class ColorGradient {
      * @return corresponding interpolated colour
      */
     public Color getColor(final double offset) {
-        return colorMap.computeIfAbsent(offset, value -> {
-            double lowerOffset = 0.0;
-            double upperOffset = 1.0;
-            Color lowerColor = Color.TRANSPARENT;
-            Color upperColor = Color.TRANSPARENT;
-
-            for (final Stop stop : getStops()) {
-                final double currentOffset = stop.getOffset();
-                if (currentOffset == offset) {
-                    return stop.getColor();
-                } else if (currentOffset < offset) {
-                    lowerOffset = currentOffset;
-                    lowerColor = stop.getColor();
-                } else {
-                    upperOffset = currentOffset;
-                    upperColor = stop.getColor();
-                    break;
-                }
-            }
-
-            final double interpolationOffset = (offset - lowerOffset) / (upperOffset - lowerOffset);
-            return lowerColor.interpolate(upperColor, interpolationOffset);
-        });
+        return colorMap.computeIfAbsent(offset, this::interpolate);
     }
 
     /**
@@ -200,38 +186,55 @@ public class ColorGradient {
      */
     public int[] getColorBytes(final double offset) {
         return colorMapBytes.computeIfAbsent(offset, value -> {
-            double lowerOffset = 0.0;
-            double upperOffset = 1.0;
-            Color lowerColor = Color.TRANSPARENT;
-            Color upperColor = Color.TRANSPARENT;
-            final int[] color = new int[4];
-
-            for (final Stop stop : getStops()) {
-                final double currentOffset = stop.getOffset();
-                if (currentOffset == offset) {
-                    color[0] = (int) Math.round(255 * stop.getColor().getOpacity());
-                    color[1] = (int) Math.round(255 * stop.getColor().getRed());
-                    color[2] = (int) Math.round(255 * stop.getColor().getGreen());
-                    color[3] = (int) Math.round(255 * stop.getColor().getBlue());
-                    return color;
-                } else if (currentOffset < offset) {
-                    lowerOffset = currentOffset;
-                    lowerColor = stop.getColor();
-                } else {
-                    upperOffset = currentOffset;
-                    upperColor = stop.getColor();
-                    break;
+            final Color color = interpolate(value);
+            return new int[] { (int) Math.round(255 * color.getOpacity()), (int) Math.round(255 * color.getRed()),
+                (int) Math.round(255 * color.getGreen()), (int) Math.round(255 * color.getBlue()) };
+        });
+    }
+
+    /**
+     * Returns the look-up table for mapping z values to colours (N.B. the most recently used tables are cached so that
+     * several charts sharing this gradient with different z-ranges or quantisations do not evict each other's table).
+     *
+     * @param axisTransform z-axis transform (may be {@code null}: linear)
+     * @param zMin minimum of the z range
+     * @param zMax maximum of the z range
+     * @param inverted whether the z-axis is inverted
+     * @param nLevels number of quantisation levels [1, {@value ColorLookupTable#MAX_SIZE}], see
+     *            {@link ColorLookupTable#DEFAULT_SIZE} for an (effectively) continuous mapping
+     * @return the look-up table
+     */
+    public ColorLookupTable getLookupTable(final AxisTransform axisTransform, final double zMin, final double zMax, final boolean inverted, final int nLevels) {
+        AssertUtils.gtThanZero("nLevels", nLevels);
+        AssertUtils.gtOrEqual("nLevels", nLevels, ColorLookupTable.MAX_SIZE);
+        synchronized (lookupTables) {
+            int[] argb = null;
+            for (final Iterator<ColorLookupTable> iterator = lookupTables.iterator(); iterator.hasNext();) {
+                final ColorLookupTable table = iterator.next();
+                if (table.matches(axisTransform, zMin, zMax, inverted, nLevels)) {
+                    iterator.remove();
+                    lookupTables.addFirst(table);
+                    return table;
+                }
+                if (argb == null && table.getLevels() == nLevels) {
+                    argb = table.getArgbTable(); // N.B. colours depend only on the number of levels
                 }
             }
-
-            final double interpolationOffset = (offset - lowerOffset) / (upperOffset - lowerOffset);
-            final Color interpolatedColor = lowerColor.interpolate(upperColor, interpolationOffset);
-            color[0] = (int) Math.round(255 * interpolatedColor.getOpacity());
-            color[1] = (int) Math.round(255 * interpolatedColor.getRed());
-            color[2] = (int) Math.round(255 * interpolatedColor.getGreen());
-            color[3] = (int) Math.round(255 * interpolatedColor.getBlue());
-            return color;
-        });
+            if (argb == null) {
+                argb = new int[nLevels + 1];
+                for (int level = 0; level <= nLevels; level++) {
+                    final Color color = interpolate(level / (double) nLevels);
+                    argb[level] = (int) Math.round(255 * color.getOpacity()) << 24 | (int) Math.round(255 * color.getRed()) << 16
+                                  | (int) Math.round(255 * color.getGreen()) << 8 | (int) Math.round(255 * color.getBlue());
+                }
+            }
+            final ColorLookupTable newTable = new ColorLookupTable(this, argb, axisTransform, zMin, zMax, inverted);
+            lookupTables.addFirst(newTable);
+            if (lookupTables.size() > MAX_CACHED_LOOKUP_TABLES) {
+                lookupTables.removeLast();
+            }
+            return newTable;
+        }
     }
 
     /**
@@ -249,6 +252,30 @@ public class ColorGradient {
         return name;
     }
 
+    private Color interpolate(final double offset) {
+        double lowerOffset = 0.0;
+        double upperOffset = 1.0;
+        Color lowerColor = Color.TRANSPARENT;
+        Color upperColor = Color.TRANSPARENT;
+
+        for (final Stop stop : getStops()) {
+            final double currentOffset = stop.getOffset();
+            if (currentOffset == offset) {
+                return stop.getColor();
+            } else if (currentOffset < offset) {
+                lowerOffset = currentOffset;
+                lowerColor = stop.getColor();
+            } else {
+                upperOffset = currentOffset;
+                upperColor = stop.getColor();
+                break;
+            }
+        }
+
+        final double interpolationOffset = (offset - lowerOffset) / (upperOffset - lowerOffset);
+        return lowerColor.interpolate(upperColor, interpolationOffset);
+    }
+
     public static List<ColorGradient> colorGradients() {
         return Arrays.asList(ColorGradient.RAINBOW, ColorGradient.RAINBOW_OPAQUE, ColorGradient.JET, ColorGradient.TOPO, ColorGradient.TOPO_EXT,
                 ColorGradient.WHITE_BLACK, ColorGradient.BLACK_WHITE, ColorGradient.HOT, ColorGradient.SUNRISE,
@@ -0,0 +1,208 @@
+package de.gsi.chart.renderer.spi.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import de.gsi.chart.axes.AxisTransform;
+import de.gsi.dataset.utils.AssertUtils;
+import de.gsi.dataset.utils.CachedDaemonThreadFactory;
+
+/**
+ * Pre-computed look-up table mapping z values onto the packed ARGB colours of a {@link ColorGradient}.
+ * <p>
+ * The z values are transformed (e.g. logarithmic z-axis), normalised to the [zMin, zMax] range and quantised to
+ * {@code nLevels} levels. Table entry {@code k} holds the gradient colour at offset {@code k/nLevels} so that the
+ * mapping is identical to quantising the offset and interpolating the gradient for each pixel individually. Values
+ * outside the range are mapped to transparent. Instances are immutable and may be shared between threads, they are
+ * typically obtained via
+ * {@link ColorGradient#getLookupTable(AxisTransform, double, double, boolean, int)} which caches the most recently used
+ * tables. Consumers that keep a table across frames should check {@link #matches(AxisTransform, double, double, boolean,
+ * int)} rather than compare table identities.
+ * <p>
+ * The bulk mapping functions split large images row-wise across the available cores.
+ */
+public final class ColorLookupTable {
+    /** default number of quantisation levels for an (effectively) continuous colour mapping */
+    public static final int DEFAULT_SIZE = 4096;
+    /** maximum number of quantisation levels */
+    public static final int MAX_SIZE = 65536;
+    private static final String PARALLEL_WORKER_ERROR = "one parallel worker thread finished execution with error";
+    private static final int BGRA_BYTE_SIZE = 4;
+    private static final int MIN_PARALLEL_PIXELS = 1 << 16;
+    private final ColorGradient colorGradient;
+    private final AxisTransform axisTransform;
+    private final double zMin;
+    private final double zMax;
+    private final double zMinPixel;
+    private final double zMaxPixel;
+    private final double zRangeInv;
+    private final boolean inverted;
+    private final int nLevels;
+    private final int[] argb; // nLevels + 1 entries
+
+    ColorLookupTable(final ColorGradient colorGradient, final int[] argb, final AxisTransform axisTransform, final double zMin, final double zMax, final boolean inverted) {
+        this.colorGradient = colorGradient;
+        this.argb = argb;
+        this.nLevels = argb.length - 1;
+        this.axisTransform = axisTransform;
+        this.zMin = zMin;
+        this.zMax = zMax;
+        this.zMinPixel = forward(axisTransform, zMin);
+        this.zMaxPixel = forward(axisTransform, zMax);
+        this.zRangeInv = 1.0 / Math.abs(zMaxPixel - zMinPixel);
+        this.inverted = inverted;
+    }
+
+    /**
+     * @param z value to be mapped
+     * @return packed ARGB colour ({@code 0xAARRGGBB})
+     */
+    public int getArgb(final double z) {
+        final double offset = (forward(axisTransform, z) - zMinPixel) * zRangeInv;
+        // N.B. (int) cast: same rounding towards zero as the per-pixel quantisation
+        final int level = (int) ((inverted ? 1 - offset : offset) * nLevels);
+        return level >= 0 && level <= nLevels ? argb[level] : 0;
+    }
+
+    public ColorGradient getColorGradient() {
+        return colorGradient;
+    }
+
+    /**
+     * @return number of quantisation levels
+     */
+    public int getLevels() {
+        return nLevels;
+    }
+
+    /**
+     * @return packed ARGB colours of the quantisation levels (N.B. shared, must not be modified)
+     */
+    int[] getArgbTable() {
+        return argb;
+    }
+
+    /**
+     * @param axisTransform z-axis transform (may be {@code null}: linear)
+     * @param min minimum of the z range
+     * @param max maximum of the z range
+     * @param zInverted whether the z-axis is inverted
+     * @param levels number of quantisation levels
+     * @return {@code true} if this table implements the given mapping
+     */
+    public boolean matches(final AxisTransform axisTransform, final double min, final double max, final boolean zInverted, final int levels) {
+        return axisTransform == this.axisTransform && levels == nLevels && zInverted == inverted //
+                && Double.compare(min, zMin) == 0 && Double.compare(max, zMax) == 0
+                // transform may be stateful (e.g. log base)
+                && Double.compare(forward(axisTransform, min), zMinPixel) == 0 && Double.compare(forward(axisTransform, max), zMaxPixel) == 0;
+    }
+
+    /**
+     * maps the z values to packed ARGB colours
+     *
+     * @param input z values
+     * @param length number of values to be mapped
+     * @param output packed ARGB colours ({@code 0xAARRGGBB})
+     */
+    public void toArgb(final double[] input, final int length, final int[] output) {
+        AssertUtils.gtOrEqual("input length", length, input.length);
+        AssertUtils.gtOrEqual("output length", length, output.length);
+        parallelFor(0, length, 1, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                output[i] = getArgb(input[i]);
+            }
+        });
+    }
+
+    /**
+     * maps row-major z values to BGRA image bytes (N.B. row 0 of the data being the bottom row of the image)
+     *
+     * @param input z values
+     * @param width number of columns
+     * @param height number of rows
+     * @param output BGRA image bytes
+     */
+    public void toBgra(final double[] input, final int width, final int height, final byte[] output) {
+        toBgra(input, width, height, 0, height, 0, width, output);
+    }
+
+    /**
+     * maps a rectangular region of row-major z values to BGRA image bytes (N.B. row 0 of the data being the bottom row
+     * of the image)
+     *
+     * @param input z values
+     * @param width number of columns
+     * @param height number of rows
+     * @param rowMin first row to be mapped
+     * @param rowMax last row to be mapped (exclusive)
+     * @param columnMin first column to be mapped
+     * @param columnMax last column to be mapped (exclusive)
+     * @param output BGRA image bytes
+     */
+    public void toBgra(final double[] input, final int width, final int height, final int rowMin, final int rowMax, final int columnMin, final int columnMax, final byte[] output) {
+        AssertUtils.gtOrEqual("input length", width * height, input.length);
+        AssertUtils.gtOrEqual("output length", width * height * BGRA_BYTE_SIZE, output.length);
+        final int rowSizeInBytes = BGRA_BYTE_SIZE * width;
+        final int hMinus1 = height - 1;
+        parallelFor(rowMin, rowMax, columnMax - columnMin, (from, to) -> {
+            for (int yIndex = from; yIndex < to; yIndex++) {
+                final int rowIndex = width * yIndex;
+                final int rowPixelIndex = rowSizeInBytes * (hMinus1 - yIndex);
+                for (int xIndex = columnMin; xIndex < columnMax; xIndex++) {
+                    final int color = getArgb(input[rowIndex + xIndex]);
+                    final int pixelIndex = rowPixelIndex + xIndex * BGRA_BYTE_SIZE;
+                    output[pixelIndex] = (byte) color;
+                    output[pixelIndex + 1] = (byte) (color >> 8);
+                    output[pixelIndex + 2] = (byte) (color >> 16);
+                    output[pixelIndex + 3] = (byte) (color >>> 24);
+                }
+            }
+        });
+    }
+
+    @Override
+    public String toString() {
+        return "ColorLookupTable [gradient=" + colorGradient + ", levels=" + nLevels + ", zMin=" + zMin + ", zMax=" + zMax + ", inverted=" + inverted + "]";
+    }
+
+    private static double forward(final AxisTransform axisTransform, final double value) {
+        return axisTransform == null ? value : axisTransform.forward(value);
+    }
+
+    private static void parallelFor(final int from, final int to, final int workPerIndex, final RangeConsumer body) {
+        final int nThreads = CachedDaemonThreadFactory.getNumbersOfThreads();
+        if (nThreads <= 1 || (long) (to - from) * workPerIndex < MIN_PARALLEL_PIXELS) {
+            body.accept(from, to);
+            return;
+        }
+        final int stepSize = (int) Math.ceil((to - from) / (double) nThreads);
+        final List<Callable<Boolean>> workers = new ArrayList<>();
+        for (int i = from; i < to; i += stepSize) {
+            final int start = i;
+            workers.add(() -> {
+                body.accept(start, Math.min(start + stepSize, to));
+                return Boolean.TRUE;
+            });
+        }
+
+        try {
+            final List<Future<Boolean>> jobs = CachedDaemonThreadFactory.getCommonPool().invokeAll(workers);
+            for (final Future<Boolean> future : jobs) {
+                final Boolean r = future.get();
+                if (Boolean.FALSE.equals(r)) {
+                    throw new IllegalStateException(PARALLEL_WORKER_ERROR);
+                }
+            }
+        } catch (final InterruptedException | ExecutionException e) {
+            throw new IllegalStateException(PARALLEL_WORKER_ERROR, e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RangeConsumer {
+        void accept(int from, int to);
+    }
+}
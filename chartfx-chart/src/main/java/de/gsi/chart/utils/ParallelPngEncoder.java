@@ -0,0 +1,462 @@
+package de.gsi.chart.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import de.gsi.dataset.utils.ByteArrayCache;
+import de.gsi.dataset.utils.CachedDaemonThreadFactory;
+
+import ar.com.hjg.pngj.FilterType;
+
+/**
+ * Parallel PNG encoder that filters and compresses horizontal image stripes on separate threads (similar to 'pigz').
+ * <p>
+ * Each stripe is compressed by its own raw {@link Deflater} that is primed with the last 32 kB of the preceding
+ * (filtered) image data as preset dictionary. Non-final stripes are terminated by a sync flush so that the compressed
+ * stripes can be concatenated to a single valid zlib stream, each stripe being written as a separate IDAT chunk. The
+ * zlib Adler-32 checksum is combined from the per-stripe checksums. The stripes are written in order to the output
+ * channel as soon as they are available, at most {@link #MAX_STRIPES_IN_FLIGHT_PER_THREAD} stripes per thread are
+ * compressed ahead of the one being written. Deflater, checksum and row buffers are kept per thread and re-used.
+ */
+final class ParallelPngEncoder {
+    /** number of uncompressed bytes per stripe (N.B. similar to the 'pigz' default block size) */
+    static final int STRIPE_SIZE = 128 * 1024;
+    /** number of stripes per thread that are compressed ahead of the one being written (bounds the memory footprint) */
+    static final int MAX_STRIPES_IN_FLIGHT_PER_THREAD = 2;
+    private static final String PARALLEL_WORKER_ERROR = "one parallel worker thread finished execution with error";
+    private static final int DICTIONARY_SIZE = 32 * 1024; // deflate window size
+    private static final int ADLER_BASE = 65521; // largest prime smaller than 65536
+    private static final int CHUNK_OVERHEAD = 12; // length, type and CRC
+    private static final byte[] SIGNATURE = { (byte) 0x89, 0x50, 0x4e, 0x47, 0x0d, 0x0a, 0x1a, 0x0a };
+    private static final byte[] IHDR = "IHDR".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] PLTE = "PLTE".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TRNS = "tRNS".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] IDAT = "IDAT".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] IEND = "IEND".getBytes(StandardCharsets.US_ASCII);
+    private static final ThreadLocal<StripeEncoder> ENCODERS = ThreadLocal.withInitial(StripeEncoder::new);
+
+    private ParallelPngEncoder() {
+        // static utility class
+    }
+
+    /**
+     * @param pixels ARGB pixels (row-major)
+     * @param width image width
+     * @param height image height
+     * @param alpha whether to include the alpha channel (RGBA vs. RGB)
+     * @param palette optional palette, if non-null the image is encoded as indexed colour image
+     * @param compressionLevel {@link Deflater#BEST_COMPRESSION} (9) to {@link Deflater#NO_COMPRESSION} (0)
+     * @param filterType PNG line filter, non-standard (adaptive) types choose the filter per line
+     * @param channel the channel to write to
+     * @throws IOException in case the channel cannot be written
+     */
+    static void encode(final int[] pixels, final int width, final int height, final boolean alpha, final PaletteQuantizer palette, final int compressionLevel,
+            final FilterType filterType, final WritableByteChannel channel) throws IOException {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("invalid image size " + width + " x " + height);
+        }
+        if (pixels.length < width * height) {
+            throw new IllegalArgumentException("pixels.length = " + pixels.length + " too small, should be at least " + width * height);
+        }
+        final RowFormat format = new RowFormat(pixels, width, alpha, palette, filterType);
+        final int lineLength = format.lineLength;
+        final int rowsPerStripe = Math.max(1, STRIPE_SIZE / lineLength);
+        final int nStripes = (height + rowsPerStripe - 1) / rowsPerStripe;
+
+        writeHeader(width, height, alpha, palette, channel);
+
+        // compress stripes in parallel with a bounded number of stripes in flight, write in order
+        final boolean parallel = nStripes > 1 && CachedDaemonThreadFactory.getNumbersOfThreads() > 1;
+        final ExecutorService executor = CachedDaemonThreadFactory.getCommonPool();
+        final int maxStripesInFlight = MAX_STRIPES_IN_FLIGHT_PER_THREAD * CachedDaemonThreadFactory.getNumbersOfThreads();
+        final Deque<Future<Stripe>> pending = new ArrayDeque<>(parallel ? maxStripesInFlight : 0);
+        int nextStripe = 0;
+        long adler = 1L;
+        try {
+            for (int stripe = 0; stripe < nStripes; stripe++) {
+                final Stripe result;
+                if (parallel) {
+                    for (; nextStripe < nStripes && pending.size() < maxStripesInFlight; nextStripe++) {
+                        final int rowStart = nextStripe * rowsPerStripe;
+                        final int rowEnd = Math.min(rowStart + rowsPerStripe, height);
+                        pending.add(executor.submit(() -> ENCODERS.get().encode(format, height, rowStart, rowEnd, compressionLevel)));
+                    }
+                    result = pending.remove().get();
+                } else {
+                    final int rowStart = stripe * rowsPerStripe;
+                    result = ENCODERS.get().encode(format, height, rowStart, Math.min(rowStart + rowsPerStripe, height), compressionLevel);
+                }
+                try {
+                    writeFully(channel, ByteBuffer.wrap(result.chunk, 0, result.chunkLength));
+                } finally {
+                    ByteArrayCache.getInstance().add(result.chunk);
+                }
+                adler = combineAdler32(adler, result.adler, result.length);
+            }
+        } catch (final InterruptedException | ExecutionException e) {
+            throw new IllegalStateException(PARALLEL_WORKER_ERROR, e);
+        } finally {
+            // non-empty only on error: cancel the remaining stripes and recycle the buffers of those already finished
+            for (final Future<Stripe> future : pending) {
+                if (!future.cancel(false)) {
+                    releaseFinished(future);
+                }
+            }
+        }
+
+        // zlib trailer (Adler-32 of the uncompressed data) and end of image
+        final ByteBuffer trailer = ByteBuffer.allocate(2 * CHUNK_OVERHEAD + 4);
+        final CRC32 crc = ENCODERS.get().crc;
+        putChunk(trailer, IDAT, new byte[] { (byte) (adler >> 24), (byte) (adler >> 16), (byte) (adler >> 8), (byte) adler }, crc);
+        putChunk(trailer, IEND, new byte[0], crc);
+        writeFully(channel, trailer.flip());
+    }
+
+    /**
+     * @param adler1 Adler-32 checksum of the first sequence
+     * @param adler2 Adler-32 checksum of the second sequence
+     * @param length2 length of the second sequence
+     * @return Adler-32 checksum of the concatenated sequences (N.B. port of zlib's 'adler32_combine')
+     */
+    static long combineAdler32(final long adler1, final long adler2, final long length2) {
+        final long rem = length2 % ADLER_BASE;
+        long sum1 = adler1 & 0xffff;
+        long sum2 = rem * sum1 % ADLER_BASE;
+        sum1 += (adler2 & 0xffff) + ADLER_BASE - 1;
+        sum2 += (adler1 >> 16 & 0xffff) + (adler2 >> 16 & 0xffff) + ADLER_BASE - rem;
+        if (sum1 >= ADLER_BASE) {
+            sum1 -= ADLER_BASE;
+        }
+        if (sum1 >= ADLER_BASE) {
+            sum1 -= ADLER_BASE;
+        }
+        if (sum2 >= (long) ADLER_BASE << 1) {
+            sum2 -= (long) ADLER_BASE << 1;
+        }
+        if (sum2 >= ADLER_BASE) {
+            sum2 -= ADLER_BASE;
+        }
+        return sum1 | sum2 << 16;
+    }
+
+    private static void releaseFinished(final Future<Stripe> future) {
+        if (!future.isDone() || future.isCancelled()) {
+            return;
+        }
+        try {
+            ByteArrayCache.getInstance().add(future.get().chunk);
+        } catch (final InterruptedException e) { // NOPMD - cannot occur for a finished future
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException e) { // NOPMD - stripe failed, no buffer to recycle
+            // reported via the first failing stripe
+        }
+    }
+
+    private static void putChunk(final ByteBuffer buffer, final byte[] type, final byte[] data, final CRC32 crc) {
+        buffer.putInt(data.length);
+        buffer.put(type);
+        buffer.put(data);
+        crc.reset();
+        crc.update(type);
+        crc.update(data);
+        buffer.putInt((int) crc.getValue());
+    }
+
+    private static void writeFully(final WritableByteChannel channel, final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static void writeHeader(final int width, final int height, final boolean alpha, final PaletteQuantizer palette, final WritableByteChannel channel)
+            throws IOException {
+        final int nColors = palette == null ? 0 : palette.getColorCount();
+        final ByteBuffer header = ByteBuffer.allocate(SIGNATURE.length + 3 * CHUNK_OVERHEAD + 13 + 4 * nColors);
+        final CRC32 crc = ENCODERS.get().crc;
+        header.put(SIGNATURE);
+        // bit depth 8, colour type: 2 (RGB), 3 (indexed) or 6 (RGBA), compression, filter and interlace method 0
+        final byte colorType = (byte) (palette == null ? (alpha ? 6 : 2) : 3);
+        putChunk(header, IHDR, ByteBuffer.allocate(13).putInt(width).putInt(height).put(new byte[] { 8, colorType, 0, 0, 0 }).array(), crc);
+        if (palette != null) {
+            final byte[] entries = new byte[3 * nColors];
+            for (int i = 0; i < nColors; i++) {
+                final int[] color = palette.getColor(i);
+                entries[3 * i] = (byte) color[0];
+                entries[3 * i + 1] = (byte) color[1];
+                entries[3 * i + 2] = (byte) color[2];
+            }
+            putChunk(header, PLTE, entries, crc);
+            final int transparentIndex = palette.getTransparentIndex();
+            if (transparentIndex >= 0) {
+                final byte[] transparency = new byte[transparentIndex + 1];
+                Arrays.fill(transparency, (byte) 0xff);
+                transparency[transparentIndex] = 0;
+                putChunk(header, TRNS, transparency, crc);
+            }
+        }
+        writeFully(channel, header.flip());
+    }
+
+    /**
+     * conversion of the ARGB pixels into PNG scan lines
+     */
+    private static final class RowFormat {
+        private final int[] pixels;
+        private final int width;
+        private final boolean alpha;
+        private final PaletteQuantizer palette;
+        private final int filter; // 0..4: fixed PNG filter, -1: adaptive
+        private final int bytesPerPixel;
+        private final int lineLength; // incl. filter type byte
+
+        RowFormat(final int[] pixels, final int width, final boolean alpha, final PaletteQuantizer palette, final FilterType filterType) {
+            this.pixels = pixels;
+            this.width = width;
+            this.alpha = alpha;
+            this.palette = palette;
+            this.filter = getFilter(filterType);
+            bytesPerPixel = palette == null ? (alpha ? 4 : 3) : 1;
+            lineLength = width * bytesPerPixel + 1;
+        }
+
+        void convert(final int row, final byte[] line) {
+            final int offset = row * width;
+            if (palette != null) {
+                for (int x = 0; x < width; x++) {
+                    final int pixel = pixels[offset + x];
+                    line[x] = (byte) (alpha ? palette.lookup(pixel >> 16 & 0xFF, pixel >> 8 & 0xFF, pixel & 0xFF, pixel >> 24 & 0xFF)
+                                            : palette.lookup(pixel >> 16 & 0xFF, pixel >> 8 & 0xFF, pixel & 0xFF));
+                }
+                return;
+            }
+            int i = 0;
+            for (int x = 0; x < width; x++) {
+                final int pixel = pixels[offset + x];
+                line[i++] = (byte) (pixel >> 16); // red
+                line[i++] = (byte) (pixel >> 8); // green
+                line[i++] = (byte) pixel; // blue
+                if (alpha) {
+                    line[i++] = (byte) (pixel >> 24); // alpha
+                }
+            }
+        }
+
+        private static int getFilter(final FilterType filterType) {
+            if (filterType == null) {
+                return 0;
+            }
+            switch (filterType) {
+            case FILTER_NONE:
+                return 0;
+            case FILTER_SUB:
+                return 1;
+            case FILTER_UP:
+                return 2;
+            case FILTER_AVERAGE:
+                return 3;
+            case FILTER_PAETH:
+                return 4;
+            default:
+                return -1;
+            }
+        }
+    }
+
+    private static final class Stripe {
+        private final byte[] chunk; // complete IDAT chunk
+        private final int chunkLength;
+        private final int adler;
+        private final int length; // uncompressed length
+
+        Stripe(final byte[] chunk, final int chunkLength, final int adler, final int length) {
+            this.chunk = chunk;
+            this.chunkLength = chunkLength;
+            this.adler = adler;
+            this.length = length;
+        }
+    }
+
+    /**
+     * per-thread state: deflater, checksums and line buffers
+     */
+    private static final class StripeEncoder {
+        private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        private final Adler32 adler = new Adler32();
+        private final CRC32 crc = new CRC32();
+        private byte[] filtered = new byte[0];
+        private byte[] previous = new byte[0];
+        private byte[] current = new byte[0];
+        private byte[] candidate = new byte[0];
+
+        Stripe encode(final RowFormat format, final int height, final int rowStart, final int rowEnd, final int compressionLevel) {
+            final int lineLength = format.lineLength;
+            final int rowBytes = lineLength - 1;
+            if (current.length != rowBytes) {
+                previous = new byte[rowBytes];
+                current = new byte[rowBytes];
+                candidate = new byte[rowBytes];
+            }
+            // re-filter the tail of the previous stripe to be used as preset dictionary
+            final int dictionaryRowStart = Math.max(0, rowStart - (DICTIONARY_SIZE + lineLength - 1) / lineLength);
+            final int filteredLength = (rowEnd - dictionaryRowStart) * lineLength;
+            if (filtered.length < filteredLength) {
+                filtered = new byte[filteredLength];
+            }
+            if (dictionaryRowStart > 0) {
+                format.convert(dictionaryRowStart - 1, previous);
+            } else {
+                Arrays.fill(previous, (byte) 0);
+            }
+            int offset = 0;
+            for (int row = dictionaryRowStart; row < rowEnd; row++) {
+                format.convert(row, current);
+                filterLine(format.filter, format.bytesPerPixel, offset);
+                offset += lineLength;
+                final byte[] tmp = previous;
+                previous = current;
+                current = tmp;
+            }
+
+            final int inputOffset = (rowStart - dictionaryRowStart) * lineLength;
+            final int inputLength = (rowEnd - rowStart) * lineLength;
+            final int dictionaryLength = Math.min(inputOffset, DICTIONARY_SIZE);
+            adler.reset();
+            adler.update(filtered, inputOffset, inputLength);
+
+            final boolean first = rowStart == 0;
+            final boolean last = rowEnd == height;
+            deflater.reset();
+            deflater.setLevel(compressionLevel);
+            if (dictionaryLength > 0) {
+                deflater.setDictionary(filtered, inputOffset - dictionaryLength, dictionaryLength);
+            }
+            deflater.setInput(filtered, inputOffset, inputLength);
+            if (last) {
+                deflater.finish();
+            }
+
+            // N.B. upper bound as in zlib's 'deflateBound' + sync flush marker
+            final int bound = inputLength + (inputLength >> 12) + (inputLength >> 14) + (inputLength >> 25) + 13 + 5;
+            byte[] chunk = ByteArrayCache.getInstance().getArray(CHUNK_OVERHEAD + 2 + bound);
+            int position = 8;
+            if (first) {
+                // zlib header: deflate with 32k window, no preset dictionary, compression level hint
+                chunk[position++] = 0x78;
+                chunk[position++] = (byte) (compressionLevel >= 0 && compressionLevel <= 1 ? 0x01 : compressionLevel >= 2 && compressionLevel <= 5 ? 0x5e : compressionLevel >= 7 ? 0xda : 0x9c);
+            }
+            final int flush = last ? Deflater.NO_FLUSH : Deflater.SYNC_FLUSH;
+            while (true) {
+                final int available = chunk.length - 4 - position;
+                final int nBytes = deflater.deflate(chunk, position, available, flush);
+                position += nBytes;
+                // N.B. the first call after 'setLevel' may return before all input is consumed
+                if (last ? deflater.finished() : nBytes < available && deflater.needsInput()) {
+                    break;
+                }
+                if (position + 4 >= chunk.length) {
+                    final byte[] larger = new byte[2 * chunk.length];
+                    System.arraycopy(chunk, 0, larger, 0, position);
+                    ByteArrayCache.getInstance().add(chunk);
+                    chunk = larger;
+                }
+            }
+
+            // IDAT chunk: length, type, data, CRC (type + data)
+            final int dataLength = position - 8;
+            putInt(chunk, 0, dataLength);
+            System.arraycopy(IDAT, 0, chunk, 4, 4);
+            crc.reset();
+            crc.update(chunk, 4, dataLength + 4);
+            putInt(chunk, position, (int) crc.getValue());
+            return new Stripe(chunk, position + 4, (int) adler.getValue(), inputLength);
+        }
+
+        private void filterLine(final int filter, final int bpp, final int offset) {
+            final int rowBytes = current.length;
+            if (filter >= 0) {
+                filtered[offset] = (byte) filter;
+                filter(filter, bpp, filtered, offset + 1);
+                return;
+            }
+            // adaptive: minimum sum of absolute differences heuristic
+            long bestSum = Long.MAX_VALUE;
+            for (int type = 0; type <= 4; type++) {
+                filter(type, bpp, candidate, 0);
+                long sum = 0;
+                for (int i = 0; i < rowBytes; i++) {
+                    sum += Math.abs(candidate[i]);
+                }
+                if (sum < bestSum) {
+                    bestSum = sum;
+                    filtered[offset] = (byte) type;
+                    System.arraycopy(candidate, 0, filtered, offset + 1, rowBytes);
+                }
+            }
+        }
+
+        private void filter(final int type, final int bpp, final byte[] out, final int offset) {
+            final byte[] cur = current;
+            final byte[] prev = previous;
+            final int rowBytes = cur.length;
+            switch (type) {
+            case 1: // Sub
+                for (int i = 0; i < rowBytes; i++) {
+                    out[offset + i] = (byte) (cur[i] - (i >= bpp ? cur[i - bpp] : 0));
+                }
+                break;
+            case 2: // Up
+                for (int i = 0; i < rowBytes; i++) {
+                    out[offset + i] = (byte) (cur[i] - prev[i]);
+                }
+                break;
+            case 3: // Average
+                for (int i = 0; i < rowBytes; i++) {
+                    final int left = i >= bpp ? cur[i - bpp] & 0xff : 0;
+                    out[offset + i] = (byte) (cur[i] - (left + (prev[i] & 0xff) >>> 1));
+                }
+                break;
+            case 4: // Paeth
+                for (int i = 0; i < rowBytes; i++) {
+                    final int left = i >= bpp ? cur[i - bpp] & 0xff : 0;
+                    final int up = prev[i] & 0xff;
+                    final int upLeft = i >= bpp ? prev[i - bpp] & 0xff : 0;
+                    out[offset + i] = (byte) (cur[i] - paeth(left, up, upLeft));
+                }
+                break;
+            case 0: // None
+            default:
+                System.arraycopy(cur, 0, out, offset, rowBytes);
+                break;
+            }
+        }
+
+        private static int paeth(final int left, final int up, final int upLeft) {
+            final int p = left + up - upLeft;
+            final int pa = Math.abs(p - left);
+            final int pb = Math.abs(p - up);
+            final int pc = Math.abs(p - upLeft);
+            if (pa <= pb && pa <= pc) {
+                return left;
+            }
+            return pb <= pc ? up : upLeft;
+        }
+
+        private static void putInt(final byte[] buffer, final int offset, final int value) {
+            buffer[offset] = (byte) (value >> 24);
+            buffer[offset + 1] = (byte) (value >> 16);
+            buffer[offset + 2] = (byte) (value >> 8);
+            buffer[offset + 3] = (byte) value;
+        }
+    }
+}
@@ -3,9 +3,11 @@ package de.gsi.chart.utils;
 import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 
 import java.io.File;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -14,11 +16,11 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
 import java.util.TimeZone;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-
-import javax.imageio.ImageIO;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
 
 import javafx.animation.Animation;
 import javafx.animation.KeyFrame;
@@ -29,16 +31,25 @@ import javafx.beans.Observable;
 import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
 import javafx.scene.Scene;
-import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
 import javafx.scene.image.WritableImage;
 import javafx.util.Duration;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import de.gsi.dataset.utils.ArrayCache;
+import de.gsi.dataset.utils.CachedDaemonThreadFactory;
+
+import ar.com.hjg.pngj.FilterType;
+
 /**
  * Simple class to make a periodic (or on-demand) screen-shot of given JavaFX scene to file. Class permits to add an ISO
  * date-time string
+ * <p>
+ * Only the snapshot is taken on the JavaFX thread, the PNG encoding (optionally palette-based) and file I/O are
+ * performed asynchronously on a bounded background queue that drops the oldest pending captures if overloaded. The
+ * capture latency and number of dropped captures are available via the corresponding getters.
  *
  * @author rstein
  */
@@ -46,6 +57,10 @@ public class PeriodicScreenCapture implements Observable {
     private static final Logger LOGGER = LoggerFactory.getLogger(PeriodicScreenCapture.class);
     private static final String DEFAULT_TIME_FORMAT = "yyyyMMdd_HHmmss";
     private static final String FILE_LOGGING_SUFFIX = ".png";
+    private static final String PIXEL_ARRAY_CACHE_NAME = "PeriodicScreenCapture-pixels";
+    private static final double NANOS_TO_MILLIS = 1e-6;
+    /** maximum number of captures waiting to be encoded and written */
+    public static final int DEFAULT_QUEUE_CAPACITY = 3;
     private final Scene primaryScene;
     private final Path path;
     private final String fileName;
@@ -55,7 +70,13 @@ public class PeriodicScreenCapture implements Observable {
     private String isoDateTimeFormatString = DEFAULT_TIME_FORMAT;
     private final boolean addDateTime;
     protected final List<InvalidationListener> listeners = new LinkedList<>();
-    private final Timer timer = new Timer("sample-update-timer", true); // for non-JavaFX tasks
+    private boolean paletteEncoding;
+    private final ThreadPoolExecutor encoder = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(DEFAULT_QUEUE_CAPACITY), CachedDaemonThreadFactory.getInstance(), this::dropOldest); // for non-JavaFX tasks
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong writtenCount = new AtomicLong();
+    private final AtomicLong lastFxThreadDuration = new AtomicLong();
+    private final AtomicLong lastLatency = new AtomicLong();
+    private final AtomicLong maxLatency = new AtomicLong();
 
     public PeriodicScreenCapture(final Path path, final String fileName, final Scene scene, final double delay,
             final double period) {
@@ -103,17 +124,72 @@ public class PeriodicScreenCapture implements Observable {
         return isoDateTimeFormatString;
     }
 
+    /**
+     * @return number of captures that were dropped because the background queue was full
+     */
+    public long getDroppedCaptureCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * @return time spent on the JavaFX thread for the last capture (snapshot and pixel copy) [ms]
+     */
+    public double getLastFxThreadDuration() {
+        return lastFxThreadDuration.get() * NANOS_TO_MILLIS;
+    }
+
+    /**
+     * @return latency between the last snapshot and its image file being written [ms]
+     */
+    public double getLastLatency() {
+        return lastLatency.get() * NANOS_TO_MILLIS;
+    }
+
+    /**
+     * @return maximum latency between a snapshot and its image file being written [ms]
+     */
+    public double getMaxLatency() {
+        return maxLatency.get() * NANOS_TO_MILLIS;
+    }
+
+    /**
+     * @return number of captured images that have been written to file
+     */
+    public long getWrittenCaptureCount() {
+        return writtenCount.get();
+    }
+
+    /**
+     * @return true: images are written as indexed-colour PNGs with an estimated (NeuQuant) palette
+     */
+    public boolean isPaletteEncoding() {
+        return paletteEncoding;
+    }
+
+    /**
+     * Takes a snapshot of the scene and hands the encoding and writing of the image off to a background thread.
+     * <p>
+     * Only the snapshot into a pooled image and the copy of its pixels into a re-used buffer are executed on the JavaFX
+     * thread. Up to {@link #DEFAULT_QUEUE_CAPACITY} captures are queued for encoding. If the background thread cannot
+     * keep up, the oldest pending capture is dropped in favour of the newest one.
+     */
     public void performScreenCapture() {
         try {
-            final WritableImage image = primaryScene.snapshot(null);
-            // open save in separate thread
-            timer.schedule(new TimerTask() {
-                @Override
-                public void run() {
-                    writeImage(image);
-                }
-            }, 0);
+            final long start = System.nanoTime();
+            final int width = (int) Math.ceil(primaryScene.getWidth());
+            final int height = (int) Math.ceil(primaryScene.getHeight());
+            if (width <= 0 || height <= 0) {
+                return;
+            }
+            final WritableImage image = primaryScene.snapshot(WritableImageCache.getInstance().getImage(width, height));
+            final int imageWidth = (int) image.getWidth();
+            final int imageHeight = (int) image.getHeight();
+            final int[] pixels = ArrayCache.getCachedIntArray(PIXEL_ARRAY_CACHE_NAME, imageWidth * imageHeight);
+            image.getPixelReader().getPixels(0, 0, imageWidth, imageHeight, PixelFormat.getIntArgbInstance(), pixels, 0, imageWidth);
+            WritableImageCache.getInstance().add(image);
 
+            lastFxThreadDuration.set(System.nanoTime() - start);
+            encoder.execute(new CaptureTask(pixels, imageWidth, imageHeight, System.currentTimeMillis(), start));
             LOGGER.debug("this is called periodic on UI thread");
         } catch (final Exception e) {
             // continue at all costs
@@ -154,12 +230,32 @@ public class PeriodicScreenCapture implements Observable {
         }
     }
 
-    private void writeImage(final Image image) {
-        final long now = System.currentTimeMillis();
+    /**
+     * @param state true: write indexed-colour PNGs with an estimated (NeuQuant) palette (smaller files, lossy), false:
+     *            write RGBA PNGs (default)
+     */
+    public void setPaletteEncoding(final boolean state) {
+        paletteEncoding = state;
+    }
+
+    private void dropOldest(final Runnable newTask, final ThreadPoolExecutor executor) {
+        if (executor.isShutdown()) {
+            return;
+        }
+        final Runnable oldest = executor.getQueue().poll();
+        if (oldest instanceof CaptureTask) {
+            ((CaptureTask) oldest).release();
+            droppedCount.incrementAndGet();
+            LOGGER.atWarn().addArgument(fileName).log("screen capture encoder overloaded - dropped oldest capture of '{}'");
+        }
+        executor.execute(newTask);
+    }
+
+    private boolean writeImage(final int[] pixels, final int width, final int height, final long timeMillis) {
         try {
             final String format = getIsoDateTimeFormatterString();
             final String longFileName = addDateTime && format != null && !format.isEmpty()
-                                                ? path.toFile() + String.format("/%s_%s%s", fileName, getISODate(now, format), FILE_LOGGING_SUFFIX)
+                                                ? path.toFile() + String.format("/%s_%s%s", fileName, getISODate(timeMillis, format), FILE_LOGGING_SUFFIX)
                                                 : path.toFile() + "/" + fileName;
             final String tempFileName = longFileName + "_temp.png";
             final File file = new File(tempFileName);
@@ -167,13 +263,21 @@ public class PeriodicScreenCapture implements Observable {
                 LOGGER.info("needed to create directory for file: " + longFileName);
             }
 
-            WriteFxImage.savePng(image, file);
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                if (paletteEncoding) {
+                    WriteFxImage.encodePaletteParallel(pixels, width, height, channel, true, Deflater.BEST_SPEED, FilterType.FILTER_NONE);
+                } else {
+                    WriteFxImage.encodeParallel(pixels, width, height, channel, true, Deflater.BEST_SPEED, FilterType.FILTER_NONE);
+                }
+            }
             Files.move(Paths.get(tempFileName), Paths.get(longFileName), REPLACE_EXISTING);
             fireInvalidated();
             LOGGER.debug("write screenshot to " + tempFileName + " -> " + longFileName);
+            return true;
         } catch (final Exception e) {
             LOGGER.error("could not write to file: '" + fileName + "'", e);
         }
+        return false;
     }
 
     protected static String getISODate(final long timeMillis, final String format) {
@@ -183,4 +287,45 @@ public class PeriodicScreenCapture implements Observable {
         df.setTimeZone(tz);
         return df.format(new Date(time));
     }
+
+    /**
+     * pending capture: copied pixels and time stamps
+     */
+    private final class CaptureTask implements Runnable {
+        private final int[] pixels;
+        private final int width;
+        private final int height;
+        private final long timeMillis;
+        private final long snapshotNanos;
+
+        private CaptureTask(final int[] pixels, final int width, final int height, final long timeMillis, final long snapshotNanos) {
+            this.pixels = pixels;
+            this.width = width;
+            this.height = height;
+            this.timeMillis = timeMillis;
+            this.snapshotNanos = snapshotNanos;
+        }
+
+        @Override
+        public void run() {
+            final boolean written;
+            try {
+                written = writeImage(pixels, width, height, timeMillis);
+            } finally {
+                release();
+            }
+            if (!written) {
+                return;
+            }
+            final long latency = System.nanoTime() - snapshotNanos;
+            lastLatency.set(latency);
+            maxLatency.accumulateAndGet(latency, Math::max);
+            writtenCount.incrementAndGet();
+            LOGGER.atDebug().addArgument(fileName).addArgument(latency * NANOS_TO_MILLIS).log("screen capture '{}' written - latency {} ms");
+        }
+
+        private void release() {
+            ArrayCache.release(PIXEL_ARRAY_CACHE_NAME, pixels);
+        }
+    }
 }
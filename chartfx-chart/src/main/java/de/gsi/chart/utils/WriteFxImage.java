@@ -2,14 +2,17 @@ package de.gsi.chart.utils;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.OutputStream;
 import java.nio.ByteBuffer;
-import java.nio.file.Files;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.Map;
 import java.util.zip.CRC32;
 import java.util.zip.Deflater;
 
 import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
 import javafx.scene.image.PixelReader;
 import javafx.scene.image.PixelWriter;
 import javafx.scene.image.WritableImage;
@@ -33,9 +36,10 @@ import ar.com.hjg.pngj.pixels.PixelsWriterDefault;
 /**
  * Writes a JavaFx Image into a ByteBuffer or file
  *
- * possible improvements: - use multiple IDAT chunks to use fixed buffer size
- * and limit memory footprint - implement filtering of lines before compression
- * for smaller file sizes - Optionally add tEXT chunks for metadata (EXIF)
+ * The 'encodeParallel' variants filter and compress horizontal stripes of the
+ * image in parallel and stream them as multiple IDAT chunks to a channel.
+ *
+ * possible improvements: - Optionally add tEXT chunks for metadata (EXIF)
  *
  * @author Alexander Krimm
  */
@@ -43,6 +47,7 @@ import ar.com.hjg.pngj.pixels.PixelsWriterDefault;
 public final class WriteFxImage {
     private static final Logger LOGGER = LoggerFactory.getLogger(WriteFxImage.class);
     private static final int DEFAULT_PALETTE_COLOR_COUNT = 256;
+    private static final int DEFAULT_COMPRESSION_LEVEL = Deflater.BEST_SPEED; // of encode(Image) and savePng(Image, File)
     private static final String IMAGE_PIXEL_READER_NOT_AVAILABLE = "image PixelReader not available";
     private static final String IMAGE_MUST_NOT_BE_NULL = "image must not be null";
     private static final int HEADER_SIZE = 8 + 12 + 13 + 12 + 12; // size of all the headers and other Metadata
@@ -118,7 +123,7 @@ public final class WriteFxImage {
      * @see <a href="https://tools.ietf.org/html/rfc2083">rfc2083</a>
      */
     public static ByteBuffer encode(final Image image) {
-        return encode(image, null, true, Deflater.BEST_SPEED, null);
+        return encode(image, null, true, DEFAULT_COMPRESSION_LEVEL, null);
     }
 
     /**
@@ -303,6 +308,120 @@ public final class WriteFxImage {
         return null;
     }
 
+    /**
+     * Encodes a JavaFx image as an RGB(A) png image using the parallel stripe encoder (see
+     * {@link #encodeParallel(int[], int, int, WritableByteChannel, boolean, int, FilterType)}).
+     *
+     * @param image            The input image to be encoded
+     * @param byteBuffer       optional byte buffer to store the output in, pass null to return a new (auto-enlarging)
+     *                         one.
+     * @param alpha            whether to include alpha information in the image
+     * @param compressionLevel {@link Deflater#BEST_COMPRESSION} (9) to {@link Deflater#NO_COMPRESSION} (0)
+     * @param filterType       filter as outlined in https://tools.ietf.org/html/rfc2083#section-6, other (non-standard)
+     *                         types select the filter per line adaptively
+     * @return a byte buffer with the encoded image
+     */
+    public static ByteBuffer encodeParallel(final Image image, final ByteBuffer byteBuffer, final boolean alpha, final int compressionLevel, final FilterType filterType) {
+        if (image == null) {
+            throw new IllegalArgumentException(IMAGE_MUST_NOT_BE_NULL);
+        }
+        final int w = (int) image.getWidth();
+        final int h = (int) image.getHeight();
+        final ByteBuffer outputByteBuffer = byteBuffer == null ? ByteBuffer.allocate(getCompressedSizeBound(w, h, alpha)) : byteBuffer;
+        try (ByteBufferOutputStream os = new ByteBufferOutputStream(outputByteBuffer, byteBuffer == null)) {
+            encodeParallel(image, Channels.newChannel(os), alpha, compressionLevel, filterType);
+            return os.buffer().flip();
+        } catch (IOException e) {
+            LOGGER.atError().setCause(e).log("buffer couldn't be closed");
+        }
+        return null;
+    }
+
+    /**
+     * Encodes a JavaFx image as an RGB(A) png image and streams it to the given channel using the parallel stripe
+     * encoder (see {@link #encodeParallel(int[], int, int, WritableByteChannel, boolean, int, FilterType)}).
+     *
+     * @param image            The input image to be encoded
+     * @param channel          the channel to write the png to (N.B. not closed by this method)
+     * @param alpha            whether to include alpha information in the image
+     * @param compressionLevel {@link Deflater#BEST_COMPRESSION} (9) to {@link Deflater#NO_COMPRESSION} (0)
+     * @param filterType       filter as outlined in https://tools.ietf.org/html/rfc2083#section-6, other (non-standard)
+     *                         types select the filter per line adaptively
+     * @throws IOException if the channel cannot be written
+     */
+    public static void encodeParallel(final Image image, final WritableByteChannel channel, final boolean alpha, final int compressionLevel, final FilterType filterType) throws IOException {
+        if (image == null) {
+            throw new IllegalArgumentException(IMAGE_MUST_NOT_BE_NULL);
+        }
+        final PixelReader pr = image.getPixelReader();
+        if (pr == null) {
+            throw new IllegalStateException(IMAGE_PIXEL_READER_NOT_AVAILABLE);
+        }
+        final int w = (int) image.getWidth();
+        final int h = (int) image.getHeight();
+        final int[] uncompressedImageData = ArrayCache.getCachedIntArray(INTERNAL_ARRAY_CACHE_NAME, w * h);
+        try {
+            pr.getPixels(0, 0, w, h, PixelFormat.getIntArgbInstance(), uncompressedImageData, 0, w);
+            encodeParallel(uncompressedImageData, w, h, channel, alpha, compressionLevel, filterType);
+        } finally {
+            ArrayCache.release(INTERNAL_ARRAY_CACHE_NAME, uncompressedImageData);
+        }
+    }
+
+    /**
+     * Encodes ARGB pixel data as an RGB(A) png image and streams it to the given channel.
+     * <p>
+     * The image is split into horizontal stripes (~128 kB uncompressed) that are filtered and deflated in parallel. Each
+     * stripe is primed with the last 32 kB of the preceding image data as preset dictionary to retain most of the
+     * compression ratio, and is written as a separate IDAT chunk as soon as it and all preceding stripes are finished.
+     * This limits the memory footprint to a few stripes per thread rather than the full compressed image.
+     *
+     * @param pixels           ARGB pixel data (row-major, e.g. from {@link #copyImageDataToPixelBuffer(Image, int[])})
+     * @param width            image width
+     * @param height           image height
+     * @param channel          the channel to write the png to (N.B. not closed by this method)
+     * @param alpha            whether to include alpha information in the image
+     * @param compressionLevel {@link Deflater#BEST_COMPRESSION} (9) to {@link Deflater#NO_COMPRESSION} (0)
+     * @param filterType       filter as outlined in https://tools.ietf.org/html/rfc2083#section-6, other (non-standard)
+     *                         types select the filter per line adaptively
+     * @throws IOException if the channel cannot be written
+     */
+    public static void encodeParallel(final int[] pixels, final int width, final int height, final WritableByteChannel channel, final boolean alpha, final int compressionLevel, final FilterType filterType) throws IOException {
+        if (pixels == null) {
+            throw new IllegalArgumentException("pixels must not be null");
+        }
+        if (channel == null) {
+            throw new IllegalArgumentException("channel must not be null");
+        }
+        ParallelPngEncoder.encode(pixels, width, height, alpha, null, compressionLevel, filterType, channel);
+    }
+
+    /**
+     * Encodes ARGB pixel data as indexed-colour png image and streams it to the given channel using the parallel stripe
+     * encoder (see {@link #encodeParallel(int[], int, int, WritableByteChannel, boolean, int, FilterType)}).
+     *
+     * @param pixels           ARGB pixel data (row-major)
+     * @param width            image width
+     * @param height           image height
+     * @param channel          the channel to write the png to (N.B. not closed by this method)
+     * @param alpha            whether to map the alpha information to the palette's transparent colour
+     * @param compressionLevel {@link Deflater#BEST_COMPRESSION} (9) to {@link Deflater#NO_COMPRESSION} (0)
+     * @param filterType       filter as outlined in https://tools.ietf.org/html/rfc2083#section-6, other (non-standard)
+     *                         types select the filter per line adaptively
+     * @param userPalette      optional palette, estimated from the image data if not provided
+     * @throws IOException if the channel cannot be written
+     */
+    public static void encodePaletteParallel(final int[] pixels, final int width, final int height, final WritableByteChannel channel, final boolean alpha, final int compressionLevel, final FilterType filterType, final PaletteQuantizer... userPalette) throws IOException {
+        if (pixels == null) {
+            throw new IllegalArgumentException("pixels must not be null");
+        }
+        if (channel == null) {
+            throw new IllegalArgumentException("channel must not be null");
+        }
+        final PaletteQuantizer palette = userPalette.length > 0 && userPalette[0] != null ? userPalette[0] : estimatePalette(pixels, width, height, alpha, DEFAULT_PALETTE_COLOR_COUNT);
+        ParallelPngEncoder.encode(pixels, width, height, alpha, palette, compressionLevel, filterType, channel);
+    }
+
     public static PaletteQuantizer estimatePalette(final Image image, final boolean alpha, final int nColors) {
         if (image == null) {
             throw new IllegalArgumentException(IMAGE_MUST_NOT_BE_NULL);
@@ -359,16 +478,20 @@ public final class WriteFxImage {
     }
 
     /**
-     * Saves the given image as a png file.
+     * Saves the given image as a png file with the same fastest (lossless) compression and filter as
+     * {@link #encode(Image)}.
+     * <p>
+     * N.B. the image is compressed in parallel stripes (see
+     * {@link #encodeParallel(Image, WritableByteChannel, boolean, int, FilterType)}): the decoded image is identical, the
+     * file is typically slightly larger than the sequentially compressed one due to the per-stripe sync flush.
      *
      * @param image The image to save
      * @param file  The filename to save the image to.
      * @throws IOException if the file cannot be written
      */
     public static void savePng(final Image image, final File file) throws IOException {
-        try (OutputStream os = Files.newOutputStream(file.toPath())) {
-            final ByteBuffer buffer = WriteFxImage.encode(image);
-            os.write(buffer.array(), 0, buffer.limit());
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            encodeParallel(image, channel, true, DEFAULT_COMPRESSION_LEVEL, FilterType.FILTER_NONE);
         }
     }
 
@@ -1,15 +1,19 @@
 package de.gsi.chart.axes.spi;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.Arrays;
+
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import de.gsi.chart.axes.LogAxisType;
+import de.gsi.chart.ui.geometry.Side;
 
 /**
  * @author rstein
@@ -50,6 +54,39 @@ public class DefaultNumericAxisTests {
         }
     }
 
+    @Test
+    public void bulkDisplayPositionTests() {
+        final double[] values = { -20.0, -10.0, -1.0, 0.0, 0.1, 1.0, 5.0, 10.0, 20.0, Double.NaN };
+        final DefaultNumericAxis axis = new DefaultNumericAxis("axis name", -10, +10, 1.0);
+        axis.resize(500, 300);
+
+        for (final Side side : new Side[] { Side.BOTTOM, Side.LEFT }) {
+            axis.setSide(side);
+            for (final boolean logAxis : new boolean[] { false, true }) {
+                axis.setLogAxis(logAxis);
+                axis.setMin(logAxis ? 0.1 : -10);
+                for (final boolean inverted : new boolean[] { false, true }) {
+                    axis.invertAxis(inverted);
+                    axis.updateCachedVariables();
+                    final double[] expected = new double[values.length];
+                    for (int i = 0; i < values.length; i++) {
+                        expected[i] = axis.getDisplayPosition(values[i]);
+                    }
+                    final double[] positions = new double[values.length];
+                    axis.getDisplayPositions(values, positions, 0, values.length);
+                    assertArrayEquals(expected, positions, side + " log=" + logAxis + " inverted=" + inverted);
+
+                    // in-place and sub-range transform
+                    final double[] inPlace = values.clone();
+                    axis.getDisplayPositions(inPlace, inPlace, 2, 5);
+                    assertEquals(values[1], inPlace[1]);
+                    assertArrayEquals(Arrays.copyOfRange(expected, 2, 5), Arrays.copyOfRange(inPlace, 2, 5));
+                    assertEquals(values[5], inPlace[5]);
+                }
+            }
+        }
+    }
+
     /**
      * tests parameters not already covered in AbstractAxisParameterTests
      */
@@ -0,0 +1,65 @@
+package de.gsi.chart.renderer.spi;
+
+import java.lang.management.ManagementFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares the heap allocation per frame of the cache-backed {@link CachedDataPoints} (new instance per data set and
+ * frame) with the per-renderer pooled instances that are re-used across frames.
+ * <p>
+ * N.B. allocations are measured with {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)} for the
+ * benchmark thread, i.e. they include any allocation of the array caches themselves (look-up, soft references, ...).
+ */
+public class CachedDataPointsBenchmark {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CachedDataPointsBenchmark.class);
+    private static final int N_WARM_UP = 1000;
+    private static final int N_FRAMES = 10_000;
+    private static final int[] N_SAMPLES = { 1_000, 100_000 };
+
+    public static void main(final String[] args) {
+        final com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threadBean.isThreadAllocatedMemorySupported()) {
+            LOGGER.atWarn().log("thread allocated memory measurement not supported by this JVM");
+            return;
+        }
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+        for (final int nSamples : N_SAMPLES) {
+            for (final boolean growing : new boolean[] { false, true }) {
+                measure(threadBean, nSamples, growing, false);
+                measure(threadBean, nSamples, growing, true);
+            }
+        }
+    }
+
+    private static void measure(final com.sun.management.ThreadMXBean threadBean, final int nSamples, final boolean growing, final boolean pooled) {
+        final CachedDataPoints arena = new CachedDataPoints();
+        frames(arena, nSamples, N_WARM_UP, growing, pooled);
+
+        final long threadId = Thread.currentThread().getId();
+        final long bytesBefore = threadBean.getThreadAllocatedBytes(threadId);
+        final long start = System.nanoTime();
+        frames(arena, nSamples, N_FRAMES, growing, pooled);
+        final long stop = System.nanoTime();
+        final long bytes = threadBean.getThreadAllocatedBytes(threadId) - bytesBefore;
+
+        LOGGER.atInfo() //
+                .addArgument(pooled ? "pooled  " : "cached  ") //
+                .addArgument(growing ? "growing " : "constant") //
+                .addArgument(nSamples) //
+                .addArgument(String.format("%10.1f", bytes / (double) N_FRAMES)) //
+                .addArgument(String.format("%8.2f", (stop - start) * 1e-3 / N_FRAMES)) //
+                .log("{} {} n = {}: {} bytes/frame {} us/frame");
+    }
+
+    private static void frames(final CachedDataPoints arena, final int nSamples, final int nFrames, final boolean growing, final boolean pooled) {
+        for (int frame = 0; frame < nFrames; frame++) {
+            // growing: continuously appended data set, e.g. a live-updated time series
+            final int length = growing ? nSamples + frame : nSamples;
+            final CachedDataPoints points = pooled ? arena.resize(0, length, length, true) : new CachedDataPoints(0, length, length, true);
+            points.xValues[length - 1] = frame;
+            points.release();
+        }
+    }
+}
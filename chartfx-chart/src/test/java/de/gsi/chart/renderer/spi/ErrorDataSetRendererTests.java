@@ -1,6 +1,7 @@
 package de.gsi.chart.renderer.spi;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import static de.gsi.chart.ui.utils.FuzzyTestImageUtils.compareAndWriteReference;
@@ -29,6 +30,7 @@ import de.gsi.chart.renderer.LineStyle;
 import de.gsi.chart.ui.utils.JavaFXInterceptorUtils.SelectiveJavaFxInterceptor;
 import de.gsi.chart.utils.FXUtils;
 import de.gsi.dataset.DataSet;
+import de.gsi.dataset.spi.DoubleDataSet;
 import de.gsi.dataset.spi.DoubleErrorDataSet;
 import de.gsi.dataset.testdata.spi.SineFunction;
 import de.gsi.math.DataSetMath;
@@ -121,6 +123,49 @@ public class ErrorDataSetRendererTests {
         }
     }
 
+    @Test
+    public void testLevelOfDetail() throws Exception {
+        final int nSamples = 100 * N_SAMPLES;
+        final DoubleDataSet dataSet = new DoubleDataSet("lod-test", nSamples).setMinMaxPyramid(true);
+        for (int i = 0; i < nSamples; i++) {
+            dataSet.add(i, Math.sin(0.001 * i));
+        }
+        renderer.setLevelOfDetail(true);
+        renderer.setPolyLineStyle(LineStyle.NORMAL);
+        try {
+            final long allocatedBytes = renderer.getCachedDataPointsAllocatedBytes();
+            FXUtils.runAndWait(() -> renderer.getDatasets().setAll(dataSet));
+            FXUtils.runAndWait(() -> chart.requestLayout());
+            assertTrue(FXUtils.waitForFxTicks(chart.getScene(), WAIT_N_FX_PULSES, MAX_TIMEOUT_MILLIS));
+            // only the ~2 representative points per pixel column are converted to screen coordinates
+            assertTrue(renderer.getCachedDataPointsAllocatedBytes() - allocatedBytes < nSamples * (long) Double.BYTES,
+                    "level-of-detail reduced screen-coordinate buffers");
+        } finally {
+            renderer.setLevelOfDetail(false);
+        }
+    }
+
+    @Test
+    public void testSteadyStateAllocation() throws Exception {
+        renderer.setPolyLineStyle(LineStyle.NORMAL);
+        FXUtils.runAndWait(() -> renderer.getDatasets().setAll(getTestDataSet()));
+        FXUtils.runAndWait(() -> chart.requestLayout());
+        assertTrue(FXUtils.waitForFxTicks(chart.getScene(), WAIT_N_FX_PULSES, MAX_TIMEOUT_MILLIS));
+        final long allocationCount = renderer.getCachedDataPointsAllocationCount();
+        final long allocatedBytes = renderer.getCachedDataPointsAllocatedBytes();
+        assertTrue(allocationCount > 0, "initial buffer allocation");
+        assertTrue(allocatedBytes >= N_SAMPLES * 2L * Double.BYTES, "initial buffer size");
+
+        for (int frame = 0; frame < 5; frame++) {
+            // re-render the unchanged data set
+            FXUtils.runAndWait(() -> renderer.getDatasets().get(0).invokeListener());
+            FXUtils.runAndWait(() -> chart.requestLayout());
+            assertTrue(FXUtils.waitForFxTicks(chart.getScene(), WAIT_N_FX_PULSES, MAX_TIMEOUT_MILLIS));
+        }
+        assertEquals(allocationCount, renderer.getCachedDataPointsAllocationCount(), "steady-state re-allocations");
+        assertEquals(allocatedBytes, renderer.getCachedDataPointsAllocatedBytes(), "steady-state allocated bytes");
+    }
+
     private void testRenderer(final LineStyle lineStyle) throws IOException, Exception {
         renderer.setPolyLineStyle(lineStyle);
         final String referenceImage = getReferenceImageFileName();
@@ -0,0 +1,88 @@
+package de.gsi.chart.renderer.spi;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static de.gsi.dataset.DataSet.DIM_X;
+import static de.gsi.dataset.DataSet.DIM_Y;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import de.gsi.dataset.DataSetError.ErrorType;
+import de.gsi.dataset.spi.DoubleDataSet;
+import de.gsi.dataset.utils.MinMaxPyramid;
+
+/**
+ * Tests the level-of-detail view used by the {@link ErrorDataSetRenderer}
+ */
+public class LevelOfDetailDataSetTests {
+    private static final int N_SAMPLES = 1000;
+    private static final int N_COLUMNS = 100;
+
+    @Test
+    public void testCeilIndex() {
+        final DoubleDataSet dataSet = new DoubleDataSet("test");
+        final double[] x = { 0.0, 1.0, 1.0, 1.0, 2.0, 3.0, 3.0, 4.0 };
+        for (final double value : x) {
+            dataSet.add(value, value);
+        }
+        for (double value = -0.5; value <= 4.5; value += 0.25) {
+            int expected = 0;
+            while (expected < x.length && x[expected] < value) {
+                expected++;
+            }
+            assertEquals(expected, LevelOfDetailDataSet.ceilIndex(dataSet, value, 0, x.length), "value = " + value);
+        }
+        assertEquals(2, LevelOfDetailDataSet.ceilIndex(dataSet, 0.5, 2, x.length), "lower bound");
+        assertEquals(5, LevelOfDetailDataSet.ceilIndex(dataSet, 4.0, 0, 5), "upper bound");
+    }
+
+    @Test
+    public void testColumnEdges() {
+        // sample i is at x = i, pixel column c covers [10*c + 0.4, 10*(c + 1) + 0.4[
+        // -> the samples at the column edges (x = 10*c) belong to the preceding column
+        final Random random = new Random(42);
+        final DoubleDataSet dataSet = new DoubleDataSet("test").setMinMaxPyramid(true);
+        for (int i = 0; i < N_SAMPLES; i++) {
+            dataSet.add(i, i % 10 == 0 ? -1.0 - random.nextDouble() : random.nextDouble());
+        }
+        final MinMaxPyramid pyramid = dataSet.getMinMaxPyramid();
+        final LevelOfDetailDataSet view = new LevelOfDetailDataSet();
+        view.set(dataSet, pyramid, column -> 10.0 * column + 0.4, N_COLUMNS, 0, N_SAMPLES);
+
+        // reference: min/max of the exact column ranges
+        final int[] columnStart = new int[N_COLUMNS];
+        for (int column = 1; column < N_COLUMNS; column++) {
+            columnStart[column] = 10 * column + 1;
+        }
+        final int[] expected = new int[2 * N_COLUMNS + 2];
+        final int nExpected = pyramid.reduce(columnStart, N_COLUMNS, N_SAMPLES, expected);
+        assertEquals(nExpected, view.getDataCount());
+        final double[] selected = new double[nExpected];
+        final double[] reference = new double[nExpected];
+        for (int i = 0; i < nExpected; i++) {
+            selected[i] = view.get(DIM_X, i);
+            reference[i] = dataSet.get(DIM_X, expected[i]);
+        }
+        assertArrayEquals(reference, selected);
+        for (int column = 1; column < N_COLUMNS; column++) {
+            // edge sample is the minimum of the preceding column
+            final double edge = 10.0 * column;
+            boolean found = false;
+            for (final double value : selected) {
+                found |= value == edge;
+            }
+            assertTrue(found, "edge sample " + edge);
+        }
+        assertEquals(ErrorType.NO_ERROR, view.getErrorType(DIM_X));
+        assertEquals(ErrorType.ASYMMETRIC, view.getErrorType(DIM_Y));
+        assertEquals(dataSet.getName(), view.getName());
+
+        view.release();
+        assertEquals(0, view.getDataCount());
+        assertEquals(LevelOfDetailDataSet.class.getSimpleName(), view.getName(), "source reference released");
+    }
+}
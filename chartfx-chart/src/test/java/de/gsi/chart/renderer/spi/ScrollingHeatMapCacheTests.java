@@ -0,0 +1,173 @@
+package de.gsi.chart.renderer.spi;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import de.gsi.chart.axes.AxisTransform;
+import de.gsi.chart.renderer.spi.utils.ColorGradient;
+
+/**
+ * Tests the incremental colour-mapping of scrolling heatmap data against the full update
+ */
+public class ScrollingHeatMapCacheTests {
+    private static final int WIDTH = 37;
+    private static final int HEIGHT = 23;
+    private static final int N_QUANT = 20;
+    private static final AxisTransform IDENTITY = new AxisTransform() {
+        @Override
+        public double backward(double val) {
+            return val;
+        }
+
+        @Override
+        public double forward(double val) {
+            return val;
+        }
+
+        @Override
+        public double getMaximumRange() {
+            // not necessary for this test
+            return 0;
+        }
+
+        @Override
+        public double getMinimumRange() {
+            // not necessary for this test
+            return 0;
+        }
+
+        @Override
+        public double getRoundedMaximumRange(double val) {
+            // not necessary for this test
+            return 0;
+        }
+
+        @Override
+        public double getRoundedMinimumRange(double val) {
+            // not necessary for this test
+            return 0;
+        }
+
+        @Override
+        public void setMaximumRange(double val) {
+            // not necessary for this test
+        }
+
+        @Override
+        public void setMinimumRange(double val) {
+            // not necessary for this test
+        }
+    };
+
+    @Test
+    public void testScrolling() {
+        final Random random = new Random(42);
+        final double[] frame = new double[WIDTH * HEIGHT];
+        for (int i = 0; i < frame.length; i++) {
+            frame[i] = random.nextDouble();
+        }
+        final ScrollingHeatMapCache cache = new ScrollingHeatMapCache();
+        assertEquals(WIDTH * HEIGHT, update(cache, frame, ColorGradient.DEFAULT, 1.0));
+        assertReference(cache, frame, ColorGradient.DEFAULT, 1.0);
+
+        // unchanged frame
+        assertEquals(0, update(cache, frame, ColorGradient.DEFAULT, 1.0));
+
+        // waterfall: oldest row dropped, new rows appended at the end
+        for (final int nRows : new int[] { 1, 3 }) {
+            System.arraycopy(frame, nRows * WIDTH, frame, 0, (HEIGHT - nRows) * WIDTH);
+            for (int i = (HEIGHT - nRows) * WIDTH; i < frame.length; i++) {
+                frame[i] = random.nextDouble();
+            }
+            assertEquals(nRows * WIDTH, update(cache, frame, ColorGradient.DEFAULT, 1.0));
+            assertEquals(nRows, cache.getShiftRows());
+            assertReference(cache, frame, ColorGradient.DEFAULT, 1.0);
+        }
+
+        // new row inserted at the beginning
+        System.arraycopy(frame, 0, frame, WIDTH, (HEIGHT - 1) * WIDTH);
+        for (int i = 0; i < WIDTH; i++) {
+            frame[i] = random.nextDouble();
+        }
+        assertEquals(WIDTH, update(cache, frame, ColorGradient.DEFAULT, 1.0));
+        assertEquals(-1, cache.getShiftRows());
+        assertReference(cache, frame, ColorGradient.DEFAULT, 1.0);
+
+        // horizontally scrolling data: new columns at the end and at the beginning
+        for (final int nColumns : new int[] { 2, -1 }) {
+            for (int row = 0; row < HEIGHT; row++) {
+                final int offset = row * WIDTH;
+                if (nColumns > 0) {
+                    System.arraycopy(frame, offset + nColumns, frame, offset, WIDTH - nColumns);
+                    for (int column = WIDTH - nColumns; column < WIDTH; column++) {
+                        frame[offset + column] = random.nextDouble();
+                    }
+                } else {
+                    System.arraycopy(frame, offset, frame, offset - nColumns, WIDTH + nColumns);
+                    for (int column = 0; column < -nColumns; column++) {
+                        frame[offset + column] = random.nextDouble();
+                    }
+                }
+            }
+            assertEquals(Math.abs(nColumns) * HEIGHT, update(cache, frame, ColorGradient.DEFAULT, 1.0));
+            assertEquals(nColumns, cache.getShiftColumns());
+            assertReference(cache, frame, ColorGradient.DEFAULT, 1.0);
+        }
+
+        // arbitrary new content
+        frame[WIDTH * HEIGHT / 2] += 0.5;
+        frame[0] += 0.5;
+        assertEquals(WIDTH * HEIGHT, update(cache, frame, ColorGradient.DEFAULT, 1.0));
+        assertReference(cache, frame, ColorGradient.DEFAULT, 1.0);
+
+        // colour-scale changes invalidate the whole image
+        assertEquals(WIDTH * HEIGHT, update(cache, frame, ColorGradient.JET, 1.0));
+        assertReference(cache, frame, ColorGradient.JET, 1.0);
+        assertEquals(WIDTH * HEIGHT, update(cache, frame, ColorGradient.JET, 2.0));
+        assertReference(cache, frame, ColorGradient.JET, 2.0);
+    }
+
+    private static void assertReference(final ScrollingHeatMapCache cache, final double[] frame, final ColorGradient gradient, final double zMax) {
+        final ScrollingHeatMapCache reference = new ScrollingHeatMapCache();
+        update(reference, frame, gradient, zMax);
+        assertArrayEquals(reference.getByteBuffer(), cache.getByteBuffer());
+
+        // cross-check with the non-incremental implementation
+        final double[] quantised = Arrays.copyOf(frame, frame.length);
+        ContourDataSetCache.quantizeData(quantised, WIDTH, HEIGHT, false, 0.0, zMax, IDENTITY, N_QUANT);
+        final int[] color = gradient.getColorBytes(quantised[0]);
+        final int pixelIndex = 4 * WIDTH * (HEIGHT - 1); // first data row is drawn at the bottom
+        assertEquals((byte) color[3], cache.getByteBuffer()[pixelIndex]);
+        assertEquals((byte) color[0], cache.getByteBuffer()[pixelIndex + 3]);
+    }
+
+    @Test
+    public void testSharedGradient() {
+        final Random random = new Random(42);
+        final double[] frame = new double[WIDTH * HEIGHT];
+        for (int i = 0; i < frame.length; i++) {
+            frame[i] = random.nextDouble();
+        }
+        // two charts sharing the same (static) gradient with different z-ranges
+        final ScrollingHeatMapCache cache1 = new ScrollingHeatMapCache();
+        final ScrollingHeatMapCache cache2 = new ScrollingHeatMapCache();
+        final ColorGradient gradient = ColorGradient.DEFAULT;
+        assertEquals(WIDTH * HEIGHT, update(cache1, frame, gradient, 1.0));
+        assertEquals(WIDTH * HEIGHT, update(cache2, frame, gradient, 2.0));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, update(cache1, frame, gradient, 1.0), "unchanged frame does not trigger a full redraw");
+            assertEquals(0, update(cache2, frame, gradient, 2.0), "unchanged frame does not trigger a full redraw");
+        }
+        assertReference(cache1, frame, gradient, 1.0);
+        assertReference(cache2, frame, gradient, 2.0);
+    }
+
+    private static int update(final ScrollingHeatMapCache cache, final double[] frame, final ColorGradient gradient, final double zMax) {
+        return cache.updateBuffer(frame, WIDTH, HEIGHT, gradient, IDENTITY, 0.0, zMax, false, N_QUANT);
+    }
+}
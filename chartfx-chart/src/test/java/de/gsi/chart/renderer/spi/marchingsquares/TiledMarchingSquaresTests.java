@@ -0,0 +1,139 @@
+package de.gsi.chart.renderer.spi.marchingsquares;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the tiled marching squares contour extraction and segment stitching
+ */
+public class TiledMarchingSquaresTests {
+    private static final int WIDTH = 301;
+    private static final int HEIGHT = 257;
+    private static final double CENTRE_X = 150.3;
+    private static final double CENTRE_Y = 120.7;
+
+    @Test
+    public void testCircles() {
+        final double[] data = distanceField();
+        final double[] levels = { 10.0, 50.0, 100.0, 200.0, 1000.0 };
+        final Isoline[] isolines = new TiledMarchingSquares().buildContours(data, WIDTH, HEIGHT, levels, false);
+        assertEquals(levels.length, isolines.length);
+
+        // circles inside the grid -> one closed polyline on the circle
+        for (int level = 0; level < 3; level++) {
+            final Isoline isoline = isolines[level];
+            assertEquals(levels[level], isoline.getLevel());
+            assertEquals(1, isoline.getPolylineCount());
+            assertTrue(isoline.isClosed(0));
+            assertEquals(isoline.getPointCount(), isoline.getPolylineEnd(0) - isoline.getPolylineStart(0));
+            for (int i = 0; i < isoline.getPointCount(); i++) {
+                final double radius = Math.hypot(isoline.getX()[i] - CENTRE_X, isoline.getY()[i] - CENTRE_Y);
+                assertEquals(levels[level], radius, 0.1, "point " + i);
+            }
+        }
+
+        // circle crossing the grid boundary -> open polylines ending on the boundary
+        final Isoline clipped = isolines[3];
+        assertTrue(clipped.getPolylineCount() > 0);
+        for (int polyline = 0; polyline < clipped.getPolylineCount(); polyline++) {
+            assertFalse(clipped.isClosed(polyline));
+            assertOnBoundary(clipped, clipped.getPolylineStart(polyline));
+            assertOnBoundary(clipped, clipped.getPolylineEnd(polyline) - 1);
+        }
+
+        // circle outside the grid
+        assertEquals(0, isolines[4].getPolylineCount());
+        assertEquals(0, isolines[4].getPointCount());
+    }
+
+    @Test
+    public void testTilingAndParallelisation() {
+        final double[] data = new double[WIDTH * HEIGHT];
+        for (int row = 0; row < HEIGHT; row++) {
+            for (int column = 0; column < WIDTH; column++) {
+                data[row * WIDTH + column] = Math.sin(0.1 * column) * Math.cos(0.13 * row);
+            }
+        }
+        // NaN holes interrupt the lines
+        data[100 * WIDTH + 100] = Double.NaN;
+        data[200 * WIDTH + 10] = Double.NaN;
+        final double[] levels = new double[10];
+        for (int i = 0; i < levels.length; i++) {
+            levels[i] = -0.9 + 0.2 * i;
+        }
+
+        final Isoline[] reference = new TiledMarchingSquares(HEIGHT).buildContours(data, WIDTH, HEIGHT, levels, false);
+        for (final int tileRows : new int[] { 1, 7, TiledMarchingSquares.DEFAULT_TILE_ROWS }) {
+            for (final boolean parallel : new boolean[] { false, true }) {
+                final Isoline[] isolines = new TiledMarchingSquares(tileRows).buildContours(data, WIDTH, HEIGHT, levels, parallel);
+                for (int level = 0; level < levels.length; level++) {
+                    assertEquals(reference[level].getPolylineCount(), isolines[level].getPolylineCount());
+                    assertArrayEquals(reference[level].getX(), isolines[level].getX());
+                    assertArrayEquals(reference[level].getY(), isolines[level].getY());
+                }
+            }
+        }
+
+        // each segment is used exactly once: points = segments + polylines
+        int nSegments = 0;
+        for (int row = 0; row < HEIGHT - 1; row++) {
+            for (int column = 0; column < WIDTH - 1; column++) {
+                nSegments += countSegments(data, row, column, levels[4]);
+            }
+        }
+        assertEquals(nSegments + reference[4].getPolylineCount(), reference[4].getPointCount());
+    }
+
+    @Test
+    public void testSpecialCases() {
+        // constant field
+        final double[] constant = new double[WIDTH * HEIGHT];
+        final Isoline[] isolines = new TiledMarchingSquares().buildContours(constant, WIDTH, HEIGHT, new double[] { 0.0, 0.5 }, false);
+        assertEquals(0, isolines[0].getPolylineCount());
+        assertEquals(0, isolines[1].getPolylineCount());
+
+        // single row -> no cells
+        assertEquals(0, new TiledMarchingSquares().buildContours(new double[] { 0, 1, 2 }, 3, 1, new double[] { 0.5 }, false)[0].getPointCount());
+
+        assertThrows(IllegalArgumentException.class, () -> new TiledMarchingSquares(0));
+        assertThrows(IllegalArgumentException.class, () -> new TiledMarchingSquares().buildContours(new double[3], 2, 2, new double[] { 0.5 }, false));
+    }
+
+    private static void assertOnBoundary(final Isoline isoline, final int index) {
+        final double x = isoline.getX()[index];
+        final double y = isoline.getY()[index];
+        assertTrue(x == 0 || y == 0 || x == WIDTH - 1 || y == HEIGHT - 1, "point (" + x + ", " + y + ") on boundary");
+    }
+
+    private static int countSegments(final double[] data, final int row, final int column, final double level) {
+        final int index = row * WIDTH + column;
+        final double[] corners = { data[index], data[index + 1], data[index + WIDTH], data[index + WIDTH + 1] };
+        int nBelow = 0;
+        for (final double corner : corners) {
+            if (Double.isNaN(corner)) {
+                return 0;
+            }
+            nBelow += corner > level ? 0 : 1;
+        }
+        if (nBelow == 0 || nBelow == 4) {
+            return 0;
+        }
+        final boolean saddle = nBelow == 2 && (corners[0] > level) == (corners[3] > level);
+        return saddle ? 2 : 1;
+    }
+
+    private static double[] distanceField() {
+        final double[] data = new double[WIDTH * HEIGHT];
+        for (int row = 0; row < HEIGHT; row++) {
+            for (int column = 0; column < WIDTH; column++) {
+                data[row * WIDTH + column] = Math.hypot(column - CENTRE_X, row - CENTRE_Y);
+            }
+        }
+        return data;
+    }
+}
@@ -0,0 +1,157 @@
+package de.gsi.chart.renderer.spi.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import de.gsi.chart.axes.AxisTransform;
+
+/**
+ * Tests the colour look-up table against the per-pixel quantisation and gradient interpolation
+ */
+public class ColorLookupTableTests {
+    private static final int WIDTH = 300;
+    private static final int HEIGHT = 301;
+    private static final AxisTransform LOG10 = new AxisTransform() {
+        @Override
+        public double backward(double val) {
+            return Math.pow(10, val);
+        }
+
+        @Override
+        public double forward(double val) {
+            return Math.log10(val);
+        }
+
+        @Override
+        public double getMaximumRange() {
+            // not necessary for this test
+            return 0;
+        }
+
+        @Override
+        public double getMinimumRange() {
+            // not necessary for this test
+            return 0;
+        }
+
+        @Override
+        public double getRoundedMaximumRange(double val) {
+            // not necessary for this test
+            return 0;
+        }
+
+        @Override
+        public double getRoundedMinimumRange(double val) {
+            // not necessary for this test
+            return 0;
+        }
+
+        @Override
+        public void setMaximumRange(double val) {
+            // not necessary for this test
+        }
+
+        @Override
+        public void setMinimumRange(double val) {
+            // not necessary for this test
+        }
+    };
+
+    @Test
+    public void testMapping() {
+        for (final ColorGradient gradient : ColorGradient.colorGradients()) {
+            for (final int nLevels : new int[] { 1, 20, ColorLookupTable.DEFAULT_SIZE }) {
+                for (final boolean inverted : new boolean[] { false, true }) {
+                    assertMapping(gradient, null, -1.0, 3.0, inverted, nLevels);
+                    assertMapping(gradient, LOG10, 0.1, 1000.0, inverted, nLevels);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testBulkMapping() {
+        final ColorLookupTable table = ColorGradient.DEFAULT.getLookupTable(null, 0.0, 1.0, false, ColorLookupTable.DEFAULT_SIZE);
+        final double[] input = new double[WIDTH * HEIGHT];
+        for (int i = 0; i < input.length; i++) {
+            input[i] = 1.2 * Math.sin(0.001 * i) * Math.sin(0.001 * i);
+        }
+        input[0] = Double.NaN;
+
+        final int[] argb = new int[input.length];
+        table.toArgb(input, input.length, argb);
+        final byte[] bgra = new byte[4 * input.length];
+        table.toBgra(input, WIDTH, HEIGHT, bgra);
+        for (int row = 0; row < HEIGHT; row++) {
+            for (int column = 0; column < WIDTH; column++) {
+                final int index = row * WIDTH + column;
+                assertEquals(table.getArgb(input[index]), argb[index]);
+                // N.B. first data row is drawn at the bottom
+                final int pixelIndex = 4 * ((HEIGHT - 1 - row) * WIDTH + column);
+                assertEquals(argb[index], (bgra[pixelIndex] & 0xFF) | (bgra[pixelIndex + 1] & 0xFF) << 8 | (bgra[pixelIndex + 2] & 0xFF) << 16 | (bgra[pixelIndex + 3] & 0xFF) << 24);
+            }
+        }
+
+        // partial update
+        final byte[] region = new byte[bgra.length];
+        table.toBgra(input, WIDTH, HEIGHT, 10, 20, 5, 7, region);
+        for (int row = 0; row < HEIGHT; row++) {
+            for (int column = 0; column < WIDTH; column++) {
+                final int pixelIndex = 4 * ((HEIGHT - 1 - row) * WIDTH + column);
+                final boolean inRegion = row >= 10 && row < 20 && column >= 5 && column < 7;
+                for (int i = 0; i < 4; i++) {
+                    assertEquals(inRegion ? bgra[pixelIndex + i] : 0, region[pixelIndex + i]);
+                }
+            }
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> table.toArgb(input, input.length + 1, argb));
+        assertThrows(IllegalArgumentException.class, () -> table.toBgra(input, WIDTH, HEIGHT, new byte[input.length]));
+    }
+
+    @Test
+    public void testCaching() {
+        final ColorGradient gradient = new ColorGradient("myGradient", ColorGradient.JET.getStops());
+        final ColorLookupTable table = gradient.getLookupTable(null, 0.0, 1.0, false, 20);
+        assertSame(gradient, table.getColorGradient());
+        assertEquals(20, table.getLevels());
+        assertSame(table, gradient.getLookupTable(null, 0.0, 1.0, false, 20));
+        assertNotSame(table, gradient.getLookupTable(null, 0.0, 2.0, false, 20));
+        assertNotSame(table, gradient.getLookupTable(null, 0.0, 1.0, true, 20));
+        assertNotSame(table, gradient.getLookupTable(LOG10, 0.0, 1.0, false, 20));
+        assertEquals(21, gradient.getLookupTable(null, 0.0, 1.0, false, 21).getLevels());
+
+        // charts sharing the gradient with different z-ranges do not evict each other's table
+        final ColorLookupTable table2 = gradient.getLookupTable(null, 0.0, 2.0, false, 20);
+        for (int frame = 0; frame < 3; frame++) {
+            assertSame(table, gradient.getLookupTable(null, 0.0, 1.0, false, 20));
+            assertSame(table2, gradient.getLookupTable(null, 0.0, 2.0, false, 20));
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> gradient.getLookupTable(null, 0.0, 1.0, false, 0));
+        assertThrows(IllegalArgumentException.class, () -> gradient.getLookupTable(null, 0.0, 1.0, false, ColorLookupTable.MAX_SIZE + 1));
+    }
+
+    private static void assertMapping(final ColorGradient gradient, final AxisTransform transform, final double zMin, final double zMax, final boolean inverted, final int nLevels) {
+        final ColorLookupTable table = gradient.getLookupTable(transform, zMin, zMax, inverted, nLevels);
+        final double zMinT = transform == null ? zMin : transform.forward(zMin);
+        final double zMaxT = transform == null ? zMax : transform.forward(zMax);
+        final double zRangeInv = 1.0 / Math.abs(zMaxT - zMinT);
+        for (int i = -10; i <= 110; i++) {
+            final double zT = zMinT + 0.01 * i * (zMaxT - zMinT);
+            final double z = transform == null ? zT : transform.backward(zT);
+            // N.B. same arithmetic as ContourDataSetCache#quantizeData
+            final double offset = ((transform == null ? z : transform.forward(z)) - zMinT) * zRangeInv;
+            final double value = inverted ? 1 - offset : offset;
+            final double quantised = (int) (value * nLevels) / (double) nLevels;
+            final int[] color = gradient.getColorBytes(quantised);
+            final int argb = color[0] << 24 | color[1] << 16 | color[2] << 8 | color[3];
+            assertEquals(argb, table.getArgb(z), gradient + " z=" + z + " nLevels=" + nLevels);
+        }
+        assertEquals(gradient.getLookupTable(transform, zMin, zMax, inverted, nLevels).getArgb(Double.NaN), table.getArgb(Double.NaN));
+    }
+}
@@ -0,0 +1,90 @@
+package de.gsi.chart.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.image.Image;
+import javafx.scene.layout.StackPane;
+import javafx.stage.Stage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.testfx.framework.junit5.ApplicationExtension;
+import org.testfx.framework.junit5.Start;
+
+/**
+ * Tests for {@link de.gsi.chart.utils.PeriodicScreenCapture}.
+ */
+@ExtendWith(ApplicationExtension.class)
+public class PeriodicScreenCaptureTests {
+    private static final int WIDTH = 300;
+    private static final int HEIGHT = 200;
+    private static final long TIMEOUT_MILLIS = 10_000;
+    private Scene scene;
+
+    @Start
+    public void setUp(final Stage stage) {
+        scene = new Scene(new StackPane(new Label("screen capture test")), WIDTH, HEIGHT);
+        stage.setScene(scene);
+        stage.show();
+    }
+
+    @Test
+    public void testAsynchronousCapture(@TempDir Path tempDir) throws Exception {
+        for (final boolean palette : new boolean[] { false, true }) {
+            final String fileName = palette ? "capturePalette" : "capture";
+            final PeriodicScreenCapture screenCapture = new PeriodicScreenCapture(tempDir, fileName + ".png", scene, 0.0, 1.0);
+            screenCapture.setPaletteEncoding(palette);
+            assertEquals(palette, screenCapture.isPaletteEncoding());
+
+            FXUtils.runAndWait(screenCapture::performScreenCapture);
+            assertTrue(waitForCaptures(screenCapture, 1));
+            assertEquals(1, screenCapture.getWrittenCaptureCount());
+            assertEquals(0, screenCapture.getDroppedCaptureCount());
+            assertTrue(screenCapture.getLastFxThreadDuration() > 0.0);
+            assertTrue(screenCapture.getLastLatency() >= screenCapture.getLastFxThreadDuration());
+            assertEquals(screenCapture.getLastLatency(), screenCapture.getMaxLatency());
+
+            try (InputStream is = new FileInputStream(tempDir.resolve(fileName).toFile())) {
+                final Image recovered = new Image(is);
+                assertFalse(recovered.isError());
+                assertEquals(WIDTH, (int) recovered.getWidth());
+                assertEquals(HEIGHT, (int) recovered.getHeight());
+            }
+        }
+    }
+
+    @Test
+    public void testBackPressure(@TempDir Path tempDir) throws Exception {
+        final int nCaptures = 4 * PeriodicScreenCapture.DEFAULT_QUEUE_CAPACITY;
+        final PeriodicScreenCapture screenCapture = new PeriodicScreenCapture(tempDir, "capture", scene, 0.0, 1.0);
+        FXUtils.runAndWait(() -> {
+            for (int i = 0; i < nCaptures; i++) {
+                screenCapture.performScreenCapture();
+            }
+        });
+        // each capture is either written or dropped in favour of a newer one
+        assertTrue(waitForCaptures(screenCapture, nCaptures));
+        assertTrue(screenCapture.getWrittenCaptureCount() >= 1);
+        assertTrue(screenCapture.getMaxLatency() >= screenCapture.getLastLatency());
+    }
+
+    private static boolean waitForCaptures(final PeriodicScreenCapture screenCapture, final long nCaptures) throws InterruptedException {
+        final long timeOut = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (screenCapture.getWrittenCaptureCount() + screenCapture.getDroppedCaptureCount() < nCaptures) {
+            if (System.currentTimeMillis() > timeOut) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+}
@@ -3,11 +3,15 @@ package de.gsi.chart.utils;
 import static de.gsi.chart.utils.WriteFxImageBenchmark.Implementation.NEWREF;
 import static de.gsi.chart.utils.WriteFxImageBenchmark.Implementation.OLDREF;
 import static de.gsi.chart.utils.WriteFxImageBenchmark.Implementation.PALETTE;
+import static de.gsi.chart.utils.WriteFxImageBenchmark.Implementation.PARALLEL;
+import static de.gsi.chart.utils.WriteFxImageBenchmark.Implementation.PARALLEL_PALETTE;
 
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.zip.Deflater;
@@ -27,6 +31,8 @@ import javafx.scene.paint.Color;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import de.gsi.dataset.utils.ByteBufferOutputStream;
+
 import ar.com.hjg.pngj.FilterType;
 
 /**
@@ -89,6 +95,7 @@ public class WriteFxImageBenchmark {
                 writeFxImage(testimage, alpha, keepBuffer, Deflater.NO_COMPRESSION, NEWREF);
                 writeFxImage(testimage, alpha, keepBuffer, Deflater.BEST_SPEED, NEWREF);
                 writeFxImage(testimage, alpha, keepBuffer, Deflater.BEST_COMPRESSION, NEWREF);
+                writeFxImage(testimage, alpha, keepBuffer, Deflater.BEST_SPEED, PARALLEL);
             }
         }
         writeImageIoImage(testimage, false, false);
@@ -102,6 +109,7 @@ public class WriteFxImageBenchmark {
                 writeFxImage(testimage2, alpha, keepBuffer, Deflater.NO_COMPRESSION, NEWREF);
                 writeFxImage(testimage2, alpha, keepBuffer, Deflater.BEST_SPEED, NEWREF);
                 writeFxImage(testimage2, alpha, keepBuffer, Deflater.BEST_COMPRESSION, NEWREF);
+                writeFxImage(testimage2, alpha, keepBuffer, Deflater.BEST_SPEED, PARALLEL);
             }
         }
         writeImageIoImage(testimage2, false, false);
@@ -128,6 +136,8 @@ public class WriteFxImageBenchmark {
                 writeFxImage(image, alpha, true, compressionLevel, PALETTE);
                 // use pre-computed palette
                 writeFxImage(image, alpha, true, compressionLevel, PALETTE, alpha ? userPaletteRGBA : userPaletteRGB);
+                writeFxImage(image, alpha, true, compressionLevel, PARALLEL);
+                writeFxImage(image, alpha, true, compressionLevel, PARALLEL_PALETTE, alpha ? userPaletteRGBA : userPaletteRGB);
                 LOGGER.atInfo().log(" "); // deliberatly empty line for better readability
             }
         }
@@ -150,6 +160,27 @@ public class WriteFxImageBenchmark {
                 size += bb.limit();
             }
             break;
+        case PARALLEL:
+            for (int i = 0; i < N_ITER; i++) {
+                final ByteBuffer bb = WriteFxImage.encodeParallel(image, keepBuffer ? byteBuffer.clear() : null, alpha, compression, FilterType.FILTER_NONE);
+                size += bb.limit();
+            }
+            break;
+        case PARALLEL_PALETTE:
+            final int[] pixels = new int[(int) image.getWidth() * (int) image.getHeight()];
+            final ByteBufferOutputStream os = new ByteBufferOutputStream(byteBuffer, true);
+            final WritableByteChannel channel = Channels.newChannel(os);
+            for (int i = 0; i < N_ITER; i++) {
+                os.buffer().clear();
+                WriteFxImage.copyImageDataToPixelBuffer(image, pixels);
+                try {
+                    WriteFxImage.encodePaletteParallel(pixels, (int) image.getWidth(), (int) image.getHeight(), channel, alpha, compression, FilterType.FILTER_NONE, quantizer);
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+                size += os.buffer().position();
+            }
+            break;
         case NEWREF:
         default:
             for (int i = 0; i < N_ITER; i++) {
@@ -207,7 +238,9 @@ public class WriteFxImageBenchmark {
     public enum Implementation {
         OLDREF,
         NEWREF,
-        PALETTE;
+        PALETTE,
+        PARALLEL,
+        PARALLEL_PALETTE;
 
         public String getName() {
             switch (this) {
@@ -217,6 +250,10 @@ public class WriteFxImageBenchmark {
                 return "NewRef ";
             case PALETTE:
                 return "Palette";
+            case PARALLEL:
+                return "Parallel";
+            case PARALLEL_PALETTE:
+                return "ParPalette";
             default:
                 return "unknown";
             }
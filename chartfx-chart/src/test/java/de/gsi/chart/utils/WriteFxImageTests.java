@@ -11,11 +11,14 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -239,6 +242,86 @@ public class WriteFxImageTests {
         }
     }
 
+    @ParameterizedTest
+    @MethodSource("testWritingImageByteBufferProvider")
+    public void testWritingImageByteBufferParallel(final int testImageID, final boolean allocateNewBuffer, final boolean encodeRGBA, final int compressionLevel, final FilterType filterType) throws IOException {
+        final Image testImage = getTestImage(testImageID);
+
+        int w = (int) testImage.getWidth();
+        int h = (int) testImage.getHeight();
+        final int requiredSize = WriteFxImage.getCompressedSizeBound(w, h, encodeRGBA);
+        final ByteBuffer pngOutput = allocateNewBuffer ? ByteBuffer.allocate(requiredSize) : null;
+        final ByteBuffer pngOutReal = WriteFxImage.encodeParallel(testImage, pngOutput, encodeRGBA, compressionLevel, filterType);
+
+        if (allocateNewBuffer) {
+            // assert that the provided buffer was used
+            assertSame(pngOutput, pngOutReal);
+        }
+
+        // load from png
+        try (final InputStream is = new ByteArrayInputStream(pngOutReal.array(), pngOutReal.position(), pngOutReal.limit())) {
+            final Image recovered = new Image(is);
+            // compare against original
+            assertImageSimilar(testImage, recovered, /* threshold */ 0.0, encodeRGBA);
+        }
+
+        // same image via the int[] pixel interface and a channel
+        final int[] pixels = new int[w * h];
+        WriteFxImage.copyImageDataToPixelBuffer(testImage, pixels);
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        WriteFxImage.encodeParallel(pixels, w, h, Channels.newChannel(os), encodeRGBA, compressionLevel, filterType);
+        assertArrayEquals(Arrays.copyOfRange(pngOutReal.array(), pngOutReal.position(), pngOutReal.limit()), os.toByteArray());
+
+        assertThrows(IllegalArgumentException.class, () -> WriteFxImage.encodeParallel((Image) null, (ByteBuffer) null, encodeRGBA, compressionLevel, filterType));
+        assertThrows(IllegalArgumentException.class, () -> WriteFxImage.encodeParallel(pixels, w, h, null, encodeRGBA, compressionLevel, filterType));
+        assertThrows(IllegalArgumentException.class, () -> WriteFxImage.encodeParallel(pixels, w + 1, h, Channels.newChannel(os), encodeRGBA, compressionLevel, filterType));
+    }
+
+    @Test
+    public void testWritingImageParallelChannelError() throws IOException {
+        // image with many more stripes than are compressed ahead
+        final int w = 1000;
+        final int h = 2000;
+        final int[] pixels = new int[w * h];
+        final Random rnd = new Random(42);
+        for (int i = 0; i < pixels.length; i++) {
+            pixels[i] = rnd.nextInt();
+        }
+        final ByteArrayOutputStream reference = new ByteArrayOutputStream();
+        WriteFxImage.encodeParallel(pixels, w, h, Channels.newChannel(reference), true, Deflater.BEST_SPEED, FilterType.FILTER_NONE);
+
+        // channel that fails after a few stripes
+        final WritableByteChannel failingChannel = new WritableByteChannel() {
+            private int nWrites;
+
+            @Override
+            public void close() {
+                // nothing to close
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public int write(final ByteBuffer src) throws IOException {
+                if (++nWrites > 3) {
+                    throw new IOException("channel full");
+                }
+                final int nBytes = src.remaining();
+                src.position(src.limit());
+                return nBytes;
+            }
+        };
+        assertThrows(IOException.class, () -> WriteFxImage.encodeParallel(pixels, w, h, failingChannel, true, Deflater.BEST_SPEED, FilterType.FILTER_NONE));
+
+        // encoder is still usable afterwards
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        WriteFxImage.encodeParallel(pixels, w, h, Channels.newChannel(os), true, Deflater.BEST_SPEED, FilterType.FILTER_NONE);
+        assertArrayEquals(reference.toByteArray(), os.toByteArray());
+    }
+
     @Test
     public void testWritingImageByteBuffer1x1() throws IOException {
         // convert to png
@@ -0,0 +1,16 @@
+package de.gsi.dataset;
+
+import de.gsi.dataset.utils.MinMaxPyramid;
+
+/**
+ * Optional interface for data sets that maintain a multi-resolution min/max index of their y-values, e.g. used by
+ * renderers to fetch only the ~2 representative data points per pixel column of very large data sets.
+ */
+public interface DataSetLevelOfDetail extends DataSet {
+    /**
+     * N.B. to be accessed while holding the data set's read lock
+     *
+     * @return min/max pyramid of the y-values or {@code null} if not enabled for this data set
+     */
+    MinMaxPyramid getMinMaxPyramid();
+}
@@ -0,0 +1,317 @@
+package de.gsi.dataset.event;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.gsi.dataset.utils.AssertUtils;
+
+/**
+ * Batched, coalescing {@link UpdateEvent} dispatcher that notifies the listeners of an {@link EventSource} without
+ * blocking the publishing thread.
+ * <p>
+ * Published events are queued per source and event class: if a source publishes an event of the same class again
+ * before its previous one has been delivered (i.e. within the same dispatch 'frame'), the pending event is replaced by
+ * the most recent one and counted as coalesced. Events of different classes (e.g. an {@link AxisChangeEvent} followed
+ * by an {@link UpdatedDataEvent}) are kept and delivered in the order they were first queued. {@link AxisChangeEvent}s
+ * are additionally keyed by their dimension, and events carrying a user pay-load are never coalesced. A single dispatch task on
+ * the given executor drains up to {@code batchSize} pending events at a time and notifies their listeners sequentially,
+ * iterating copy-on-write listener lists (e.g. those of {@link de.gsi.dataset.spi.AbstractDataSet}) without copying or
+ * locking. If more than {@code maxPendingSources} events are pending, further events are dropped and counted as such.
+ * <p>
+ * Basic usage:
+ *
+ * <pre>
+ * {@code
+ *  dataSet.setEventDispatcher(EventDispatcher.getDefault()); // routes dataSet.invokeListener(event) via the dispatcher
+ *  // or, explicitly:
+ *  EventDispatcher.getDefault().publish(evtSource, new UpdateEvent(evtSource, "new data"));
+ * }
+ * </pre>
+ * <p>
+ * N.B. listeners are notified on the executor's threads and only with the latest event of each source. Exceptions
+ * thrown by listeners cannot be forwarded to the publisher and are logged and counted instead.
+ */
+@SuppressWarnings("PMD.DoNotUseThreads") // thread handling is the declared purpose of this class
+public class EventDispatcher {
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventDispatcher.class);
+    /** default maximum number of pending (source, event class) entries */
+    public static final int DEFAULT_MAX_PENDING_SOURCES = 4096;
+    /** default maximum number of pending events notified per dispatch batch */
+    public static final int DEFAULT_BATCH_SIZE = 64;
+    private final Executor executor;
+    private final int maxPendingSources;
+    private final int batchSize;
+    private final Object lock = new Object();
+    private final Map<PendingKey, UpdateEvent> pendingEvents = new HashMap<>(); // guarded by lock
+    private final ArrayDeque<PendingKey> pendingKeys = new ArrayDeque<>(); // guarded by lock
+    private boolean dispatchActive; // guarded by lock
+    // N.B. only accessed by the single active dispatch task
+    private final EventSource[] batchSources;
+    private final UpdateEvent[] batchEvents;
+    private final AtomicLong publishedCount = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong deliveredCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+
+    /**
+     * dispatcher using the {@link EventThreadHelper#getExecutorService()} (i.e. following the global
+     * {@link de.gsi.dataset.utils.ExecutorStrategy}) and default limits
+     */
+    public EventDispatcher() {
+        this(task -> EventThreadHelper.getExecutorService().execute(task), DEFAULT_MAX_PENDING_SOURCES, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param executor executor the dispatch tasks are run on
+     * @param maxPendingSources maximum number of pending (source, event class) entries before new events are dropped
+     * @param batchSize maximum number of pending events notified per dispatch task
+     */
+    public EventDispatcher(final Executor executor, final int maxPendingSources, final int batchSize) {
+        AssertUtils.notNull("executor", executor);
+        AssertUtils.gtThanZero("maxPendingSources", maxPendingSources);
+        AssertUtils.gtThanZero("batchSize", batchSize);
+        this.executor = executor;
+        this.maxPendingSources = maxPendingSources;
+        this.batchSize = batchSize;
+        batchSources = new EventSource[batchSize];
+        batchEvents = new UpdateEvent[batchSize];
+    }
+
+    /**
+     * @return number of dispatched batches
+     */
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    /**
+     * @return number of events that have been replaced by a more recent event of the same source and class before
+     *         delivery
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    /**
+     * @return number of successful listener notifications
+     */
+    public long getDeliveredCount() {
+        return deliveredCount.get();
+    }
+
+    /**
+     * @return number of events that have been dropped because too many events were pending
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * @return number of listener notifications that threw an exception
+     */
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    /**
+     * @return number of (source, event class) entries awaiting delivery
+     */
+    public int getPendingCount() {
+        synchronized (lock) {
+            return pendingKeys.size();
+        }
+    }
+
+    /**
+     * @return number of events that have been published
+     */
+    public long getPublishedCount() {
+        return publishedCount.get();
+    }
+
+    /**
+     * Queues the event for delivery to the listeners of the given source and returns immediately. A pending event of
+     * the same source, class and -- for {@link AxisChangeEvent}s -- dimension is replaced (coalesced) by the new one
+     * unless either carries a pay-load.
+     *
+     * @param source the event source whose listeners should be notified
+     * @param updateEvent the event the listeners are notified with ({@code null}: generic {@link UpdateEvent})
+     * @return {@code false} if the event has been dropped or the source's auto-notification is disabled, {@code true}
+     *         otherwise
+     * @throws java.util.concurrent.RejectedExecutionException if the dispatch task could not be started (the event
+     *             remains queued and is delivered once a later publish succeeds in starting the dispatch)
+     */
+    public boolean publish(final EventSource source, final UpdateEvent updateEvent) {
+        AssertUtils.notNull("source", source);
+        // N.B. auto-notification is evaluated at the time of publishing (e.g. disabled while holding the write lock)
+        if (!source.isAutoNotification() || source.updateEventListener() == null) {
+            return false;
+        }
+        publishedCount.incrementAndGet();
+        final UpdateEvent event = updateEvent == null ? new UpdateEvent(source) : updateEvent;
+        final PendingKey key = new PendingKey(source, event);
+        synchronized (lock) {
+            if (pendingEvents.containsKey(key)) {
+                pendingEvents.put(key, event);
+                coalescedCount.incrementAndGet();
+                return true;
+            }
+            if (pendingKeys.size() >= maxPendingSources) {
+                droppedCount.incrementAndGet();
+                return false;
+            }
+            pendingEvents.put(key, event);
+            pendingKeys.add(key);
+            if (dispatchActive) {
+                return true;
+            }
+            dispatchActive = true;
+        }
+        startDispatch();
+        return true;
+    }
+
+    /**
+     * resets the dispatcher metrics
+     */
+    public void resetMetrics() {
+        publishedCount.set(0);
+        coalescedCount.set(0);
+        droppedCount.set(0);
+        deliveredCount.set(0);
+        failedCount.set(0);
+        batchCount.set(0);
+    }
+
+    protected void dispatch() {
+        int nSources = 0;
+        synchronized (lock) {
+            while (nSources < batchSize && !pendingKeys.isEmpty()) {
+                final PendingKey key = pendingKeys.poll();
+                batchSources[nSources] = key.source;
+                batchEvents[nSources] = pendingEvents.remove(key);
+                nSources++;
+            }
+            if (nSources == 0) {
+                dispatchActive = false;
+                return;
+            }
+        }
+        batchCount.incrementAndGet();
+        boolean completed = false;
+        try {
+            for (int i = 0; i < nSources; i++) {
+                notifyListeners(batchSources[i], batchEvents[i]);
+            }
+            completed = true;
+        } finally {
+            Arrays.fill(batchSources, 0, nSources, null); // release references
+            Arrays.fill(batchEvents, 0, nSources, null);
+            if (!completed) {
+                // listener threw an Error -- allow the next publish to restart the dispatch
+                synchronized (lock) {
+                    dispatchActive = false;
+                }
+            }
+        }
+        // re-submit rather than loop to remain fair w.r.t. other tasks sharing the executor
+        startDispatch();
+    }
+
+    private void startDispatch() {
+        boolean submitted = false;
+        try {
+            executor.execute(this::dispatch);
+            submitted = true;
+        } finally {
+            if (!submitted) {
+                // e.g. RejectedExecutionException -- pending events are kept and the next publish retries
+                synchronized (lock) {
+                    dispatchActive = false;
+                }
+            }
+        }
+    }
+
+    private void notifyListeners(final EventSource source, final UpdateEvent event) {
+        final List<EventListener> listeners = source.updateEventListener();
+        if (listeners == null) {
+            return;
+        }
+        for (final EventListener listener : getListenerSnapshot(listeners)) {
+            try {
+                listener.handle(event);
+                deliveredCount.incrementAndGet();
+            } catch (Exception e) { // NOPMD -- cannot be forwarded to the publishing thread
+                failedCount.incrementAndGet();
+                LOGGER.atError().setCause(e).addArgument(source.getClass().getSimpleName()).log("listener of source '{}' threw an exception");
+            }
+        }
+    }
+
+    /**
+     * @return default dispatcher instance based on the {@link EventThreadHelper#getExecutorService()}
+     */
+    public static EventDispatcher getDefault() {
+        return DefaultInstanceHolder.INSTANCE;
+    }
+
+    /**
+     * @param listeners listener list of an {@link EventSource}
+     * @return the list itself if it is copy-on-write (snapshot iteration), a copy taken while holding its lock otherwise
+     */
+    static List<EventListener> getListenerSnapshot(final List<EventListener> listeners) {
+        if (listeners instanceof CopyOnWriteArrayList) {
+            return listeners;
+        }
+        synchronized (listeners) {
+            return new ArrayList<>(listeners);
+        }
+    }
+
+    private static final class PendingKey {
+        private final EventSource source;
+        private final Class<?> eventClass;
+        private final int dimension;
+        // non-null: event with a pay-load that must not be coalesced with (i.e. replace) another event
+        private final UpdateEvent uniqueEvent;
+
+        private PendingKey(final EventSource source, final UpdateEvent event) {
+            this.source = source;
+            this.eventClass = event.getClass();
+            this.dimension = event instanceof AxisChangeEvent ? ((AxisChangeEvent) event).getDimension() : -1;
+            this.uniqueEvent = event.getPayLoad() == null ? null : event;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof PendingKey)) {
+                return false;
+            }
+            final PendingKey other = (PendingKey) obj;
+            // N.B. identity comparison since data sets implement content-based equals
+            return source == other.source && eventClass == other.eventClass && dimension == other.dimension && uniqueEvent == other.uniqueEvent;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * (31 * System.identityHashCode(source) + eventClass.hashCode()) + dimension) + System.identityHashCode(uniqueEvent);
+        }
+    }
+
+    private static class DefaultInstanceHolder {
+        private static final EventDispatcher INSTANCE = new EventDispatcher();
+    }
+}
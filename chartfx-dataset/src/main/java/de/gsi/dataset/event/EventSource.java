@@ -3,7 +3,6 @@ package de.gsi.dataset.event;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
@@ -52,6 +51,14 @@ public interface EventSource {
      */
     AtomicBoolean autoNotification();
 
+    /**
+     * @return optional dispatcher via which {@link #invokeListener(UpdateEvent)} notifies the listeners asynchronously
+     *         and coalesced (default: {@code null}, i.e. listeners are notified synchronously)
+     */
+    default EventDispatcher eventDispatcher() {
+        return null;
+    }
+
     /**
      * invoke object within update listener list
      */
@@ -72,22 +79,28 @@ public interface EventSource {
      * invoke object within update listener list
      *
      * @param updateEvent the event the listeners are notified with
-     * @param executeParallel {@code true} execute event listener via parallel executor service
+     * @param executeParallel {@code true} execute event listener via parallel executor service or -- if defined -- via
+     *            the non-blocking {@link #eventDispatcher()}
      */
     @SuppressWarnings("PMD.NPathComplexity") // cannot be further split w/o adding unwanted further public default implementations (N.B. 'private default' ... is forbidden)
     default void invokeListener(final UpdateEvent updateEvent, final boolean executeParallel) {
-        if (updateEventListener() == null) {
+        final EventDispatcher eventDispatcher = eventDispatcher();
+        if (executeParallel && eventDispatcher != null) {
+            // non-blocking, coalesced notification
+            eventDispatcher.publish(this, updateEvent);
             return;
         }
-        List<EventListener> eventListener;
-        synchronized (updateEventListener()) {
-            synchronized (autoNotification()) {
-                if (!isAutoNotification() || updateEventListener().isEmpty()) {
-                    return;
-                }
+        final List<EventListener> listeners = updateEventListener();
+        if (listeners == null) {
+            return;
+        }
+        synchronized (autoNotification()) {
+            if (!isAutoNotification() || listeners.isEmpty()) {
+                return;
             }
-            eventListener = new ArrayList<>(updateEventListener());
         }
+        // N.B. copy-on-write listener lists are iterated w/o locking or copying
+        final List<EventListener> eventListener = EventDispatcher.getListenerSnapshot(listeners);
         if (!executeParallel) {
             // alt implementation:
             final AggregateException exceptions = new AggregateException(
@@ -108,28 +121,22 @@ public interface EventSource {
         final UpdateEvent event = updateEvent == null ? new UpdateEvent(this) : updateEvent;
         final AggregateException exceptions = new AggregateException(
                 EventSource.class.getSimpleName() + "(Parallel)");
-        final List<Callable<Boolean>> workers = new ArrayList<>();
+        // all listeners are notified on the event executor, the calling thread only waits for their completion
+        final List<Future<?>> jobs = new ArrayList<>(eventListener.size());
+        final ExecutorService es = EventThreadHelper.getExecutorService();
         for (EventListener listener : eventListener) {
-            workers.add(() -> {
+            jobs.add(es.submit(() -> {
                 try {
                     listener.handle(event);
-                    return Boolean.TRUE;
                 } catch (Exception e) { // NOPMD -- necessary since these are forwarded
                     exceptions.add(e);
                     exceptions.fillInStackTrace();
                 }
-                return Boolean.FALSE;
-            });
+            }));
         }
 
         try {
-            ExecutorService es = EventThreadHelper.getExecutorService();
-            final List<Future<Boolean>> jobs = new ArrayList<>();
-            for (Callable<Boolean> worker : workers) {
-                jobs.add(es.submit(worker));
-            }
-            // submitted tasks
-            for (final Future<Boolean> future : jobs) {
+            for (final Future<?> future : jobs) {
                 future.get();
             }
         } catch (final InterruptedException | ExecutionException e) {
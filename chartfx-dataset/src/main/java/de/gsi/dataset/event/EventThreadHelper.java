@@ -1,9 +1,8 @@
 package de.gsi.dataset.event;
 
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
-import de.gsi.dataset.utils.CachedDaemonThreadFactory;
+import de.gsi.dataset.utils.ExecutorStrategy;
 
 /**
  * @author rstein
@@ -11,18 +10,17 @@ import de.gsi.dataset.utils.CachedDaemonThreadFactory;
 @SuppressWarnings("PMD.DoNotUseThreads") // thread handling is the declared purpose of this class
 public final class EventThreadHelper {
     private static final int MAX_THREADS = Math.max(4, Runtime.getRuntime().availableProcessors());
-    private static final ExecutorService EXECUTOR_SERVICE = Executors.newFixedThreadPool(2 * MAX_THREADS,
-            CachedDaemonThreadFactory.getInstance());
+    private static final String EVENT_POOL_NAME = "chartfx_event_pool";
 
     private EventThreadHelper() {
         // utility class
     }
 
     /**
-     * @return event update executor service
+     * @return event update executor service according to the global {@link ExecutorStrategy}
      */
     public static ExecutorService getExecutorService() {
-        return EXECUTOR_SERVICE;
+        return ExecutorStrategy.getGlobal().getSharedExecutorService(EVENT_POOL_NAME, 2 * MAX_THREADS);
     }
 
     /**
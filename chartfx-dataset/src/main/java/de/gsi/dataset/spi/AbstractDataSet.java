@@ -1,11 +1,10 @@
 package de.gsi.dataset.spi;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.slf4j.Logger;
@@ -17,6 +16,7 @@ import de.gsi.dataset.DataSetError;
 import de.gsi.dataset.DataSetMetaData;
 import de.gsi.dataset.EditConstraints;
 import de.gsi.dataset.EditableDataSet;
+import de.gsi.dataset.event.EventDispatcher;
 import de.gsi.dataset.event.EventListener;
 import de.gsi.dataset.event.UpdateEvent;
 import de.gsi.dataset.event.UpdatedMetaDataEvent;
@@ -25,6 +25,7 @@ import de.gsi.dataset.locks.DefaultDataSetLock;
 import de.gsi.dataset.spi.utils.MathUtils;
 import de.gsi.dataset.spi.utils.StringHashMapList;
 import de.gsi.dataset.utils.AssertUtils;
+import de.gsi.dataset.utils.MinMaxTree;
 
 /**
  * <p>
@@ -51,7 +52,8 @@ public abstract class AbstractDataSet<D extends AbstractStylable<D>> extends Abs
     private String name;
     private int dimension;
     private final List<AxisDescription> axesDescriptions = new ArrayList<>();
-    private final transient List<EventListener> updateListeners = Collections.synchronizedList(new LinkedList<>());
+    private final transient List<EventListener> updateListeners = new CopyOnWriteArrayList<>();
+    private transient EventDispatcher eventDispatcher;
     private final transient DataSetLock<? extends DataSet> lock = new DefaultDataSetLock<>(this);
     private StringHashMapList dataLabels = new StringHashMapList();
     private StringHashMapList dataStyles = new StringHashMapList();
@@ -264,6 +266,11 @@ public abstract class AbstractDataSet<D extends AbstractStylable<D>> extends Abs
         return true;
     }
 
+    @Override
+    public EventDispatcher eventDispatcher() {
+        return eventDispatcher;
+    }
+
     @Override
     public boolean equals(final Object obj) {
         return equals(obj, -1);
@@ -470,6 +477,20 @@ public abstract class AbstractDataSet<D extends AbstractStylable<D>> extends Abs
         return (D) this;
     }
 
+    /**
+     * Implementations that track their modifications may provide an incremental limits tracker that is used by
+     * {@link #recomputeLimits(int)} instead of a full O(n) scan of all data points.
+     * <p>
+     * N.B. this is only safe if all modifications pass through the data set's own API. Data sets that expose their
+     * internal arrays for direct writes (e.g. via {@code getValues(int)}) must not enable the tracker by default.
+     *
+     * @param dimIndex the dimension index
+     * @return incremental min/max tracker for the given dimension, or {@code null} if not supported (default)
+     */
+    protected MinMaxTree getLimitsTree(final int dimIndex) {
+        return null;
+    }
+
     @Override
     public List<String> getWarningList() {
         return warningList;
@@ -565,6 +586,12 @@ public abstract class AbstractDataSet<D extends AbstractStylable<D>> extends Abs
      */
     @Override
     public D recomputeLimits(final int dimIndex) {
+        final MinMaxTree limitsTree = getLimitsTree(dimIndex);
+        if (limitsTree != null) {
+            // incremental update: O(number of modified samples + log n), updates the axis description in place
+            getAxisDescription(dimIndex).set(limitsTree.getMin(), limitsTree.getMax());
+            return getThis();
+        }
         // first compute range (does not trigger notify events)
         DataRange newRange = new DataRange();
         final int dataCount = getDataCount(dimIndex);
@@ -607,6 +634,16 @@ public abstract class AbstractDataSet<D extends AbstractStylable<D>> extends Abs
         return fireInvalidated(new UpdatedMetaDataEvent(this, "new edit constraints"));
     }
 
+    /**
+     * @param dispatcher optional dispatcher via which listeners are notified asynchronously and coalesced, {@code null}
+     *            to notify listeners synchronously (default)
+     * @return itself (fluent design)
+     */
+    public D setEventDispatcher(final EventDispatcher dispatcher) {
+        eventDispatcher = dispatcher;
+        return getThis();
+    }
+
     /**
      * Sets the name of data set (meta data)
      * 
@@ -644,7 +681,7 @@ public abstract class AbstractDataSet<D extends AbstractStylable<D>> extends Abs
     }
 
     @Override
-    public synchronized List<EventListener> updateEventListener() {
+    public List<EventListener> updateEventListener() {
         return updateListeners;
     }
 }
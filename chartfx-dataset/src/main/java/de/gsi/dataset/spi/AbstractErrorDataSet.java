@@ -69,6 +69,10 @@ public abstract class AbstractErrorDataSet<D extends AbstractErrorDataSet<D>> ex
      */
     @Override
     public D recomputeLimits(final int dimIndex) {
+        if (getLimitsTree(dimIndex) != null) {
+            // incremental limits tracker already accounts for the errors
+            return super.recomputeLimits(dimIndex);
+        }
         // first compute range (does not trigger notify events)
         DataRange newRange = new DataRange();
         final int dataCount = getDataCount(dimIndex);
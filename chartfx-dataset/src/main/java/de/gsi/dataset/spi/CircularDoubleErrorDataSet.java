@@ -9,8 +9,15 @@ import de.gsi.dataset.event.RemovedDataEvent;
 import de.gsi.dataset.utils.AssertUtils;
 import de.gsi.dataset.utils.CircularBuffer;
 import de.gsi.dataset.utils.DoubleCircularBuffer;
+import de.gsi.dataset.utils.MinMaxTree;
 
 /**
+ * Circular-buffer based DataSet with asymmetric y-errors.
+ * <p>
+ * The data limits are tracked incrementally on the physical (circular) buffer indices so that the axis ranges
+ * invalidated by overwriting the oldest samples are recomputed in O(number of new samples + log n) rather than by a
+ * full scan of the buffer.
+ *
  * @author rstein
  */
 public class CircularDoubleErrorDataSet extends AbstractErrorDataSet<CircularDoubleErrorDataSet>
@@ -22,6 +29,8 @@ public class CircularDoubleErrorDataSet extends AbstractErrorDataSet<CircularDou
     protected DoubleCircularBuffer yErrorsNeg;
     protected CircularBuffer<String> dataLabels;
     protected CircularBuffer<String> dataStyles;
+    private final transient MinMaxTree xLimits;
+    private final transient MinMaxTree yLimits;
 
     /**
      * Creates a new instance of <code>CircularDoubleErrorDataSet</code>.
@@ -39,6 +48,9 @@ public class CircularDoubleErrorDataSet extends AbstractErrorDataSet<CircularDou
         yErrorsNeg = new DoubleCircularBuffer(initalSize);
         dataLabels = new CircularBuffer<>(initalSize);
         dataStyles = new CircularBuffer<>(initalSize);
+        xLimits = new MinMaxTree(i -> xValues.elements()[i]);
+        yLimits = new MinMaxTree(i -> yValues.elements()[i] - yErrorsNeg.elements()[i],
+                i -> yValues.elements()[i] + yErrorsPos.elements()[i]);
     }
 
     /**
@@ -84,6 +96,7 @@ public class CircularDoubleErrorDataSet extends AbstractErrorDataSet<CircularDou
     public CircularDoubleErrorDataSet add(final double x, final double y, final double yErrorNeg,
             final double yErrorPos, final String label, final String style) {
         lock().writeLockGuard(() -> {
+            final int writePos = xValues.writePosition();
             xValues.put(x);
             yValues.put(y);
             yErrorsPos.put(yErrorPos);
@@ -91,7 +104,8 @@ public class CircularDoubleErrorDataSet extends AbstractErrorDataSet<CircularDou
             dataLabels.put(label);
             dataStyles.put(style);
 
-            // invalidate ranges
+            // invalidate ranges (N.B. incremental recompute of only the overwritten sample)
+            invalidateLimits(writePos, 1);
             getAxisDescriptions().forEach(AxisDescription::clear);
         });
 
@@ -121,6 +135,7 @@ public class CircularDoubleErrorDataSet extends AbstractErrorDataSet<CircularDou
         AssertUtils.equalDoubleArrays(xVals, yErrPos);
 
         lock().writeLockGuard(() -> {
+            final int writePos = xValues.writePosition();
             this.xValues.put(xVals, xVals.length);
             this.yValues.put(yVals, yVals.length);
             this.yErrorsNeg.put(yErrNeg, yErrNeg.length);
@@ -128,11 +143,9 @@ public class CircularDoubleErrorDataSet extends AbstractErrorDataSet<CircularDou
             dataLabels.put(new String[yErrPos.length], yErrPos.length);
             dataStyles.put(new String[yErrPos.length], yErrPos.length);
 
-            getAxisDescription(DIM_X).add(xVals);
-            for (int i = 0; i < yVals.length; i++) {
-                getAxisDescription(DIM_Y).add(yVals[i] + yErrPos[i]);
-                getAxisDescription(DIM_Y).add(yVals[i] - yErrNeg[i]);
-            }
+            // invalidate ranges (N.B. incremental recompute of only the overwritten samples)
+            invalidateLimits(writePos, xVals.length);
+            getAxisDescriptions().forEach(AxisDescription::clear);
         });
 
         return fireInvalidated(new AddedDataEvent(this));
@@ -143,6 +156,15 @@ public class CircularDoubleErrorDataSet extends AbstractErrorDataSet<CircularDou
         return xValues.available();
     }
 
+    @Override
+    protected MinMaxTree getLimitsTree(final int dimIndex) {
+        // N.B. the trees track 'value' for x and 'value -/+ asymmetric errors' for y, other error types use full scan
+        if (dimIndex == DIM_X) {
+            return getErrorType(DIM_X) == ErrorType.NO_ERROR ? xLimits : null;
+        }
+        return dimIndex == DIM_Y && getErrorType(DIM_Y) == ErrorType.ASYMMETRIC ? yLimits : null;
+    }
+
     @Override
     public String getDataLabel(final int index) {
         return dataLabels.get(index);
@@ -201,9 +223,28 @@ public class CircularDoubleErrorDataSet extends AbstractErrorDataSet<CircularDou
             yErrorsPos.reset();
             dataLabels.reset();
             dataStyles.reset();
+            xLimits.setSize(0);
+            yLimits.setSize(0);
             getAxisDescriptions().forEach(AxisDescription::clear);
         });
 
         return fireInvalidated(new RemovedDataEvent(this));
     }
+
+    private void invalidateLimits(final int writePos, final int length) {
+        xLimits.setSize(xValues.available());
+        yLimits.setSize(xValues.available());
+        final int capacity = xValues.capacity();
+        if (length >= capacity) {
+            xLimits.invalidateAll();
+            yLimits.invalidateAll();
+            return;
+        }
+        // physical index range [writePos, writePos + length) modulo capacity
+        final int upperLength = Math.min(length, capacity - writePos);
+        xLimits.invalidate(writePos, writePos + upperLength);
+        yLimits.invalidate(writePos, writePos + upperLength);
+        xLimits.invalidate(0, length - upperLength);
+        yLimits.invalidate(0, length - upperLength);
+    }
 }
@@ -0,0 +1,889 @@
+package de.gsi.dataset.spi;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import de.gsi.dataset.AxisDescription;
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.DataSet2D;
+import de.gsi.dataset.DataSetError;
+import de.gsi.dataset.EditableDataSet;
+import de.gsi.dataset.event.AddedDataEvent;
+import de.gsi.dataset.event.RemovedDataEvent;
+import de.gsi.dataset.event.UpdatedDataEvent;
+import de.gsi.dataset.locks.DataSetLock;
+import de.gsi.dataset.utils.AssertUtils;
+
+/**
+ * Single-writer/multi-reader implementation of the {@code DataSetError} interface which stores x, y, -eyn, and +eyp
+ * values in separate double arrays and publishes them as immutable snapshots.
+ * <p>
+ * The writer modifies a private back buffer and publishes it at the end of the outermost write lock by a single
+ * volatile reference swap. Readers pin the last published snapshot via {@code lock().readLockGuard(..)} (two atomic
+ * operations, no blocking), and are thus never blocked by writers and vice versa. Previously published buffers are
+ * recycled only once they are no longer pinned by any reader and are brought up-to-date by copying only the index
+ * range that changed since (e.g. the appended samples), so that appending is O(new samples) also for the publishing
+ * step.
+ * <p>
+ * Read lock guards pin a snapshot per reading thread. Parallel readers that need to see the same data (e.g. the worker
+ * threads of a renderer) should share a single view obtained via {@link #pinSnapshot()} instead. Buffers that were
+ * added while all others were pinned are released again once they are no longer pinned.
+ * <p>
+ * N.B. Data point labels, styles and axis ranges are not part of the snapshot. Reads outside a read lock guard access
+ * the latest published snapshot but may observe recycled data if a writer publishes concurrently.
+ *
+ * @see DoubleErrorDataSet for the equivalent implementation using the default read-write lock
+ */
+@SuppressWarnings({ "PMD.TooManyMethods", "PMD.DoNotUseThreads" }) // part of the flexible class nature
+public class DoubleBufferedDataSet extends AbstractErrorDataSet<DoubleBufferedDataSet>
+        implements DataSetError, EditableDataSet, DataSet2D {
+    private static final long serialVersionUID = -7304851957395387210L;
+    private static final String X_COORDINATES = "X coordinates";
+    private static final String Y_COORDINATES = "Y coordinates";
+    private final List<Snapshot> buffers = new ArrayList<>(); // all buffers known to the writer
+    private volatile Snapshot front; // NOPMD - last published snapshot
+    private Snapshot back; // writer-private working buffer
+    private boolean modified; // writer-side flag indicating un-published changes
+    private final transient SnapshotLock snapshotLock = new SnapshotLock();
+
+    /**
+     * Creates a new instance of <code>DoubleBufferedDataSet</code> as copy of another (deep-copy).
+     *
+     * @param another name of this DataSet.
+     */
+    public DoubleBufferedDataSet(final DataSet another) {
+        this(another.getName(), another.getDataCount());
+        this.set(another); // NOPMD
+    }
+
+    /**
+     * Creates a new instance of <code>DoubleBufferedDataSet</code>.
+     *
+     * @param name name of this DataSet.
+     * @throws IllegalArgumentException if {@code name} is {@code null}
+     */
+    public DoubleBufferedDataSet(final String name) {
+        this(name, 2);
+    }
+
+    /**
+     * Creates a new instance of <code>DoubleBufferedDataSet</code>.
+     *
+     * @param name name of this DataSet.
+     * @param initalSize initial capacity of buffer (N.B. size=0)
+     * @throws IllegalArgumentException if {@code name} is {@code null}
+     */
+    public DoubleBufferedDataSet(final String name, final int initalSize) {
+        super(name, 2, ErrorType.NO_ERROR, ErrorType.ASYMMETRIC);
+        AssertUtils.gtEqThanZero("initalSize", initalSize);
+        front = new Snapshot(initalSize);
+        back = new Snapshot(initalSize);
+        buffers.add(front);
+        buffers.add(back);
+    }
+
+    /**
+     * add point to the data set
+     *
+     * @param x horizontal coordinate of the new data point
+     * @param y vertical coordinate of the new data point
+     * @return itself (fluent design)
+     */
+    public DoubleBufferedDataSet add(final double x, final double y) {
+        return add(x, y, 0.0, 0.0);
+    }
+
+    /**
+     * Add point to the end of the data set.
+     *
+     * @param x the new x coordinate
+     * @param y the new y coordinate
+     * @param yErrorNeg the -dy error
+     * @param yErrorPos the +dy error
+     * @return itself (fluent design)
+     */
+    public DoubleBufferedDataSet add(final double x, final double y, final double yErrorNeg, final double yErrorPos) {
+        lock().writeLockGuard(() -> {
+            final int addAt = back.size;
+            back.ensureCapacity(addAt + 1);
+            back.xValues[addAt] = x;
+            back.yValues[addAt] = y;
+            back.yErrorsNeg[addAt] = yErrorNeg;
+            back.yErrorsPos[addAt] = yErrorPos;
+            back.size = addAt + 1;
+            markModified(addAt, addAt + 1);
+
+            getAxisDescription(DIM_X).add(x);
+            getAxisDescription(DIM_Y).add(y - yErrorNeg);
+            getAxisDescription(DIM_Y).add(y + yErrorPos);
+        });
+        return fireInvalidated(new UpdatedDataEvent(this, "add"));
+    }
+
+    /**
+     * Add array vectors to the end of the data set.
+     *
+     * @param xValuesNew X coordinates
+     * @param yValuesNew Y coordinates
+     * @param yErrorsNegNew the -dy errors
+     * @param yErrorsPosNew the +dy errors
+     * @return itself (fluent design)
+     */
+    public DoubleBufferedDataSet add(final double[] xValuesNew, final double[] yValuesNew,
+            final double[] yErrorsNegNew, final double[] yErrorsPosNew) {
+        return add(Integer.MAX_VALUE, xValuesNew, yValuesNew, yErrorsNegNew, yErrorsPosNew);
+    }
+
+    /**
+     * add point to the data set
+     *
+     * @param index data point index at which the new data point should be added
+     * @param newValue new data point coordinate
+     * @return itself (fluent design)
+     */
+    @Override
+    public DoubleBufferedDataSet add(final int index, final double... newValue) {
+        if (newValue.length >= 4) {
+            return add(index, new double[] { newValue[0] }, new double[] { newValue[1] },
+                    new double[] { newValue[2] }, new double[] { newValue[3] });
+        }
+        return add(index, new double[] { newValue[0] }, new double[] { newValue[1] }, new double[1], new double[1]);
+    }
+
+    /**
+     * add points to the data set
+     *
+     * @param index data point index at which the new data points should be added
+     * @param x horizontal coordinates of the new data points
+     * @param y vertical coordinates of the new data points
+     * @param yErrorNeg the -dy errors
+     * @param yErrorPos the +dy errors
+     * @return itself (fluent design)
+     */
+    public DoubleBufferedDataSet add(final int index, final double[] x, final double[] y, final double[] yErrorNeg,
+            final double[] yErrorPos) {
+        AssertUtils.notNull(X_COORDINATES, x);
+        AssertUtils.notNull(Y_COORDINATES, y);
+        AssertUtils.notNull("Y error neg", yErrorNeg);
+        AssertUtils.notNull("Y error pos", yErrorPos);
+        final int min = Math.min(Math.min(x.length, y.length), Math.min(yErrorNeg.length, yErrorPos.length));
+        AssertUtils.equalDoubleArrays(x, y, min);
+
+        lock().writeLockGuard(() -> {
+            final int oldSize = back.size;
+            final int indexAt = Math.max(0, Math.min(index, oldSize));
+            back.ensureCapacity(oldSize + min);
+            back.insert(indexAt, oldSize, min);
+            System.arraycopy(x, 0, back.xValues, indexAt, min);
+            System.arraycopy(y, 0, back.yValues, indexAt, min);
+            System.arraycopy(yErrorNeg, 0, back.yErrorsNeg, indexAt, min);
+            System.arraycopy(yErrorPos, 0, back.yErrorsPos, indexAt, min);
+            back.size = oldSize + min;
+            markModified(indexAt, indexAt == oldSize ? back.size : Integer.MAX_VALUE);
+
+            getAxisDescription(DIM_X).add(x, min);
+            for (int i = 0; i < min; i++) {
+                getAxisDescription(DIM_Y).add(y[i] - yErrorNeg[i]);
+                getAxisDescription(DIM_Y).add(y[i] + yErrorPos[i]);
+            }
+            if (indexAt != oldSize) {
+                getDataLabelMap().shiftKeys(indexAt, back.size);
+                getDataStyleMap().shiftKeys(indexAt, back.size);
+            }
+        });
+        return fireInvalidated(new AddedDataEvent(this));
+    }
+
+    /**
+     * clears all data
+     *
+     * @return itself (fluent design)
+     */
+    public DoubleBufferedDataSet clearData() {
+        lock().writeLockGuard(() -> {
+            back.size = 0;
+            markModified(0, 0);
+            getDataLabelMap().clear();
+            getDataStyleMap().clear();
+            clearMetaInfo();
+
+            getAxisDescriptions().forEach(AxisDescription::clear);
+        });
+        return fireInvalidated(new RemovedDataEvent(this, "clearData()"));
+    }
+
+    @Override
+    public final double get(final int dimIndex, final int index) {
+        final Snapshot snapshot = current();
+        return dimIndex == DataSet.DIM_X ? snapshot.xValues[index] : snapshot.yValues[index];
+    }
+
+    /**
+     * @return number of internal buffers (N.B. &gt;2 indicates that readers pinned older snapshots while the writer
+     *         published new ones)
+     */
+    public int getBufferCount() {
+        return lock().writeLockGuard(buffers::size);
+    }
+
+    /**
+     * @return storage capacity of the presently visible snapshot
+     */
+    public int getCapacity() {
+        return current().xValues.length;
+    }
+
+    @Override
+    public int getDataCount(final int dimIndex) {
+        return current().size;
+    }
+
+    @Override
+    public double getErrorNegative(final int dimIndex, final int index) {
+        return dimIndex == DIM_X ? 0.0 : current().yErrorsNeg[index];
+    }
+
+    @Override
+    public double getErrorPositive(final int dimIndex, final int index) {
+        return dimIndex == DIM_X ? 0.0 : current().yErrorsPos[index];
+    }
+
+    @Override
+    public double[] getErrorsNegative(final int dimIndex) {
+        return dimIndex == DIM_X ? super.getErrorsNegative(dimIndex) : current().yErrorsNeg;
+    }
+
+    @Override
+    public double[] getErrorsPositive(final int dimIndex) {
+        return dimIndex == DIM_X ? super.getErrorsPositive(dimIndex) : current().yErrorsPos;
+    }
+
+    /**
+     * @return revision counter of the presently visible snapshot (incremented with each published write)
+     */
+    public long getRevision() {
+        return current().revision;
+    }
+
+    @Override
+    public final double[] getValues(final int dimIndex) {
+        final Snapshot snapshot = current();
+        return dimIndex == DataSet.DIM_X ? snapshot.xValues : snapshot.yValues;
+    }
+
+    @Override
+    public DataSetLock<DoubleBufferedDataSet> lock() {
+        return snapshotLock;
+    }
+
+    @Override
+    public DoubleBufferedDataSet remove(final int index) {
+        return remove(index, index + 1);
+    }
+
+    /**
+     * remove sub-range of data points
+     *
+     * @param fromIndex start index
+     * @param toIndex stop index
+     * @return itself (fluent design)
+     */
+    public DoubleBufferedDataSet remove(final int fromIndex, final int toIndex) {
+        lock().writeLockGuard(() -> {
+            AssertUtils.indexInBounds(fromIndex, back.size, "fromIndex");
+            AssertUtils.indexOrder(fromIndex, "fromIndex", toIndex, "toIndex");
+
+            final int clampedToIndex = Math.min(toIndex, back.size);
+            back.remove(fromIndex, clampedToIndex);
+            markModified(fromIndex, Integer.MAX_VALUE);
+
+            // remove old label and style keys
+            getDataLabelMap().remove(fromIndex, clampedToIndex);
+            getDataStyleMap().remove(fromIndex, clampedToIndex);
+
+            // invalidate ranges
+            getAxisDescriptions().forEach(AxisDescription::clear);
+        });
+        return fireInvalidated(new RemovedDataEvent(this));
+    }
+
+    /**
+     * clear old data and overwrite with data from 'other' data set (deep copy)
+     *
+     * @param other the other data set
+     * @return itself (fluent design)
+     */
+    public DoubleBufferedDataSet set(final DataSet other) {
+        lock().writeLockGuard(() -> other.lock().readLockGuard(() -> {
+            final int nSamples = other.getDataCount();
+            final double[] xNew = Arrays.copyOf(other.getValues(DIM_X), nSamples);
+            final double[] yNew = Arrays.copyOf(other.getValues(DIM_Y), nSamples);
+            final double[] yErrorNegNew;
+            final double[] yErrorPosNew;
+            if (other instanceof DataSetError) {
+                final DataSetError otherError = (DataSetError) other;
+                yErrorNegNew = Arrays.copyOf(otherError.getErrorsNegative(DIM_Y), nSamples);
+                yErrorPosNew = Arrays.copyOf(otherError.getErrorsPositive(DIM_Y), nSamples);
+            } else {
+                yErrorNegNew = new double[nSamples];
+                yErrorPosNew = new double[nSamples];
+            }
+            set(xNew, yNew, yErrorNegNew, yErrorPosNew);
+
+            // deep copy data point labels and styles
+            for (int index = 0; index < nSamples; index++) {
+                final String label = other.getDataLabel(index);
+                if (label != null && !label.isEmpty()) {
+                    this.addDataLabel(index, label);
+                }
+                final String style = other.getStyle(index);
+                if (style != null && !style.isEmpty()) {
+                    this.addDataStyle(index, style);
+                }
+            }
+            this.setStyle(other.getStyle());
+
+            // synchronise axis description
+            for (int dimIndex = 0; dimIndex < getDimension(); dimIndex++) {
+                this.getAxisDescription(dimIndex).set(other.getAxisDescription(dimIndex));
+            }
+        }));
+        return fireInvalidated(new UpdatedDataEvent(this));
+    }
+
+    /**
+     * clear old data and overwrite with new data (N.B. the values are always copied)
+     *
+     * @param xValues X coordinates
+     * @param yValues Y coordinates
+     * @param yErrorsNeg the -dy errors
+     * @param yErrorsPos the +dy errors
+     * @return itself (fluent design)
+     */
+    public DoubleBufferedDataSet set(final double[] xValues, final double[] yValues, final double[] yErrorsNeg,
+            final double[] yErrorsPos) {
+        AssertUtils.notNull(X_COORDINATES, xValues);
+        AssertUtils.notNull(Y_COORDINATES, yValues);
+        AssertUtils.notNull("Y error neg", yErrorsNeg);
+        AssertUtils.notNull("Y error pos", yErrorsPos);
+        final int nSamples = Math.min(Math.min(xValues.length, yValues.length),
+                Math.min(yErrorsNeg.length, yErrorsPos.length));
+
+        lock().writeLockGuard(() -> {
+            getDataLabelMap().clear();
+            getDataStyleMap().clear();
+            back.ensureCapacity(nSamples);
+            System.arraycopy(xValues, 0, back.xValues, 0, nSamples);
+            System.arraycopy(yValues, 0, back.yValues, 0, nSamples);
+            System.arraycopy(yErrorsNeg, 0, back.yErrorsNeg, 0, nSamples);
+            System.arraycopy(yErrorsPos, 0, back.yErrorsPos, 0, nSamples);
+            back.size = nSamples;
+            markModified(0, nSamples);
+
+            // invalidate ranges
+            getAxisDescriptions().forEach(AxisDescription::clear);
+        });
+        return fireInvalidated(new UpdatedDataEvent(this));
+    }
+
+    /**
+     * replaces point coordinate of existing data point
+     *
+     * @param index data point index at which the new data point should be added
+     * @param newValue new data point coordinate
+     * @return itself (fluent design)
+     */
+    @Override
+    public DoubleBufferedDataSet set(final int index, final double... newValue) {
+        if (newValue.length >= 4) {
+            return set(index, newValue[0], newValue[1], newValue[2], newValue[3]);
+        }
+        return set(index, newValue[0], newValue[1], 0.0, 0.0);
+    }
+
+    /**
+     * replaces point coordinate of existing data point
+     *
+     * @param index data point index at which the new data point should be added
+     * @param x horizontal coordinate of the new data point
+     * @param y vertical coordinate of the new data point
+     * @param yErrorNeg the -dy error
+     * @param yErrorPos the +dy error
+     * @return itself (fluent design)
+     */
+    public DoubleBufferedDataSet set(final int index, final double x, final double y, final double yErrorNeg,
+            final double yErrorPos) {
+        lock().writeLockGuard(() -> {
+            final int dataCount = Math.max(index + 1, back.size);
+            back.ensureCapacity(dataCount);
+            back.xValues[index] = x;
+            back.yValues[index] = y;
+            back.yErrorsNeg[index] = yErrorNeg;
+            back.yErrorsPos[index] = yErrorPos;
+            markModified(Math.min(index, back.size), dataCount);
+            back.size = dataCount;
+            getDataLabelMap().remove(index);
+            getDataStyleMap().remove(index);
+
+            // invalidate ranges
+            getAxisDescriptions().forEach(AxisDescription::clear);
+        });
+        return fireInvalidated(new UpdatedDataEvent(this, "set - single"));
+    }
+
+    /**
+     * Pins the last published snapshot independent of the calling thread.
+     * <p>
+     * In contrast to {@code lock().readLockGuard(..)}, which pins a snapshot per reading thread, the returned view can
+     * be captured once (e.g. by a renderer) and shared with parallel worker threads so that all of them see the same
+     * data. The view is immutable and remains valid until it is closed.
+     *
+     * @return read-only view onto the pinned snapshot (N.B. needs to be closed to release the snapshot)
+     */
+    public SnapshotView pinSnapshot() {
+        return new SnapshotView(this, pin());
+    }
+
+    /**
+     * @return the snapshot the calling thread should see: the writer's back buffer (inside a write lock, also for
+     *         nested read locks so that the writer reads its own modifications), the pinned one (inside a read lock)
+     *         or otherwise the last published one
+     */
+    private Snapshot current() {
+        final Thread thread = Thread.currentThread();
+        if (snapshotLock.writerThread == thread) {
+            return back;
+        }
+        if (snapshotLock.slotOwner.get() == thread) {
+            return snapshotLock.slotSnapshot;
+        }
+        if (snapshotLock.nThreadLocalPins.get() > 0) {
+            final PinState state = snapshotLock.threadLocalPin.get();
+            if (state.depth > 0) {
+                return state.snapshot;
+            }
+        }
+        return front;
+    }
+
+    /**
+     * Records that the back buffer has changed within [fromIndex, toIndex) (N.B. all other buffers need to copy this
+     * range before they can be re-used as back buffer).
+     *
+     * @param fromIndex first modified index
+     * @param toIndex last modified index (exclusive), Integer.MAX_VALUE: everything past 'fromIndex'
+     */
+    private void markModified(final int fromIndex, final int toIndex) {
+        modified = true;
+        for (final Snapshot buffer : buffers) {
+            if (buffer != back) {
+                buffer.markDirty(fromIndex, toIndex);
+            }
+        }
+    }
+
+    /**
+     * @return the last published snapshot with its reader count incremented (N.B. never blocks)
+     */
+    private Snapshot pin() {
+        Snapshot snapshot;
+        do {
+            snapshot = front;
+            snapshot.readers.incrementAndGet();
+            if (snapshot == front) {
+                return snapshot;
+            }
+            // writer published a new snapshot in the meantime -- retry
+            snapshot.readers.decrementAndGet();
+        } while (true);
+    }
+
+    /**
+     * publishes the back buffer as the new front snapshot and prepares a new (un-pinned) back buffer
+     */
+    private void publish() {
+        if (!modified) {
+            return;
+        }
+        modified = false;
+        final Snapshot newFront = back;
+        newFront.revision = front.revision + 1;
+        front = newFront; // N.B. volatile write -> from here on new readers pin only 'newFront'
+
+        Snapshot newBack = null;
+        for (final Snapshot buffer : buffers) {
+            // choose the least dirty un-pinned buffer
+            if (buffer != newFront && buffer.readers.get() == 0 && (newBack == null || buffer.dirtyLength() < newBack.dirtyLength())) {
+                newBack = buffer;
+            }
+        }
+        if (newBack == null) {
+            // all other buffers are pinned by readers -> do not wait but add a new buffer
+            newBack = new Snapshot(newFront.xValues.length);
+            newBack.markDirty(0, Integer.MAX_VALUE);
+            buffers.add(newBack);
+        }
+        newBack.sync(newFront);
+        back = newBack;
+
+        // release surplus buffers that were allocated during reader contention and are no longer pinned
+        if (buffers.size() > 2) {
+            buffers.removeIf(buffer -> buffer != front && buffer != back && buffer.readers.get() == 0);
+        }
+    }
+
+    /**
+     * Simple DataSetLock implementation that pins immutable snapshots for readers and serialises writers without ever
+     * blocking readers.
+     * <p>
+     * The first reader thread claims a dedicated slot (typically the FX thread) so that data accesses within the guard
+     * resolve the pinned snapshot without thread-local look-ups. Concurrent additional readers fall back to a
+     * thread-local pin.
+     */
+    private class SnapshotLock implements DataSetLock<DoubleBufferedDataSet> {
+        private static final long serialVersionUID = 1L;
+        private final transient ReentrantLock writerLock = new ReentrantLock();
+        private final transient AtomicBoolean autoNotifyState = new AtomicBoolean(true);
+        private transient volatile Thread writerThread; // NOPMD - thread holding the write lock
+        private final transient AtomicReference<Thread> slotOwner = new AtomicReference<>();
+        private transient Snapshot slotSnapshot; // only accessed by the 'slotOwner' thread
+        private transient int slotDepth; // only accessed by the 'slotOwner' thread
+        private final transient AtomicInteger nThreadLocalPins = new AtomicInteger();
+        private final transient ThreadLocal<PinState> threadLocalPin = ThreadLocal.withInitial(PinState::new);
+
+        @Override
+        public DoubleBufferedDataSet readLock() {
+            final Thread thread = Thread.currentThread();
+            if (slotOwner.get() == thread) {
+                slotDepth++;
+                return DoubleBufferedDataSet.this;
+            }
+            if (nThreadLocalPins.get() > 0) {
+                final PinState state = threadLocalPin.get();
+                if (state.depth > 0) {
+                    state.depth++;
+                    return DoubleBufferedDataSet.this;
+                }
+            }
+            if (slotOwner.compareAndSet(null, thread)) {
+                slotSnapshot = pin();
+                slotDepth = 1;
+                return DoubleBufferedDataSet.this;
+            }
+            final PinState state = threadLocalPin.get();
+            state.snapshot = pin();
+            state.depth = 1;
+            nThreadLocalPins.incrementAndGet();
+            return DoubleBufferedDataSet.this;
+        }
+
+        @Override
+        public DoubleBufferedDataSet readLockGuard(final Runnable reading) {
+            readLock();
+            try {
+                reading.run();
+            } finally {
+                readUnLock();
+            }
+            return DoubleBufferedDataSet.this;
+        }
+
+        @Override
+        public <R> R readLockGuard(final Supplier<R> reading) {
+            readLock();
+            try {
+                return reading.get();
+            } finally {
+                readUnLock();
+            }
+        }
+
+        @Override
+        public DoubleBufferedDataSet readLockGuardOptimistic(final Runnable reading) {
+            // pinning a snapshot is already non-blocking
+            return readLockGuard(reading);
+        }
+
+        @Override
+        public <R> R readLockGuardOptimistic(final Supplier<R> reading) {
+            // pinning a snapshot is already non-blocking
+            return readLockGuard(reading);
+        }
+
+        @Override
+        public DoubleBufferedDataSet readUnLock() {
+            if (slotOwner.get() == Thread.currentThread()) {
+                if (--slotDepth == 0) {
+                    slotSnapshot.readers.decrementAndGet();
+                    slotSnapshot = null;
+                    slotOwner.set(null);
+                }
+                return DoubleBufferedDataSet.this;
+            }
+            if (nThreadLocalPins.get() > 0) {
+                final PinState state = threadLocalPin.get();
+                if (state.depth > 0) {
+                    if (--state.depth == 0) {
+                        state.snapshot.readers.decrementAndGet();
+                        state.snapshot = null;
+                        nThreadLocalPins.decrementAndGet();
+                    }
+                    return DoubleBufferedDataSet.this;
+                }
+            }
+            throw new IllegalStateException("read lock already unlocked");
+        }
+
+        @Override
+        public DoubleBufferedDataSet writeLock() {
+            writerLock.lock();
+            if (writerLock.getHoldCount() == 1) {
+                writerThread = Thread.currentThread();
+                // store present auto-notify state
+                autoNotifyState.set(autoNotification().getAndSet(false));
+            }
+            return DoubleBufferedDataSet.this;
+        }
+
+        @Override
+        public DoubleBufferedDataSet writeLockGuard(final Runnable writing) {
+            writeLock();
+            try {
+                writing.run();
+            } finally {
+                writeUnLock();
+            }
+            return DoubleBufferedDataSet.this;
+        }
+
+        @Override
+        public <R> R writeLockGuard(final Supplier<R> writing) {
+            writeLock();
+            try {
+                return writing.get();
+            } finally {
+                writeUnLock();
+            }
+        }
+
+        @Override
+        public DoubleBufferedDataSet writeUnLock() {
+            if (!writerLock.isHeldByCurrentThread()) {
+                throw new IllegalStateException("write lock not held by this thread");
+            }
+            if (writerLock.getHoldCount() == 1) {
+                try {
+                    publish();
+                } finally {
+                    // restore present auto-notify state
+                    autoNotification().set(autoNotifyState.get());
+                    writerThread = null;
+                    writerLock.unlock();
+                }
+                return DoubleBufferedDataSet.this;
+            }
+            writerLock.unlock();
+            return DoubleBufferedDataSet.this;
+        }
+    }
+
+    /**
+     * Read-only view onto a snapshot pinned via {@link DoubleBufferedDataSet#pinSnapshot()}.
+     * <p>
+     * The data (x, y, -eyn, +eyp) is immutable for the lifetime of the view and may be accessed from any thread.
+     * Data point labels and styles are forwarded to the source data set, the axis descriptions are copied when the
+     * view is created.
+     */
+    public static final class SnapshotView extends AbstractErrorDataSet<SnapshotView> implements DataSet2D, AutoCloseable {
+        private static final long serialVersionUID = 1L;
+        private final transient DoubleBufferedDataSet source;
+        private final transient Snapshot snapshot;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private SnapshotView(final DoubleBufferedDataSet source, final Snapshot snapshot) {
+            super(source.getName(), 2, ErrorType.NO_ERROR, ErrorType.ASYMMETRIC);
+            this.source = source;
+            this.snapshot = snapshot;
+            autoNotification().set(false);
+            setStyle(source.getStyle());
+            for (int dimIndex = 0; dimIndex < getDimension(); dimIndex++) {
+                final AxisDescription range = source.getAxisDescription(dimIndex);
+                if (range.isDefined()) {
+                    getAxisDescription(dimIndex).set(range);
+                } else {
+                    recomputeLimits(dimIndex);
+                }
+            }
+        }
+
+        /**
+         * releases the pinned snapshot (N.B. the view must not be accessed afterwards)
+         */
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                snapshot.readers.decrementAndGet();
+            }
+        }
+
+        @Override
+        public double get(final int dimIndex, final int index) {
+            return dimIndex == DataSet.DIM_X ? snapshot.xValues[index] : snapshot.yValues[index];
+        }
+
+        @Override
+        public int getDataCount(final int dimIndex) {
+            return snapshot.size;
+        }
+
+        @Override
+        public String getDataLabel(final int index) {
+            return source.getDataLabel(index);
+        }
+
+        @Override
+        public double getErrorNegative(final int dimIndex, final int index) {
+            return dimIndex == DIM_X ? 0.0 : snapshot.yErrorsNeg[index];
+        }
+
+        @Override
+        public double getErrorPositive(final int dimIndex, final int index) {
+            return dimIndex == DIM_X ? 0.0 : snapshot.yErrorsPos[index];
+        }
+
+        @Override
+        public double[] getErrorsNegative(final int dimIndex) {
+            return dimIndex == DIM_X ? super.getErrorsNegative(dimIndex) : snapshot.yErrorsNeg;
+        }
+
+        @Override
+        public double[] getErrorsPositive(final int dimIndex) {
+            return dimIndex == DIM_X ? super.getErrorsPositive(dimIndex) : snapshot.yErrorsPos;
+        }
+
+        /**
+         * @return revision counter of the pinned snapshot
+         */
+        public long getRevision() {
+            return snapshot.revision;
+        }
+
+        @Override
+        public String getStyle(final int index) {
+            return source.getStyle(index);
+        }
+
+        @Override
+        public double[] getValues(final int dimIndex) {
+            return dimIndex == DataSet.DIM_X ? snapshot.xValues : snapshot.yValues;
+        }
+
+        /**
+         * @return true: the view has been closed and the snapshot released
+         */
+        public boolean isClosed() {
+            return closed.get();
+        }
+    }
+
+    /**
+     * thread-local snapshot pin for readers that could not claim the dedicated slot
+     */
+    private static class PinState {
+        private Snapshot snapshot;
+        private int depth;
+    }
+
+    /**
+     * internal storage buffer, immutable as long as it is published or pinned by any reader
+     */
+    private static class Snapshot implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private final AtomicInteger readers = new AtomicInteger();
+        private double[] xValues;
+        private double[] yValues;
+        private double[] yErrorsNeg;
+        private double[] yErrorsPos;
+        private int size;
+        private long revision;
+        private int dirtyFrom = Integer.MAX_VALUE; // first index that differs w.r.t. the last published snapshot
+        private int dirtyTo; // last index (exclusive) that differs w.r.t. the last published snapshot
+        private boolean dirty;
+
+        private Snapshot(final int capacity) {
+            xValues = new double[capacity];
+            yValues = new double[capacity];
+            yErrorsNeg = new double[capacity];
+            yErrorsPos = new double[capacity];
+        }
+
+        private int dirtyLength() {
+            return dirty ? Math.max(0, Math.min(dirtyTo, size) - dirtyFrom) : -1;
+        }
+
+        private void ensureCapacity(final int capacity) {
+            if (capacity <= xValues.length) {
+                return;
+            }
+            final int newCapacity = Math.max(capacity, (int) Math.min(Integer.MAX_VALUE - 8L, 2L * xValues.length));
+            xValues = Arrays.copyOf(xValues, newCapacity);
+            yValues = Arrays.copyOf(yValues, newCapacity);
+            yErrorsNeg = Arrays.copyOf(yErrorsNeg, newCapacity);
+            yErrorsPos = Arrays.copyOf(yErrorsPos, newCapacity);
+        }
+
+        private void insert(final int indexAt, final int oldSize, final int length) {
+            final int nTail = oldSize - indexAt;
+            if (nTail > 0) {
+                System.arraycopy(xValues, indexAt, xValues, indexAt + length, nTail);
+                System.arraycopy(yValues, indexAt, yValues, indexAt + length, nTail);
+                System.arraycopy(yErrorsNeg, indexAt, yErrorsNeg, indexAt + length, nTail);
+                System.arraycopy(yErrorsPos, indexAt, yErrorsPos, indexAt + length, nTail);
+            }
+        }
+
+        private void markDirty(final int fromIndex, final int toIndex) {
+            dirty = true;
+            dirtyFrom = Math.min(dirtyFrom, fromIndex);
+            dirtyTo = Math.max(dirtyTo, toIndex);
+        }
+
+        private void remove(final int fromIndex, final int toIndex) {
+            final int nTail = size - toIndex;
+            if (nTail > 0) {
+                System.arraycopy(xValues, toIndex, xValues, fromIndex, nTail);
+                System.arraycopy(yValues, toIndex, yValues, fromIndex, nTail);
+                System.arraycopy(yErrorsNeg, toIndex, yErrorsNeg, fromIndex, nTail);
+                System.arraycopy(yErrorsPos, toIndex, yErrorsPos, fromIndex, nTail);
+            }
+            size -= toIndex - fromIndex;
+        }
+
+        private void sync(final Snapshot source) {
+            if (!dirty) {
+                return;
+            }
+            ensureCapacity(source.size);
+            final int from = Math.min(dirtyFrom, source.size);
+            final int length = Math.min(dirtyTo, source.size) - from;
+            if (length > 0) {
+                System.arraycopy(source.xValues, from, xValues, from, length);
+                System.arraycopy(source.yValues, from, yValues, from, length);
+                System.arraycopy(source.yErrorsNeg, from, yErrorsNeg, from, length);
+                System.arraycopy(source.yErrorsPos, from, yErrorsPos, from, length);
+            }
+            size = source.size;
+            revision = source.revision;
+            dirty = false;
+            dirtyFrom = Integer.MAX_VALUE;
+            dirtyTo = 0;
+        }
+    }
+}
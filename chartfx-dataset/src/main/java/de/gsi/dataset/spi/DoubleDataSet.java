@@ -3,11 +3,14 @@ package de.gsi.dataset.spi;
 import de.gsi.dataset.AxisDescription;
 import de.gsi.dataset.DataSet;
 import de.gsi.dataset.DataSet2D;
+import de.gsi.dataset.DataSetLevelOfDetail;
 import de.gsi.dataset.EditableDataSet;
 import de.gsi.dataset.event.AddedDataEvent;
 import de.gsi.dataset.event.RemovedDataEvent;
 import de.gsi.dataset.event.UpdatedDataEvent;
 import de.gsi.dataset.utils.AssertUtils;
+import de.gsi.dataset.utils.MinMaxPyramid;
+import de.gsi.dataset.utils.MinMaxTree;
 
 import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
 
@@ -19,10 +22,13 @@ import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
  * @author rstein
  */
 @SuppressWarnings("PMD.TooManyMethods") // part of the flexible class nature
-public class DoubleDataSet extends AbstractDataSet<DoubleDataSet> implements EditableDataSet, DataSet2D {
+public class DoubleDataSet extends AbstractDataSet<DoubleDataSet> implements EditableDataSet, DataSet2D, DataSetLevelOfDetail {
     private static final long serialVersionUID = -493232313124620828L;
     protected DoubleArrayList xValues; // way faster than java default lists
     protected DoubleArrayList yValues; // way faster than java default lists
+    private transient MinMaxTree xLimits; // null: incremental limits tracking disabled
+    private transient MinMaxTree yLimits; // null: incremental limits tracking disabled
+    private transient MinMaxPyramid minMaxPyramid; // null: level-of-detail index disabled
 
     /**
      * Creates a new instance of <code>DoubleDataSet</code> as copy of another (deep-copy).
@@ -106,6 +112,7 @@ public class DoubleDataSet extends AbstractDataSet<DoubleDataSet> implements Edi
             if ((label != null) && !label.isEmpty()) {
                 addDataLabel(xValues.size() - 1, label);
             }
+            invalidateLimits(xValues.size() - 1, xValues.size());
 
             getAxisDescription(DIM_X).add(x);
             getAxisDescription(DIM_Y).add(y);
@@ -131,6 +138,7 @@ public class DoubleDataSet extends AbstractDataSet<DoubleDataSet> implements Edi
             resize(addAt + newElements);
             xValues.setElements(addAt, xValuesNew);
             yValues.setElements(addAt, yValuesNew);
+            invalidateLimits(addAt, addAt + newElements);
 
             getAxisDescription(DIM_X).add(xValuesNew);
             getAxisDescription(DIM_Y).add(yValuesNew);
@@ -180,6 +188,7 @@ public class DoubleDataSet extends AbstractDataSet<DoubleDataSet> implements Edi
             yValues.add(indexAt, y);
             getDataLabelMap().addValueAndShiftKeys(indexAt, xValues.size(), label);
             getDataStyleMap().shiftKeys(indexAt, xValues.size());
+            invalidateLimits(indexAt, xValues.size());
             getAxisDescription(DIM_X).add(x);
             getAxisDescription(DIM_Y).add(y);
         });
@@ -208,6 +217,7 @@ public class DoubleDataSet extends AbstractDataSet<DoubleDataSet> implements Edi
             getAxisDescription(DIM_Y).add(y, min);
             getDataLabelMap().shiftKeys(indexAt, xValues.size());
             getDataStyleMap().shiftKeys(indexAt, xValues.size());
+            invalidateLimits(indexAt, xValues.size());
         });
         return fireInvalidated(new AddedDataEvent(this));
     }
@@ -224,6 +234,7 @@ public class DoubleDataSet extends AbstractDataSet<DoubleDataSet> implements Edi
             getDataLabelMap().clear();
             getDataStyleMap().clear();
             clearMetaInfo();
+            invalidateLimits(0, 0);
 
             getAxisDescriptions().forEach(AxisDescription::clear);
         });
@@ -247,11 +258,29 @@ public class DoubleDataSet extends AbstractDataSet<DoubleDataSet> implements Edi
         return Math.min(xValues.size(), yValues.size());
     }
 
+    @Override
+    public MinMaxPyramid getMinMaxPyramid() {
+        return minMaxPyramid;
+    }
+
+    @Override
+    protected MinMaxTree getLimitsTree(final int dimIndex) {
+        return dimIndex == DataSet.DIM_X ? xLimits : yLimits;
+    }
+
     @Override
     public final double[] getValues(final int dimIndex) {
         return dimIndex == DataSet.DIM_X ? xValues.elements() : yValues.elements();
     }
 
+    /**
+     * @return {@code true} if the data limits are tracked incrementally
+     * @see #setIncrementalLimits(boolean)
+     */
+    public boolean isIncrementalLimits() {
+        return xLimits != null;
+    }
+
     /**
      * @param amount storage capacity increase
      * @return itself (fluent design)
@@ -297,6 +326,7 @@ public class DoubleDataSet extends AbstractDataSet<DoubleDataSet> implements Edi
             getDataStyleMap().remove(fromIndex, clampedToIndex);
 
             // invalidate ranges
+            invalidateLimits(fromIndex, getDataCount());
             getAxisDescriptions().forEach(AxisDescription::clear);
         });
         return fireInvalidated(new RemovedDataEvent(this));
@@ -312,6 +342,7 @@ public class DoubleDataSet extends AbstractDataSet<DoubleDataSet> implements Edi
         lock().writeLockGuard(() -> {
             xValues.size(size);
             yValues.size(size);
+            invalidateLimits(size, size);
         });
         return fireInvalidated(new UpdatedDataEvent(this, "increaseCapacity()"));
     }
@@ -424,6 +455,7 @@ public class DoubleDataSet extends AbstractDataSet<DoubleDataSet> implements Edi
             }
 
             // invalidate ranges
+            invalidateLimits(0, getDataCount());
             getAxisDescriptions().forEach(AxisDescription::clear);
         });
         return fireInvalidated(new UpdatedDataEvent(this));
@@ -460,6 +492,7 @@ public class DoubleDataSet extends AbstractDataSet<DoubleDataSet> implements Edi
             getDataStyleMap().remove(index);
 
             // invalidate ranges
+            invalidateLimits(index, index + 1);
             getAxisDescriptions().forEach(AxisDescription::clear);
         });
         return fireInvalidated(new UpdatedDataEvent(this, "set - single"));
@@ -474,11 +507,51 @@ public class DoubleDataSet extends AbstractDataSet<DoubleDataSet> implements Edi
             getDataStyleMap().remove(index, index + x.length);
 
             // invalidate ranges
+            invalidateLimits(index, index + x.length);
             getAxisDescriptions().forEach(AxisDescription::clear);
         });
         return fireInvalidated(new UpdatedDataEvent(this, "set - via arrays"));
     }
 
+    /**
+     * Enables the incremental tracking of the data limits. Modifications via add/set/remove then only invalidate the
+     * affected samples and {@link #recomputeLimits(int)} (e.g. for axis auto-ranging) costs O(number of modified samples
+     * + log n) rather than O(n). Disabled by default since direct modifications of the arrays returned by
+     * {@link #getValues(int)} bypass the tracking (N.B. in this case call {@code setIncrementalLimits(true)} again).
+     *
+     * @param state {@code true}: enable incremental limits tracking
+     * @return itself (fluent design)
+     */
+    public DoubleDataSet setIncrementalLimits(final boolean state) {
+        lock().writeLockGuard(() -> {
+            if (state) {
+                xLimits = new MinMaxTree(i -> xValues.elements()[i]);
+                yLimits = new MinMaxTree(i -> yValues.elements()[i]);
+                invalidateLimits(0, getDataCount());
+            } else {
+                xLimits = null; // NOPMD - null is the 'disabled' state
+                yLimits = null; // NOPMD - null is the 'disabled' state
+            }
+        });
+        return getThis();
+    }
+
+    /**
+     * Enables the min/max pyramid of the y-values that is maintained incrementally on append and allows renderers to
+     * fetch only the ~2 representative points per pixel column (level-of-detail rendering). Disabled by default since
+     * direct modifications of the arrays returned by {@link #getValues(int)} bypass the tracking (N.B. in this case
+     * call {@code setMinMaxPyramid(true)} again).
+     *
+     * @param state {@code true}: enable min/max pyramid
+     * @return itself (fluent design)
+     */
+    public DoubleDataSet setMinMaxPyramid(final boolean state) {
+        lock().writeLockGuard(() -> {
+            minMaxPyramid = state ? new MinMaxPyramid(i -> yValues.elements()[i], this::getDataCount) : null;
+        });
+        return getThis();
+    }
+
     /**
      * Trims the arrays list so that the capacity is equal to the size.
      *
@@ -492,4 +565,19 @@ public class DoubleDataSet extends AbstractDataSet<DoubleDataSet> implements Edi
         });
         return fireInvalidated(new UpdatedDataEvent(this, "increaseCapacity()"));
     }
+
+    private void invalidateLimits(final int fromIndex, final int toIndex) {
+        if (minMaxPyramid != null) {
+            // N.B. appended samples (fromIndex == previous size) are indexed incrementally
+            minMaxPyramid.invalidate(fromIndex);
+        }
+        if (xLimits == null) {
+            return;
+        }
+        final int dataCount = getDataCount();
+        xLimits.setSize(dataCount);
+        yLimits.setSize(dataCount);
+        xLimits.invalidate(fromIndex, toIndex);
+        yLimits.invalidate(fromIndex, toIndex);
+    }
 }
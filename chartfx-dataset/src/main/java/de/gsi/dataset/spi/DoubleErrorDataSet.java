@@ -419,13 +419,25 @@ public class DoubleErrorDataSet extends AbstractErrorDataSet<DoubleErrorDataSet>
      * @return itself (fluent design)
      */
     public DoubleErrorDataSet resize(final int size) {
+        return resize(size, true);
+    }
+
+    /**
+     * ensures minimum size, enlarges if necessary
+     *
+     * @param size the actually used array lengths
+     * @param notify {@code false}: listeners are not notified, e.g. if called within a write-locked section that
+     *            notifies them once all modifications are done
+     * @return itself (fluent design)
+     */
+    public DoubleErrorDataSet resize(final int size, final boolean notify) {
         lock().writeLockGuard(() -> {
             xValues.size(size);
             yValues.size(size);
             yErrorsPos.size(size);
             yErrorsNeg.size(size);
         });
-        return fireInvalidated(new UpdatedDataEvent(this, "increaseCapacity()"));
+        return notify ? fireInvalidated(new UpdatedDataEvent(this, "increaseCapacity()")) : getThis();
     }
 
     /**
@@ -0,0 +1,357 @@
+package de.gsi.dataset.spi;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import de.gsi.dataset.AxisDescription;
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.utils.AssertUtils;
+import de.gsi.dataset.utils.ChunkedDoubleBuffer;
+
+/**
+ * Read-only {@code DataSet} backed by a memory-mapped binary file.
+ * <p>
+ * Opening a file only parses the (small) header and maps the per-dimension columns via {@link FileChannel#map}. The
+ * operating system pages in only those parts of the file that are actually accessed, e.g. by the index range covering
+ * the visible axis range of a chart (see {@link #getIndex(int, double)}). The axis ranges are stored in the header and
+ * are thus available without scanning the data.
+ * <p>
+ * File layout (all numbers little-endian):
+ *
+ * <pre>
+ * offset                  | content
+ * ------------------------+-------------------------------------------------------------------
+ * 0                       | long: magic number ('CFXMDS' + format version)
+ * 8                       | int: header size in bytes (multiple of {@value #ALIGNMENT})
+ * 12                      | int: number of dimensions 'nDims'
+ * 16                      | long: number of samples per dimension 'nSamples'
+ * 24 + 24 * dim           | long: column offset, double: min, double: max -- for each dimension
+ * 24 + 24 * nDims         | data set name, followed by axis name and unit for each dimension
+ *                         | (each: int length + UTF-8 bytes)
+ * column offset (aligned) | double[nSamples] -- for each dimension
+ * </pre>
+ *
+ * Columns are aligned to {@value #ALIGNMENT} bytes and mapped in chunks of at most 1 GB to cope with the 2 GB limit
+ * of individual NIO buffers. N.B. mapped memory is released once this data set has been garbage collected.
+ *
+ * @see #write(DataSet, Path) for creating files of this format
+ */
+@SuppressWarnings("java:S2160") // equals is still valid because of DataSet interface
+public class MappedDataSet extends AbstractDataSet<MappedDataSet> {
+    private static final long serialVersionUID = -2345366787411452468L;
+    /** file magic number: 'CFXMDS' + format version '01' */
+    public static final long MAGIC_NUMBER = 0x434658_4D4453_3031L;
+    /** alignment of header and columns in bytes (typical page size) */
+    public static final int ALIGNMENT = 4096;
+    private static final int FIXED_HEADER_SIZE = 24;
+    private static final int DIM_HEADER_SIZE = 24;
+    private static final int MAP_CHUNK_SIZE_LOG2 = ChunkedDoubleBuffer.MAX_CHUNK_SIZE_LOG2;
+    private static final int WRITE_BLOCK_SIZE = 1 << 16;
+    private final Path file;
+    private final int nSamples;
+    private final double[] columnMin;
+    private final double[] columnMax;
+    private final transient ChunkedDoubleBuffer[] columns;
+
+    /**
+     * Opens and maps the given file (N.B. this does not read the column data)
+     *
+     * @param file file in the format written by {@link #write(DataSet, Path)}
+     * @throws IOException in case the file cannot be opened/mapped or does not comply to the expected format
+     */
+    public MappedDataSet(final Path file) throws IOException {
+        this(file, readHeader(file));
+    }
+
+    private MappedDataSet(final Path file, final Header header) throws IOException {
+        super(header.name, header.nDims);
+        this.file = file;
+        nSamples = header.nSamples;
+        columnMin = header.min;
+        columnMax = header.max;
+        columns = new ChunkedDoubleBuffer[header.nDims];
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final int chunkSize = 1 << MAP_CHUNK_SIZE_LOG2;
+            final int nChunks = (nSamples + chunkSize - 1) >>> MAP_CHUNK_SIZE_LOG2;
+            for (int dim = 0; dim < header.nDims; dim++) {
+                final DoubleBuffer[] chunks = new DoubleBuffer[nChunks];
+                for (int chunk = 0; chunk < nChunks; chunk++) {
+                    final long position = header.offset[dim] + (long) chunk * chunkSize * Double.BYTES;
+                    final long length = (long) Math.min(chunkSize, nSamples - chunk * chunkSize) * Double.BYTES;
+                    // N.B. the mapping remains valid after the channel has been closed
+                    chunks[chunk] = channel.map(FileChannel.MapMode.READ_ONLY, position, length)
+                                            .order(ByteOrder.LITTLE_ENDIAN)
+                                            .asDoubleBuffer();
+                }
+                columns[dim] = ChunkedDoubleBuffer.wrap(MAP_CHUNK_SIZE_LOG2, nSamples, chunks);
+                getAxisDescription(dim).set(header.axisName[dim], header.axisUnit[dim], columnMin[dim],
+                        columnMax[dim]);
+            }
+        }
+    }
+
+    @Override
+    public double get(final int dimIndex, final int index) {
+        return columns[dimIndex].get(index);
+    }
+
+    @Override
+    public int getDataCount(final int dimIndex) {
+        return nSamples;
+    }
+
+    /**
+     * @return the underlying file
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    @Override
+    public double getValue(final int dimIndex, final double x) {
+        final int index1 = getIndex(DIM_X, x);
+        final double x1 = get(DIM_X, index1);
+        final double y1 = get(dimIndex, index1);
+        int index2 = x1 < x ? index1 + 1 : index1 - 1;
+        index2 = Math.max(0, Math.min(index2, this.getDataCount() - 1));
+        final double y2 = get(dimIndex, index2);
+        if (Double.isNaN(y1) || Double.isNaN(y2)) {
+            // case where the function has a gap (y-coordinate equals to NaN
+            return Double.NaN;
+        }
+
+        final double x2 = get(DIM_X, index2);
+        if (x1 == x2) {
+            return y1;
+        }
+
+        return y1 + (((y2 - y1) * (x - x1)) / (x2 - x1));
+    }
+
+    /**
+     * N.B. this returns a newly allocated on-heap copy of the whole column and pages in the whole column. For large
+     * files please use {@link #getValues(int, int, int, double[])} with a re-used target array instead.
+     *
+     * @param dimIndex the dimension index (ie. '0' equals 'X', '1' equals 'Y')
+     * @return copy of the values
+     */
+    @Override
+    public double[] getValues(final int dimIndex) {
+        return columns[dimIndex].toArray();
+    }
+
+    /**
+     * bulk copy of a sub-range of the values into a user-supplied (re-usable) array
+     *
+     * @param dimIndex the dimension index (ie. '0' equals 'X', '1' equals 'Y')
+     * @param fromIndex start index (inclusive)
+     * @param toIndex stop index (exclusive)
+     * @param target optional target array, a new array is allocated if {@code null} or too small
+     * @return the target array filled from index '0' to 'toIndex - fromIndex'
+     */
+    public double[] getValues(final int dimIndex, final int fromIndex, final int toIndex, final double[] target) {
+        AssertUtils.indexInBounds(fromIndex, nSamples + 1, "fromIndex");
+        AssertUtils.indexInBounds(toIndex, nSamples + 1, "toIndex");
+        AssertUtils.indexOrder(fromIndex, "fromIndex", toIndex, "toIndex");
+        final int length = toIndex - fromIndex;
+        final double[] retVal = target == null || target.length < length ? new double[length] : target;
+        columns[dimIndex].getElements(fromIndex, retVal, 0, length);
+        return retVal;
+    }
+
+    /**
+     * restores the limits stored in the file header (N.B. no need to scan the immutable data)
+     *
+     * @param dimIndex the dimension index (ie. '0' equals 'X', '1' equals 'Y')
+     * @return itself (fluent design)
+     */
+    @Override
+    public MappedDataSet recomputeLimits(final int dimIndex) {
+        getAxisDescription(dimIndex).set(columnMin[dimIndex], columnMax[dimIndex]);
+        return getThis();
+    }
+
+    /**
+     * Writes the given data set into the binary format readable by {@link MappedDataSet}. The data is streamed
+     * block-wise from the data set (via {@link DataSet#get(int, int)}) so that also large, e.g. off-heap, data sets
+     * can be exported without an additional on-heap copy.
+     *
+     * @param dataSet source data set (N.B. data labels, styles and errors are not stored)
+     * @param file target file (N.B. existing files are overwritten)
+     * @throws IOException in case of IO problems
+     */
+    public static void write(final DataSet dataSet, final Path file) throws IOException {
+        AssertUtils.notNull("dataSet", dataSet);
+        AssertUtils.notNull("file", file);
+        dataSet.lock().readLock();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeLocked(dataSet, channel);
+        } finally {
+            dataSet.lock().readUnLock();
+        }
+    }
+
+    private static long align(final long position) {
+        return (position + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+
+    private static byte[] bytes(final String string) {
+        return string == null ? new byte[0] : string.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Header readHeader(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final ByteBuffer fixed = ByteBuffer.allocate(FIXED_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, fixed, 0);
+            if (fixed.getLong() != MAGIC_NUMBER) {
+                throw new IOException("'" + file + "' is not a mapped data set file (wrong magic number)");
+            }
+            final int headerSize = fixed.getInt();
+            final int nDims = fixed.getInt();
+            final long nSamples = fixed.getLong();
+            if (nDims <= 0 || headerSize < FIXED_HEADER_SIZE + nDims * DIM_HEADER_SIZE || nSamples < 0
+                    || nSamples > Integer.MAX_VALUE) {
+                throw new IOException("'" + file + "' has corrupt header: headerSize = " + headerSize
+                                      + " nDims = " + nDims + " nSamples = " + nSamples);
+            }
+            final ByteBuffer buffer = ByteBuffer.allocate(headerSize - FIXED_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, buffer, FIXED_HEADER_SIZE);
+
+            final Header header = new Header(nDims, (int) nSamples);
+            for (int dim = 0; dim < nDims; dim++) {
+                header.offset[dim] = buffer.getLong();
+                header.min[dim] = buffer.getDouble();
+                header.max[dim] = buffer.getDouble();
+                if (header.offset[dim] + nSamples * Double.BYTES > channel.size()) {
+                    throw new IOException("'" + file + "' is truncated: column " + dim + " exceeds file size");
+                }
+            }
+            header.name = readString(buffer);
+            for (int dim = 0; dim < nDims; dim++) {
+                header.axisName[dim] = readString(buffer);
+                header.axisUnit[dim] = readString(buffer);
+            }
+            return header;
+        }
+    }
+
+    private static void readFully(final FileChannel channel, final ByteBuffer buffer, final long position)
+            throws IOException {
+        long pos = position;
+        while (buffer.hasRemaining()) {
+            final int n = channel.read(buffer, pos);
+            if (n < 0) {
+                throw new IOException("unexpected end of file at position " + pos);
+            }
+            pos += n;
+        }
+        buffer.flip();
+    }
+
+    private static String readString(final ByteBuffer buffer) {
+        final int length = buffer.getInt();
+        final byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeFully(final FileChannel channel, final ByteBuffer buffer, final long position)
+            throws IOException {
+        long pos = position;
+        while (buffer.hasRemaining()) {
+            pos += channel.write(buffer, pos);
+        }
+    }
+
+    private static void writeLocked(final DataSet dataSet, final FileChannel channel) throws IOException {
+        final int nDims = dataSet.getDimension();
+        final int nSamples = dataSet.getDataCount();
+        for (int dim = 0; dim < nDims; dim++) {
+            if (dataSet.getDataCount(dim) != nSamples) {
+                throw new IllegalArgumentException(
+                        "dimension " + dim + " has " + dataSet.getDataCount(dim) + " instead of " + nSamples + " samples");
+            }
+        }
+
+        // variable-length part of the header
+        final byte[] name = bytes(dataSet.getName());
+        final byte[][] axisNames = new byte[nDims][];
+        final byte[][] axisUnits = new byte[nDims][];
+        int headerSize = FIXED_HEADER_SIZE + nDims * DIM_HEADER_SIZE + Integer.BYTES + name.length;
+        for (int dim = 0; dim < nDims; dim++) {
+            final AxisDescription axisDescription = dataSet.getAxisDescription(dim);
+            axisNames[dim] = bytes(axisDescription.getName());
+            axisUnits[dim] = bytes(axisDescription.getUnit());
+            headerSize += 2 * Integer.BYTES + axisNames[dim].length + axisUnits[dim].length;
+        }
+        headerSize = (int) align(headerSize);
+
+        // columns -- N.B. min/max are computed while writing
+        final long[] offsets = new long[nDims];
+        final double[] min = new double[nDims];
+        final double[] max = new double[nDims];
+        final ByteBuffer block = ByteBuffer.allocate(WRITE_BLOCK_SIZE * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        long position = headerSize;
+        for (int dim = 0; dim < nDims; dim++) {
+            offsets[dim] = position;
+            final DataRange range = new DataRange();
+            for (int index = 0; index < nSamples; index += WRITE_BLOCK_SIZE) {
+                final int toIndex = Math.min(nSamples, index + WRITE_BLOCK_SIZE);
+                block.clear();
+                for (int i = index; i < toIndex; i++) {
+                    final double value = dataSet.get(dim, i);
+                    range.add(value);
+                    block.putDouble(value);
+                }
+                block.flip();
+                writeFully(channel, block, position);
+                position += (long) (toIndex - index) * Double.BYTES;
+            }
+            min[dim] = range.getMin();
+            max[dim] = range.getMax();
+            position = align(position);
+        }
+
+        // header
+        final ByteBuffer header = ByteBuffer.allocate(headerSize).order(ByteOrder.LITTLE_ENDIAN);
+        header.putLong(MAGIC_NUMBER).putInt(headerSize).putInt(nDims).putLong(nSamples);
+        for (int dim = 0; dim < nDims; dim++) {
+            header.putLong(offsets[dim]).putDouble(min[dim]).putDouble(max[dim]);
+        }
+        header.putInt(name.length).put(name);
+        for (int dim = 0; dim < nDims; dim++) {
+            header.putInt(axisNames[dim].length).put(axisNames[dim]);
+            header.putInt(axisUnits[dim].length).put(axisUnits[dim]);
+        }
+        header.rewind();
+        writeFully(channel, header, 0);
+    }
+
+    private static class Header {
+        private final int nDims;
+        private final int nSamples;
+        private final long[] offset;
+        private final double[] min;
+        private final double[] max;
+        private final String[] axisName;
+        private final String[] axisUnit;
+        private String name;
+
+        private Header(final int nDims, final int nSamples) {
+            this.nDims = nDims;
+            this.nSamples = nSamples;
+            offset = new long[nDims];
+            min = new double[nDims];
+            max = new double[nDims];
+            axisName = new String[nDims];
+            axisUnit = new String[nDims];
+        }
+    }
+}
@@ -0,0 +1,435 @@
+package de.gsi.dataset.spi;
+
+import de.gsi.dataset.AxisDescription;
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.DataSet2D;
+import de.gsi.dataset.EditableDataSet;
+import de.gsi.dataset.event.AddedDataEvent;
+import de.gsi.dataset.event.RemovedDataEvent;
+import de.gsi.dataset.event.UpdatedDataEvent;
+import de.gsi.dataset.utils.AssertUtils;
+import de.gsi.dataset.utils.ChunkedDoubleBuffer;
+
+/**
+ * Implementation of the {@code DataSet} interface which stores x and y values in separate columns outside the Java
+ * heap (chunked direct {@link java.nio.DoubleBuffer}s).
+ * <p>
+ * Intended for very large data sets (e.g. multi-hour archives with &gt;10^8 samples) that would otherwise cause
+ * long garbage-collector pauses and heap-sizing issues. Element access via {@link #get(int, int)} and the inherited
+ * {@link #getIndex(int, double)} binary search are allocation-free. {@link #getValues(int)} returns an on-heap copy
+ * of the column that is cached until the next modification and should thus be avoided for large, frequently updated
+ * data sets in favour of {@link #getValues(int, int, int, double[])}.
+ */
+@SuppressWarnings({ "PMD.TooManyMethods", // part of the flexible class nature
+        "java:S2160" }) // equals is still valid because of DataSet interface
+public class OffHeapDoubleDataSet extends AbstractDataSet<OffHeapDoubleDataSet> implements EditableDataSet, DataSet2D {
+    private static final long serialVersionUID = 3140725283934615208L;
+    private static final String X_COORDINATES = "X coordinates";
+    private static final String Y_COORDINATES = "Y coordinates";
+    protected final transient ChunkedDoubleBuffer xValues;
+    protected final transient ChunkedDoubleBuffer yValues;
+    private transient volatile long modCount; // incremented on each modification, guarded by the write lock
+    private final transient HeapView[] heapViews = new HeapView[2]; // guarded by itself
+
+    /**
+     * Creates a new instance of <code>OffHeapDoubleDataSet</code> as copy of another (deep-copy).
+     *
+     * @param another name of this DataSet.
+     */
+    public OffHeapDoubleDataSet(final DataSet another) {
+        this(another.getName(), another.getDataCount());
+        this.set(another); // NOPMD
+    }
+
+    /**
+     * Creates a new instance of <code>OffHeapDoubleDataSet</code>.
+     *
+     * @param name name of this DataSet.
+     * @throws IllegalArgumentException if {@code name} is {@code null}
+     */
+    public OffHeapDoubleDataSet(final String name) {
+        this(name, 0);
+    }
+
+    /**
+     * Creates a new instance of <code>OffHeapDoubleDataSet</code>.
+     *
+     * @param name name of this DataSet.
+     * @param initalSize initial capacity of buffer (N.B. size=0)
+     * @throws IllegalArgumentException if {@code name} is {@code null}
+     */
+    public OffHeapDoubleDataSet(final String name, final int initalSize) {
+        this(name, initalSize, ChunkedDoubleBuffer.DEFAULT_CHUNK_SIZE_LOG2);
+    }
+
+    /**
+     * Creates a new instance of <code>OffHeapDoubleDataSet</code>.
+     *
+     * @param name name of this DataSet.
+     * @param initalSize initial capacity of buffer (N.B. size=0)
+     * @param chunkSizeLog2 size of the individual off-heap buffer chunks in units of log2(number of doubles)
+     * @throws IllegalArgumentException if {@code name} is {@code null}
+     */
+    public OffHeapDoubleDataSet(final String name, final int initalSize, final int chunkSizeLog2) {
+        super(name, 2);
+        AssertUtils.gtEqThanZero("initalSize", initalSize);
+        xValues = new ChunkedDoubleBuffer(initalSize, chunkSizeLog2);
+        yValues = new ChunkedDoubleBuffer(initalSize, chunkSizeLog2);
+    }
+
+    /**
+     * Add point to the end of the data set
+     *
+     * @param x index
+     * @param y index
+     * @return itself
+     */
+    public OffHeapDoubleDataSet add(final double x, final double y) {
+        lock().writeLockGuard(() -> {
+            modified();
+            xValues.add(x);
+            yValues.add(y);
+            getAxisDescription(DIM_X).add(x);
+            getAxisDescription(DIM_Y).add(y);
+        });
+        return fireInvalidated(new AddedDataEvent(this, "add"));
+    }
+
+    /**
+     * Add array vectors to the end of the data set.
+     *
+     * @param xValuesNew X coordinates
+     * @param yValuesNew Y coordinates
+     * @return itself
+     */
+    public OffHeapDoubleDataSet add(final double[] xValuesNew, final double[] yValuesNew) {
+        return add(Integer.MAX_VALUE, xValuesNew, yValuesNew);
+    }
+
+    /**
+     * add point to the data set
+     *
+     * @param index data point index at which the new data point should be added
+     * @param newValue new data point coordinate
+     * @return itself (fluent design)
+     */
+    @Override
+    public OffHeapDoubleDataSet add(final int index, final double... newValue) {
+        return add(index, new double[] { newValue[0] }, new double[] { newValue[1] });
+    }
+
+    /**
+     * add points to the data set
+     *
+     * @param index data point index at which the new data points should be added
+     * @param x horizontal coordinates of the new data points
+     * @param y vertical coordinates of the new data points
+     * @return itself (fluent design)
+     */
+    public OffHeapDoubleDataSet add(final int index, final double[] x, final double[] y) {
+        AssertUtils.notNull(X_COORDINATES, x);
+        AssertUtils.notNull(Y_COORDINATES, y);
+        final int min = Math.min(x.length, y.length);
+        AssertUtils.equalDoubleArrays(x, y, min);
+
+        lock().writeLockGuard(() -> {
+            modified();
+            final int dataCount = getDataCount();
+            final int indexAt = Math.max(0, Math.min(index, dataCount));
+            xValues.addElements(indexAt, x, 0, min);
+            yValues.addElements(indexAt, y, 0, min);
+            getAxisDescription(DIM_X).add(x, min);
+            getAxisDescription(DIM_Y).add(y, min);
+            if (indexAt != dataCount) {
+                getDataLabelMap().shiftKeys(indexAt, xValues.size());
+                getDataStyleMap().shiftKeys(indexAt, xValues.size());
+            }
+        });
+        return fireInvalidated(new AddedDataEvent(this));
+    }
+
+    /**
+     * clear all data points
+     *
+     * @return itself (fluent design)
+     */
+    public OffHeapDoubleDataSet clearData() {
+        lock().writeLockGuard(() -> {
+            modified();
+            xValues.clear();
+            yValues.clear();
+            getDataLabelMap().clear();
+            getDataStyleMap().clear();
+            clearMetaInfo();
+
+            getAxisDescriptions().forEach(AxisDescription::clear);
+        });
+        return fireInvalidated(new RemovedDataEvent(this, "clearData()"));
+    }
+
+    @Override
+    public final double get(final int dimIndex, final int index) {
+        return dimIndex == DIM_X ? xValues.get(index) : yValues.get(index);
+    }
+
+    /**
+     * @return storage capacity of dataset
+     */
+    public int getCapacity() {
+        return Math.min(xValues.capacity(), yValues.capacity());
+    }
+
+    @Override
+    public int getDataCount(final int dimIndex) {
+        return dimIndex == DIM_X ? xValues.size() : yValues.size();
+    }
+
+    /**
+     * N.B. this returns an on-heap copy of the whole column. The copy is cached and only refreshed after the data set
+     * has been modified. For large, frequently updated data sets please use
+     * {@link #getValues(int, int, int, double[])} with a re-used target array instead.
+     *
+     * @param dimIndex the dimension index (ie. '0' equals 'X', '1' equals 'Y')
+     * @return cached copy of the values (N.B. must not be modified)
+     */
+    @Override
+    public double[] getValues(final int dimIndex) {
+        final int dim = dimIndex == DIM_X ? DIM_X : DIM_Y;
+        synchronized (heapViews) {
+            final long currentModCount = modCount;
+            final HeapView view = heapViews[dim];
+            if (view != null && view.modCount == currentModCount) {
+                return view.values;
+            }
+            final double[] values = (dim == DIM_X ? xValues : yValues).toArray();
+            heapViews[dim] = new HeapView(currentModCount, values);
+            return values;
+        }
+    }
+
+    /**
+     * bulk copy of a sub-range of the values into a user-supplied (re-usable) array
+     *
+     * @param dimIndex the dimension index (ie. '0' equals 'X', '1' equals 'Y')
+     * @param fromIndex start index (inclusive)
+     * @param toIndex stop index (exclusive)
+     * @param target optional target array, a new array is allocated if {@code null} or too small
+     * @return the target array filled from index '0' to 'toIndex - fromIndex'
+     */
+    public double[] getValues(final int dimIndex, final int fromIndex, final int toIndex, final double[] target) {
+        AssertUtils.indexInBounds(fromIndex, getDataCount(dimIndex) + 1, "fromIndex");
+        AssertUtils.indexInBounds(toIndex, getDataCount(dimIndex) + 1, "toIndex");
+        AssertUtils.indexOrder(fromIndex, "fromIndex", toIndex, "toIndex");
+        final int length = toIndex - fromIndex;
+        final double[] retVal = target == null || target.length < length ? new double[length] : target;
+        (dimIndex == DIM_X ? xValues : yValues).getElements(fromIndex, retVal, 0, length);
+        return retVal;
+    }
+
+    /**
+     * @param amount storage capacity increase
+     * @return itself (fluent design)
+     */
+    public OffHeapDoubleDataSet increaseCapacity(final int amount) {
+        lock().writeLockGuard(() -> {
+            modified();
+            xValues.ensureCapacity(xValues.capacity() + amount);
+            yValues.ensureCapacity(yValues.capacity() + amount);
+        });
+        return getThis();
+    }
+
+    /**
+     * remove point from data set
+     *
+     * @param index data point which should be removed
+     * @return itself (fluent design)
+     */
+    @Override
+    public OffHeapDoubleDataSet remove(final int index) {
+        return remove(index, index + 1);
+    }
+
+    /**
+     * removes sub-range of data points
+     *
+     * @param fromIndex start index (inclusive)
+     * @param toIndex stop index (exclusive)
+     * @return itself (fluent design)
+     */
+    public OffHeapDoubleDataSet remove(final int fromIndex, final int toIndex) {
+        lock().writeLockGuard(() -> {
+            modified();
+            AssertUtils.indexInBounds(fromIndex, getDataCount(), "fromIndex");
+            AssertUtils.indexOrder(fromIndex, "fromIndex", toIndex, "toIndex");
+            final int clampedToIndex = Math.min(toIndex, getDataCount());
+
+            xValues.removeElements(fromIndex, clampedToIndex);
+            yValues.removeElements(fromIndex, clampedToIndex);
+
+            // remove old label and style keys
+            getDataLabelMap().remove(fromIndex, clampedToIndex);
+            getDataStyleMap().remove(fromIndex, clampedToIndex);
+
+            // invalidate ranges
+            // -> fireInvalidated calls computeLimits for autoNotification
+            getAxisDescriptions().forEach(AxisDescription::clear);
+        });
+        return fireInvalidated(new RemovedDataEvent(this));
+    }
+
+    /**
+     * ensures minimum size, enlarges if necessary
+     *
+     * @param size the actually used array lengths
+     * @return itself (fluent design)
+     */
+    public OffHeapDoubleDataSet resize(final int size) {
+        lock().writeLockGuard(() -> {
+            modified();
+            xValues.size(size);
+            yValues.size(size);
+        });
+        return fireInvalidated(new UpdatedDataEvent(this, "increaseCapacity()"));
+    }
+
+    /**
+     * clear old data and overwrite with data from 'other' data set (deep copy)
+     *
+     * @param other the source data set
+     * @return itself (fluent design)
+     */
+    public OffHeapDoubleDataSet set(final DataSet other) {
+        lock().writeLockGuard(() -> other.lock().readLockGuard(() -> {
+            modified();
+            final int nSamples = other.getDataCount();
+            xValues.clear();
+            yValues.clear();
+            xValues.ensureCapacity(nSamples);
+            yValues.ensureCapacity(nSamples);
+            if (other instanceof OffHeapDoubleDataSet) {
+                // N.B. chunk-wise copy to avoid a temporary on-heap copy of the full column
+                final OffHeapDoubleDataSet otherOffHeap = (OffHeapDoubleDataSet) other;
+                final double[] buffer = new double[Math.min(nSamples, xValues.chunkSize())];
+                for (int index = 0; index < nSamples; index += buffer.length) {
+                    final int toIndex = Math.min(nSamples, index + buffer.length);
+                    final int length = toIndex - index;
+                    xValues.addElements(index, otherOffHeap.getValues(DIM_X, index, toIndex, buffer), 0, length);
+                    yValues.addElements(index, otherOffHeap.getValues(DIM_Y, index, toIndex, buffer), 0, length);
+                }
+            } else {
+                xValues.addElements(0, other.getValues(DIM_X), 0, nSamples);
+                yValues.addElements(0, other.getValues(DIM_Y), 0, nSamples);
+            }
+
+            // deep copy data point labels and styles
+            getDataLabelMap().clear();
+            getDataStyleMap().clear();
+            for (int index = 0; index < nSamples; index++) {
+                final String label = other.getDataLabel(index);
+                if (label != null && !label.isEmpty()) {
+                    this.addDataLabel(index, label);
+                }
+                final String style = other.getStyle(index);
+                if (style != null && !style.isEmpty()) {
+                    this.addDataStyle(index, style);
+                }
+            }
+            this.setStyle(other.getStyle());
+
+            // synchronise axis description
+            for (int dimIndex = 0; dimIndex < getDimension(); dimIndex++) {
+                this.getAxisDescription(dimIndex).set(other.getAxisDescription(dimIndex));
+            }
+        }));
+        return fireInvalidated(new UpdatedDataEvent(this));
+    }
+
+    /**
+     * clear old data and overwrite with new data (N.B. the values are always copied into the off-heap storage)
+     *
+     * @param xValues X coordinates
+     * @param yValues Y coordinates
+     * @return itself
+     */
+    public OffHeapDoubleDataSet set(final double[] xValues, final double[] yValues) {
+        AssertUtils.notNull(X_COORDINATES, xValues);
+        AssertUtils.notNull(Y_COORDINATES, yValues);
+        final int dataMaxIndex = Math.min(xValues.length, yValues.length);
+        AssertUtils.equalDoubleArrays(xValues, yValues, dataMaxIndex);
+
+        lock().writeLockGuard(() -> {
+            modified();
+            getDataLabelMap().clear();
+            getDataStyleMap().clear();
+            this.xValues.size(dataMaxIndex);
+            this.yValues.size(dataMaxIndex);
+            this.xValues.setElements(0, xValues, 0, dataMaxIndex);
+            this.yValues.setElements(0, yValues, 0, dataMaxIndex);
+
+            // invalidate ranges
+            // -> fireInvalidated calls computeLimits for autoNotification
+            getAxisDescriptions().forEach(AxisDescription::clear);
+        });
+        return fireInvalidated(new UpdatedDataEvent(this));
+    }
+
+    /**
+     * replaces point coordinate of existing data point
+     *
+     * @param index data point index at which the new data point should be added
+     * @param newValue new data point coordinate
+     * @return itself (fluent design)
+     */
+    @Override
+    public OffHeapDoubleDataSet set(final int index, final double... newValue) {
+        lock().writeLockGuard(() -> {
+            modified();
+            final int dataCount = Math.max(index + 1, this.getDataCount());
+            xValues.size(dataCount);
+            yValues.size(dataCount);
+            xValues.set(index, newValue[0]);
+            yValues.set(index, newValue[1]);
+            getDataLabelMap().remove(index);
+            getDataStyleMap().remove(index);
+
+            // invalidate ranges
+            // -> fireInvalidated calls computeLimits for autoNotification
+            getAxisDescriptions().forEach(AxisDescription::clear);
+        });
+        return fireInvalidated(new UpdatedDataEvent(this, "set - single"));
+    }
+
+    /**
+     * Releases off-heap chunks that are not needed for the present number of data points as well as the cached on-heap
+     * copies of {@link #getValues(int)}.
+     *
+     * @return itself (fluent design)
+     */
+    public OffHeapDoubleDataSet trim() {
+        lock().writeLockGuard(() -> {
+            modified();
+            xValues.trim();
+            yValues.trim();
+        });
+        return fireInvalidated(new UpdatedDataEvent(this, "trim()"));
+    }
+
+    private void modified() {
+        modCount++; // NOPMD -- single writer holding the write lock
+        synchronized (heapViews) {
+            heapViews[DIM_X] = null;
+            heapViews[DIM_Y] = null;
+        }
+    }
+
+    private static class HeapView {
+        private final long modCount;
+        private final double[] values;
+
+        private HeapView(final long modCount, final double[] values) {
+            this.modCount = modCount;
+            this.values = values;
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package de.gsi.dataset.utils;
 
-import java.util.WeakHashMap;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
 
 /**
  * Simple cache for large recurring primitive arrays, e.g. to be used in functions where often large temporary arrays
@@ -20,25 +22,76 @@ import java.util.concurrent.ConcurrentHashMap;
  * ArrayCache.release(UNIQUE_IDENTIFIER, 100);
  * </pre>
  * 
- * N.B. for other simple caching needs see @see Cache
+ * N.B. the arrays are pooled per unique name and type in a thread-local and striped {@link ArrayPool} (no global lock).
+ * For other simple caching needs see @see Cache
  * 
  * @author rstein
  *
  */
 public final class ArrayCache { // NOPMD nomen est omen
-    private static ConcurrentHashMap<String, WeakHashMap<Integer, boolean[]>> booleanArrayCache = new ConcurrentHashMap<>();
-    private static ConcurrentHashMap<String, WeakHashMap<Integer, byte[]>> byteArrayCache = new ConcurrentHashMap<>();
-    private static ConcurrentHashMap<String, WeakHashMap<Integer, double[]>> doubleArrayCache = new ConcurrentHashMap<>();
-    private static ConcurrentHashMap<String, WeakHashMap<Integer, float[]>> floatArrayCache = new ConcurrentHashMap<>();
-    private static ConcurrentHashMap<String, WeakHashMap<Integer, int[]>> intArrayCache = new ConcurrentHashMap<>();
-    private static ConcurrentHashMap<String, WeakHashMap<Integer, long[]>> longArrayCache = new ConcurrentHashMap<>();
-    private static ConcurrentHashMap<String, WeakHashMap<Integer, short[]>> shortArrayCache = new ConcurrentHashMap<>(); // NOPMD
-    private static ConcurrentHashMap<String, WeakHashMap<Integer, String[]>> stringArrayCache = new ConcurrentHashMap<>();
+    private static final Map<String, ArrayPool<boolean[]>> booleanArrayCache = new ConcurrentHashMap<>();
+    private static final Map<String, ArrayPool<byte[]>> byteArrayCache = new ConcurrentHashMap<>();
+    private static final Map<String, ArrayPool<double[]>> doubleArrayCache = new ConcurrentHashMap<>();
+    private static final Map<String, ArrayPool<float[]>> floatArrayCache = new ConcurrentHashMap<>();
+    private static final Map<String, ArrayPool<int[]>> intArrayCache = new ConcurrentHashMap<>();
+    private static final Map<String, ArrayPool<long[]>> longArrayCache = new ConcurrentHashMap<>();
+    private static final Map<String, ArrayPool<short[]>> shortArrayCache = new ConcurrentHashMap<>(); // NOPMD
+    private static final Map<String, ArrayPool<String[]>> stringArrayCache = new ConcurrentHashMap<>();
 
     private ArrayCache() {
         // static helper class
     }
 
+    /**
+     * @return number of array requests of all names and types that re-used a cached array
+     */
+    public static long getHitCount() {
+        long count = 0;
+        for (final Map<String, ? extends ArrayPool<?>> cache : getCaches()) {
+            for (final ArrayPool<?> pool : cache.values()) {
+                count += pool.getHitCount();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return number of cached arrays of all names and types that were evicted (capacity exceeded or garbage-collected)
+     */
+    public static long getEvictionCount() {
+        long count = 0;
+        for (final Map<String, ? extends ArrayPool<?>> cache : getCaches()) {
+            for (final ArrayPool<?> pool : cache.values()) {
+                count += pool.getEvictionCount();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return number of array requests of all names and types that needed to allocate a new array
+     */
+    public static long getMissCount() {
+        long count = 0;
+        for (final Map<String, ? extends ArrayPool<?>> cache : getCaches()) {
+            for (final ArrayPool<?> pool : cache.values()) {
+                count += pool.getMissCount();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * resets the hit, miss and eviction counters of all names and types
+     */
+    public static void resetMetrics() {
+        for (final Map<String, ? extends ArrayPool<?>> cache : getCaches()) {
+            for (final ArrayPool<?> pool : cache.values()) {
+                pool.resetMetrics();
+            }
+        }
+    }
+
     /**
      * Returns cached large recurring primitive arrays, e.g. to be used in functions where often large temporary arrays
      * are needed but that are otherwise outside the function scope not needed.
@@ -48,20 +101,10 @@ public final class ArrayCache { // NOPMD nomen est omen
      * 
      * @param arrayName unique array name
      * @param size requested array size
-     * @return cached copy (N.B. removed from internal HashMap)
+     * @return cached copy (N.B. removed from internal cache)
      */
     public static boolean[] getCachedBooleanArray(final String arrayName, final int size) {
-        synchronized (booleanArrayCache) {
-            final WeakHashMap<Integer, boolean[]> nameHashMap = booleanArrayCache.computeIfAbsent(arrayName,
-                    key -> new WeakHashMap<>());
-            boolean[] cachedArray = nameHashMap.get(size);
-            if (cachedArray == null) {
-                cachedArray = new boolean[size];
-            } else {
-                booleanArrayCache.get(arrayName).remove(size);
-            }
-            return cachedArray;
-        }
+        return getPool(booleanArrayCache, arrayName, boolean[]::new, a -> a.length).get(size, true);
     }
 
     /**
@@ -73,20 +116,10 @@ public final class ArrayCache { // NOPMD nomen est omen
      * 
      * @param arrayName unique array name
      * @param size requested array size
-     * @return cached copy (N.B. removed from internal HashMap)
+     * @return cached copy (N.B. removed from internal cache)
      */
     public static byte[] getCachedByteArray(final String arrayName, final int size) {
-        synchronized (byteArrayCache) {
-            final WeakHashMap<Integer, byte[]> nameHashMap = byteArrayCache.computeIfAbsent(arrayName,
-                    key -> new WeakHashMap<>());
-            byte[] cachedArray = nameHashMap.get(size);
-            if (cachedArray == null) {
-                cachedArray = new byte[size];
-            } else {
-                byteArrayCache.get(arrayName).remove(size);
-            }
-            return cachedArray;
-        }
+        return getPool(byteArrayCache, arrayName, byte[]::new, a -> a.length).get(size, true);
     }
 
     /**
@@ -98,20 +131,10 @@ public final class ArrayCache { // NOPMD nomen est omen
      * 
      * @param arrayName unique array name
      * @param size requested array size
-     * @return cached copy (N.B. removed from internal HashMap)
+     * @return cached copy (N.B. removed from internal cache)
      */
     public static double[] getCachedDoubleArray(final String arrayName, final int size) {
-        synchronized (doubleArrayCache) {
-            final WeakHashMap<Integer, double[]> nameHashMap = doubleArrayCache.computeIfAbsent(arrayName,
-                    key -> new WeakHashMap<>());
-            double[] cachedArray = nameHashMap.get(size);
-            if (cachedArray == null) {
-                cachedArray = new double[size];
-            } else {
-                doubleArrayCache.get(arrayName).remove(size);
-            }
-            return cachedArray;
-        }
+        return getPool(doubleArrayCache, arrayName, double[]::new, a -> a.length).get(size, true);
     }
 
     /**
@@ -123,20 +146,10 @@ public final class ArrayCache { // NOPMD nomen est omen
      * 
      * @param arrayName unique array name
      * @param size requested array size
-     * @return cached copy (N.B. removed from internal HashMap)
+     * @return cached copy (N.B. removed from internal cache)
      */
     public static float[] getCachedFloatArray(final String arrayName, final int size) {
-        synchronized (floatArrayCache) {
-            final WeakHashMap<Integer, float[]> nameHashMap = floatArrayCache.computeIfAbsent(arrayName,
-                    key -> new WeakHashMap<>());
-            float[] cachedArray = nameHashMap.get(size);
-            if (cachedArray == null) {
-                cachedArray = new float[size];
-            } else {
-                floatArrayCache.get(arrayName).remove(size);
-            }
-            return cachedArray;
-        }
+        return getPool(floatArrayCache, arrayName, float[]::new, a -> a.length).get(size, true);
     }
 
     /**
@@ -148,20 +161,10 @@ public final class ArrayCache { // NOPMD nomen est omen
      * 
      * @param arrayName unique array name
      * @param size requested array size
-     * @return cached copy (N.B. removed from internal HashMap)
+     * @return cached copy (N.B. removed from internal cache)
      */
     public static int[] getCachedIntArray(final String arrayName, final int size) {
-        synchronized (intArrayCache) {
-            final WeakHashMap<Integer, int[]> nameHashMap = intArrayCache.computeIfAbsent(arrayName,
-                    key -> new WeakHashMap<>());
-            int[] cachedArray = nameHashMap.get(size);
-            if (cachedArray == null) {
-                cachedArray = new int[size];
-            } else {
-                intArrayCache.get(arrayName).remove(size);
-            }
-            return cachedArray;
-        }
+        return getPool(intArrayCache, arrayName, int[]::new, a -> a.length).get(size, true);
     }
 
     /**
@@ -173,20 +176,10 @@ public final class ArrayCache { // NOPMD nomen est omen
      * 
      * @param arrayName unique array name
      * @param size requested array size
-     * @return cached copy (N.B. removed from internal HashMap)
+     * @return cached copy (N.B. removed from internal cache)
      */
     public static long[] getCachedLongArray(final String arrayName, final int size) {
-        synchronized (longArrayCache) {
-            final WeakHashMap<Integer, long[]> nameHashMap = longArrayCache.computeIfAbsent(arrayName,
-                    key -> new WeakHashMap<>());
-            long[] cachedArray = nameHashMap.get(size);
-            if (cachedArray == null) {
-                cachedArray = new long[size];
-            } else {
-                longArrayCache.get(arrayName).remove(size);
-            }
-            return cachedArray;
-        }
+        return getPool(longArrayCache, arrayName, long[]::new, a -> a.length).get(size, true);
     }
 
     /**
@@ -198,20 +191,10 @@ public final class ArrayCache { // NOPMD nomen est omen
      * 
      * @param arrayName unique array name
      * @param size requested array size
-     * @return cached copy (N.B. removed from internal HashMap)
+     * @return cached copy (N.B. removed from internal cache)
      */
-    public static short[] getCachedShortArray(final String arrayName, final int size) {
-        synchronized (shortArrayCache) {
-            final WeakHashMap<Integer, short[]> nameHashMap = shortArrayCache.computeIfAbsent(arrayName,
-                    key -> new WeakHashMap<>());
-            short[] cachedArray = nameHashMap.get(size);
-            if (cachedArray == null) {
-                cachedArray = new short[size];
-            } else {
-                shortArrayCache.get(arrayName).remove(size);
-            }
-            return cachedArray;
-        }
+    public static short[] getCachedShortArray(final String arrayName, final int size) { // NOPMD
+        return getPool(shortArrayCache, arrayName, short[]::new, a -> a.length).get(size, true);
     }
 
     /**
@@ -223,20 +206,10 @@ public final class ArrayCache { // NOPMD nomen est omen
      * 
      * @param arrayName unique array name
      * @param size requested array size
-     * @return cached copy (N.B. removed from internal HashMap)
+     * @return cached copy (N.B. removed from internal cache)
      */
     public static String[] getCachedStringArray(final String arrayName, final int size) {
-        synchronized (stringArrayCache) {
-            final WeakHashMap<Integer, String[]> nameHashMap = stringArrayCache.computeIfAbsent(arrayName,
-                    key -> new WeakHashMap<>());
-            String[] cachedArray = nameHashMap.get(size);
-            if (cachedArray == null) {
-                cachedArray = new String[size];
-            } else {
-                stringArrayCache.get(arrayName).remove(size);
-            }
-            return cachedArray;
-        }
+        return getPool(stringArrayCache, arrayName, String[]::new, a -> a.length).get(size, true);
     }
 
     /**
@@ -249,7 +222,7 @@ public final class ArrayCache { // NOPMD nomen est omen
         if (cachedArray == null) {
             return;
         }
-        booleanArrayCache.get(arrayName).put(cachedArray.length, cachedArray);
+        getPool(booleanArrayCache, arrayName, boolean[]::new, a -> a.length).release(cachedArray);
     }
 
     /**
@@ -262,7 +235,7 @@ public final class ArrayCache { // NOPMD nomen est omen
         if (cachedArray == null) {
             return;
         }
-        byteArrayCache.get(arrayName).put(cachedArray.length, cachedArray);
+        getPool(byteArrayCache, arrayName, byte[]::new, a -> a.length).release(cachedArray);
     }
 
     /**
@@ -275,7 +248,7 @@ public final class ArrayCache { // NOPMD nomen est omen
         if (cachedArray == null) {
             return;
         }
-        doubleArrayCache.get(arrayName).put(cachedArray.length, cachedArray);
+        getPool(doubleArrayCache, arrayName, double[]::new, a -> a.length).release(cachedArray);
     }
 
     /**
@@ -288,7 +261,7 @@ public final class ArrayCache { // NOPMD nomen est omen
         if (cachedArray == null) {
             return;
         }
-        floatArrayCache.get(arrayName).put(cachedArray.length, cachedArray);
+        getPool(floatArrayCache, arrayName, float[]::new, a -> a.length).release(cachedArray);
     }
 
     /**
@@ -301,7 +274,7 @@ public final class ArrayCache { // NOPMD nomen est omen
         if (cachedArray == null) {
             return;
         }
-        intArrayCache.get(arrayName).put(cachedArray.length, cachedArray);
+        getPool(intArrayCache, arrayName, int[]::new, a -> a.length).release(cachedArray);
     }
 
     /**
@@ -314,7 +287,7 @@ public final class ArrayCache { // NOPMD nomen est omen
         if (cachedArray == null) {
             return;
         }
-        longArrayCache.get(arrayName).put(cachedArray.length, cachedArray);
+        getPool(longArrayCache, arrayName, long[]::new, a -> a.length).release(cachedArray);
     }
 
     /**
@@ -327,7 +300,7 @@ public final class ArrayCache { // NOPMD nomen est omen
         if (cachedArray == null) {
             return;
         }
-        shortArrayCache.get(arrayName).put(cachedArray.length, cachedArray);
+        getPool(shortArrayCache, arrayName, short[]::new, a -> a.length).release(cachedArray);
     }
 
     /**
@@ -340,6 +313,19 @@ public final class ArrayCache { // NOPMD nomen est omen
         if (cachedArray == null) {
             return;
         }
-        stringArrayCache.get(arrayName).put(cachedArray.length, cachedArray);
+        getPool(stringArrayCache, arrayName, String[]::new, a -> a.length).release(cachedArray);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, ? extends ArrayPool<?>>[] getCaches() {
+        return new Map[] { booleanArrayCache, byteArrayCache, doubleArrayCache, floatArrayCache, intArrayCache, longArrayCache, shortArrayCache, stringArrayCache };
+    }
+
+    private static <T> ArrayPool<T> getPool(final Map<String, ArrayPool<T>> cache, final String arrayName, final IntFunction<T> factory, final ToIntFunction<T> lengthFunction) {
+        final ArrayPool<T> pool = cache.get(arrayName);
+        if (pool != null) {
+            return pool;
+        }
+        return cache.computeIfAbsent(arrayName, name -> new ArrayPool<>(factory, lengthFunction));
     }
 }
@@ -0,0 +1,425 @@
+package de.gsi.dataset.utils;
+
+import java.lang.ref.SoftReference;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Thread-local and striped pool of recurring (primitive) arrays, e.g. used by {@link ArrayCache} and
+ * {@link DoubleArrayCache}.
+ * <p>
+ * Released arrays are kept in power-of-two size-class buckets: each thread first uses its own single-slot-per-bucket
+ * thread-local cache (lock-free) and then one of several lock stripes selected by the thread id, so that concurrent
+ * rendering and math threads do not contend on a global lock. Other stripes are searched before allocating a new array.
+ * All pooled arrays are held via {@link SoftReference}s and each stripe bucket holds at most
+ * {@code maxArraysPerBucket} arrays (the oldest array is evicted first) so that the pool never prevents the JVM from
+ * reclaiming memory.
+ * <p>
+ * N.B. {@link #size()}, {@link #contains(Object)} and {@link #remove(Object)} only consider the shared stripes and the
+ * thread-local slots of the calling thread.
+ *
+ * @param <T> array type, e.g. {@code double[]}
+ */
+public class ArrayPool<T> {
+    /** default maximum number of arrays per size-class bucket and stripe */
+    public static final int DEFAULT_MAX_ARRAYS_PER_BUCKET = 16;
+    private static final int N_BUCKETS = 33; // size classes 2^0 ... 2^31 (+ empty arrays)
+    private static final int N_STRIPES = Math.min(64, Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() - 1)) << 1);
+    private final IntFunction<T> factory;
+    private final ToIntFunction<T> lengthFunction;
+    private final int maxArraysPerBucket;
+    private final Stripe<T>[] stripes;
+    private final ThreadLocal<LocalSlots<T>> localSlots = ThreadLocal.withInitial(LocalSlots::new);
+    private volatile int generation; // incremented by clear() to invalidate the thread-local slots of all threads
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * @param factory array factory, e.g. {@code double[]::new}
+     * @param lengthFunction array length function, e.g. {@code a -> a.length}
+     */
+    public ArrayPool(final IntFunction<T> factory, final ToIntFunction<T> lengthFunction) {
+        this(factory, lengthFunction, DEFAULT_MAX_ARRAYS_PER_BUCKET);
+    }
+
+    /**
+     * @param factory array factory, e.g. {@code double[]::new}
+     * @param lengthFunction array length function, e.g. {@code a -> a.length}
+     * @param maxArraysPerBucket maximum number of arrays per size-class bucket and stripe (soft capacity)
+     */
+    @SuppressWarnings("unchecked")
+    public ArrayPool(final IntFunction<T> factory, final ToIntFunction<T> lengthFunction, final int maxArraysPerBucket) {
+        AssertUtils.notNull("factory", factory);
+        AssertUtils.notNull("lengthFunction", lengthFunction);
+        AssertUtils.gtThanZero("maxArraysPerBucket", maxArraysPerBucket);
+        this.factory = factory;
+        this.lengthFunction = lengthFunction;
+        this.maxArraysPerBucket = maxArraysPerBucket;
+        stripes = new Stripe[N_STRIPES];
+        for (int i = 0; i < N_STRIPES; i++) {
+            stripes[i] = new Stripe<>();
+        }
+    }
+
+    /**
+     * removes all pooled arrays (N.B. thread-local slots of other threads are invalidated lazily)
+     */
+    public void clear() {
+        generation++; // NOPMD - non-atomic increment is sufficient to invalidate the slots
+        getLocalSlots(); // resets the slots of the calling thread
+        for (final Stripe<T> stripe : stripes) {
+            synchronized (stripe) {
+                for (final ArrayDeque<SoftReference<T>> bucket : stripe.buckets) {
+                    if (bucket != null) {
+                        bucket.clear();
+                    }
+                }
+                stripe.nonEmptyBuckets = 0L;
+            }
+        }
+    }
+
+    /**
+     * @param array the array to check
+     * @return {@code true} if the (identical) array is pooled
+     */
+    public boolean contains(final Object array) {
+        if (array == null) {
+            return false;
+        }
+        final LocalSlots<T> slots = getLocalSlots();
+        for (final SoftReference<T> ref : slots.refs) {
+            if (ref != null && ref.get() == array) {
+                return true;
+            }
+        }
+        for (final Stripe<T> stripe : stripes) {
+            synchronized (stripe) {
+                for (final ArrayDeque<SoftReference<T>> bucket : stripe.buckets) {
+                    if (bucket != null && indexOf(bucket, array) >= 0) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns a pooled array or allocates a new one if none is available.
+     * <p>
+     * N.B. do not forget to release/return ownership of the array via {@link #release(Object)}
+     *
+     * @param requiredSize the required array length
+     * @param exact {@code true}: array length matches {@code requiredSize}, {@code false}: best fit with length
+     *            {@code >= requiredSize}
+     * @return pooled or newly allocated array
+     */
+    public T get(final int requiredSize, final boolean exact) {
+        AssertUtils.gtEqThanZero("requiredSize", requiredSize);
+        final int bucketIndex = getBucketIndex(requiredSize);
+        final LocalSlots<T> slots = getLocalSlots();
+
+        // fast-path: lock-free thread-local slot
+        final T localArray = getLocal(slots, bucketIndex);
+        if (localArray != null && lengthFunction.applyAsInt(localArray) == requiredSize) {
+            slots.refs[bucketIndex] = null;
+            hitCount.increment();
+            return localArray;
+        }
+
+        // striped shared pool: own stripe first, then the others
+        final int ownStripe = getStripeIndex();
+        final int maxBucket = exact ? bucketIndex : N_BUCKETS - 1;
+        for (int bucket = bucketIndex; bucket <= maxBucket; bucket++) {
+            // a (larger) thread-local array of the same size class competes with the stripes for the best fit
+            final T local = exact ? null : getLocal(slots, bucket);
+            final int localLength = local == null ? -1 : lengthFunction.applyAsInt(local);
+            final boolean useLocal = localLength >= requiredSize;
+            for (int i = 0; i < N_STRIPES; i++) {
+                final T array = pollBestFit(stripes[(ownStripe + i) & (N_STRIPES - 1)], bucket, requiredSize, exact, useLocal ? localLength : Integer.MAX_VALUE);
+                if (array != null) {
+                    hitCount.increment();
+                    return array;
+                }
+            }
+            if (useLocal) {
+                // thread-local slot is the best fit in this size class
+                slots.refs[bucket] = null;
+                hitCount.increment();
+                return local;
+            }
+        }
+        missCount.increment();
+        return factory.apply(requiredSize);
+    }
+
+    /**
+     * @return number of {@link #get(int, boolean)} calls that re-used a pooled array
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * @return number of arrays that have been dropped because the bucket capacity was exceeded or because they have
+     *         been reclaimed by the garbage collector
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * @return number of {@link #get(int, boolean)} calls that needed to allocate a new array
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * @return snapshot of all (not yet garbage-collected) pooled arrays (N.B. the arrays remain pooled)
+     */
+    public List<T> getPooledArrays() {
+        final List<T> retVal = new ArrayList<>();
+        for (final SoftReference<T> ref : getLocalSlots().refs) {
+            final T array = ref == null ? null : ref.get();
+            if (array != null) {
+                retVal.add(array);
+            }
+        }
+        for (final Stripe<T> stripe : stripes) {
+            synchronized (stripe) {
+                for (final ArrayDeque<SoftReference<T>> bucket : stripe.buckets) {
+                    if (bucket == null) {
+                        continue;
+                    }
+                    for (final SoftReference<T> ref : bucket) {
+                        final T array = ref.get();
+                        if (array != null) {
+                            retVal.add(array);
+                        }
+                    }
+                }
+            }
+        }
+        return retVal;
+    }
+
+    /**
+     * Returns ownership of the array to the pool.
+     *
+     * @param array the array to be released
+     * @return {@code false} if the array is {@code null} or already pooled by the calling thread or its stripe,
+     *         {@code true} otherwise
+     */
+    public boolean release(final T array) {
+        if (array == null) {
+            return false;
+        }
+        final int bucketIndex = getBucketIndex(lengthFunction.applyAsInt(array));
+        final LocalSlots<T> slots = getLocalSlots();
+        final SoftReference<T> localRef = slots.refs[bucketIndex];
+        final T localArray = localRef == null ? null : localRef.get();
+        if (localArray == array) { // NOPMD - identity check intended
+            return false;
+        }
+
+        final Stripe<T> stripe = stripes[getStripeIndex()];
+        synchronized (stripe) {
+            ArrayDeque<SoftReference<T>> bucket = stripe.buckets[bucketIndex];
+            if (bucket == null) {
+                bucket = new ArrayDeque<>();
+                stripe.buckets[bucketIndex] = bucket;
+            } else if (indexOf(bucket, array) >= 0) {
+                return false;
+            }
+            if (localArray == null) {
+                // fast-path for the next get(..) of the same thread
+                slots.refs[bucketIndex] = new SoftReference<>(array);
+                return true;
+            }
+            // move the previous thread-local array to the shared stripe
+            purgeCleared(bucket);
+            if (bucket.size() >= maxArraysPerBucket) {
+                bucket.pollFirst();
+                evictionCount.increment();
+            }
+            bucket.addLast(localRef);
+            stripe.nonEmptyBuckets |= 1L << bucketIndex;
+            slots.refs[bucketIndex] = new SoftReference<>(array);
+        }
+        return true;
+    }
+
+    /**
+     * @param array the (identical) array to be removed from the pool
+     * @return {@code true} if the array has been pooled and is removed
+     */
+    public boolean remove(final Object array) {
+        if (array == null) {
+            return false;
+        }
+        final LocalSlots<T> slots = getLocalSlots();
+        for (int i = 0; i < N_BUCKETS; i++) {
+            if (slots.refs[i] != null && slots.refs[i].get() == array) {
+                slots.refs[i] = null;
+                return true;
+            }
+        }
+        for (final Stripe<T> stripe : stripes) {
+            synchronized (stripe) {
+                for (final ArrayDeque<SoftReference<T>> bucket : stripe.buckets) {
+                    if (bucket == null) {
+                        continue;
+                    }
+                    final Iterator<SoftReference<T>> iter = bucket.iterator();
+                    while (iter.hasNext()) {
+                        if (iter.next().get() == array) {
+                            iter.remove();
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * resets the hit, miss and eviction counters
+     */
+    public void resetMetrics() {
+        hitCount.reset();
+        missCount.reset();
+        evictionCount.reset();
+    }
+
+    /**
+     * @return number of (not yet garbage-collected) pooled arrays
+     */
+    public int size() {
+        int count = 0;
+        for (final SoftReference<T> ref : getLocalSlots().refs) {
+            if (ref != null && ref.get() != null) {
+                count++;
+            }
+        }
+        for (final Stripe<T> stripe : stripes) {
+            synchronized (stripe) {
+                for (final ArrayDeque<SoftReference<T>> bucket : stripe.buckets) {
+                    if (bucket != null) {
+                        purgeCleared(bucket);
+                        count += bucket.size();
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    private LocalSlots<T> getLocalSlots() {
+        final LocalSlots<T> slots = localSlots.get();
+        final int currentGeneration = generation;
+        if (slots.generation != currentGeneration) {
+            java.util.Arrays.fill(slots.refs, null);
+            slots.generation = currentGeneration;
+        }
+        return slots;
+    }
+
+    private T getLocal(final LocalSlots<T> slots, final int bucketIndex) {
+        final SoftReference<T> ref = slots.refs[bucketIndex];
+        return ref == null ? null : ref.get();
+    }
+
+    private T pollBestFit(final Stripe<T> stripe, final int bucketIndex, final int requiredSize, final boolean exact, final int bestLength) {
+        if ((stripe.nonEmptyBuckets & (1L << bucketIndex)) == 0) {
+            return null; // lock-free short-cut for empty buckets
+        }
+        synchronized (stripe) {
+            final ArrayDeque<SoftReference<T>> bucket = stripe.buckets[bucketIndex];
+            if (bucket == null || bucket.isEmpty()) {
+                return null;
+            }
+            SoftReference<T> bestRef = null;
+            T bestFit = null;
+            int bestFitLength = bestLength;
+            final Iterator<SoftReference<T>> iter = bucket.iterator();
+            while (iter.hasNext()) {
+                final SoftReference<T> ref = iter.next();
+                final T candidate = ref.get();
+                if (candidate == null) {
+                    iter.remove();
+                    evictionCount.increment();
+                    continue;
+                }
+                final int length = lengthFunction.applyAsInt(candidate);
+                if (length == requiredSize) {
+                    bestRef = ref;
+                    bestFit = candidate;
+                    break;
+                }
+                if (!exact && length > requiredSize && length < bestFitLength) {
+                    bestRef = ref;
+                    bestFit = candidate;
+                    bestFitLength = length;
+                }
+            }
+            if (bestRef != null) {
+                bucket.remove(bestRef);
+            }
+            if (bucket.isEmpty()) {
+                stripe.nonEmptyBuckets &= ~(1L << bucketIndex);
+            }
+            return bestFit;
+        }
+    }
+
+    private void purgeCleared(final ArrayDeque<SoftReference<T>> bucket) {
+        final Iterator<SoftReference<T>> iter = bucket.iterator();
+        while (iter.hasNext()) {
+            if (iter.next().get() == null) {
+                iter.remove();
+                evictionCount.increment();
+            }
+        }
+    }
+
+    private static int getBucketIndex(final int length) {
+        // size class: smallest power of two >= length
+        return length <= 1 ? length : 32 - Integer.numberOfLeadingZeros(length - 1) + 1;
+    }
+
+    private static int getStripeIndex() {
+        return (int) Thread.currentThread().getId() & (N_STRIPES - 1);
+    }
+
+    private static <T> int indexOf(final ArrayDeque<SoftReference<T>> bucket, final Object array) {
+        int index = 0;
+        for (final SoftReference<T> ref : bucket) {
+            if (ref.get() == array) {
+                return index;
+            }
+            index++;
+        }
+        return -1;
+    }
+
+    private static class LocalSlots<T> {
+        @SuppressWarnings("unchecked")
+        private final SoftReference<T>[] refs = new SoftReference[N_BUCKETS];
+        private int generation;
+    }
+
+    private static class Stripe<T> {
+        @SuppressWarnings("unchecked")
+        private final ArrayDeque<SoftReference<T>>[] buckets = new ArrayDeque[N_BUCKETS];
+        private volatile long nonEmptyBuckets; // bit-mask of (possibly) non-empty buckets, modified only under lock
+    }
+}
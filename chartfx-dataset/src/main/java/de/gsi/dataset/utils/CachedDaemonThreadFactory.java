@@ -9,7 +9,7 @@ public final class CachedDaemonThreadFactory implements ThreadFactory {
     private static final int MAX_THREADS = Math.max(4, Runtime.getRuntime().availableProcessors());
     private static final ThreadFactory DEFAULT_FACTORY = Executors.defaultThreadFactory();
     private static final CachedDaemonThreadFactory SELF = new CachedDaemonThreadFactory();
-    private static final ExecutorService COMMON_POOL = Executors.newFixedThreadPool(2 * MAX_THREADS, SELF);
+    private static final String COMMON_POOL_NAME = "chartfx_common_pool";
     private static final AtomicInteger TREAD_COUNTER = new AtomicInteger();
 
     private CachedDaemonThreadFactory() {
@@ -25,8 +25,11 @@ public final class CachedDaemonThreadFactory implements ThreadFactory {
         return thread;
     }
 
+    /**
+     * @return shared pool for parallel computations according to the global {@link ExecutorStrategy}
+     */
     public static ExecutorService getCommonPool() {
-        return COMMON_POOL;
+        return ExecutorStrategy.getGlobal().getSharedExecutorService(COMMON_POOL_NAME, 2 * MAX_THREADS);
     }
 
     public static CachedDaemonThreadFactory getInstance() {
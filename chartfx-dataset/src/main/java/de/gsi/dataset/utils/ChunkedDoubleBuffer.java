@@ -0,0 +1,326 @@
+package de.gsi.dataset.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+
+/**
+ * Growable double column stored outside the Java heap in fixed-size chunks of direct {@link DoubleBuffer}s.
+ * <p>
+ * Chunking avoids the 2 GB limit of individual NIO buffers, allows growing without copying existing data, and keeps
+ * large (&gt;10^8 samples) data out of the garbage-collected heap. Element access ({@link #get(int)},
+ * {@link #set(int, double)}) is allocation-free and resolves the chunk via shift/mask operations.
+ * <p>
+ * N.B. this class is not thread-safe, external synchronisation is required (e.g. the DataSet lock).
+ */
+public class ChunkedDoubleBuffer {
+    /** default chunk size: 2^20 doubles (8 MB) */
+    public static final int DEFAULT_CHUNK_SIZE_LOG2 = 20;
+    /** maximum chunk size: 2^27 doubles (1 GB, N.B. NIO buffers are limited to 2 GB) */
+    public static final int MAX_CHUNK_SIZE_LOG2 = 27;
+    private static final int SCRATCH_SIZE = 8192;
+    private final int chunkShift;
+    private final int chunkSize;
+    private final int chunkMask;
+    private final boolean readOnly;
+    private DoubleBuffer[] chunks;
+    private int nChunks;
+    private int size;
+    private transient double[] scratch; // used for overlapping moves within the column
+
+    /**
+     * @param initialCapacity initial capacity (N.B. size=0)
+     */
+    public ChunkedDoubleBuffer(final int initialCapacity) {
+        this(initialCapacity, DEFAULT_CHUNK_SIZE_LOG2);
+    }
+
+    /**
+     * @param initialCapacity initial capacity (N.B. size=0)
+     * @param chunkSizeLog2 chunk size in units of log2(number of doubles), must be within [4, MAX_CHUNK_SIZE_LOG2]
+     */
+    public ChunkedDoubleBuffer(final int initialCapacity, final int chunkSizeLog2) {
+        AssertUtils.gtEqThanZero("initialCapacity", initialCapacity);
+        checkChunkSize(chunkSizeLog2);
+        chunkShift = chunkSizeLog2;
+        chunkSize = 1 << chunkSizeLog2;
+        chunkMask = chunkSize - 1;
+        readOnly = false;
+        chunks = new DoubleBuffer[4];
+        ensureCapacity(initialCapacity);
+    }
+
+    private ChunkedDoubleBuffer(final int chunkSizeLog2, final int size, final DoubleBuffer[] chunks) {
+        checkChunkSize(chunkSizeLog2);
+        chunkShift = chunkSizeLog2;
+        chunkSize = 1 << chunkSizeLog2;
+        chunkMask = chunkSize - 1;
+        readOnly = true;
+        this.chunks = chunks.clone();
+        nChunks = chunks.length;
+        this.size = size;
+    }
+
+    /**
+     * appends a single value
+     *
+     * @param value new value
+     */
+    public void add(final double value) {
+        checkWritable();
+        ensureCapacity(size + 1);
+        chunks[size >>> chunkShift].put(size & chunkMask, value);
+        size++;
+    }
+
+    /**
+     * inserts values at the given index and shifts subsequent elements to the back
+     *
+     * @param index insertion index
+     * @param src source array
+     * @param srcOffset offset within source array
+     * @param length number of values to be inserted
+     */
+    public void addElements(final int index, final double[] src, final int srcOffset, final int length) {
+        checkWritable();
+        AssertUtils.indexInBounds(index, size + 1, "index");
+        ensureCapacity(size + length);
+        move(index, index + length, size - index);
+        size += length;
+        setElements(index, src, srcOffset, length);
+    }
+
+    /**
+     * @return capacity of the presently allocated chunks
+     */
+    public int capacity() {
+        // N.B. the allocated chunks may hold more than Integer.MAX_VALUE elements
+        return (int) Math.min(Integer.MAX_VALUE, (long) nChunks << chunkShift);
+    }
+
+    /**
+     * @return chunk size in number of doubles
+     */
+    public int chunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * resets size to zero (N.B. allocated chunks are kept, see {@link #trim()})
+     */
+    public void clear() {
+        checkWritable();
+        size = 0;
+    }
+
+    /**
+     * @param capacity minimum required capacity, new chunks are allocated as needed (no copy of existing data)
+     */
+    public void ensureCapacity(final int capacity) {
+        checkWritable();
+        AssertUtils.gtEqThanZero("capacity", capacity); // N.B. also catches int overflows of 'size + length'
+        final int nRequired = (int) ((capacity + (long) chunkMask) >>> chunkShift);
+        if (nRequired <= nChunks) {
+            return;
+        }
+        if (nRequired > chunks.length) {
+            chunks = Arrays.copyOf(chunks, Math.max(nRequired, 2 * chunks.length));
+        }
+        for (int i = nChunks; i < nRequired; i++) {
+            chunks[i] = ByteBuffer.allocateDirect(chunkSize * Double.BYTES).order(ByteOrder.nativeOrder())
+                                .asDoubleBuffer();
+        }
+        nChunks = nRequired;
+    }
+
+    /**
+     * @param index element index
+     * @return value at index
+     */
+    public double get(final int index) {
+        return chunks[index >>> chunkShift].get(index & chunkMask);
+    }
+
+    /**
+     * bulk copy of values into a (heap) array
+     *
+     * @param index first element index
+     * @param dst destination array
+     * @param dstOffset offset within destination array
+     * @param length number of elements to be copied
+     */
+    public void getElements(final int index, final double[] dst, final int dstOffset, final int length) {
+        int srcIndex = index;
+        int dstIndex = dstOffset;
+        int remaining = length;
+        while (remaining > 0) {
+            final int offset = srcIndex & chunkMask;
+            final int n = Math.min(remaining, chunkSize - offset);
+            final DoubleBuffer chunk = chunks[srcIndex >>> chunkShift].duplicate();
+            chunk.position(offset);
+            chunk.get(dst, dstIndex, n);
+            srcIndex += n;
+            dstIndex += n;
+            remaining -= n;
+        }
+    }
+
+    /**
+     * @return {@code true} if this column wraps externally provided (e.g. memory-mapped) chunks and cannot be modified
+     */
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * removes the elements within [fromIndex, toIndex) and shifts subsequent elements to the front
+     *
+     * @param fromIndex start index (inclusive)
+     * @param toIndex stop index (exclusive)
+     */
+    public void removeElements(final int fromIndex, final int toIndex) {
+        checkWritable();
+        AssertUtils.indexOrder(fromIndex, "fromIndex", toIndex, "toIndex");
+        final int to = Math.min(toIndex, size);
+        move(to, fromIndex, size - to);
+        size -= to - fromIndex;
+    }
+
+    /**
+     * @param index element index
+     * @param value new value
+     */
+    public void set(final int index, final double value) {
+        checkWritable();
+        chunks[index >>> chunkShift].put(index & chunkMask, value);
+    }
+
+    /**
+     * bulk copy of values from a (heap) array
+     *
+     * @param index first element index
+     * @param src source array
+     * @param srcOffset offset within source array
+     * @param length number of elements to be copied
+     */
+    public void setElements(final int index, final double[] src, final int srcOffset, final int length) {
+        checkWritable();
+        int dstIndex = index;
+        int srcIndex = srcOffset;
+        int remaining = length;
+        while (remaining > 0) {
+            final int offset = dstIndex & chunkMask;
+            final int n = Math.min(remaining, chunkSize - offset);
+            final DoubleBuffer chunk = chunks[dstIndex >>> chunkShift].duplicate();
+            chunk.position(offset);
+            chunk.put(src, srcIndex, n);
+            dstIndex += n;
+            srcIndex += n;
+            remaining -= n;
+        }
+    }
+
+    /**
+     * @return number of valid elements
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param newSize new number of valid elements, the capacity is increased if necessary (N.B. new elements are
+     *            not initialised)
+     */
+    public void size(final int newSize) {
+        checkWritable();
+        AssertUtils.gtEqThanZero("newSize", newSize);
+        ensureCapacity(newSize);
+        size = newSize;
+    }
+
+    /**
+     * @return copy of the valid elements as heap array
+     */
+    public double[] toArray() {
+        final double[] retVal = new double[size];
+        getElements(0, retVal, 0, size);
+        return retVal;
+    }
+
+    /**
+     * releases chunks that are not needed for the present size (N.B. the native memory is returned once the
+     * corresponding buffers are garbage collected)
+     */
+    public void trim() {
+        checkWritable();
+        final int nRequired = (int) ((size + (long) chunkMask) >>> chunkShift);
+        for (int i = nRequired; i < nChunks; i++) {
+            chunks[i] = null;
+        }
+        nChunks = nRequired;
+        scratch = null; // NOPMD - release scratch buffer
+    }
+
+    private void checkWritable() {
+        if (readOnly) {
+            throw new UnsupportedOperationException("column is read-only");
+        }
+    }
+
+    /**
+     * moves (possibly overlapping) element range via an intermediate heap scratch buffer
+     *
+     * @param srcIndex source start index
+     * @param dstIndex destination start index
+     * @param length number of elements to be moved
+     */
+    private void move(final int srcIndex, final int dstIndex, final int length) {
+        if (length <= 0 || srcIndex == dstIndex) {
+            return;
+        }
+        if (scratch == null) {
+            scratch = new double[SCRATCH_SIZE];
+        }
+        if (dstIndex < srcIndex) {
+            // move to front -> copy front-to-back
+            for (int done = 0; done < length; done += SCRATCH_SIZE) {
+                final int n = Math.min(SCRATCH_SIZE, length - done);
+                getElements(srcIndex + done, scratch, 0, n);
+                setElements(dstIndex + done, scratch, 0, n);
+            }
+            return;
+        }
+        // move to back -> copy back-to-front
+        for (int remaining = length; remaining > 0; remaining -= SCRATCH_SIZE) {
+            final int n = Math.min(SCRATCH_SIZE, remaining);
+            getElements(srcIndex + remaining - n, scratch, 0, n);
+            setElements(dstIndex + remaining - n, scratch, 0, n);
+        }
+    }
+
+    /**
+     * wraps externally allocated chunks (e.g. memory-mapped file regions) as read-only column
+     *
+     * @param chunkSizeLog2 chunk size in units of log2(number of doubles), all but the last chunk must hold exactly
+     *            this many values
+     * @param size number of valid elements
+     * @param chunks the chunks
+     * @return new read-only column
+     */
+    public static ChunkedDoubleBuffer wrap(final int chunkSizeLog2, final int size, final DoubleBuffer... chunks) {
+        AssertUtils.notNull("chunks", chunks);
+        AssertUtils.gtEqThanZero("size", size);
+        if (((long) chunks.length << chunkSizeLog2) < size) {
+            throw new IllegalArgumentException("chunks too small to hold size = " + size);
+        }
+        return new ChunkedDoubleBuffer(chunkSizeLog2, size, chunks);
+    }
+
+    private static void checkChunkSize(final int chunkSizeLog2) {
+        if (chunkSizeLog2 < 4 || chunkSizeLog2 > MAX_CHUNK_SIZE_LOG2) {
+            throw new IllegalArgumentException(
+                    "chunkSizeLog2 = " + chunkSizeLog2 + " must be within [4, " + MAX_CHUNK_SIZE_LOG2 + "]");
+        }
+    }
+}
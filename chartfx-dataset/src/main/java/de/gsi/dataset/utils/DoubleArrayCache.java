@@ -1,6 +1,6 @@
 package de.gsi.dataset.utils;
 
-import java.lang.ref.Reference;
+import java.util.Iterator;
 
 /**
  * Implements double-array (double[]) cache collection to minimise memory re-allocation.
@@ -31,52 +31,82 @@ import java.lang.ref.Reference;
  *  }
  * </pre>
  *  
+ * N.B. the arrays are kept in a thread-local and striped {@link ArrayPool} (no global lock). All {@link CacheCollection}
+ * methods are overridden to operate on this pool, the inherited soft-reference list remains unused.
+ *
  * @author rstein
  *
  */
 public class DoubleArrayCache extends CacheCollection<double[]> {
     private static final DoubleArrayCache SELF = new DoubleArrayCache();
+    private final ArrayPool<double[]> pool = new ArrayPool<>(double[]::new, a -> a.length);
+
+    @Override
+    public boolean add(final double[] recoveredObject) {
+        return pool.release(recoveredObject);
+    }
+
+    @Override
+    public void clear() {
+        pool.clear();
+    }
+
+    @Override
+    public boolean contains(final Object object) {
+        return pool.contains(object);
+    }
 
     public double[] getArray(final int requiredSize) {
-        return getArray(requiredSize, false);
+        return pool.get(requiredSize, false);
     }
 
     public double[] getArrayExact(final int requiredSize) {
-        return getArray(requiredSize, true);
+        return pool.get(requiredSize, true);
+    }
+
+    /**
+     * @return the thread-local and striped pool backing this cache, e.g. to query the hit, miss and eviction metrics
+     */
+    public ArrayPool<double[]> getPool() {
+        return pool;
     }
 
-    private double[] getArray(final int requiredSize, final boolean exact) {
-        synchronized (contents) {
-            double[] bestFit = null;
-            int bestFitSize = Integer.MAX_VALUE;
+    @Override
+    public Iterator<double[]> iterator() {
+        final Iterator<double[]> iterator = pool.getPooledArrays().iterator();
+        return new Iterator<>() {
+            private double[] last;
 
-            for (final Reference<double[]> candidate : contents) {
-                final double[] localRef = candidate.get();
-                if (localRef == null) {
-                    continue;
-                }
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
 
-                final int sizeDiff = localRef.length - requiredSize;
-                if (sizeDiff == 0) {
-                    bestFit = localRef;
-                    break;
-                }
+            @Override
+            public double[] next() {
+                last = iterator.next();
+                return last;
+            }
 
-                if (sizeDiff > 0 && sizeDiff < bestFitSize && !exact) {
-                    bestFitSize = sizeDiff;
-                    bestFit = localRef;
+            @Override
+            public void remove() {
+                if (last == null) {
+                    throw new IllegalStateException("next() has not been called");
                 }
+                pool.remove(last);
+                last = null;
             }
+        };
+    }
 
-            if (bestFit == null) {
-                // could not find any cached, return new double[]
-                bestFit = new double[requiredSize];
-                return bestFit;
-            }
+    @Override
+    public boolean remove(final Object o) {
+        return pool.remove(o);
+    }
 
-            remove(bestFit);
-            return bestFit;
-        }
+    @Override
+    public int size() {
+        return pool.size();
     }
 
     public static DoubleArrayCache getInstance() {
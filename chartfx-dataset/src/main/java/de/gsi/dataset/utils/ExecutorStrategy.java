@@ -0,0 +1,170 @@
+package de.gsi.dataset.utils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Execution strategy of the shared thread pools used for event notification ({@code EventThreadHelper}) and parallel
+ * computations ({@link CachedDaemonThreadFactory#getCommonPool()}), e.g. the screen-coordinate transforms of the
+ * renderers.
+ * <p>
+ * The global strategy is initialised from the system property {@value #STRATEGY_PROPERTY} (e.g.
+ * {@code -Dchartfx.executor.strategy=virtual}) and may be changed at run-time via {@link #setGlobal(ExecutorStrategy)}.
+ * The shared pools are looked-up on each use so that already submitted tasks complete on the previous pool while new
+ * tasks are executed according to the new strategy. The shared pools are owned by their strategy: those of the replaced
+ * global strategy are shut down on a switch (i.e. their threads terminate once the already submitted tasks completed)
+ * and are re-created on demand. Callers should thus not keep references to shared pools beyond the task submission.
+ */
+@SuppressWarnings("PMD.DoNotUseThreads") // thread handling is the declared purpose of this class
+public enum ExecutorStrategy {
+    /**
+     * fixed-size pools of daemon platform threads (default, previous behaviour)
+     */
+    PLATFORM,
+    /**
+     * work-stealing {@link ForkJoinPool}s with a parallelism of at most the number of available processors: pools may
+     * be shared by many charts without oversubscribing the CPU
+     */
+    FORK_JOIN,
+    /**
+     * one virtual thread per task (requires JDK 21+, falls back to {@link #FORK_JOIN} on older JVMs): cheap blocking
+     * of e.g. nested listener notifications
+     */
+    VIRTUAL;
+
+    /** system property used to initialise the global strategy */
+    public static final String STRATEGY_PROPERTY = "chartfx.executor.strategy";
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExecutorStrategy.class);
+    private static final AtomicInteger FORK_JOIN_THREAD_COUNTER = new AtomicInteger();
+    private static volatile ExecutorStrategy globalStrategy = parse(System.getProperty(STRATEGY_PROPERTY));
+    private final Map<String, ExecutorService> sharedPools = new ConcurrentHashMap<>();
+
+    /**
+     * @param poolName unique name of the shared pool
+     * @param nThreads (maximum) number of threads (ignored for {@link #VIRTUAL})
+     * @return shared executor service of the given name (created on first use)
+     */
+    public ExecutorService getSharedExecutorService(final String poolName, final int nThreads) {
+        final ExecutorService executorService = sharedPools.get(poolName);
+        if (executorService != null && !executorService.isShutdown()) {
+            return executorService;
+        }
+        if (executorService != null) {
+            // pool has been shut down by a concurrent strategy switch
+            sharedPools.remove(poolName, executorService);
+        }
+        return sharedPools.computeIfAbsent(poolName, name -> newExecutorService(name, nThreads));
+    }
+
+    /**
+     * @return {@code true} if the strategy is supported by the running JVM (N.B. {@link #VIRTUAL} requires JDK 21+)
+     */
+    public boolean isAvailable() {
+        return this != VIRTUAL || VirtualThreadSupport.FACTORY_METHOD != null;
+    }
+
+    /**
+     * shuts down the shared pools of this strategy: already submitted tasks are completed while new submissions to
+     * these pools are rejected. Subsequent calls to {@link #getSharedExecutorService(String, int)} create new pools.
+     */
+    public void shutdownSharedPools() {
+        for (final Iterator<ExecutorService> iterator = sharedPools.values().iterator(); iterator.hasNext();) {
+            final ExecutorService executorService = iterator.next();
+            iterator.remove();
+            executorService.shutdown();
+        }
+    }
+
+    /**
+     * @param poolName name prefix of the threads
+     * @param nThreads (maximum) number of threads (ignored for {@link #VIRTUAL})
+     * @return new executor service implementing this strategy
+     */
+    public ExecutorService newExecutorService(final String poolName, final int nThreads) {
+        AssertUtils.gtThanZero("nThreads", nThreads);
+        switch (this) {
+        case VIRTUAL:
+            if (isAvailable()) {
+                try {
+                    return (ExecutorService) VirtualThreadSupport.FACTORY_METHOD.invoke(null);
+                } catch (IllegalAccessException | InvocationTargetException e) {
+                    LOGGER.atWarn().setCause(e).addArgument(poolName).log("could not create virtual thread executor for '{}' - falling back to FORK_JOIN");
+                }
+            }
+            return FORK_JOIN.newExecutorService(poolName, nThreads);
+        case FORK_JOIN:
+            return new ForkJoinPool(Math.min(nThreads, Runtime.getRuntime().availableProcessors()), pool -> {
+                final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName(poolName + "_fj_thread_#" + FORK_JOIN_THREAD_COUNTER.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, null, true);
+        case PLATFORM:
+        default:
+            return Executors.newFixedThreadPool(nThreads, CachedDaemonThreadFactory.getInstance());
+        }
+    }
+
+    /**
+     * @return the global strategy used for the shared chart-fx thread pools
+     */
+    public static ExecutorStrategy getGlobal() {
+        return globalStrategy;
+    }
+
+    /**
+     * @param strategy new global strategy used for the shared chart-fx thread pools, the shared pools of the replaced
+     *            strategy are shut down (see {@link #shutdownSharedPools()})
+     */
+    public static void setGlobal(final ExecutorStrategy strategy) {
+        AssertUtils.notNull("strategy", strategy);
+        if (!strategy.isAvailable()) {
+            LOGGER.atWarn().addArgument(strategy).addArgument(System.getProperty("java.version")).log("executor strategy {} not supported by JVM {} - falling back to FORK_JOIN");
+        }
+        final ExecutorStrategy previous;
+        synchronized (ExecutorStrategy.class) {
+            previous = globalStrategy;
+            globalStrategy = strategy;
+        }
+        if (previous != strategy) {
+            previous.shutdownSharedPools();
+        }
+    }
+
+    private static ExecutorStrategy parse(final String name) {
+        if (name == null || name.isBlank()) {
+            return PLATFORM;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.UK).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            LOGGER.atWarn().addArgument(STRATEGY_PROPERTY).addArgument(name).log("unknown {} = '{}' - using PLATFORM");
+            return PLATFORM;
+        }
+    }
+
+    private static final class VirtualThreadSupport { // NOPMD - lazy holder
+        private static final Method FACTORY_METHOD = getFactoryMethod();
+
+        private static Method getFactoryMethod() {
+            try {
+                // N.B. reflection keeps the code compilable and runnable on pre-JDK 21 JVMs
+                return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package de.gsi.dataset.utils;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Thread-safe, size-limited map that evicts the least-recently-used entry once its capacity is exceeded, e.g. used to
+ * share expensive-to-compute objects such as FFT plans or apodization windows.
+ * <p>
+ * {@link #get(Object)} and {@link #computeIfAbsent(Object, Function)} are recorded in the hit/miss metrics. In
+ * contrast to a synchronised map, {@link #computeIfAbsent(Object, Function)} evaluates the mapping function outside
+ * the lock so that computing a large entry does not block look-ups of other keys (N.B. concurrent misses on the same
+ * key may thus compute the value more than once, only the first result is retained).
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class LruCache<K, V> extends AbstractMap<K, V> {
+    private final LinkedHashMap<K, V> map;
+    private int capacity;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * @param capacity maximum number of entries
+     */
+    public LruCache(final int capacity) {
+        super();
+        AssertUtils.gtThanZero("capacity", capacity);
+        this.capacity = capacity;
+        map = new LinkedHashMap<>(16, 0.75f, true) { // NOPMD - access-ordered map
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+                if (size() > LruCache.this.capacity) {
+                    evictionCount.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public synchronized void clear() {
+        map.clear();
+    }
+
+    @Override
+    public V computeIfAbsent(final K key, final Function<? super K, ? extends V> mappingFunction) {
+        AssertUtils.notNull("mappingFunction", mappingFunction);
+        synchronized (this) {
+            final V value = map.get(key);
+            if (value != null) {
+                hitCount.increment();
+                return value;
+            }
+        }
+        missCount.increment();
+        final V newValue = mappingFunction.apply(key);
+        if (newValue == null) {
+            return null;
+        }
+        synchronized (this) {
+            final V value = map.putIfAbsent(key, newValue);
+            return value == null ? newValue : value;
+        }
+    }
+
+    @Override
+    public synchronized boolean containsKey(final Object key) {
+        return map.containsKey(key);
+    }
+
+    /**
+     * @return a snapshot of the current entries (in least to most recently used order)
+     */
+    @Override
+    public synchronized Set<Map.Entry<K, V>> entrySet() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(map)).entrySet();
+    }
+
+    @Override
+    public V get(final Object key) {
+        final V value;
+        synchronized (this) {
+            value = map.get(key);
+        }
+        if (value == null) {
+            missCount.increment();
+        } else {
+            hitCount.increment();
+        }
+        return value;
+    }
+
+    /**
+     * @return maximum number of entries
+     */
+    public synchronized int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return number of entries that have been evicted due to the capacity limit
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * @return number of look-ups that have been served by the cache
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * @return fraction of look-ups that have been served by the cache [0, 1] (0 if there was no look-up yet)
+     */
+    public double getHitRate() {
+        final long hits = hitCount.sum();
+        final long total = hits + missCount.sum();
+        return total == 0 ? 0.0 : hits / (double) total;
+    }
+
+    /**
+     * @return number of look-ups that required a new entry to be computed
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    @Override
+    public synchronized V put(final K key, final V value) {
+        return map.put(key, value);
+    }
+
+    @Override
+    public synchronized V remove(final Object key) {
+        return map.remove(key);
+    }
+
+    /**
+     * resets the hit, miss and eviction counters
+     */
+    public void resetMetrics() {
+        hitCount.reset();
+        missCount.reset();
+        evictionCount.reset();
+    }
+
+    /**
+     * @param capacity new maximum number of entries, surplus least-recently-used entries are evicted immediately
+     */
+    public synchronized void setCapacity(final int capacity) {
+        AssertUtils.gtThanZero("capacity", capacity);
+        this.capacity = capacity;
+        while (map.size() > capacity) {
+            final K eldest = map.keySet().iterator().next();
+            map.remove(eldest);
+            evictionCount.increment();
+        }
+    }
+
+    @Override
+    public synchronized int size() {
+        return map.size();
+    }
+
+    @Override
+    public String toString() {
+        return LruCache.class.getSimpleName() + "[size=" + size() + ", capacity=" + getCapacity() + ", hits=" + getHitCount() + ", misses=" + getMissCount() + ", evictions=" + getEvictionCount() + ", hitRate=" + String.format("%.3f", getHitRate()) + "]";
+    }
+}
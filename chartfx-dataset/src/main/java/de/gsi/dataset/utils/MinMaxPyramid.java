@@ -0,0 +1,280 @@
+package de.gsi.dataset.utils;
+
+import java.util.Arrays;
+import java.util.function.IntSupplier;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Multi-resolution min/max index (level-of-detail pyramid) of a sample sequence (e.g. the y-values of a DataSet).
+ * <p>
+ * Level {@code l} of the pyramid stores, for each bucket of {@code 2^(baseLevelLog2 + l)} consecutive samples, the
+ * index and value of the smallest and largest sample. The pyramid is updated incrementally: appended samples only
+ * update the last bucket of each level (O(log n)), while modifications of existing samples invalidate the pyramid from
+ * the first modified index onwards which is re-built lazily on the next query.
+ * <p>
+ * The index of the min/max sample within an arbitrary index range is found in O(bucket size + log n), so that e.g. a
+ * renderer can select the ~2 representative samples per pixel column in O(pixels · log n) irrespective of the number
+ * of samples per pixel (see {@link #reduce(int[], int, int, int[])}).
+ * <p>
+ * N.B. non-finite sample values are ignored. Queries are synchronised so that concurrent readers (holding the data set
+ * read lock) may share one pyramid.
+ */
+public class MinMaxPyramid {
+    /** default base bucket size: 2^4 = 16 samples */
+    public static final int DEFAULT_BASE_LEVEL_LOG2 = 4;
+    private final IntToDoubleFunction value;
+    private final IntSupplier size;
+    private final int baseShift;
+    private final int baseSize;
+    private int validSize; // number of samples that are correctly represented by the pyramid
+    private int nLevels;
+    private int[][] minIndex = new int[0][];
+    private int[][] maxIndex = new int[0][];
+    private double[][] minValue = new double[0][];
+    private double[][] maxValue = new double[0][];
+
+    /**
+     * @param value function returning the sample value for a given index
+     * @param size function returning the current number of samples
+     */
+    public MinMaxPyramid(final IntToDoubleFunction value, final IntSupplier size) {
+        this(value, size, DEFAULT_BASE_LEVEL_LOG2);
+    }
+
+    /**
+     * @param value function returning the sample value for a given index
+     * @param size function returning the current number of samples
+     * @param baseLevelLog2 number of samples per bucket of the finest level in units of log2
+     */
+    public MinMaxPyramid(final IntToDoubleFunction value, final IntSupplier size, final int baseLevelLog2) {
+        AssertUtils.notNull("value", value);
+        AssertUtils.notNull("size", size);
+        if (baseLevelLog2 < 1 || baseLevelLog2 > 20) {
+            throw new IllegalArgumentException("baseLevelLog2 = " + baseLevelLog2 + " must be within [1, 20]");
+        }
+        this.value = value;
+        this.size = size;
+        this.baseShift = baseLevelLog2;
+        this.baseSize = 1 << baseLevelLog2;
+    }
+
+    /**
+     * @param fromIndex start index (inclusive)
+     * @param toIndex stop index (exclusive)
+     * @return index of the largest sample within the given range, {@code -1} if the range contains no finite samples
+     */
+    public synchronized int getMaxIndex(final int fromIndex, final int toIndex) {
+        update();
+        return query(fromIndex, toIndex, false);
+    }
+
+    /**
+     * @param fromIndex start index (inclusive)
+     * @param toIndex stop index (exclusive)
+     * @return index of the smallest sample within the given range, {@code -1} if the range contains no finite samples
+     */
+    public synchronized int getMinIndex(final int fromIndex, final int toIndex) {
+        update();
+        return query(fromIndex, toIndex, true);
+    }
+
+    /**
+     * @return number of pyramid levels (excluding the raw samples)
+     */
+    public synchronized int getNumberOfLevels() {
+        update();
+        return nLevels;
+    }
+
+    /**
+     * marks the samples from the given index onwards as modified (N.B. appended samples need not be invalidated)
+     *
+     * @param fromIndex first modified sample index
+     */
+    public synchronized void invalidate(final int fromIndex) {
+        validSize = Math.max(0, Math.min(validSize, fromIndex));
+    }
+
+    /**
+     * Selects the smallest and largest sample of each bin (e.g. pixel column). The returned indices are sorted in
+     * ascending order, include the first and last sample of the overall range (continuity of poly-lines) and contain
+     * no duplicates.
+     *
+     * @param binStart start index of each bin (ascending, the bin ends at the start of the next bin)
+     * @param nBins number of bins
+     * @param toIndex stop index (exclusive) of the last bin
+     * @param result storage for the selected indices, needs to hold at least {@code 2 * nBins + 2} elements
+     * @return number of selected indices
+     */
+    public synchronized int reduce(final int[] binStart, final int nBins, final int toIndex, final int[] result) {
+        AssertUtils.notNull("binStart", binStart);
+        AssertUtils.notNull("result", result);
+        if (result.length < 2 * nBins + 2) {
+            throw new IllegalArgumentException("result.length = " + result.length + " must be >= " + (2 * nBins + 2));
+        }
+        update();
+        if (nBins <= 0 || binStart[0] >= toIndex) {
+            return 0;
+        }
+        int count = 0;
+        result[count++] = binStart[0];
+        for (int bin = 0; bin < nBins; bin++) {
+            final int from = binStart[bin];
+            final int to = bin + 1 < nBins ? Math.min(binStart[bin + 1], toIndex) : toIndex;
+            if (from >= to) {
+                continue;
+            }
+            final int min = query(from, to, true);
+            final int max = query(from, to, false);
+            final int first = Math.min(min, max);
+            final int second = Math.max(min, max);
+            if (first >= 0 && first > result[count - 1]) {
+                result[count++] = first;
+            }
+            if (second >= 0 && second > result[count - 1]) {
+                result[count++] = second;
+            }
+        }
+        if (toIndex - 1 > result[count - 1]) {
+            result[count++] = toIndex - 1;
+        }
+        return count;
+    }
+
+    private void ensureLevelCapacity(final int level, final int nBuckets) {
+        if (level >= minIndex.length) {
+            final int newLength = level + 1;
+            minIndex = Arrays.copyOf(minIndex, newLength);
+            maxIndex = Arrays.copyOf(maxIndex, newLength);
+            minValue = Arrays.copyOf(minValue, newLength);
+            maxValue = Arrays.copyOf(maxValue, newLength);
+        }
+        if (minIndex[level] == null || minIndex[level].length < nBuckets) {
+            final int capacity = Math.max(nBuckets, minIndex[level] == null ? 0 : minIndex[level].length * 2);
+            minIndex[level] = minIndex[level] == null ? new int[capacity] : Arrays.copyOf(minIndex[level], capacity);
+            maxIndex[level] = maxIndex[level] == null ? new int[capacity] : Arrays.copyOf(maxIndex[level], capacity);
+            minValue[level] = minValue[level] == null ? new double[capacity] : Arrays.copyOf(minValue[level], capacity);
+            maxValue[level] = maxValue[level] == null ? new double[capacity] : Arrays.copyOf(maxValue[level], capacity);
+        }
+    }
+
+    private int query(final int fromIndex, final int toIndex, final boolean isMin) {
+        final int from = Math.max(0, fromIndex);
+        final int to = Math.min(validSize, toIndex);
+        int bestIndex = -1;
+        double best = isMin ? Double.MAX_VALUE : -Double.MAX_VALUE;
+        if (from >= to) {
+            return bestIndex;
+        }
+        int bucketFrom = (from + baseSize - 1) >>> baseShift;
+        int bucketTo = to >>> baseShift; // exclusive, only full buckets
+        if (bucketFrom >= bucketTo) {
+            return scan(from, to, isMin, bestIndex, best);
+        }
+        // partial buckets at the edges
+        bestIndex = scan(from, bucketFrom << baseShift, isMin, bestIndex, best);
+        best = bestIndex < 0 ? best : value.applyAsDouble(bestIndex);
+        bestIndex = scan(bucketTo << baseShift, to, isMin, bestIndex, best);
+        best = bestIndex < 0 ? best : value.applyAsDouble(bestIndex);
+
+        // full buckets: bottom-up decomposition into at most two buckets per level
+        for (int level = 0; bucketFrom < bucketTo; level++, bucketFrom >>>= 1, bucketTo >>>= 1) {
+            if ((bucketFrom & 1) == 1) {
+                final int candidate = (isMin ? minIndex : maxIndex)[level][bucketFrom];
+                final double candidateValue = (isMin ? minValue : maxValue)[level][bucketFrom];
+                if (candidate >= 0 && (bestIndex < 0 || (isMin ? candidateValue < best : candidateValue > best))) {
+                    bestIndex = candidate;
+                    best = candidateValue;
+                }
+                bucketFrom++;
+            }
+            if ((bucketTo & 1) == 1) {
+                bucketTo--;
+                final int candidate = (isMin ? minIndex : maxIndex)[level][bucketTo];
+                final double candidateValue = (isMin ? minValue : maxValue)[level][bucketTo];
+                if (candidate >= 0 && (bestIndex < 0 || (isMin ? candidateValue < best : candidateValue > best))) {
+                    bestIndex = candidate;
+                    best = candidateValue;
+                }
+            }
+        }
+        return bestIndex;
+    }
+
+    private int scan(final int from, final int to, final boolean isMin, final int initialIndex, final double initial) {
+        int bestIndex = initialIndex;
+        double best = initial;
+        for (int i = from; i < to; i++) {
+            final double val = value.applyAsDouble(i);
+            if (!Double.isFinite(val)) {
+                continue;
+            }
+            if (bestIndex < 0 || (isMin ? val < best : val > best)) {
+                best = val;
+                bestIndex = i;
+            }
+        }
+        return bestIndex;
+    }
+
+    private void update() {
+        final int newSize = size.getAsInt();
+        if (newSize == validSize) {
+            return;
+        }
+        final int from = Math.min(validSize, newSize);
+
+        // finest level: (re-)scan raw samples of all modified buckets
+        int bucketFrom = from >>> baseShift;
+        int bucketTo = (newSize + baseSize - 1) >>> baseShift;
+        int level = 0;
+        ensureLevelCapacity(level, bucketTo);
+        for (int bucket = bucketFrom; bucket < bucketTo; bucket++) {
+            final int start = bucket << baseShift;
+            final int stop = Math.min(newSize, start + baseSize);
+            final int min = scan(start, stop, true, -1, Double.MAX_VALUE);
+            final int max = scan(start, stop, false, -1, -Double.MAX_VALUE);
+            minIndex[0][bucket] = min;
+            maxIndex[0][bucket] = max;
+            minValue[0][bucket] = min < 0 ? Double.MAX_VALUE : value.applyAsDouble(min);
+            maxValue[0][bucket] = max < 0 ? -Double.MAX_VALUE : value.applyAsDouble(max);
+        }
+
+        // coarser levels: merge pairs of buckets of the level below
+        int nBuckets = bucketTo;
+        while (nBuckets > 1) {
+            final int childLevel = level++;
+            final int nChildBuckets = nBuckets;
+            bucketFrom >>>= 1;
+            nBuckets = (nBuckets + 1) >>> 1;
+            ensureLevelCapacity(level, nBuckets);
+            for (int bucket = bucketFrom; bucket < nBuckets; bucket++) {
+                final int right = 2 * bucket + 1;
+                merge(childLevel, 2 * bucket, right < nChildBuckets ? right : -1, level, bucket);
+            }
+        }
+        nLevels = newSize == 0 ? 0 : level + 1;
+        validSize = newSize;
+    }
+
+    private void merge(final int childLevel, final int left, final int right, final int level, final int bucket) {
+        int min = minIndex[childLevel][left];
+        double minVal = minValue[childLevel][left];
+        int max = maxIndex[childLevel][left];
+        double maxVal = maxValue[childLevel][left];
+        if (right >= 0) {
+            if (minIndex[childLevel][right] >= 0 && (min < 0 || minValue[childLevel][right] < minVal)) {
+                min = minIndex[childLevel][right];
+                minVal = minValue[childLevel][right];
+            }
+            if (maxIndex[childLevel][right] >= 0 && (max < 0 || maxValue[childLevel][right] > maxVal)) {
+                max = maxIndex[childLevel][right];
+                maxVal = maxValue[childLevel][right];
+            }
+        }
+        minIndex[level][bucket] = min;
+        minValue[level][bucket] = minVal;
+        maxIndex[level][bucket] = max;
+        maxValue[level][bucket] = maxVal;
+    }
+}
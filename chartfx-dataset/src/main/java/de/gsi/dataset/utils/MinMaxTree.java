@@ -0,0 +1,280 @@
+package de.gsi.dataset.utils;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Lazily updated min/max segment tree for incremental data set limit (range) tracking.
+ * <p>
+ * The tree covers the (physical) sample indices [0, size) of an external storage that is accessed via two
+ * functions returning the lower (e.g. 'value - negative error') and upper (e.g. 'value + positive error') bound of a
+ * given sample. Each leaf summarises a block of {@code 2^blockSizeLog2} samples so that the memory overhead remains
+ * small compared to the data itself.
+ * <p>
+ * Modifications only mark the affected blocks as dirty ({@link #invalidate(int, int)}) in O(1) per block. The dirty
+ * blocks are re-scanned and the affected tree paths re-built lazily on the next query, i.e. the cost of a query is
+ * O(number of modified samples + log n) while queries of an unmodified tree are O(1) ({@link #getMin()},
+ * {@link #getMax()}) or O(log n) (range queries). Since the tree works on physical indices, it is also suited for
+ * circular buffers where only the overwritten physical range needs to be invalidated.
+ * <p>
+ * N.B. this class is not thread-safe, external synchronisation is required (e.g. the DataSet lock). Non-finite values
+ * are ignored (consistent with {@link de.gsi.dataset.spi.DataRange}).
+ */
+public class MinMaxTree {
+    /** default block size: 2^6 = 64 samples per leaf */
+    public static final int DEFAULT_BLOCK_SIZE_LOG2 = 6;
+    private final IntToDoubleFunction lowerValue;
+    private final IntToDoubleFunction upperValue;
+    private final int blockShift;
+    private final int blockSize;
+    private final BitSet dirtyBlocks = new BitSet();
+    private int size;
+    private int nLeaves; // power of two
+    private double[] min = new double[0];
+    private double[] max = new double[0];
+    private int dirtyFrom = Integer.MAX_VALUE; // first leaf requiring a tree update
+    private int dirtyTo; // last leaf (exclusive) requiring a tree update
+
+    /**
+     * @param value function returning the value of the sample at given index (used for lower and upper bound)
+     */
+    public MinMaxTree(final IntToDoubleFunction value) {
+        this(value, value, DEFAULT_BLOCK_SIZE_LOG2);
+    }
+
+    /**
+     * @param lowerValue function returning the lower bound of the sample at given index
+     * @param upperValue function returning the upper bound of the sample at given index
+     */
+    public MinMaxTree(final IntToDoubleFunction lowerValue, final IntToDoubleFunction upperValue) {
+        this(lowerValue, upperValue, DEFAULT_BLOCK_SIZE_LOG2);
+    }
+
+    /**
+     * @param lowerValue function returning the lower bound of the sample at given index
+     * @param upperValue function returning the upper bound of the sample at given index
+     * @param blockSizeLog2 number of samples per leaf in units of log2
+     */
+    public MinMaxTree(final IntToDoubleFunction lowerValue, final IntToDoubleFunction upperValue,
+            final int blockSizeLog2) {
+        AssertUtils.notNull("lowerValue", lowerValue);
+        AssertUtils.notNull("upperValue", upperValue);
+        if (blockSizeLog2 < 0 || blockSizeLog2 > 20) {
+            throw new IllegalArgumentException("blockSizeLog2 = " + blockSizeLog2 + " must be within [0, 20]");
+        }
+        this.lowerValue = lowerValue;
+        this.upperValue = upperValue;
+        this.blockShift = blockSizeLog2;
+        this.blockSize = 1 << blockSizeLog2;
+    }
+
+    /**
+     * @return maximum of all upper sample bounds, {@code -Double.MAX_VALUE} if empty
+     */
+    public double getMax() {
+        update();
+        return nLeaves == 0 ? -Double.MAX_VALUE : max[1];
+    }
+
+    /**
+     * @param fromIndex start index (inclusive)
+     * @param toIndex stop index (exclusive)
+     * @return maximum of the upper sample bounds within the given index range, {@code -Double.MAX_VALUE} if empty
+     */
+    public double getMax(final int fromIndex, final int toIndex) {
+        update();
+        final int from = Math.max(0, fromIndex);
+        final int to = Math.min(size, toIndex);
+        double retVal = -Double.MAX_VALUE;
+        if (from >= to) {
+            return retVal;
+        }
+        final int firstFullBlock = (from + blockSize - 1) >>> blockShift;
+        final int lastFullBlock = to >>> blockShift; // exclusive
+        if (firstFullBlock >= lastFullBlock) {
+            return scanMax(from, to, retVal);
+        }
+        retVal = scanMax(from, firstFullBlock << blockShift, retVal);
+        retVal = scanMax(lastFullBlock << blockShift, to, retVal);
+        // bottom-up tree query over leaves [firstFullBlock, lastFullBlock)
+        for (int l = firstFullBlock + nLeaves, r = lastFullBlock + nLeaves; l < r; l >>= 1, r >>= 1) {
+            if ((l & 1) == 1) {
+                retVal = Math.max(retVal, max[l++]);
+            }
+            if ((r & 1) == 1) {
+                retVal = Math.max(retVal, max[--r]);
+            }
+        }
+        return retVal;
+    }
+
+    /**
+     * @return minimum of all lower sample bounds, {@code +Double.MAX_VALUE} if empty
+     */
+    public double getMin() {
+        update();
+        return nLeaves == 0 ? Double.MAX_VALUE : min[1];
+    }
+
+    /**
+     * @param fromIndex start index (inclusive)
+     * @param toIndex stop index (exclusive)
+     * @return minimum of the lower sample bounds within the given index range, {@code +Double.MAX_VALUE} if empty
+     */
+    public double getMin(final int fromIndex, final int toIndex) {
+        update();
+        final int from = Math.max(0, fromIndex);
+        final int to = Math.min(size, toIndex);
+        double retVal = Double.MAX_VALUE;
+        if (from >= to) {
+            return retVal;
+        }
+        final int firstFullBlock = (from + blockSize - 1) >>> blockShift;
+        final int lastFullBlock = to >>> blockShift; // exclusive
+        if (firstFullBlock >= lastFullBlock) {
+            return scanMin(from, to, retVal);
+        }
+        retVal = scanMin(from, firstFullBlock << blockShift, retVal);
+        retVal = scanMin(lastFullBlock << blockShift, to, retVal);
+        // bottom-up tree query over leaves [firstFullBlock, lastFullBlock)
+        for (int l = firstFullBlock + nLeaves, r = lastFullBlock + nLeaves; l < r; l >>= 1, r >>= 1) {
+            if ((l & 1) == 1) {
+                retVal = Math.min(retVal, min[l++]);
+            }
+            if ((r & 1) == 1) {
+                retVal = Math.min(retVal, min[--r]);
+            }
+        }
+        return retVal;
+    }
+
+    /**
+     * marks the given sample index range as modified (N.B. O(1) per block, the actual update is deferred to the next
+     * query)
+     *
+     * @param fromIndex start index (inclusive)
+     * @param toIndex stop index (exclusive)
+     */
+    public void invalidate(final int fromIndex, final int toIndex) {
+        final int from = Math.max(0, fromIndex);
+        final int to = Math.min(size, toIndex);
+        if (from >= to) {
+            return;
+        }
+        final int fromBlock = from >>> blockShift;
+        final int toBlock = ((to - 1) >>> blockShift) + 1;
+        dirtyBlocks.set(fromBlock, toBlock);
+        markTreeDirty(fromBlock, toBlock);
+    }
+
+    /**
+     * invalidates all samples
+     */
+    public void invalidateAll() {
+        invalidate(0, size);
+    }
+
+    /**
+     * @param newSize new number of valid samples (N.B. samples beyond the previous size are implicitly invalidated)
+     */
+    public void setSize(final int newSize) {
+        AssertUtils.gtEqThanZero("newSize", newSize);
+        final int oldSize = size;
+        if (newSize == oldSize) {
+            return;
+        }
+        final int nBlocks = (newSize + blockSize - 1) >>> blockShift;
+        if (nBlocks > nLeaves) {
+            grow(nBlocks);
+        }
+        size = newSize;
+        // invalidate blocks between old and new size (N.B. including the partial boundary blocks)
+        final int fromBlock = Math.min(oldSize, newSize) >>> blockShift;
+        final int toBlock = Math.min(nLeaves, (Math.max(oldSize, newSize) >>> blockShift) + 1);
+        if (fromBlock < toBlock) {
+            dirtyBlocks.set(fromBlock, toBlock);
+            markTreeDirty(fromBlock, toBlock);
+        }
+    }
+
+    /**
+     * @return number of valid samples
+     */
+    public int size() {
+        return size;
+    }
+
+    private void grow(final int nBlocks) {
+        final int newLeaves = Math.max(Integer.highestOneBit(Math.max(1, nBlocks - 1)) << 1, 2 * nLeaves);
+        final double[] newMin = new double[2 * newLeaves];
+        final double[] newMax = new double[2 * newLeaves];
+        Arrays.fill(newMin, Double.MAX_VALUE);
+        Arrays.fill(newMax, -Double.MAX_VALUE);
+        if (nLeaves > 0) {
+            System.arraycopy(min, nLeaves, newMin, newLeaves, nLeaves);
+            System.arraycopy(max, nLeaves, newMax, newLeaves, nLeaves);
+        }
+        min = newMin;
+        max = newMax;
+        nLeaves = newLeaves;
+        // all inner nodes need to be re-computed
+        dirtyFrom = 0;
+        dirtyTo = nLeaves;
+    }
+
+    private void markTreeDirty(final int fromLeaf, final int toLeaf) {
+        dirtyFrom = Math.min(dirtyFrom, fromLeaf);
+        dirtyTo = Math.max(dirtyTo, toLeaf);
+    }
+
+    private double scanMax(final int from, final int to, final double initial) {
+        double retVal = initial;
+        for (int i = from; i < to; i++) {
+            final double value = upperValue.applyAsDouble(i);
+            if (value > retVal && value != Double.POSITIVE_INFINITY) { // N.B. also skips NaN
+                retVal = value;
+            }
+        }
+        return retVal;
+    }
+
+    private double scanMin(final int from, final int to, final double initial) {
+        double retVal = initial;
+        for (int i = from; i < to; i++) {
+            final double value = lowerValue.applyAsDouble(i);
+            if (value < retVal && value != Double.NEGATIVE_INFINITY) { // N.B. also skips NaN
+                retVal = value;
+            }
+        }
+        return retVal;
+    }
+
+    private void update() {
+        if (dirtyFrom >= dirtyTo) {
+            return;
+        }
+        // re-scan dirty blocks
+        for (int block = dirtyBlocks.nextSetBit(0); block >= 0 && block < nLeaves; block = dirtyBlocks.nextSetBit(block + 1)) {
+            final int from = block << blockShift;
+            final int to = Math.min(size, from + blockSize);
+            min[nLeaves + block] = scanMin(from, to, Double.MAX_VALUE);
+            max[nLeaves + block] = scanMax(from, to, -Double.MAX_VALUE);
+        }
+        dirtyBlocks.clear();
+
+        // re-build inner nodes above the modified leaves
+        int from = (nLeaves + dirtyFrom) >>> 1;
+        int to = (nLeaves + dirtyTo - 1) >>> 1;
+        while (from >= 1) {
+            for (int node = from; node <= to; node++) {
+                min[node] = Math.min(min[2 * node], min[2 * node + 1]);
+                max[node] = Math.max(max[2 * node], max[2 * node + 1]);
+            }
+            from >>>= 1;
+            to >>>= 1;
+        }
+        dirtyFrom = Integer.MAX_VALUE;
+        dirtyTo = 0;
+    }
+}
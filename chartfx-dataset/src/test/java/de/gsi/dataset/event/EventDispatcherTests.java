@@ -0,0 +1,215 @@
+package de.gsi.dataset.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Test;
+
+import de.gsi.dataset.spi.DoubleDataSet;
+
+/**
+ * Tests the coalescing EventDispatcher
+ */
+public class EventDispatcherTests {
+    @Test
+    public void constructorTests() {
+        assertThrows(IllegalArgumentException.class, () -> new EventDispatcher(null, 10, 10), "null executor");
+        assertThrows(IllegalArgumentException.class, () -> new EventDispatcher(Runnable::run, 0, 10), "max pending");
+        assertThrows(IllegalArgumentException.class, () -> new EventDispatcher(Runnable::run, 10, 0), "batch size");
+        assertSame(EventDispatcher.getDefault(), EventDispatcher.getDefault(), "default instance");
+        assertThrows(IllegalArgumentException.class, () -> EventDispatcher.getDefault().publish(null, null), "null source");
+    }
+
+    @Test
+    public void coalescingTests() {
+        // manually triggered executor to emulate the dispatch 'frames'
+        final Queue<Runnable> tasks = new ArrayDeque<>();
+        final EventDispatcher dispatcher = new EventDispatcher(tasks::add, 3, 2);
+        final TestEventSource[] sources = new TestEventSource[4];
+        final AtomicInteger updateCount = new AtomicInteger();
+        final AtomicReference<UpdateEvent> lastEvent = new AtomicReference<>();
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = new TestEventSource();
+            sources[i].addListener(evt -> updateCount.incrementAndGet());
+        }
+        sources[0].addListener(lastEvent::set);
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(dispatcher.publish(sources[0], new UpdateEvent(sources[0], "event" + i)));
+        }
+        assertTrue(dispatcher.publish(sources[1], null));
+        assertTrue(dispatcher.publish(sources[2], null));
+        assertFalse(dispatcher.publish(sources[3], null), "too many pending sources");
+        assertEquals(1, tasks.size(), "single dispatch task");
+        assertEquals(3, dispatcher.getPendingCount());
+        assertEquals(13, dispatcher.getPublishedCount());
+        assertEquals(9, dispatcher.getCoalescedCount());
+        assertEquals(1, dispatcher.getDroppedCount());
+        assertEquals(0, updateCount.get(), "publisher is not blocked by listeners");
+
+        // first batch: sources[0] and sources[1]
+        tasks.poll().run();
+        assertEquals(2, updateCount.get());
+        assertEquals("event9", lastEvent.get().getMessage(), "latest event is delivered");
+        assertEquals(1, dispatcher.getPendingCount());
+
+        sources[0].autoNotification().set(false);
+        assertFalse(dispatcher.publish(sources[0], null), "auto-notification disabled");
+        sources[0].autoNotification().set(true);
+        assertTrue(dispatcher.publish(sources[0], null));
+        assertTrue(dispatcher.publish(sources[3], null));
+        assertEquals(1, tasks.size(), "dispatch task has been re-submitted");
+        tasks.poll().run(); // sources[2] and sources[0]
+        tasks.poll().run(); // sources[3]
+        tasks.poll().run(); // empty -> dispatch finished
+        assertTrue(tasks.isEmpty());
+        assertEquals(5, updateCount.get());
+        assertEquals(7, dispatcher.getDeliveredCount(), "listener notifications");
+        assertEquals(3, dispatcher.getBatchCount());
+
+        // listener exceptions are counted and do not stop the delivery
+        sources[1].addListener(evt -> {
+            throw new IllegalStateException("listener exception -- ignore this -- this is valid output");
+        });
+        sources[1].addListener(evt -> updateCount.incrementAndGet());
+        dispatcher.publish(sources[1], null);
+        tasks.poll().run();
+        assertEquals(7, updateCount.get());
+        assertEquals(1, dispatcher.getFailedCount());
+
+        dispatcher.resetMetrics();
+        assertEquals(0, dispatcher.getPublishedCount());
+        assertEquals(0, dispatcher.getCoalescedCount());
+        assertEquals(0, dispatcher.getDroppedCount());
+        assertEquals(0, dispatcher.getDeliveredCount());
+        assertEquals(0, dispatcher.getFailedCount());
+        assertEquals(0, dispatcher.getBatchCount());
+    }
+
+    @Test
+    public void coalescingPerEventClassTests() {
+        final Queue<Runnable> tasks = new ArrayDeque<>();
+        final EventDispatcher dispatcher = new EventDispatcher(tasks::add, 10, 10);
+        final TestEventSource source = new TestEventSource();
+        final List<UpdateEvent> events = new ArrayList<>();
+        source.addListener(events::add);
+
+        dispatcher.publish(source, new AxisChangeEvent(source, "axis", 0));
+        dispatcher.publish(source, new UpdatedDataEvent(source, "data0"));
+        dispatcher.publish(source, new UpdatedDataEvent(source, "data1"));
+        assertEquals(2, dispatcher.getPendingCount(), "one entry per event class");
+        assertEquals(1, dispatcher.getCoalescedCount());
+
+        tasks.poll().run();
+        assertEquals(2, events.size());
+        assertTrue(events.get(0) instanceof AxisChangeEvent, "axis event is not replaced by data event");
+        assertEquals("data1", events.get(1).getMessage());
+    }
+
+    @Test
+    public void coalescingPerDimensionAndPayloadTests() {
+        final Queue<Runnable> tasks = new ArrayDeque<>();
+        final EventDispatcher dispatcher = new EventDispatcher(tasks::add, 10, 10);
+        final TestEventSource source = new TestEventSource();
+        final List<UpdateEvent> events = new ArrayList<>();
+        source.addListener(events::add);
+
+        dispatcher.publish(source, new AxisChangeEvent(source, "x0", 0));
+        dispatcher.publish(source, new AxisChangeEvent(source, "y0", 1));
+        dispatcher.publish(source, new AxisChangeEvent(source, "x1", 0));
+        dispatcher.publish(source, new UpdateEvent(source, "payload0", "a"));
+        dispatcher.publish(source, new UpdateEvent(source, "payload1", "b"));
+        assertEquals(4, dispatcher.getPendingCount(), "one entry per axis dimension and per pay-load event");
+        assertEquals(1, dispatcher.getCoalescedCount());
+
+        tasks.poll().run();
+        assertEquals(4, events.size());
+        assertEquals("x1", events.get(0).getMessage());
+        assertEquals(0, ((AxisChangeEvent) events.get(0)).getDimension());
+        assertEquals("y0", events.get(1).getMessage());
+        assertEquals(1, ((AxisChangeEvent) events.get(1)).getDimension());
+        assertEquals("a", events.get(2).getPayLoad());
+        assertEquals("b", events.get(3).getPayLoad());
+    }
+
+    @Test
+    public void dispatchRecoveryTests() {
+        final Queue<Runnable> tasks = new ArrayDeque<>();
+        final AtomicBoolean reject = new AtomicBoolean(true);
+        final EventDispatcher dispatcher = new EventDispatcher(task -> {
+            if (reject.get()) {
+                throw new RejectedExecutionException("rejected -- ignore this -- this is valid output");
+            }
+            tasks.add(task);
+        }, 10, 10);
+        final TestEventSource source1 = new TestEventSource();
+        final TestEventSource source2 = new TestEventSource();
+        final AtomicInteger updateCount = new AtomicInteger();
+        source1.addListener(evt -> updateCount.incrementAndGet());
+        source2.addListener(evt -> updateCount.incrementAndGet());
+
+        // rejected dispatch task: event stays queued and the next publish restarts the dispatch
+        assertThrows(RejectedExecutionException.class, () -> dispatcher.publish(source1, null));
+        assertEquals(1, dispatcher.getPendingCount());
+        reject.set(false);
+        assertTrue(dispatcher.publish(source2, null));
+        assertEquals(1, tasks.size());
+        tasks.poll().run();
+        tasks.poll().run();
+        assertTrue(tasks.isEmpty());
+        assertEquals(2, updateCount.get());
+
+        // listener throwing an Error does not stall later deliveries
+        final AtomicBoolean throwError = new AtomicBoolean(true);
+        source1.addListener(evt -> {
+            if (throwError.getAndSet(false)) {
+                throw new AssertionError("listener error -- ignore this -- this is valid output");
+            }
+        });
+        dispatcher.publish(source1, null);
+        assertThrows(AssertionError.class, () -> tasks.poll().run());
+        assertTrue(tasks.isEmpty());
+        assertTrue(dispatcher.publish(source1, null));
+        assertEquals(1, tasks.size(), "dispatch has been restarted");
+        tasks.poll().run();
+        tasks.poll().run();
+        assertEquals(4, updateCount.get());
+    }
+
+    @Test
+    public void dataSetTests() {
+        final EventDispatcher dispatcher = new EventDispatcher();
+        final DoubleDataSet dataSet = new DoubleDataSet("test");
+        final AtomicInteger updateCount = new AtomicInteger();
+        dataSet.addListener(evt -> updateCount.incrementAndGet());
+
+        assertSame(dataSet, dataSet.setEventDispatcher(dispatcher));
+        assertSame(dispatcher, dataSet.eventDispatcher());
+        for (int i = 0; i < 1000; i++) {
+            dataSet.add(i, i);
+        }
+        assertEquals(1000, dispatcher.getPublishedCount());
+        Awaitility.await().atMost(2, TimeUnit.SECONDS).until(() -> updateCount.get() == dispatcher.getPublishedCount() - dispatcher.getCoalescedCount());
+        assertEquals(updateCount.get(), dispatcher.getDeliveredCount());
+
+        // synchronous notification
+        dataSet.setEventDispatcher(null);
+        final int count = updateCount.get();
+        dataSet.add(-1, -1);
+        assertEquals(count + 1, updateCount.get());
+    }
+}
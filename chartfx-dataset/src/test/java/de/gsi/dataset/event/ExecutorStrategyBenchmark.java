@@ -0,0 +1,165 @@
+package de.gsi.dataset.event;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.gsi.dataset.spi.DoubleDataSet;
+import de.gsi.dataset.utils.CachedDaemonThreadFactory;
+import de.gsi.dataset.utils.ExecutorStrategy;
+
+/**
+ * Emulates 50 charts with 20 data sets each that are updated at 25 Hz and compares the {@link ExecutorStrategy}s of the
+ * shared event and computation pools.
+ * <p>
+ * Each data set update notifies -- either synchronously via {@link EventSource#invokeListener(UpdateEvent)} or via the
+ * coalescing {@link EventDispatcher} -- its chart and a few light-weight plugin listeners. The chart listener emulates
+ * {@code CachedDataPoints.computeScreenCoordinatesParallel(..)} by transforming the data in chunks on the common pool.
+ * Reported are the achieved update and render rates, the end-to-end update-to-render latency and the peak number of
+ * live threads.
+ */
+public class ExecutorStrategyBenchmark { // NOPMD - nomen est omen
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExecutorStrategyBenchmark.class);
+    private static final int N_CHARTS = 50;
+    private static final int N_DATA_SETS_PER_CHART = 20;
+    private static final int N_PLUGIN_LISTENERS = 5;
+    private static final int N_SAMPLES = 4000;
+    private static final int CHUNK_SIZE = 1000;
+    private static final long UPDATE_PERIOD_MS = 40; // 25 Hz
+    private static final long TEST_DURATION_MS = 5000;
+    private static final int N_PUBLISHER_THREADS = 4;
+
+    private static void benchmark(final ExecutorStrategy strategy, final boolean useDispatcher) {
+        ExecutorStrategy.setGlobal(strategy);
+        final EventDispatcher dispatcher = useDispatcher ? new EventDispatcher() : null;
+        final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        final AtomicLong nUpdates = new AtomicLong();
+        final AtomicLong nRendered = new AtomicLong();
+        final AtomicLong sumLatency = new AtomicLong();
+        final LongAccumulator maxLatency = new LongAccumulator(Math::max, 0);
+
+        final List<TimedDataSet[]> charts = new ArrayList<>();
+        for (int chart = 0; chart < N_CHARTS; chart++) {
+            final TimedDataSet[] dataSets = new TimedDataSet[N_DATA_SETS_PER_CHART];
+            for (int i = 0; i < N_DATA_SETS_PER_CHART; i++) {
+                final TimedDataSet dataSet = new TimedDataSet("chart" + chart + "-dataSet" + i);
+                for (int index = 0; index < N_SAMPLES; index++) {
+                    dataSet.add(index, Math.sin(0.01 * index));
+                }
+                dataSet.setEventDispatcher(dispatcher);
+                dataSet.addListener(evt -> {
+                    final double checkSum = render(dataSet);
+                    final long latency = System.nanoTime() - dataSet.lastUpdate;
+                    sumLatency.addAndGet(latency);
+                    maxLatency.accumulate(latency);
+                    nRendered.incrementAndGet();
+                    LOGGER.atTrace().addArgument(checkSum).log("checksum = {}");
+                });
+                for (int plugin = 0; plugin < N_PLUGIN_LISTENERS; plugin++) {
+                    dataSet.addListener(evt -> {
+                        // light-weight plugin/axis listener
+                    });
+                }
+                dataSets[i] = dataSet;
+            }
+            charts.add(dataSets);
+        }
+
+        final int threadsBefore = threadBean.getThreadCount();
+        threadBean.resetPeakThreadCount();
+        final ScheduledExecutorService publisher = new ScheduledThreadPoolExecutor(N_PUBLISHER_THREADS, CachedDaemonThreadFactory.getInstance());
+        final long start = System.nanoTime();
+        for (final TimedDataSet[] dataSets : charts) {
+            publisher.scheduleAtFixedRate(() -> {
+                for (final TimedDataSet dataSet : dataSets) {
+                    dataSet.lastUpdate = System.nanoTime();
+                    dataSet.set(N_SAMPLES - 1, N_SAMPLES - 1.0, Math.random()); // fires an UpdatedDataEvent
+                    nUpdates.incrementAndGet();
+                }
+            }, 0, UPDATE_PERIOD_MS, TimeUnit.MILLISECONDS);
+        }
+        try {
+            Thread.sleep(TEST_DURATION_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        publisher.shutdownNow();
+        final double elapsed = (System.nanoTime() - start) * 1e-9;
+
+        final double targetRate = N_CHARTS * N_DATA_SETS_PER_CHART * 1000.0 / UPDATE_PERIOD_MS;
+        final long rendered = Math.max(1, nRendered.get());
+        LOGGER.atInfo().addArgument(String.format("%-9s", strategy)).addArgument(useDispatcher ? "dispatcher" : "sync      ") //
+                .addArgument(String.format("%8.0f", nUpdates.get() / elapsed)).addArgument(String.format("%6.0f", targetRate)) //
+                .addArgument(String.format("%8.0f", nRendered.get() / elapsed)) //
+                .addArgument(String.format("%8.2f", sumLatency.get() * 1e-6 / rendered)) //
+                .addArgument(String.format("%8.2f", maxLatency.get() * 1e-6)) //
+                .addArgument(threadBean.getPeakThreadCount() - threadsBefore) //
+                .addArgument(dispatcher == null ? 0 : dispatcher.getCoalescedCount()) //
+                .log("{} - {}: updates {}/s (target {}/s) rendered {}/s latency avg {} ms max {} ms - additional peak threads: {} coalesced: {}");
+    }
+
+    public static void main(final String[] args) {
+        for (int iteration = 0; iteration < 2; iteration++) {
+            LOGGER.atInfo().addArgument(iteration).addArgument(N_CHARTS).addArgument(N_DATA_SETS_PER_CHART).addArgument(1000 / UPDATE_PERIOD_MS).log("iteration {}: {} charts x {} data sets at {} Hz");
+            for (final ExecutorStrategy strategy : ExecutorStrategy.values()) {
+                if (!strategy.isAvailable()) {
+                    LOGGER.atInfo().addArgument(strategy).log("{} not available on this JVM - skipped");
+                    continue;
+                }
+                benchmark(strategy, false);
+                benchmark(strategy, true);
+            }
+        }
+    }
+
+    private static double render(final DoubleDataSet dataSet) {
+        return dataSet.lock().readLockGuard(() -> {
+            // emulates CachedDataPoints.computeScreenCoordinatesParallel(..): first chunk local, others on common pool
+            final int nSamples = dataSet.getDataCount();
+            final double[] screen = new double[nSamples];
+            final ExecutorService executorService = CachedDaemonThreadFactory.getCommonPool();
+            final List<Future<?>> jobs = new ArrayList<>();
+            for (int start = CHUNK_SIZE; start < nSamples; start += CHUNK_SIZE) {
+                final int from = start;
+                jobs.add(executorService.submit(() -> transform(dataSet, screen, from, Math.min(nSamples, from + CHUNK_SIZE))));
+            }
+            transform(dataSet, screen, 0, Math.min(nSamples, CHUNK_SIZE));
+            try {
+                for (final Future<?> job : jobs) {
+                    job.get();
+                }
+            } catch (InterruptedException | ExecutionException e) {
+                throw new IllegalStateException(e);
+            }
+            return screen[nSamples - 1];
+        });
+    }
+
+    private static void transform(final DoubleDataSet dataSet, final double[] screen, final int from, final int to) {
+        final double[] yValues = dataSet.getYValues();
+        for (int i = from; i < to; i++) {
+            screen[i] = 400.0 - 200.0 * Math.log10(1.0 + Math.abs(yValues[i]));
+        }
+    }
+
+    private static class TimedDataSet extends DoubleDataSet {
+        private static final long serialVersionUID = 1L;
+        private volatile long lastUpdate; // NOPMD - benchmark time-stamp
+
+        TimedDataSet(final String name) {
+            super(name);
+        }
+    }
+}
@@ -9,6 +9,8 @@ import static de.gsi.dataset.DataSet.DIM_Y;
 
 import org.junit.jupiter.api.Test;
 
+import de.gsi.dataset.DataSetError.ErrorType;
+
 /**
  * Checks for CircularDoubleDataSet interfaces and constructors.
  * TODO: add tests for Listeners
@@ -76,4 +78,48 @@ public class CircularDoubleErrorDataSetTests {
         assertThrows(UnsupportedOperationException.class, () -> dataSet.addDataLabel(0, "addedLabel"));
         assertThrows(UnsupportedOperationException.class, () -> dataSet.addDataStyle(0, "color:green"));
     }
+
+    @Test
+    public void limitsTests() {
+        final CircularDoubleErrorDataSet dataSet = new CircularDoubleErrorDataSet("test", 100);
+        for (int i = 0; i < 250; i++) {
+            dataSet.add(i, i % 7, 0.5, 1.0);
+            checkLimits(dataSet, "single add - " + i);
+        }
+        final double[] x = new double[30];
+        final double[] y = new double[30];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = 1000 + i;
+            y[i] = -10.0 + i;
+        }
+        dataSet.add(x, y, new double[30], new double[30]);
+        checkLimits(dataSet, "array add");
+        dataSet.add(new double[250], new double[250], new double[250], new double[250]);
+        checkLimits(dataSet, "array add exceeding capacity");
+        assertEquals(0.0, dataSet.getAxisDescription(DIM_Y).getMax(), "max after complete overwrite");
+
+        dataSet.setErrorType(DIM_Y, ErrorType.SYMMETRIC);
+        dataSet.add(1.0, 1.0, 2.0, 3.0);
+        checkLimits(dataSet, "fall-back to full scan");
+
+        dataSet.reset();
+        assertEquals(0, dataSet.getDataCount(), "reset");
+        dataSet.add(1.0, 2.0, 0.0, 0.0);
+        assertEquals(2.0, dataSet.getAxisDescription(DIM_Y).getMax(), "limits after reset");
+    }
+
+    private static void checkLimits(final CircularDoubleErrorDataSet dataSet, final String msg) {
+        final DataRange xRange = new DataRange();
+        final DataRange yRange = new DataRange();
+        final boolean symmetric = dataSet.getErrorType(DIM_Y) == ErrorType.SYMMETRIC;
+        for (int i = 0; i < dataSet.getDataCount(); i++) {
+            xRange.add(dataSet.get(DIM_X, i));
+            yRange.add(dataSet.get(DIM_Y, i) - (symmetric ? dataSet.getErrorPositive(DIM_Y, i) : dataSet.getErrorNegative(DIM_Y, i)));
+            yRange.add(dataSet.get(DIM_Y, i) + dataSet.getErrorPositive(DIM_Y, i));
+        }
+        assertEquals(xRange.getMin(), dataSet.getAxisDescription(DIM_X).getMin(), "x-min: " + msg);
+        assertEquals(xRange.getMax(), dataSet.getAxisDescription(DIM_X).getMax(), "x-max: " + msg);
+        assertEquals(yRange.getMin(), dataSet.getAxisDescription(DIM_Y).getMin(), "y-min: " + msg);
+        assertEquals(yRange.getMax(), dataSet.getAxisDescription(DIM_Y).getMax(), "y-max: " + msg);
+    }
 }
@@ -0,0 +1,128 @@
+package de.gsi.dataset.spi;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.gsi.dataset.DataSet;
+
+/**
+ * Simple single-writer/multi-reader benchmark comparing the lock-based {@link DoubleDataSet} with the
+ * snapshot-based {@link DoubleBufferedDataSet}.
+ * <p>
+ * The writer appends samples in blocks -- either until the maximum size is reached and then starting over
+ * ('append') or by dropping the oldest block ('rolling') -- while the reader(s) -- emulating the FX/render thread --
+ * continuously iterate over the full data set within {@code lock().readLockGuard(..)}. Reported are the writer throughput as well as the average and worst-case latency
+ * to acquire the read lock.
+ */
+public class DoubleBufferedDataSetBenchmark { // NOPMD - nomen est omen
+    private static final Logger LOGGER = LoggerFactory.getLogger(DoubleBufferedDataSetBenchmark.class);
+    private static final int N_READERS = 1; // typically only the FX thread
+    private static final int N_SAMPLES_MAX = 100_000;
+    private static final int N_SAMPLES_BLOCK = 100;
+    private static final long TEST_DURATION_MS = 2000;
+    private static final long READER_PAUSE_NS = 100_000;
+
+    private static void append(final DataSet dataSet, final double[] x, final double[] y, final double[] err) {
+        if (dataSet instanceof DoubleDataSet) {
+            ((DoubleDataSet) dataSet).add(x, y);
+        } else {
+            ((DoubleBufferedDataSet) dataSet).add(x, y, err, err);
+        }
+    }
+
+    private static void remove(final DataSet dataSet, final int fromIndex, final int toIndex) {
+        if (dataSet instanceof DoubleDataSet) {
+            ((DoubleDataSet) dataSet).remove(fromIndex, toIndex);
+        } else {
+            ((DoubleBufferedDataSet) dataSet).remove(fromIndex, toIndex);
+        }
+    }
+
+    private static void benchmark(final String name, final DataSet dataSet, final boolean rolling) throws InterruptedException {
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final AtomicLong nReads = new AtomicLong();
+        final AtomicLong readLatencySum = new AtomicLong();
+        final AtomicLong readLatencyMax = new AtomicLong();
+        final double[] blockX = new double[N_SAMPLES_BLOCK];
+        final double[] blockY = new double[N_SAMPLES_BLOCK];
+        final double[] blockE = new double[N_SAMPLES_BLOCK];
+
+        final Thread[] readers = new Thread[N_READERS];
+        for (int i = 0; i < N_READERS; i++) {
+            readers[i] = new Thread(() -> {
+                double sum = 0.0;
+                while (running.get()) {
+                    final long start = System.nanoTime();
+                    sum += dataSet.lock().readLockGuard(() -> {
+                        final long latency = System.nanoTime() - start;
+                        readLatencySum.addAndGet(latency);
+                        readLatencyMax.accumulateAndGet(latency, Math::max);
+                        double localSum = 0.0;
+                        final int nData = dataSet.getDataCount();
+                        for (int index = 0; index < nData; index++) {
+                            localSum += dataSet.get(DataSet.DIM_Y, index);
+                        }
+                        return localSum;
+                    });
+                    nReads.incrementAndGet();
+                    // emulates a renderer -- N.B. back-to-back readers starve writers of the lock-based implementation
+                    LockSupport.parkNanos(READER_PAUSE_NS);
+                }
+                LOGGER.atTrace().addArgument(sum).log("reader checksum = {}");
+            });
+            readers[i].start();
+        }
+
+        long nWritten = 0;
+        final long start = System.nanoTime();
+        final long stop = start + TimeUnit.MILLISECONDS.toNanos(TEST_DURATION_MS);
+        while (System.nanoTime() < stop) {
+            for (int i = 0; i < N_SAMPLES_BLOCK; i++) {
+                blockX[i] = nWritten + i;
+                blockY[i] = Math.sin(0.01 * (nWritten + i));
+            }
+            // N.B. one write lock per block -> one published snapshot per block
+            dataSet.lock().writeLockGuard(() -> {
+                if (dataSet.getDataCount() >= N_SAMPLES_MAX) {
+                    if (rolling) {
+                        remove(dataSet, 0, N_SAMPLES_BLOCK);
+                    } else {
+                        remove(dataSet, 0, dataSet.getDataCount());
+                    }
+                }
+                append(dataSet, blockX, blockY, blockE);
+            });
+            nWritten += N_SAMPLES_BLOCK;
+        }
+        final long elapsed = System.nanoTime() - start;
+        running.set(false);
+        for (final Thread reader : readers) {
+            reader.join();
+        }
+
+        final double writeRate = nWritten / (elapsed * 1e-9);
+        final double readRate = nReads.get() / (elapsed * 1e-9);
+        final double avgLatency = nReads.get() == 0 ? 0.0 : readLatencySum.get() / (1e3 * nReads.get());
+        LOGGER.atInfo().addArgument(String.format("%-22s", name)).addArgument(rolling ? "rolling" : "append ") //
+                .addArgument(String.format("%8.2f", writeRate * 1e-6)) //
+                .addArgument(String.format("%8.1f", readRate)) //
+                .addArgument(String.format("%8.2f", avgLatency)) //
+                .addArgument(String.format("%10.2f", readLatencyMax.get() * 1e-3)) //
+                .log("{} - {}: write {} MSamples/s, read {} scans/s, read-lock latency avg {} us max {} us");
+    }
+
+    public static void main(final String[] args) throws InterruptedException {
+        for (int iteration = 0; iteration < 3; iteration++) {
+            LOGGER.atInfo().addArgument(iteration).addArgument(N_READERS).log("iteration {} with {} readers");
+            for (final boolean rolling : new boolean[] { false, true }) {
+                benchmark("DoubleDataSet", new DoubleDataSet("lock-based", N_SAMPLES_MAX), rolling);
+                benchmark("DoubleBufferedDataSet", new DoubleBufferedDataSet("snapshot-based", N_SAMPLES_MAX), rolling);
+            }
+        }
+    }
+}
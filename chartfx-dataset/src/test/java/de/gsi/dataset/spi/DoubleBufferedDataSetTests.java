@@ -0,0 +1,248 @@
+package de.gsi.dataset.spi;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static de.gsi.dataset.DataSet.DIM_X;
+import static de.gsi.dataset.DataSet.DIM_Y;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks for DoubleBufferedDataSet interfaces, constructors and snapshot semantics.
+ */
+public class DoubleBufferedDataSetTests {
+    protected static final double[][] testCoordinate = { { 1.0, 2.0, 3.0 }, { 2.0, 4.0, 6.0 } };
+    protected static final double[] testEYN = { 0.2, 0.3, 0.4 };
+    protected static final double[] testEYP = { 0.1, 0.2, 0.3 };
+
+    @Test
+    public void defaultTests() {
+        EditableDataSetTests.checkEditableDataSetInterface(new DoubleBufferedDataSet("test"));
+
+        final DoubleBufferedDataSet dataSet = new DoubleBufferedDataSet("test");
+        final DoubleErrorDataSet reference = new DoubleErrorDataSet("test");
+        for (int i = 0; i < testCoordinate[0].length; i++) {
+            dataSet.add(testCoordinate[0][i], testCoordinate[1][i], testEYN[i], testEYP[i]);
+            reference.add(testCoordinate[0][i], testCoordinate[1][i], testEYN[i], testEYP[i]);
+        }
+        assertEquals(reference, dataSet, "add(x,y,eyn,eyp)");
+        assertEquals(reference, new DoubleBufferedDataSet(reference), "DoubleBufferedDataSet(DataSet) constructor");
+
+        dataSet.add(1, new double[] { 1.5, 1.6 }, new double[] { 3.0, 3.2 }, new double[2], new double[2]);
+        reference.add(1, new double[] { 1.5, 1.6 }, new double[] { 3.0, 3.2 }, new double[2], new double[2]);
+        assertEquals(reference, dataSet, "add(index, double[]...) in the middle");
+
+        dataSet.set(2, 1.7, 3.4, 0.1, 0.1);
+        reference.set(2, 1.7, 3.4, 0.1, 0.1);
+        assertEquals(reference, dataSet, "set(index, ...)");
+
+        dataSet.remove(0, 2);
+        reference.remove(0, 2);
+        assertEquals(reference, dataSet, "remove(from, to)");
+        assertEquals(3, dataSet.getDataCount(), "data count after remove");
+
+        assertEquals(reference.getAxisDescription(DIM_Y).getMax(), dataSet.getAxisDescription(DIM_Y).getMax(),
+                "axis range after remove");
+
+        assertNotEquals(0, dataSet.getDataCount(), "pre-check clear method");
+        dataSet.clearData();
+        assertEquals(0, dataSet.getDataCount(), "check clear method");
+        assertThrows(IndexOutOfBoundsException.class, () -> dataSet.remove(0, 1), "remove on empty data set");
+    }
+
+    @Test
+    public void testPinnedSnapshotIsStable() {
+        final DoubleBufferedDataSet dataSet = new DoubleBufferedDataSet("test");
+        dataSet.set(testCoordinate[0], testCoordinate[1], testEYN, testEYP);
+        final long revision = dataSet.getRevision();
+
+        dataSet.lock().readLockGuard(() -> {
+            final double[] yBefore = Arrays.copyOf(dataSet.getValues(DIM_Y), dataSet.getDataCount());
+            // writer modifies and publishes while the reader holds on to its snapshot
+            dataSet.add(4.0, 8.0);
+            dataSet.set(0, 1.0, -1.0, 0.0, 0.0);
+            assertEquals(testCoordinate[0].length, dataSet.getDataCount(), "pinned data count");
+            assertArrayEquals(yBefore, Arrays.copyOf(dataSet.getValues(DIM_Y), dataSet.getDataCount()),
+                    "pinned y values");
+            assertEquals(revision, dataSet.getRevision(), "pinned revision");
+
+            // second concurrent reader pins the latest published snapshot
+            final AtomicInteger otherReaderCount = new AtomicInteger(-1);
+            final Thread otherReader = new Thread(() -> dataSet.lock().readLockGuard(() -> {
+                dataSet.lock().readLockGuard(() -> otherReaderCount.set(dataSet.getDataCount()));
+            }));
+            otherReader.start();
+            try {
+                otherReader.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            assertEquals(testCoordinate[0].length + 1, otherReaderCount.get(), "second (nested) reader data count");
+        });
+
+        // new readers see the latest published state
+        assertEquals(testCoordinate[0].length + 1, dataSet.getDataCount(), "published data count");
+        assertEquals(-1.0, dataSet.get(DIM_Y, 0), "published y value");
+        assertEquals(8.0, dataSet.get(DIM_Y, testCoordinate[0].length), "published appended y value");
+        assertTrue(dataSet.getRevision() > revision, "published revision");
+        assertTrue(dataSet.getBufferCount() > 2, "writer allocated additional buffer while all others were pinned");
+
+        // recycled buffers must be brought up-to-date
+        for (int i = 0; i < 10; i++) {
+            dataSet.add(5.0 + i, 10.0 + i);
+        }
+        final DoubleErrorDataSet reference = new DoubleErrorDataSet(dataSet);
+        for (int i = 0; i < 5; i++) {
+            dataSet.lock().writeLockGuard(() -> { /* publish without modification */ });
+            assertEquals(reference, dataSet, "state after buffer recycling - " + i);
+        }
+    }
+
+    @Test
+    public void testWriterReadsOwnModifications() {
+        final DoubleBufferedDataSet dataSet = new DoubleBufferedDataSet("test");
+        dataSet.set(testCoordinate[0], testCoordinate[1], testEYN, testEYP);
+
+        dataSet.lock().writeLockGuard(() -> {
+            dataSet.set(0, 1.0, -1.0, 0.0, 0.0);
+            dataSet.add(4.0, 8.0);
+            // nested (reentrant) read lock of the writer: back buffer rather than the published snapshot
+            dataSet.lock().readLockGuard(() -> {
+                assertEquals(testCoordinate[0].length + 1, dataSet.getDataCount(), "writer data count");
+                assertEquals(-1.0, dataSet.get(DIM_Y, 0), "writer y value");
+                assertEquals(8.0, dataSet.get(DIM_Y, testCoordinate[0].length), "writer appended y value");
+            });
+
+            // other threads still see the published snapshot
+            final AtomicInteger otherReaderCount = new AtomicInteger(-1);
+            final Thread otherReader = new Thread(() -> dataSet.lock().readLockGuard(() -> otherReaderCount.set(dataSet.getDataCount())));
+            otherReader.start();
+            try {
+                otherReader.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            assertEquals(testCoordinate[0].length, otherReaderCount.get(), "concurrent reader data count");
+        });
+        assertEquals(testCoordinate[0].length + 1, dataSet.getDataCount(), "published data count");
+        assertEquals(-1.0, dataSet.get(DIM_Y, 0), "published y value");
+    }
+
+    @Test
+    public void testParallelReadersShareSnapshot() throws Exception {
+        final int nSamples = 1000;
+        final int nWorkers = 4;
+        final double[] x = new double[nSamples];
+        for (int i = 0; i < nSamples; i++) {
+            x[i] = i;
+        }
+        final DoubleBufferedDataSet dataSet = new DoubleBufferedDataSet("test", nSamples);
+        // N.B. the first frame may pin this initial state before the writer published anything
+        dataSet.set(x, new double[nSamples], new double[nSamples], new double[nSamples]);
+
+        // writer continuously publishes states where all y values equal the publish counter
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final Thread writer = new Thread(() -> {
+            final double[] y = new double[nSamples];
+            final double[] zero = new double[nSamples];
+            for (int counter = 1; running.get(); counter++) {
+                Arrays.fill(y, counter);
+                dataSet.set(x, y, zero, zero);
+            }
+        });
+        writer.start();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(nWorkers);
+        try {
+            for (int frame = 0; frame < 200; frame++) {
+                // snapshot is captured once and shared by all parallel workers of this 'frame'
+                try (DoubleBufferedDataSet.SnapshotView view = dataSet.pinSnapshot()) {
+                    final double expected = view.get(DIM_Y, 0);
+                    final List<Callable<Boolean>> workers = new ArrayList<>();
+                    for (int worker = 0; worker < nWorkers; worker++) {
+                        final int offset = worker * nSamples / nWorkers;
+                        workers.add(() -> view.lock().readLockGuardOptimistic(() -> {
+                            for (int i = offset; i < offset + nSamples / nWorkers; i++) {
+                                if (view.get(DIM_Y, i) != expected || view.get(DIM_X, i) != i) {
+                                    return false;
+                                }
+                            }
+                            return view.getDataCount() == nSamples;
+                        }));
+                    }
+                    for (final Future<Boolean> result : executor.invokeAll(workers)) {
+                        assertTrue(result.get(), "torn frame " + frame);
+                    }
+                }
+            }
+        } finally {
+            running.set(false);
+            writer.join(5000);
+            executor.shutdown();
+        }
+
+        // buffers added during contention are released once they are no longer pinned
+        dataSet.set(0, 0.0, 0.0, 0.0, 0.0);
+        assertEquals(2, dataSet.getBufferCount(), "surplus buffers released");
+
+        final DoubleBufferedDataSet.SnapshotView view = dataSet.pinSnapshot();
+        final long revision = view.getRevision();
+        dataSet.set(0, 1.0, 1.0, 0.0, 0.0);
+        dataSet.set(0, 2.0, 2.0, 0.0, 0.0);
+        assertEquals(0.0, view.get(DIM_Y, 0), "view is stable");
+        assertEquals(revision, view.getRevision(), "view revision is stable");
+        assertEquals(3, dataSet.getBufferCount(), "pinned buffer is kept");
+        view.close();
+        assertTrue(view.isClosed());
+        dataSet.set(0, 3.0, 3.0, 0.0, 0.0);
+        assertEquals(2, dataSet.getBufferCount(), "released buffer is trimmed");
+    }
+
+    @Test
+    public void testWriterIsNotBlockedByReader() throws InterruptedException {
+        final DoubleBufferedDataSet dataSet = new DoubleBufferedDataSet("test");
+        dataSet.add(0.0, 0.0);
+        final CountDownLatch readerHasLock = new CountDownLatch(1);
+        final CountDownLatch writerDone = new CountDownLatch(1);
+        final AtomicInteger readerCount = new AtomicInteger(-1);
+
+        final Thread reader = new Thread(() -> dataSet.lock().readLockGuard(() -> {
+            readerHasLock.countDown();
+            try {
+                writerDone.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            readerCount.set(dataSet.getDataCount());
+        }));
+        reader.start();
+        assertTrue(readerHasLock.await(5, TimeUnit.SECONDS), "reader acquired read lock");
+
+        for (int i = 1; i <= 100; i++) {
+            dataSet.add(i, i);
+        }
+        writerDone.countDown();
+        reader.join(5000);
+
+        assertEquals(1, readerCount.get(), "reader saw its pinned snapshot");
+        assertEquals(101, dataSet.getDataCount(), "writer completed while reader held the lock");
+        assertThrows(IllegalStateException.class, () -> dataSet.lock().readUnLock(), "unbalanced readUnLock");
+        assertThrows(IllegalStateException.class, () -> dataSet.lock().writeUnLock(), "unbalanced writeUnLock");
+    }
+}
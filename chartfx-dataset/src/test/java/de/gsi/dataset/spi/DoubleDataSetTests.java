@@ -1,7 +1,9 @@
 package de.gsi.dataset.spi;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import static de.gsi.dataset.DataSet.DIM_X;
@@ -121,6 +123,62 @@ public class DoubleDataSetTests extends EditableDataSetTests {
         }
     }
 
+    @Test
+    public void incrementalLimitsTests() {
+        final DoubleDataSet dataSet = new DoubleDataSet("test");
+        final DoubleDataSet reference = new DoubleDataSet("reference");
+        assertFalse(dataSet.isIncrementalLimits(), "disabled by default");
+        dataSet.add(new double[] { -1.0, 2.0 }, new double[] { 3.0, -4.0 });
+        assertTrue(dataSet.setIncrementalLimits(true).isIncrementalLimits(), "enabled");
+        reference.add(new double[] { -1.0, 2.0 }, new double[] { 3.0, -4.0 });
+        for (int i = 0; i < 500; i++) {
+            dataSet.add(i, Math.sin(0.1 * i));
+            reference.add(i, Math.sin(0.1 * i));
+        }
+        checkLimits(reference, dataSet, "add");
+        dataSet.remove(0, 10);
+        reference.remove(0, 10);
+        checkLimits(reference, dataSet, "remove");
+        dataSet.set(42, 1e3, -1e3);
+        reference.set(42, 1e3, -1e3);
+        checkLimits(reference, dataSet, "set(index, x, y)");
+        dataSet.add(5, new double[] { 7.0, 8.0 }, new double[] { 20.0, 30.0 });
+        reference.add(5, new double[] { 7.0, 8.0 }, new double[] { 20.0, 30.0 });
+        checkLimits(reference, dataSet, "add(index, double[], double[])");
+        dataSet.remove(42, 300);
+        reference.remove(42, 300);
+        checkLimits(reference, dataSet, "remove of extremum");
+        dataSet.set(new double[] { 1.0, 2.0 }, new double[] { 5.0, 6.0 });
+        reference.set(new double[] { 1.0, 2.0 }, new double[] { 5.0, 6.0 });
+        checkLimits(reference, dataSet, "set(double[], double[])");
+        dataSet.clearData();
+        reference.clearData();
+        dataSet.add(3.0, 4.0);
+        reference.add(3.0, 4.0);
+        checkLimits(reference, dataSet, "clearData()");
+        assertFalse(dataSet.setIncrementalLimits(false).isIncrementalLimits(), "disabled");
+    }
+
+    @Test
+    public void minMaxPyramidTests() {
+        final DoubleDataSet dataSet = new DoubleDataSet("test");
+        assertNull(dataSet.getMinMaxPyramid(), "disabled by default");
+        dataSet.setMinMaxPyramid(true);
+        for (int i = 0; i < 1000; i++) {
+            dataSet.add(i, Math.sin(0.01 * i));
+        }
+        assertEquals(157, dataSet.getMinMaxPyramid().getMaxIndex(0, 1000), "max index");
+        dataSet.set(500, 500.0, 2.0);
+        assertEquals(500, dataSet.getMinMaxPyramid().getMaxIndex(0, 1000), "max index after set");
+        dataSet.remove(400, 600);
+        dataSet.add(new double[] { 1000.0 }, new double[] { 3.0 });
+        assertEquals(800, dataSet.getMinMaxPyramid().getMaxIndex(0, 1000), "max index after remove and append");
+        dataSet.clearData();
+        dataSet.add(0.0, -1.0);
+        assertEquals(0, dataSet.getMinMaxPyramid().getMinIndex(0, 1), "min index after clear");
+        assertNull(dataSet.setMinMaxPyramid(false).getMinMaxPyramid(), "disabled");
+    }
+
     @Test
     public void trimTest() {
         DoubleDataSet dataSet = new DoubleDataSet("test");
@@ -189,4 +247,13 @@ public class DoubleDataSetTests extends EditableDataSetTests {
 
         assertEquals(dataSet1, dataSet3);
     }
+
+    private static void checkLimits(final DoubleDataSet reference, final DoubleDataSet dataSet, final String msg) {
+        for (int dim = 0; dim < 2; dim++) {
+            reference.recomputeLimits(dim);
+            dataSet.recomputeLimits(dim);
+            assertEquals(reference.getAxisDescription(dim).getMin(), dataSet.getAxisDescription(dim).getMin(), "min - dim = " + dim + ": " + msg);
+            assertEquals(reference.getAxisDescription(dim).getMax(), dataSet.getAxisDescription(dim).getMax(), "max - dim = " + dim + ": " + msg);
+        }
+    }
 }
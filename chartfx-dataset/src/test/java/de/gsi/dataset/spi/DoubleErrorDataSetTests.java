@@ -8,6 +8,7 @@ import static de.gsi.dataset.DataSet.DIM_X;
 import static de.gsi.dataset.DataSet.DIM_Y;
 
 import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.Test;
 
@@ -130,6 +131,23 @@ public class DoubleErrorDataSetTests extends EditableDataSetTests {
         }
     }
 
+    @Test
+    public void resizeTests() {
+        final DoubleErrorDataSet dataSet = new DoubleErrorDataSet("test", testCoordinate[0], testCoordinate[1], testEYN, testEYP, n, true);
+        final AtomicInteger notifyCounter = new AtomicInteger();
+        dataSet.addListener(evt -> notifyCounter.incrementAndGet());
+
+        dataSet.resize(5);
+        assertEquals(5, dataSet.getDataCount());
+        assertEquals(1, notifyCounter.get(), "notifying resize");
+
+        dataSet.resize(2, false);
+        assertEquals(2, dataSet.getDataCount());
+        assertEquals(1, notifyCounter.get(), "non-notifying resize");
+        assertEquals(testCoordinate[1][1], dataSet.get(DIM_Y, 1));
+        assertEquals(testEYN[1], dataSet.getErrorNegative(DIM_Y, 1));
+    }
+
     @Test
     public void trimTest() {
         final DoubleErrorDataSet dataSet = new DoubleErrorDataSet("test");
@@ -31,6 +31,8 @@ public class EditableDataSetTests {
 
         checkEditableDataSetInterface(new DoubleDataSet("default"));
         checkEditableDataSetInterface(new DoubleErrorDataSet("default"));
+        checkEditableDataSetInterface(new DoubleBufferedDataSet("default"));
+        checkEditableDataSetInterface(new OffHeapDoubleDataSet("default"));
         checkEditableDataSetInterface(new FloatDataSet("default"));
 
         checkEditableDataSetInterface(new DefaultDataSet("default"));
@@ -0,0 +1,118 @@
+package de.gsi.dataset.spi;
+
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.utils.MinMaxTree;
+
+/**
+ * Simple append+auto-range benchmark comparing the full-scan {@code recomputeLimits(dim)} with the incremental
+ * {@link MinMaxTree}-based limits tracking.
+ * <p>
+ * Each iteration modifies a few samples of a large data set and -- emulating {@code XYChart.updateAxisRange()} on
+ * every frame -- queries the x- and y-axis ranges which triggers {@code recomputeLimits(dim)} for the invalidated
+ * axis descriptions. Scenarios:
+ * <ul>
+ * <li>'circular': {@link CircularDoubleErrorDataSet} appending single samples that overwrite the oldest ones,</li>
+ * <li>'set last': {@link DoubleDataSet} replacing the last sample in-place (e.g. live-updated last bin).</li>
+ * </ul>
+ */
+public class IncrementalLimitsBenchmark { // NOPMD - nomen est omen
+    private static final Logger LOGGER = LoggerFactory.getLogger(IncrementalLimitsBenchmark.class);
+    private static final int[] N_SAMPLES = { 10_000, 100_000, 1_000_000 };
+    private static final int N_SAMPLES_PER_FRAME = 10;
+    private static final long TEST_DURATION_MS = 1000;
+
+    private static double autoRange(final DataSet dataSet) {
+        // N.B. getMin()/getMax() recompute the limits lazily if the axis description has been invalidated
+        return dataSet.getAxisDescription(DataSet.DIM_X).getMax() - dataSet.getAxisDescription(DataSet.DIM_X).getMin()
+                + dataSet.getAxisDescription(DataSet.DIM_Y).getMax() - dataSet.getAxisDescription(DataSet.DIM_Y).getMin();
+    }
+
+    private static void benchmarkCircular(final int nSamples, final boolean incremental) {
+        final CircularDoubleErrorDataSet dataSet = incremental ? new CircularDoubleErrorDataSet("incremental", nSamples)
+                                                               : new FullScanCircularDataSet(nSamples);
+        for (int i = 0; i < nSamples; i++) {
+            dataSet.add(i, Math.sin(0.001 * i), 0.1, 0.1);
+        }
+        autoRange(dataSet);
+
+        double checkSum = 0.0;
+        long nFrames = 0;
+        long index = nSamples;
+        final long start = System.nanoTime();
+        final long stop = start + TimeUnit.MILLISECONDS.toNanos(TEST_DURATION_MS);
+        while (System.nanoTime() < stop) {
+            for (int i = 0; i < N_SAMPLES_PER_FRAME; i++, index++) {
+                dataSet.add(index, Math.sin(0.001 * index), 0.1, 0.1);
+            }
+            checkSum += autoRange(dataSet);
+            nFrames++;
+        }
+        report("circular", nSamples, incremental, nFrames, System.nanoTime() - start, checkSum);
+    }
+
+    private static void benchmarkSetLast(final int nSamples, final boolean incremental) {
+        final DoubleDataSet dataSet = new DoubleDataSet("test", nSamples);
+        for (int i = 0; i < nSamples; i++) {
+            dataSet.add(i, Math.sin(0.001 * i));
+        }
+        dataSet.setIncrementalLimits(incremental);
+        autoRange(dataSet);
+
+        double checkSum = 0.0;
+        long nFrames = 0;
+        final long start = System.nanoTime();
+        final long stop = start + TimeUnit.MILLISECONDS.toNanos(TEST_DURATION_MS);
+        while (System.nanoTime() < stop) {
+            for (int i = 0; i < N_SAMPLES_PER_FRAME; i++) {
+                dataSet.set(nSamples - 1, nSamples - 1.0, Math.sin(0.001 * nFrames * i));
+            }
+            checkSum += autoRange(dataSet);
+            nFrames++;
+        }
+        report("set last", nSamples, incremental, nFrames, System.nanoTime() - start, checkSum);
+    }
+
+    private static void report(final String scenario, final int nSamples, final boolean incremental, final long nFrames,
+            final long elapsed, final double checkSum) {
+        LOGGER.atTrace().addArgument(checkSum).log("checksum = {}");
+        final double frameRate = nFrames / (elapsed * 1e-9);
+        LOGGER.atInfo().addArgument(String.format("%-8s", scenario)).addArgument(String.format("%9d", nSamples)) //
+                .addArgument(incremental ? "incremental" : "full scan  ") //
+                .addArgument(String.format("%12.1f", frameRate)) //
+                .addArgument(String.format("%10.2f", 1e6 / frameRate)) //
+                .log("{} - n = {} - {}: {} frames/s ({} us per append+auto-range)");
+    }
+
+    public static void main(final String[] args) {
+        for (int iteration = 0; iteration < 3; iteration++) {
+            LOGGER.atInfo().addArgument(iteration).addArgument(N_SAMPLES_PER_FRAME).log("iteration {} with {} modified samples per frame");
+            for (final int nSamples : N_SAMPLES) {
+                benchmarkCircular(nSamples, false);
+                benchmarkCircular(nSamples, true);
+                benchmarkSetLast(nSamples, false);
+                benchmarkSetLast(nSamples, true);
+            }
+        }
+    }
+
+    /**
+     * reference implementation using the previous full-scan limits computation
+     */
+    private static class FullScanCircularDataSet extends CircularDoubleErrorDataSet {
+        private static final long serialVersionUID = 1L;
+
+        public FullScanCircularDataSet(final int capacity) {
+            super("full scan", capacity);
+        }
+
+        @Override
+        protected MinMaxTree getLimitsTree(final int dimIndex) {
+            return null;
+        }
+    }
+}
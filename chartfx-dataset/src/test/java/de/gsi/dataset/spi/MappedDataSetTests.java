@@ -0,0 +1,98 @@
+package de.gsi.dataset.spi;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import static de.gsi.dataset.DataSet.DIM_X;
+import static de.gsi.dataset.DataSet.DIM_Y;
+import static de.gsi.dataset.DataSet.DIM_Z;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Checks for MappedDataSet file format, reading and writing.
+ */
+public class MappedDataSetTests {
+    private static final int N_SAMPLES = 10_000;
+
+    @Test
+    public void readWriteTests(@TempDir final Path tmpDir) throws IOException {
+        final DoubleDataSet reference = new DoubleDataSet("test \u00fcnicode");
+        for (int i = 0; i < N_SAMPLES; i++) {
+            reference.add(0.5 * i, Math.sin(0.01 * i));
+        }
+        reference.getAxisDescription(DIM_X).set("time", "s");
+        reference.getAxisDescription(DIM_Y).set("amplitude", "V");
+
+        final Path file = tmpDir.resolve("test.bin");
+        MappedDataSet.write(reference, file);
+        // header and first column are padded to the alignment
+        assertEquals(0, (Files.size(file) - N_SAMPLES * Double.BYTES) % MappedDataSet.ALIGNMENT, "column alignment");
+
+        final MappedDataSet dataSet = new MappedDataSet(file);
+        assertEquals(file, dataSet.getFile(), "getFile()");
+        assertEquals(reference.getName(), dataSet.getName(), "data set name");
+        assertEquals(2, dataSet.getDimension(), "dimension");
+        assertEquals(N_SAMPLES, dataSet.getDataCount(), "data count");
+        assertEquals("time", dataSet.getAxisDescription(DIM_X).getName(), "x-axis name");
+        assertEquals("V", dataSet.getAxisDescription(DIM_Y).getUnit(), "y-axis unit");
+        for (int dim = 0; dim < 2; dim++) {
+            final String msg = " - dim = " + dim;
+            assertEquals(reference.getAxisDescription(dim).getMin(), dataSet.getAxisDescription(dim).getMin(), "min" + msg);
+            assertEquals(reference.getAxisDescription(dim).getMax(), dataSet.getAxisDescription(dim).getMax(), "max" + msg);
+        }
+        dataSet.getAxisDescription(DIM_Y).clear();
+        dataSet.recomputeLimits(DIM_Y);
+        assertEquals(reference.getAxisDescription(DIM_Y).getMax(), dataSet.getAxisDescription(DIM_Y).getMax(),
+                "max from header");
+
+        for (int i = 0; i < N_SAMPLES; i += 97) {
+            assertEquals(reference.get(DIM_X, i), dataSet.get(DIM_X, i), "x - index = " + i);
+            assertEquals(reference.get(DIM_Y, i), dataSet.get(DIM_Y, i), "y - index = " + i);
+        }
+        assertArrayEquals(Arrays.copyOf(reference.getValues(DIM_Y), N_SAMPLES), dataSet.getValues(DIM_Y),
+                "getValues(dim)");
+        assertArrayEquals(Arrays.copyOfRange(reference.getValues(DIM_X), 100, 200),
+                dataSet.getValues(DIM_X, 100, 200, null), "getValues(dim, from, to, target)");
+        assertEquals(reference.getIndex(DIM_X, 1234.3), dataSet.getIndex(DIM_X, 1234.3), "getIndex(..)");
+        assertEquals(reference.getValue(DIM_Y, 1234.3), dataSet.getValue(DIM_Y, 1234.3), 1e-12, "getValue(..)");
+    }
+
+    @Test
+    public void multiDimAndEmptyTests(@TempDir final Path tmpDir) throws IOException {
+        final MultiDimDoubleDataSet reference = new MultiDimDoubleDataSet("3D", false, new double[] { 1, 2, 3 },
+                new double[] { 4, 5, 6 }, new double[] { 7, 8, 9 });
+        final Path file = tmpDir.resolve("test3d.bin");
+        MappedDataSet.write(reference, file);
+        final MappedDataSet dataSet = new MappedDataSet(file);
+        assertEquals(3, dataSet.getDimension(), "dimension");
+        assertArrayEquals(new double[] { 7, 8, 9 }, dataSet.getValues(DIM_Z), "z values");
+        assertEquals(9.0, dataSet.getAxisDescription(DIM_Z).getMax(), "z max");
+
+        final Path emptyFile = tmpDir.resolve("empty.bin");
+        MappedDataSet.write(new DoubleDataSet("empty"), emptyFile);
+        assertEquals(0, new MappedDataSet(emptyFile).getDataCount(), "empty data set");
+    }
+
+    @Test
+    public void corruptFileTests(@TempDir final Path tmpDir) throws IOException {
+        final Path file = tmpDir.resolve("corrupt.bin");
+        Files.write(file, new byte[4096]);
+        assertThrows(IOException.class, () -> new MappedDataSet(file), "wrong magic number");
+
+        final Path truncated = tmpDir.resolve("truncated.bin");
+        final double[] zeros = new double[N_SAMPLES];
+        MappedDataSet.write(new DoubleDataSet("test", zeros, zeros, N_SAMPLES, false), truncated);
+        final byte[] bytes = Files.readAllBytes(truncated);
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length / 2));
+        assertThrows(IOException.class, () -> new MappedDataSet(truncated), "truncated file");
+        assertThrows(IOException.class, () -> new MappedDataSet(tmpDir.resolve("missing.bin")), "missing file");
+    }
+}
@@ -0,0 +1,106 @@
+package de.gsi.dataset.spi;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static de.gsi.dataset.DataSet.DIM_X;
+import static de.gsi.dataset.DataSet.DIM_Y;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import de.gsi.dataset.utils.ChunkedDoubleBuffer;
+
+/**
+ * Checks for OffHeapDoubleDataSet interfaces and constructors.
+ */
+public class OffHeapDoubleDataSetTests {
+    private static final int CHUNK_SIZE_LOG2 = 4; // small chunks to test chunk boundaries
+    private static final int N_SAMPLES = 100;
+
+    @Test
+    public void defaultTests() {
+        EditableDataSetTests.checkEditableDataSetInterface(new OffHeapDoubleDataSet("test"));
+
+        final OffHeapDoubleDataSet dataSet = new OffHeapDoubleDataSet("test", 0, CHUNK_SIZE_LOG2);
+        final DoubleDataSet reference = new DoubleDataSet("test");
+        for (int i = 0; i < N_SAMPLES; i++) {
+            dataSet.add(i, Math.sin(0.1 * i));
+            reference.add(i, Math.sin(0.1 * i));
+        }
+        assertEquals(reference, dataSet, "add(x,y)");
+        assertTrue(dataSet.getCapacity() >= N_SAMPLES, "capacity");
+        assertEquals(reference, new OffHeapDoubleDataSet(reference), "OffHeapDoubleDataSet(DataSet) constructor");
+        assertEquals(reference, new OffHeapDoubleDataSet(dataSet), "OffHeapDoubleDataSet(OffHeapDoubleDataSet) constructor");
+
+        // insert across chunk boundaries
+        final double[] xInsert = new double[37];
+        final double[] yInsert = new double[37];
+        Arrays.fill(xInsert, -1.0);
+        Arrays.fill(yInsert, -2.0);
+        dataSet.add(5, xInsert, yInsert);
+        reference.add(5, xInsert, yInsert);
+        assertEquals(reference, dataSet, "add(index, double[], double[])");
+
+        dataSet.set(42, 42.0, 43.0);
+        reference.set(42, 42.0, 43.0);
+        assertEquals(reference, dataSet, "set(index, x, y)");
+
+        dataSet.remove(3, 70);
+        reference.remove(3, 70);
+        assertEquals(reference, dataSet, "remove(from, to)");
+
+        assertArrayEquals(Arrays.copyOf(reference.getValues(DIM_Y), reference.getDataCount()), dataSet.getValues(DIM_Y),
+                "getValues(dim)");
+        final double[] buffer = new double[80];
+        assertSame(buffer, dataSet.getValues(DIM_X, 10, 60, buffer), "getValues(dim, from, to, target) re-uses buffer");
+        assertArrayEquals(Arrays.copyOfRange(reference.getValues(DIM_X), 10, 60), Arrays.copyOf(buffer, 50),
+                "getValues(dim, from, to, target)");
+
+        assertEquals(reference.getIndex(DIM_X, 50.3), dataSet.getIndex(DIM_X, 50.3), "getIndex");
+        assertEquals(reference.getAxisDescription(DIM_Y).getMin(), dataSet.getAxisDescription(DIM_Y).getMin(), "y-min");
+        assertEquals(reference.getAxisDescription(DIM_Y).getMax(), dataSet.getAxisDescription(DIM_Y).getMax(), "y-max");
+
+        dataSet.set(new double[] { 1.0, 2.0, 3.0 }, new double[] { 4.0, 5.0, 6.0 });
+        assertEquals(3, dataSet.getDataCount(), "set(double[], double[])");
+        assertEquals(5.0, dataSet.get(DIM_Y, 1), "set(double[], double[])");
+        dataSet.trim();
+        assertEquals(1 << CHUNK_SIZE_LOG2, dataSet.getCapacity(), "trim()");
+
+        assertNotEquals(0, dataSet.getDataCount(), "pre-check clear method");
+        dataSet.clearData();
+        assertEquals(0, dataSet.getDataCount(), "check clear method");
+    }
+
+    @Test
+    public void heapViewAndLimitTests() {
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapDoubleDataSet("test", 0, 3), "chunk size too small");
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapDoubleDataSet("test", 0, ChunkedDoubleBuffer.MAX_CHUNK_SIZE_LOG2 + 1),
+                "chunk size overflows direct buffer");
+        assertThrows(IllegalArgumentException.class, () -> new ChunkedDoubleBuffer(16, CHUNK_SIZE_LOG2).ensureCapacity(Integer.MAX_VALUE + 1),
+                "int overflow of requested capacity");
+
+        final OffHeapDoubleDataSet dataSet = new OffHeapDoubleDataSet("test", 0, CHUNK_SIZE_LOG2);
+        for (int i = 0; i < N_SAMPLES; i++) {
+            dataSet.add(i, -i);
+        }
+        final double[] yValues = dataSet.getValues(DIM_Y);
+        assertEquals(N_SAMPLES, yValues.length);
+        assertSame(yValues, dataSet.getValues(DIM_Y), "heap view is cached while unmodified");
+        assertNotSame(yValues, dataSet.getValues(DIM_X), "separate views per dimension");
+
+        dataSet.set(3, 3.0, 42.0);
+        final double[] modified = dataSet.getValues(DIM_Y);
+        assertNotSame(yValues, modified, "heap view is refreshed after modification");
+        assertEquals(42.0, modified[3]);
+        dataSet.add(N_SAMPLES, -N_SAMPLES);
+        assertEquals(N_SAMPLES + 1, dataSet.getValues(DIM_Y).length);
+        assertEquals(-N_SAMPLES, dataSet.getValues(DIM_Y)[N_SAMPLES]);
+    }
+}
@@ -0,0 +1,128 @@
+package de.gsi.dataset.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the thread-local and striped ArrayPool
+ */
+public class ArrayPoolTests {
+    @Test
+    public void basicTests() {
+        assertThrows(IllegalArgumentException.class, () -> new ArrayPool<double[]>(null, a -> a.length));
+        assertThrows(IllegalArgumentException.class, () -> new ArrayPool<>(double[]::new, null));
+        assertThrows(IllegalArgumentException.class, () -> new ArrayPool<>(double[]::new, a -> a.length, 0));
+
+        final ArrayPool<double[]> pool = new ArrayPool<>(double[]::new, a -> a.length);
+        assertThrows(IllegalArgumentException.class, () -> pool.get(-1, true));
+        assertEquals(0, pool.get(0, true).length);
+        final double[] array = pool.get(100, true);
+        assertEquals(100, array.length);
+        assertEquals(2, pool.getMissCount());
+        assertEquals(0, pool.getHitCount());
+
+        assertFalse(pool.release(null));
+        assertTrue(pool.release(array));
+        assertFalse(pool.release(array), "duplicate release");
+        assertTrue(pool.contains(array));
+        assertEquals(1, pool.size());
+        assertSame(array, pool.get(100, true), "thread-local re-use");
+        assertEquals(1, pool.getHitCount());
+        assertFalse(pool.contains(array));
+
+        // size classes: exact vs. best fit
+        final double[] array65 = new double[65];
+        final double[] array80 = new double[80];
+        final double[] array130 = new double[130];
+        pool.release(array65);
+        pool.release(array130);
+        pool.release(array80);
+        assertEquals(3, pool.size());
+        assertNotSame(array65, pool.get(66, true), "no exact match");
+        assertSame(array80, pool.get(70, false), "best fit within size class");
+        assertSame(array130, pool.get(70, false), "best fit within next size class");
+        assertSame(array65, pool.get(65, false));
+        assertEquals(0, pool.size());
+
+        pool.release(array65);
+        pool.release(array80);
+        assertEquals(2, pool.getPooledArrays().size());
+        assertTrue(pool.remove(array65));
+        assertFalse(pool.remove(array65));
+        assertFalse(pool.remove(null));
+        pool.clear();
+        assertEquals(0, pool.size());
+
+        pool.resetMetrics();
+        assertEquals(0, pool.getHitCount());
+        assertEquals(0, pool.getMissCount());
+        assertEquals(0, pool.getEvictionCount());
+    }
+
+    @Test
+    public void evictionTests() {
+        final ArrayPool<int[]> pool = new ArrayPool<>(int[]::new, a -> a.length, 2);
+        for (int i = 0; i < 5; i++) {
+            pool.release(new int[10]);
+        }
+        // 1 x thread-local + 2 x stripe bucket capacity
+        assertEquals(3, pool.size());
+        assertEquals(2, pool.getEvictionCount());
+    }
+
+    @Test
+    public void concurrencyTests() throws InterruptedException, ExecutionException {
+        final ArrayPool<double[]> pool = new ArrayPool<>(double[]::new, a -> a.length);
+        final ExecutorService executorService = Executors.newFixedThreadPool(8);
+        final List<Future<Boolean>> jobs = new ArrayList<>();
+        for (int thread = 0; thread < 8; thread++) {
+            final int offset = thread;
+            jobs.add(executorService.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    final int size = 100 + ((i + offset) % 5);
+                    final double[] array = pool.get(size, true);
+                    if (array.length != size) {
+                        return false;
+                    }
+                    pool.release(array);
+                }
+                return true;
+            }));
+        }
+        for (final Future<Boolean> job : jobs) {
+            assertTrue(job.get(), "exact array size");
+        }
+        executorService.shutdown();
+        assertEquals(80_000, pool.getHitCount() + pool.getMissCount());
+        assertTrue(pool.getHitCount() > pool.getMissCount(), "hit rate");
+    }
+
+    @Test
+    public void arrayCacheMetricTests() {
+        ArrayCache.resetMetrics();
+        final double[] array = ArrayCache.getCachedDoubleArray("ArrayPoolTests", 42);
+        ArrayCache.release("ArrayPoolTests", array);
+        assertSame(array, ArrayCache.getCachedDoubleArray("ArrayPoolTests", 42));
+        assertTrue(ArrayCache.getHitCount() >= 1);
+        assertTrue(ArrayCache.getMissCount() >= 1);
+        assertTrue(ArrayCache.getEvictionCount() >= 0);
+
+        final DoubleArrayCache cache = new DoubleArrayCache();
+        cache.add(array);
+        assertSame(array, cache.getArray(40));
+        assertEquals(1, cache.getPool().getHitCount());
+    }
+}
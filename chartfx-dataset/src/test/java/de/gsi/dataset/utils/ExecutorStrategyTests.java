@@ -0,0 +1,87 @@
+package de.gsi.dataset.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import de.gsi.dataset.event.EventThreadHelper;
+
+/**
+ * Tests the ExecutorStrategy and its use by the shared chart-fx thread pools
+ */
+public class ExecutorStrategyTests {
+    @Test
+    public void globalStrategyTests() {
+        final ExecutorStrategy initial = ExecutorStrategy.getGlobal();
+        assertThrows(IllegalArgumentException.class, () -> ExecutorStrategy.setGlobal(null));
+        try {
+            for (final ExecutorStrategy strategy : ExecutorStrategy.values()) {
+                ExecutorStrategy.setGlobal(strategy);
+                assertEquals(strategy, ExecutorStrategy.getGlobal());
+                final ExecutorService commonPool = CachedDaemonThreadFactory.getCommonPool();
+                assertSame(commonPool, CachedDaemonThreadFactory.getCommonPool(), strategy + " - shared common pool");
+                assertSame(commonPool, strategy.getSharedExecutorService("chartfx_common_pool", 1), strategy + " - pool name");
+                assertNotSame(commonPool, EventThreadHelper.getExecutorService(), strategy + " - separate event pool");
+                assertEquals(42, (int) commonPool.submit(() -> 42).get(), strategy + " - task execution");
+                assertEquals(43, (int) EventThreadHelper.getExecutorService().submit(() -> 43).get(), strategy + " - task execution");
+            }
+            ExecutorStrategy.setGlobal(ExecutorStrategy.PLATFORM);
+            assertNotSame(ExecutorStrategy.FORK_JOIN.getSharedExecutorService("chartfx_common_pool", 1), CachedDaemonThreadFactory.getCommonPool(), "strategy switch");
+        } catch (Exception e) { // NOPMD - forwarded as test failure
+            throw new IllegalStateException(e);
+        } finally {
+            ExecutorStrategy.setGlobal(initial);
+        }
+    }
+
+    @Test
+    public void poolShutdownTests() throws Exception {
+        final ExecutorStrategy initial = ExecutorStrategy.getGlobal();
+        try {
+            ExecutorStrategy.setGlobal(ExecutorStrategy.PLATFORM);
+            final ExecutorService platformPool = CachedDaemonThreadFactory.getCommonPool();
+            final ExecutorService platformEventPool = EventThreadHelper.getExecutorService();
+            assertEquals(42, (int) platformPool.submit(() -> 42).get());
+
+            ExecutorStrategy.setGlobal(ExecutorStrategy.FORK_JOIN);
+            assertTrue(platformPool.awaitTermination(1, TimeUnit.SECONDS), "pools of the replaced strategy are shut down");
+            assertTrue(platformEventPool.awaitTermination(1, TimeUnit.SECONDS), "pools of the replaced strategy are shut down");
+            ExecutorStrategy.setGlobal(ExecutorStrategy.FORK_JOIN);
+            assertFalse(CachedDaemonThreadFactory.getCommonPool().isShutdown(), "re-setting the same strategy keeps the pools");
+
+            ExecutorStrategy.setGlobal(ExecutorStrategy.PLATFORM);
+            final ExecutorService newPlatformPool = CachedDaemonThreadFactory.getCommonPool();
+            assertNotSame(platformPool, newPlatformPool, "pools are re-created on demand");
+            assertEquals(43, (int) newPlatformPool.submit(() -> 43).get());
+        } finally {
+            ExecutorStrategy.setGlobal(initial);
+        }
+    }
+
+    @Test
+    public void newExecutorServiceTests() throws InterruptedException {
+        assertTrue(ExecutorStrategy.PLATFORM.isAvailable());
+        assertTrue(ExecutorStrategy.FORK_JOIN.isAvailable());
+        assertThrows(IllegalArgumentException.class, () -> ExecutorStrategy.PLATFORM.newExecutorService("test", 0));
+
+        final ExecutorService forkJoin = ExecutorStrategy.FORK_JOIN.newExecutorService("test", Integer.MAX_VALUE);
+        assertTrue(forkJoin instanceof ForkJoinPool);
+        assertTrue(((ForkJoinPool) forkJoin).getParallelism() <= Runtime.getRuntime().availableProcessors(), "no oversubscription");
+        forkJoin.shutdown();
+
+        for (final ExecutorStrategy strategy : ExecutorStrategy.values()) {
+            final ExecutorService executorService = strategy.newExecutorService("test", 2);
+            executorService.shutdown();
+            assertTrue(executorService.awaitTermination(1, TimeUnit.SECONDS), strategy + " - shutdown");
+        }
+    }
+}
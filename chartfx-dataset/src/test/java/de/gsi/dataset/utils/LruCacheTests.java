@@ -0,0 +1,105 @@
+package de.gsi.dataset.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the thread-safe least-recently-used cache
+ */
+public class LruCacheTests {
+    @Test
+    public void basicTests() {
+        assertThrows(IllegalArgumentException.class, () -> new LruCache<Integer, String>(0));
+
+        final LruCache<Integer, String> cache = new LruCache<>(3);
+        assertEquals(3, cache.getCapacity());
+        assertEquals(0.0, cache.getHitRate());
+        assertNull(cache.get(1));
+        assertEquals(1, cache.getMissCount());
+
+        final AtomicInteger computeCount = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            assertEquals("value" + i, cache.computeIfAbsent(i, key -> {
+                computeCount.incrementAndGet();
+                return "value" + key;
+            }));
+        }
+        assertEquals(3, computeCount.get());
+        assertEquals(3, cache.size());
+        final String value0 = cache.get(0); // 0 is now the most recently used entry
+        assertSame(value0, cache.computeIfAbsent(0, key -> "other"));
+        assertEquals(2, cache.getHitCount());
+        assertEquals(4, cache.getMissCount());
+        assertEquals(2.0 / 6.0, cache.getHitRate(), 1e-12);
+
+        // least recently used entry (1) is evicted
+        cache.put(3, "value3");
+        assertEquals(3, cache.size());
+        assertFalse(cache.containsKey(1));
+        assertTrue(cache.containsKey(0));
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(3, cache.entrySet().size());
+        assertThrows(UnsupportedOperationException.class, () -> cache.entrySet().clear());
+
+        cache.setCapacity(1);
+        assertEquals(1, cache.size());
+        assertTrue(cache.containsKey(3));
+        assertEquals(3, cache.getEvictionCount());
+        assertTrue(cache.toString().contains("capacity=1"));
+
+        assertEquals("value3", cache.remove(3));
+        assertNull(cache.computeIfAbsent(5, key -> null));
+        assertEquals(0, cache.size());
+        cache.put(6, "value6");
+        cache.clear();
+        assertEquals(0, cache.size());
+
+        cache.resetMetrics();
+        assertEquals(0, cache.getHitCount());
+        assertEquals(0, cache.getMissCount());
+        assertEquals(0, cache.getEvictionCount());
+    }
+
+    @Test
+    public void concurrencyTests() throws InterruptedException, ExecutionException {
+        final LruCache<Integer, int[]> cache = new LruCache<>(8);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<Boolean>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                final int seed = thread;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        final int key = (seed + i) % 12;
+                        final int[] value = cache.computeIfAbsent(key, k -> new int[] { k });
+                        if (value[0] != key) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (final Future<Boolean> future : futures) {
+                assertTrue(future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(cache.size() <= 8);
+        assertEquals(40_000, cache.getHitCount() + cache.getMissCount());
+    }
+}
@@ -0,0 +1,119 @@
+package de.gsi.dataset.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests MinMaxPyramid against brute-force min/max index search
+ */
+public class MinMaxPyramidTests {
+    private static final int N_SAMPLES = 2000;
+    private final double[] values = new double[N_SAMPLES];
+    private int size;
+
+    @Test
+    public void constructorTests() {
+        assertThrows(IllegalArgumentException.class, () -> new MinMaxPyramid(null, () -> 0), "null value function");
+        assertThrows(IllegalArgumentException.class, () -> new MinMaxPyramid(i -> 0.0, null), "null size function");
+        assertThrows(IllegalArgumentException.class, () -> new MinMaxPyramid(i -> 0.0, () -> 0, 0), "base level");
+
+        final MinMaxPyramid pyramid = new MinMaxPyramid(i -> 0.0, () -> 0);
+        assertEquals(0, pyramid.getNumberOfLevels(), "empty pyramid");
+        assertEquals(-1, pyramid.getMinIndex(0, 10), "empty pyramid min");
+        assertEquals(-1, pyramid.getMaxIndex(0, 10), "empty pyramid max");
+        assertThrows(IllegalArgumentException.class, () -> pyramid.reduce(new int[2], 2, 10, new int[5]), "result length");
+    }
+
+    @Test
+    public void incrementalTests() {
+        final Random rnd = new Random(42);
+        final MinMaxPyramid pyramid = new MinMaxPyramid(i -> values[i], () -> size, 2);
+        size = 0;
+        for (int iteration = 0; iteration < 300; iteration++) {
+            final int action = rnd.nextInt(3);
+            if (action == 0) { // append
+                final int newSize = Math.min(N_SAMPLES, size + rnd.nextInt(50));
+                for (int i = size; i < newSize; i++) {
+                    values[i] = rnd.nextInt(10) == 0 ? Double.NaN : rnd.nextGaussian();
+                }
+                size = newSize;
+            } else if (action == 1 && size > 0) { // modify existing samples
+                final int from = rnd.nextInt(size);
+                for (int i = from; i < Math.min(size, from + 10); i++) {
+                    values[i] = 5.0 * rnd.nextGaussian();
+                }
+                pyramid.invalidate(from);
+            } else if (size > 0) { // remove tail
+                size = rnd.nextInt(size);
+                pyramid.invalidate(size);
+            }
+
+            for (int check = 0; check < 10; check++) {
+                final int from = rnd.nextInt(size + 1);
+                final int to = from + rnd.nextInt(size - from + 1);
+                final String msg = " - iteration = " + iteration + " range = [" + from + ", " + to + ")";
+                assertEquals(bruteForceIndex(from, to, true), pyramid.getMinIndex(from, to), "min" + msg);
+                assertEquals(bruteForceIndex(from, to, false), pyramid.getMaxIndex(from, to), "max" + msg);
+            }
+        }
+        assertTrue(pyramid.getNumberOfLevels() > 1, "number of levels");
+    }
+
+    @Test
+    public void reduceTests() {
+        size = N_SAMPLES;
+        for (int i = 0; i < size; i++) {
+            values[i] = Math.sin(0.05 * i) + (i == 1234 ? 10.0 : 0.0);
+        }
+        final MinMaxPyramid pyramid = new MinMaxPyramid(i -> values[i], () -> size);
+        final int nBins = 10;
+        final int from = 100;
+        final int to = 1900;
+        final int[] binStart = new int[nBins];
+        for (int bin = 0; bin < nBins; bin++) {
+            binStart[bin] = from + bin * (to - from) / nBins;
+        }
+        final int[] result = new int[2 * nBins + 2];
+        final int count = pyramid.reduce(binStart, nBins, to, result);
+        assertTrue(count <= 2 * nBins + 2, "at most two points per bin + boundaries");
+        assertEquals(from, result[0], "first sample");
+        assertEquals(to - 1, result[count - 1], "last sample");
+        boolean foundSpike = false;
+        for (int i = 1; i < count; i++) {
+            assertTrue(result[i] > result[i - 1], "ascending indices");
+            foundSpike |= result[i] == 1234;
+        }
+        assertTrue(foundSpike, "spike is preserved");
+
+        for (int bin = 0; bin < nBins; bin++) {
+            final int binTo = bin + 1 < nBins ? binStart[bin + 1] : to;
+            final int min = bruteForceIndex(binStart[bin], binTo, true);
+            final int max = bruteForceIndex(binStart[bin], binTo, false);
+            boolean foundMin = false;
+            boolean foundMax = false;
+            for (int i = 0; i < count; i++) {
+                foundMin |= result[i] == min;
+                foundMax |= result[i] == max;
+            }
+            assertTrue(foundMin && foundMax, "min/max of bin " + bin);
+        }
+    }
+
+    private int bruteForceIndex(final int from, final int to, final boolean isMin) {
+        int retVal = -1;
+        for (int i = from; i < to; i++) {
+            if (!Double.isFinite(values[i])) {
+                continue;
+            }
+            if (retVal < 0 || (isMin ? values[i] < values[retVal] : values[i] > values[retVal])) {
+                retVal = i;
+            }
+        }
+        return retVal;
+    }
+}
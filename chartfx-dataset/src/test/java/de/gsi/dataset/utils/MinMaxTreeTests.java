@@ -0,0 +1,101 @@
+package de.gsi.dataset.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests MinMaxTree against brute-force min/max computation
+ */
+public class MinMaxTreeTests {
+    private static final int N_SAMPLES = 1000;
+
+    @Test
+    public void constructorTests() {
+        assertThrows(IllegalArgumentException.class, () -> new MinMaxTree(null), "null function");
+        assertThrows(IllegalArgumentException.class, () -> new MinMaxTree(i -> 0.0, i -> 0.0, -1), "negative block size");
+        assertThrows(IllegalArgumentException.class, () -> new MinMaxTree(i -> 0.0).setSize(-1), "negative size");
+
+        final MinMaxTree tree = new MinMaxTree(i -> 0.0);
+        assertEquals(0, tree.size(), "initial size");
+        assertEquals(Double.MAX_VALUE, tree.getMin(), "empty tree min");
+        assertEquals(-Double.MAX_VALUE, tree.getMax(), "empty tree max");
+    }
+
+    @Test
+    public void randomModificationTests() {
+        final Random rnd = new Random(42);
+        final double[] values = new double[N_SAMPLES];
+        final MinMaxTree tree = new MinMaxTree(i -> values[i] - 1.0, i -> values[i] + 2.0, 2);
+
+        int size = 0;
+        for (int iteration = 0; iteration < 500; iteration++) {
+            final int action = rnd.nextInt(4);
+            if (action == 0 && size < N_SAMPLES) { // append
+                values[size++] = rnd.nextGaussian();
+                tree.setSize(size);
+            } else if (action == 1 && size > 0) { // overwrite
+                final int from = rnd.nextInt(size);
+                final int to = from + rnd.nextInt(size - from) + 1;
+                for (int i = from; i < to; i++) {
+                    values[i] = rnd.nextGaussian();
+                }
+                tree.invalidate(from, to);
+            } else if (action == 2 && size > 0) { // shrink
+                size = rnd.nextInt(size);
+                tree.setSize(size);
+            } else { // grow with bulk data
+                final int newSize = Math.min(N_SAMPLES, size + rnd.nextInt(100));
+                for (int i = size; i < newSize; i++) {
+                    values[i] = 10.0 * rnd.nextGaussian();
+                }
+                size = newSize;
+                tree.setSize(size);
+            }
+            assertEquals(size, tree.size(), "size");
+            assertEquals(min(values, 0, size) - 1.0, tree.getMin(), "min - iteration = " + iteration);
+            assertEquals(max(values, 0, size) + 2.0, tree.getMax(), "max - iteration = " + iteration);
+
+            final int from = rnd.nextInt(size + 1);
+            final int to = from + rnd.nextInt(size - from + 1);
+            assertEquals(min(values, from, to) - 1.0, tree.getMin(from, to), "min(" + from + ", " + to + ")");
+            assertEquals(max(values, from, to) + 2.0, tree.getMax(from, to), "max(" + from + ", " + to + ")");
+        }
+    }
+
+    @Test
+    public void nonFiniteValueTests() {
+        final double[] values = { 1.0, Double.NaN, Double.NEGATIVE_INFINITY, 3.0, Double.POSITIVE_INFINITY, -2.0 };
+        final MinMaxTree tree = new MinMaxTree(i -> values[i]);
+        tree.setSize(values.length);
+        assertEquals(-2.0, tree.getMin(), "min ignoring non-finite values");
+        assertEquals(3.0, tree.getMax(), "max ignoring non-finite values");
+        assertEquals(3.0, tree.getMax(1, 5), "range max ignoring non-finite values");
+        assertEquals(Double.MAX_VALUE, tree.getMin(1, 3), "range min of only non-finite values");
+
+        values[3] = Double.NaN;
+        tree.invalidate(3, 4);
+        assertEquals(1.0, tree.getMax(), "max after invalidate");
+        tree.invalidateAll();
+        assertEquals(-2.0, tree.getMin(), "min after invalidateAll");
+    }
+
+    private static double max(final double[] values, final int from, final int to) {
+        double retVal = -Double.MAX_VALUE;
+        for (int i = from; i < to; i++) {
+            retVal = Math.max(retVal, values[i]);
+        }
+        return retVal;
+    }
+
+    private static double min(final double[] values, final int from, final int to) {
+        double retVal = Double.MAX_VALUE;
+        for (int i = from; i < to; i++) {
+            retVal = Math.min(retVal, values[i]);
+        }
+        return retVal;
+    }
+}
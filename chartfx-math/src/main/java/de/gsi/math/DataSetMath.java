@@ -17,14 +17,26 @@ import de.gsi.dataset.DataSet;
 import de.gsi.dataset.DataSet2D;
 import de.gsi.dataset.DataSetError;
 import de.gsi.dataset.EditableDataSet;
+import de.gsi.dataset.event.UpdatedDataEvent;
 import de.gsi.dataset.spi.DoubleDataSet;
 import de.gsi.dataset.spi.DoubleErrorDataSet;
 import de.gsi.dataset.spi.utils.DoublePointError;
+import de.gsi.dataset.utils.ArrayCache;
+import de.gsi.dataset.utils.AssertUtils;
+import de.gsi.math.filter.SlidingWindowFilter;
+import de.gsi.math.filter.iir.Butterworth;
+import de.gsi.math.filter.iir.Cascade;
 import de.gsi.math.spectra.Apodization;
 import de.gsi.math.spectra.SpectrumTools;
+import de.gsi.math.spectra.fft.FFTPlanCache;
 
 /**
  * Some math operation on DataSet and DataSetError
+ * <p>
+ * Most operations are also available as variants that write into a caller-supplied {@link DoubleErrorDataSet} (or
+ * {@link MathDataSet}) output. These re-use the output's existing capacity and allocate no new data arrays in the steady
+ * state, which is preferable for derived traces that are recomputed with a high update rate. The output may also be
+ * the input data set itself (in-place operation).
  *
  * @author rstein
  */
@@ -36,6 +48,13 @@ public final class DataSetMath { // NOPMD - nomen est omen
     private static final char MULTIPLICATION_SYMBOL = 0x00B7;
     private static final String DIFFERENTIAL = DIFFERENTIAL_SYMBOL + "/" + DIFFERENTIAL_SYMBOL + "x";
     private static final TRandom random = new TRandom(System.currentTimeMillis());
+    private static final String OUTPUT = "output";
+    private static final String CACHED_ARRAY_FILTER_WINDOW = "DataSetMath::filterFunction:window";
+    private static final String CACHED_ARRAY_FILTER_INPUT = "DataSetMath::filterFunction:input";
+    private static final String CACHED_ARRAY_FILTER_SUB_ARRAY = "DataSetMath::filterFunction:subArray";
+    private static final String CACHED_ARRAY_SPECTRUM = "DataSetMath::magnitudeSpectrum:fftSpectra";
+    private static final String CACHED_ARRAY_ALIGNED = "DataSetMath::mathFunction:aligned";
+    private static final String CACHED_ARRAY_ZERO_ERRORS = "DataSetMath::zeroErrors";
 
     /**
      *
@@ -187,6 +206,27 @@ public final class DataSetMath { // NOPMD - nomen est omen
         return retFunction;
     }
 
+    private static int append(final DoubleErrorDataSet output, final int index, final double x, final double y, final double yen, final double yep) {
+        if (index >= output.getDataCount()) {
+            // N.B. the backing arrays grow geometrically
+            output.resize(index + 1, false);
+        }
+        output.getXValues()[index] = x;
+        output.getYValues()[index] = y;
+        output.getErrorsNegative(DIM_Y)[index] = yen;
+        output.getErrorsPositive(DIM_Y)[index] = yep;
+        return index + 1;
+    }
+
+    private static double[] cachedCopy(final double[] in, final int length) {
+        if (in == null) {
+            return null;
+        }
+        final double[] copy = ArrayCache.getCachedDoubleArray(CACHED_ARRAY_FILTER_INPUT, length);
+        System.arraycopy(in, 0, copy, 0, length);
+        return copy;
+    }
+
     private static double[] cropToLength(final double[] in, final int length) {
         // small helper routine to crop data array in case it's to long
         if (in.length == length) {
@@ -212,72 +252,103 @@ public final class DataSetMath { // NOPMD - nomen est omen
     }
 
     public static DataSet derivativeFunction(final DataSet function, final double sign) {
+        return derivativeFunction(function, sign, new DoubleErrorDataSet(function.getName(), function.getDataCount()), true);
+    }
+
+    /**
+     * @param function input function
+     * @param sign sign/scaling factor of the derivative
+     * @param output the re-used output data set (may be identical to {@code function})
+     * @param <D> generic output data set type
+     * @return output (fluent design, N.B. the name of the output data set is retained)
+     */
+    public static <D extends DoubleErrorDataSet> D derivativeFunction(final DataSet function, final double sign, final D output) {
+        return derivativeFunction(function, sign, output, false);
+    }
+
+    private static <D extends DoubleErrorDataSet> D derivativeFunction(final DataSet function, final double sign, final D output, final boolean nameOutput) {
+        AssertUtils.notNull(OUTPUT, output);
         final String signAdd = sign == 1.0 ? "" : Double.toString(sign) + MULTIPLICATION_SYMBOL;
+        final String functionName = nameOutput ? signAdd + DIFFERENTIAL + "(" + function.getName() + ")" : null;
         final int ncount = function.getDataCount();
-        final DoubleErrorDataSet retFunction = new DoubleErrorDataSet(
-                signAdd + DIFFERENTIAL + "(" + function.getName() + ")", ncount);
 
-        if (ncount <= 3) {
-            return retFunction;
-        }
-        // TODO: check error estimate for derivative ...
-
-        // // derivative for first point
-        // final double y0 = function.get(DIM_Y, 0);
-        // final double y1 = function.get(DIM_Y, 0);
-        // final double yen0 = error(function, EYN, 0);
-        // final double yep0 = error(function, EYP, 0);
-        // final double yen1 = error(function, EYN, 1);
-        // final double yep1 = error(function, EYP, 1);
-        // final double deltaY0 = y1 - y0;
-        // final double deltaYEN = Math.sqrt(Math.pow(yen0, 2) + Math.pow(yen1,
-        // 2));
-        // final double deltaYEP = Math.sqrt(Math.pow(yep0, 2) + Math.pow(yep1,
-        // 2));
-        // final double deltaX0 = function.get(DIM_X, 1) - function.get(DIM_X, 0);
-        // retFunction.add(function.get(DIM_X, 0), sign * (deltaY0 / deltaX0),
-        // deltaYEN, deltaYEP);
-        for (int i = 0; i < 2; i++) {
-            final double x0 = function.get(DIM_X, i);
-            retFunction.add(x0, 0, 0, 0);
-        }
-        for (int i = 2; i < ncount - 2; i++) {
-            final double x0 = function.get(DIM_X, i);
-            final double stepL = x0 - function.get(DIM_X, i - 1);
-            final double stepR = function.get(DIM_X, i + 1) - x0;
-            final double valL = function.get(DIM_Y, i - 1);
-            final double valC = function.get(DIM_Y, i);
-            final double valR = function.get(DIM_Y, i + 1);
-
-            final double yenL = error(function, EYN, i - 1);
-            final double yenC = error(function, EYN, i);
-            final double yenR = error(function, EYN, i + 1);
-            final double yen = Math.sqrt(TMathConstants.Sqr(yenL) + TMathConstants.Sqr(yenC) + TMathConstants.Sqr(yenR))
-                               / 4;
-
-            final double yepL = error(function, EYP, i - 1);
-            final double yepC = error(function, EYP, i);
-            final double yepR = error(function, EYP, i + 1);
-            final double yep = Math.sqrt(TMathConstants.Sqr(yepL) + TMathConstants.Sqr(yepC) + TMathConstants.Sqr(yepR))
-                               / 4;
-
-            // simple derivative computation
-            final double derivative = 0.5 * ((valC - valL) / stepL + (valR - valC) / stepR);
-
-            retFunction.add(x0, sign * derivative, yen, yep);
-        }
-        for (int i = ncount - 2; i < ncount; i++) {
-            final double x0 = function.get(DIM_X, i);
-            retFunction.add(x0, 0, 0, 0);
-        }
-        // // derivative for last point
-        // final int last = ncount - 1;
-        // final double deltaYN = function.get(DIM_Y, last) - function.get(DIM_Y, last - 1);
-        // final double deltaXN = function.get(DIM_X, last) - function.get(DIM_X, last - 1);
-        // retFunction.add(function.get(DIM_X, last), sign * (deltaYN / deltaXN), 0,
-        // 0);
+        output.lock().writeLockGuard(() -> {
+            if (ncount <= 3) {
+                resizeOutput(output, functionName, 0);
+                return;
+            }
+            resizeOutput(output, functionName, ncount);
+            final double[] x = output.getXValues();
+            final double[] y = output.getYValues();
+            final double[] eyn = output.getErrorsNegative(DIM_Y);
+            final double[] eyp = output.getErrorsPositive(DIM_Y);
+            // TODO: check error estimate for derivative ...
+
+            // N.B. left/centre/right samples are kept in local variables -> safe for in-place operation
+            double xL = function.get(DIM_X, 1);
+            double valL = function.get(DIM_Y, 1);
+            double yenL = error(function, EYN, 1);
+            double yepL = error(function, EYP, 1);
+            double xC = function.get(DIM_X, 2);
+            double valC = function.get(DIM_Y, 2);
+            double yenC = error(function, EYN, 2);
+            double yepC = error(function, EYP, 2);
+            for (int i = 2; i < ncount - 2; i++) {
+                final double xR = function.get(DIM_X, i + 1);
+                final double valR = function.get(DIM_Y, i + 1);
+                final double yenR = error(function, EYN, i + 1);
+                final double yepR = error(function, EYP, i + 1);
+                final double stepL = xC - xL;
+                final double stepR = xR - xC;
+
+                final double yen = Math.sqrt(TMathConstants.Sqr(yenL) + TMathConstants.Sqr(yenC) + TMathConstants.Sqr(yenR))
+                                   / 4;
+                final double yep = Math.sqrt(TMathConstants.Sqr(yepL) + TMathConstants.Sqr(yepC) + TMathConstants.Sqr(yepR))
+                                   / 4;
+
+                // simple derivative computation
+                final double derivative = 0.5 * ((valC - valL) / stepL + (valR - valC) / stepR);
+
+                x[i] = xC;
+                y[i] = sign * derivative;
+                eyn[i] = yen;
+                eyp[i] = yep;
+
+                xL = xC;
+                valL = valC;
+                yenL = yenC;
+                yepL = yepC;
+                xC = xR;
+                valC = valR;
+                yenC = yenR;
+                yepC = yepR;
+            }
+            for (int i = 0; i < 2; i++) {
+                x[i] = function.get(DIM_X, i);
+                y[i] = 0.0;
+                eyn[i] = 0.0;
+                eyp[i] = 0.0;
+            }
+            for (int i = ncount - 2; i < ncount; i++) {
+                x[i] = function.get(DIM_X, i);
+                y[i] = 0.0;
+                eyn[i] = 0.0;
+                eyp[i] = 0.0;
+            }
+            // // derivative for first point
+            // final double deltaY0 = function.get(DIM_Y, 1) - function.get(DIM_Y, 0);
+            // final double deltaX0 = function.get(DIM_X, 1) - function.get(DIM_X, 0);
+            // retFunction.add(function.get(DIM_X, 0), sign * (deltaY0 / deltaX0), deltaYEN, deltaYEP);
+            // // derivative for last point
+            // final int last = ncount - 1;
+            // final double deltaYN = function.get(DIM_Y, last) - function.get(DIM_Y, last - 1);
+            // final double deltaXN = function.get(DIM_X, last) - function.get(DIM_X, last - 1);
+            // retFunction.add(function.get(DIM_X, last), sign * (deltaYN / deltaXN), 0,
+            // 0);
+            output.getAxisDescriptions().forEach(AxisDescription::clear);
+        });
 
-        return retFunction;
+        return notifyOutput(output);
     }
 
     public static DataSet divideFunction(final DataSet function1, final DataSet function2) {
@@ -347,6 +418,36 @@ public final class DataSetMath { // NOPMD - nomen est omen
         return 0;
     }
 
+    // error array without cropping (N.B. may be longer than the data count), or null if the data set has no errors
+    private static double[] errorValues(final DataSet dataSet, final ErrType eType) {
+        if (!(dataSet instanceof DataSetError)) {
+            return null;
+        }
+        final DataSetError ds = (DataSetError) dataSet;
+        switch (eType) {
+        case EXN:
+            return ds.getErrorsNegative(DIM_X);
+        case EXP:
+            return ds.getErrorsPositive(DIM_X);
+        case EYN:
+            return ds.getErrorsNegative(DIM_Y);
+        case EYP:
+        default:
+            return ds.getErrorsPositive(DIM_Y);
+        }
+    }
+
+    // error array without cropping, or a cached zero array (to be returned via releaseZeroErrors) if the data set has no errors
+    private static double[] errorValuesOrZero(final DataSet dataSet, final ErrType eType, final int length) {
+        final double[] errors = errorValues(dataSet, eType);
+        if (errors != null) {
+            return errors;
+        }
+        final double[] zeros = ArrayCache.getCachedDoubleArray(CACHED_ARRAY_ZERO_ERRORS, length);
+        Arrays.fill(zeros, 0.0);
+        return zeros;
+    }
+
     /**
      * convenience short-hand notation for getting error variables (if defined for dataset)
      *
@@ -375,22 +476,108 @@ public final class DataSetMath { // NOPMD - nomen est omen
     }
 
     public static DataSet filterFunction(final DataSet function, final double width, final Filter filterType) {
+        return filterFunction(function, width, filterType, true);
+    }
+
+    /**
+     * @param function input function
+     * @param width half-width of the filter window
+     * @param filterType the filter type
+     * @param output the re-used output data set (may be identical to {@code function})
+     * @param <D> generic output data set type
+     * @return output (fluent design, N.B. the name of the output data set is retained)
+     */
+    public static <D extends DoubleErrorDataSet> D filterFunction(final DataSet function, final double width, final Filter filterType, final D output) {
+        return filterFunction(function, width, filterType, true, output, false);
+    }
+
+    /**
+     * @param function input function
+     * @param width half-width of the filter window
+     * @param filterType the filter type
+     * @param slidingWindow {@code true}: use the sliding-window implementation if the x-coordinates are sorted,
+     *            {@code false}: always use the brute-force O(n^2) implementation (e.g. for reference and benchmarks)
+     * @return filtered function
+     */
+    static DataSet filterFunction(final DataSet function, final double width, final Filter filterType, final boolean slidingWindow) {
+        return filterFunction(function, width, filterType, slidingWindow, new DoubleErrorDataSet(function.getName(), function.getDataCount()), true);
+    }
+
+    static <D extends DoubleErrorDataSet> D filterFunction(final DataSet function, final double width, final Filter filterType, final boolean slidingWindow, final D output) {
+        return filterFunction(function, width, filterType, slidingWindow, output, false);
+    }
+
+    private static <D extends DoubleErrorDataSet> D filterFunction(final DataSet function, final double width, final Filter filterType, final boolean slidingWindow, final D output,
+            final boolean nameOutput) {
+        AssertUtils.notNull(OUTPUT, output);
         final int n = function.getDataCount();
-        final DoubleErrorDataSet filteredFunction = new DoubleErrorDataSet(
-                filterType.getTag() + "(" + function.getName() + "," + Double.toString(width) + ")", n);
-        for (int dim = 0; dim < filteredFunction.getDimension(); dim++) {
-            final AxisDescription refAxisDescription = function.getAxisDescription(dim);
-            filteredFunction.getAxisDescription(dim).set(refAxisDescription.getName(), refAxisDescription.getUnit());
-        }
-        final double[] subArrayY = new double[n];
-        final double[] subArrayYn = new double[n];
-        final double[] subArrayYp = new double[n];
+        final String functionName = nameOutput ? filterType.getTag() + "(" + function.getName() + "," + Double.toString(width) + ")" : null;
 
-        final double[] xValues = values(DIM_X, function);
-        final double[] yValues = values(DIM_Y, function);
-        final double[] yen = errors(function, EYN);
-        final double[] yep = errors(function, EYN);
+        output.lock().writeLockGuard(() -> {
+            for (int dim = 0; dim < output.getDimension(); dim++) {
+                final AxisDescription refAxisDescription = function.getAxisDescription(dim);
+                output.getAxisDescription(dim).set(refAxisDescription.getName(), refAxisDescription.getUnit());
+            }
+
+            // N.B. filter windows span neighbouring samples -> in-place operation needs a (cached) copy of the input
+            final boolean inPlace = output == function;
+            final double[] xValues = inPlace ? cachedCopy(values(DIM_X, function), n) : values(DIM_X, function);
+            final double[] yValues = inPlace ? cachedCopy(values(DIM_Y, function), n) : values(DIM_Y, function);
+            final double[] yen = inPlace ? cachedCopy(errorValues(function, EYN), n) : errorValues(function, EYN);
+            final double[] yep = inPlace ? cachedCopy(errorValues(function, EYP), n) : errorValues(function, EYP);
+
+            resizeOutput(output, functionName, n);
+            System.arraycopy(xValues, 0, output.getXValues(), 0, n);
+            final double[] filteredY = output.getYValues();
+            final double[] filteredYn = output.getErrorsNegative(DIM_Y);
+            final double[] filteredYp = output.getErrorsPositive(DIM_Y);
+
+            if (slidingWindow && width >= 0 && SlidingWindowFilter.isSorted(xValues, n)) {
+                // sorted x-coordinates: O(n) .. O(n log w) sliding-window implementation
+                final int[] from = ArrayCache.getCachedIntArray(CACHED_ARRAY_FILTER_WINDOW, n);
+                final int[] to = ArrayCache.getCachedIntArray(CACHED_ARRAY_FILTER_WINDOW, n);
+                SlidingWindowFilter.computeWindows(xValues, n, width, from, to);
+                SlidingWindowFilter.filter(yValues, from, to, n, filterType, filteredY);
+                slidingWindowErrors(yen, from, to, n, filterType, filteredYn);
+                slidingWindowErrors(yep, from, to, n, filterType, filteredYp);
+                ArrayCache.release(CACHED_ARRAY_FILTER_WINDOW, from);
+                ArrayCache.release(CACHED_ARRAY_FILTER_WINDOW, to);
+            } else {
+                bruteForceFilter(xValues, yValues, yen, yep, n, width, filterType, filteredY, filteredYn, filteredYp);
+            }
+
+            if (inPlace) {
+                ArrayCache.release(CACHED_ARRAY_FILTER_INPUT, xValues);
+                ArrayCache.release(CACHED_ARRAY_FILTER_INPUT, yValues);
+                ArrayCache.release(CACHED_ARRAY_FILTER_INPUT, yen);
+                ArrayCache.release(CACHED_ARRAY_FILTER_INPUT, yep);
+            }
+            output.getAxisDescriptions().forEach(AxisDescription::clear);
+        });
 
+        return notifyOutput(output);
+    }
+
+    private static void slidingWindowErrors(final double[] errors, final int[] from, final int[] to, final int n, final Filter filterType, final double[] result) {
+        if (errors == null) {
+            // N.B. all filters map zero errors onto zero
+            Arrays.fill(result, 0, n, 0.0);
+            return;
+        }
+        SlidingWindowFilter.filter(errors, from, to, n, filterType, result);
+        if (filterType == Filter.MEAN) {
+            for (int i = 0; i < n; i++) {
+                final int count = to[i] - from[i];
+                result[i] *= count > 0 ? 1.0 / Math.sqrt(count) : 0.0;
+            }
+        }
+    }
+
+    private static void bruteForceFilter(final double[] xValues, final double[] yValues, final double[] yen, final double[] yep, final int n, final double width, final Filter filterType, //
+            final double[] filteredY, final double[] filteredYn, final double[] filteredYp) {
+        final double[] subArrayY = ArrayCache.getCachedDoubleArray(CACHED_ARRAY_FILTER_SUB_ARRAY, n);
+        final double[] subArrayYn = ArrayCache.getCachedDoubleArray(CACHED_ARRAY_FILTER_SUB_ARRAY, n);
+        final double[] subArrayYp = ArrayCache.getCachedDoubleArray(CACHED_ARRAY_FILTER_SUB_ARRAY, n);
         for (int i = 0; i < n; i++) {
             final double time0 = xValues[i];
 
@@ -399,48 +586,40 @@ public final class DataSetMath { // NOPMD - nomen est omen
                 final double time = xValues[j];
                 if (Math.abs(time0 - time) <= width) {
                     subArrayY[count] = yValues[j];
-                    subArrayYn[count] = yen[j];
-                    subArrayYp[count] = yep[j];
+                    subArrayYn[count] = yen == null ? 0.0 : yen[j];
+                    subArrayYp[count] = yep == null ? 0.0 : yep[j];
                     count++;
                 }
             }
 
-            final double norm = count > 0 ? 1.0 / Math.sqrt(count) : 0.0;
-
-            switch (filterType) {
-            case MEDIAN:
-                filteredFunction.add(time0, TMath.Median(subArrayY, count), TMath.Median(subArrayYn, count),
-                        TMath.Median(subArrayYp, count));
-                break;
-            case MIN:
-                filteredFunction.add(time0, TMath.Minimum(subArrayY, count), TMath.Minimum(subArrayYn, count),
-                        TMath.Minimum(subArrayYp, count));
-                break;
-            case MAX:
-                filteredFunction.add(time0, TMath.Maximum(subArrayY, count), TMath.Maximum(subArrayYn, count),
-                        TMath.Maximum(subArrayYp, count));
-                break;
-            case P2P:
-                filteredFunction.add(time0, TMath.PeakToPeak(subArrayY, count), TMath.PeakToPeak(subArrayYn, count),
-                        TMath.PeakToPeak(subArrayYp, count));
-                break;
-            case RMS:
-                filteredFunction.add(time0, TMath.RMS(subArrayY, count), TMath.RMS(subArrayYn, count),
-                        TMath.RMS(subArrayYp, count));
-                break;
-            case GEOMMEAN:
-                filteredFunction.add(time0, TMath.GeometricMean(subArrayY, count),
-                        TMath.GeometricMean(subArrayYn, count), TMath.GeometricMean(subArrayYp, count));
-                break;
-            case MEAN:
-            default:
-                filteredFunction.add(time0, TMath.Mean(subArrayY, count), TMath.Mean(subArrayYn, count) * norm,
-                        TMath.Mean(subArrayYp, count) * norm);
-                break;
-            }
+            final double norm = filterType != Filter.MEAN ? 1.0 : count > 0 ? 1.0 / Math.sqrt(count) : 0.0;
+            filteredY[i] = filterWindow(subArrayY, count, filterType);
+            filteredYn[i] = filterWindow(subArrayYn, count, filterType) * norm;
+            filteredYp[i] = filterWindow(subArrayYp, count, filterType) * norm;
         }
+        ArrayCache.release(CACHED_ARRAY_FILTER_SUB_ARRAY, subArrayY);
+        ArrayCache.release(CACHED_ARRAY_FILTER_SUB_ARRAY, subArrayYn);
+        ArrayCache.release(CACHED_ARRAY_FILTER_SUB_ARRAY, subArrayYp);
+    }
 
-        return filteredFunction;
+    private static double filterWindow(final double[] values, final int count, final Filter filterType) {
+        switch (filterType) {
+        case MEDIAN:
+            return TMath.Median(values, count);
+        case MIN:
+            return TMath.Minimum(values, count);
+        case MAX:
+            return TMath.Maximum(values, count);
+        case P2P:
+            return TMath.PeakToPeak(values, count);
+        case RMS:
+            return TMath.RMS(values, count);
+        case GEOMMEAN:
+            return TMath.GeometricMean(values, count);
+        case MEAN:
+        default:
+            return TMath.Mean(values, count);
+        }
     }
 
     public static DataSet geometricMeanFilteredFunction(final DataSet function, final double width) {
@@ -558,6 +737,65 @@ public final class DataSetMath { // NOPMD - nomen est omen
         return filteredFunction;
     }
 
+    /**
+     * Zero-phase low-pass filter of the given order (Butterworth {@link Cascade}). Similar to
+     * {@link #iirLowPassFilterFunction(DataSet, double)}, the filter is applied in forward and backward direction and
+     * both results are averaged to compensate for the IIR group-delay. The four passes (value and squared value for the
+     * error estimate, forward and backward) are filtered in lock-step via
+     * {@link Cascade#filter(double[][], double[][], int, int)}. The x-values are assumed to be equidistant.
+     *
+     * @param function input function
+     * @param width smoothing width in units of the x-axis, defines the cut-off frequency 1/(pi*width) (limited to 45%
+     *            of the sampling rate)
+     * @param order filter order (&gt;0)
+     * @return filtered function
+     */
+    public static DataSet iirLowPassFilterFunction(final DataSet function, final double width, final int order) {
+        AssertUtils.gtThanZero("width", width);
+        AssertUtils.gtThanZero("order", order);
+        final int n = function.getDataCount();
+        final double[] xValues = values(DIM_X, function);
+        final double span = n <= 1 ? 0.0 : Math.abs(xValues[n - 1] - xValues[0]);
+        if (span <= 0.0 || !Double.isFinite(span)) {
+            return iirLowPassFilterFunction(function, width);
+        }
+        final double[] yValues = values(DIM_Y, function);
+        final double[] yen = errors(function, EYN);
+        final double[] yep = errors(function, EYP);
+
+        // filter deviations from the first (forward) and last (backward) sample -> no start-up transient (unity DC gain)
+        final double yFirst = yValues[0];
+        final double yLast = yValues[n - 1];
+        final double[][] channels = new double[4][n];
+        for (int i = 0; i < n; i++) {
+            final double forward = yValues[i];
+            final double backward = yValues[n - 1 - i];
+            channels[0][i] = forward - yFirst;
+            channels[1][i] = forward * forward - yFirst * yFirst;
+            channels[2][i] = backward - yLast;
+            channels[3][i] = backward * backward - yLast * yLast;
+        }
+        final double sampleRate = (n - 1) / span;
+        final Butterworth lowPass = new Butterworth();
+        lowPass.lowPass(order, sampleRate, Math.min(1.0 / (Math.PI * width), 0.45 * sampleRate));
+        lowPass.filter(channels, channels, 0, n);
+
+        final double[] y = new double[n];
+        final double[] eyn = new double[n];
+        final double[] eyp = new double[n];
+        for (int i = 0; i < n; i++) {
+            final double mean = 0.5 * (channels[0][i] + yFirst + channels[2][n - 1 - i] + yLast);
+            final double mean2 = 0.5 * (channels[1][i] + yFirst * yFirst + channels[3][n - 1 - i] + yLast * yLast);
+            final double avgError2 = Math.abs(mean2 - mean * mean);
+            y[i] = mean;
+            eyn[i] = Math.sqrt(avgError2 + yen[i] * yen[i]);
+            eyp[i] = Math.sqrt(avgError2 + yep[i] * yep[i]);
+        }
+        final DoubleErrorDataSet filteredFunction = new DoubleErrorDataSet("iir" + Filter.MEAN.getTag() + "(" + function.getName() + "," + width + "," + order + ")", n);
+        filteredFunction.set(Arrays.copyOf(xValues, n), y, eyn, eyp, n, false);
+        return filteredFunction;
+    }
+
     public static DoublePointError integral(final DataSet function) {
         final DataSet integratedFunction = integrateFunction(function);
         final int lastPoint = integratedFunction.getDataCount() - 1;
@@ -607,15 +845,33 @@ public final class DataSetMath { // NOPMD - nomen est omen
     }
 
     public static DataSet integrateFunction(final DataSet function, final double xMin, final double xMax) {
+        return integrateFunction(function, xMin, xMax, new DoubleErrorDataSet(function.getName(), function.getDataCount()), true);
+    }
+
+    /**
+     * @param function input function
+     * @param xMin lower integration boundary (NaN: start of function)
+     * @param xMax upper integration boundary (NaN: end of function)
+     * @param output the re-used output data set (may be identical to {@code function})
+     * @param <D> generic output data set type
+     * @return output (fluent design, N.B. the name of the output data set is retained)
+     */
+    public static <D extends DoubleErrorDataSet> D integrateFunction(final DataSet function, final double xMin, final double xMax, final D output) {
+        return integrateFunction(function, xMin, xMax, output, false);
+    }
+
+    private static <D extends DoubleErrorDataSet> D integrateFunction(final DataSet function, final double xMin, final double xMax, final D output, final boolean nameOutput) {
+        AssertUtils.notNull(OUTPUT, output);
         final int nLength = function.getDataCount();
         final String functionName = function.getName();
         String newName = INTEGRAL_SYMBOL + "(" + functionName + ")dyn";
         if (nLength <= 0) {
             if (function instanceof DataSet2D) {
-                final int ncount = function.getDataCount();
-                final double[] emptyVector = new double[ncount];
-                return new DoubleErrorDataSet(functionName, values(DIM_X, function), emptyVector, emptyVector,
-                        emptyVector, ncount, true);
+                output.lock().writeLockGuard(() -> {
+                    resizeOutput(output, nameOutput ? functionName : null, 0);
+                    output.getAxisDescriptions().forEach(AxisDescription::clear);
+                });
+                return notifyOutput(output);
             }
             throw new IllegalStateException("not yet implemented -- not a DataSet2D");
         }
@@ -642,10 +898,28 @@ public final class DataSetMath { // NOPMD - nomen est omen
             newName = INTEGRAL_SYMBOL + "(" + functionName + ")dyn|_{-" + INFINITY_SYMBOL + "}^{" + xMaxLocal + "}";
         }
 
-        final DoubleErrorDataSet retFunction = new DoubleErrorDataSet(newName, nLength);
+        // N.B. the integral is not aligned sample-by-sample with the input -> in-place operation needs a copy of the input
+        final DataSet source = output == function ? new DoubleErrorDataSet(function) : function;
+        final String integralName = nameOutput ? newName : null;
+        final double integralMin = xMinLocal;
+        final double integralMax = xMaxLocal;
+        final double integralSign = sign;
+        output.lock().writeLockGuard(() -> {
+            // N.B. upper limit for sorted x-coordinates, grown on demand otherwise
+            resizeOutput(output, integralName, nLength + 4);
+            final int count = integrate(source, xMin, xMax, integralMin, integralMax, integralSign, output);
+            output.resize(count, false);
+            output.getAxisDescriptions().forEach(AxisDescription::clear);
+        });
+
+        return notifyOutput(output);
+    }
+
+    private static int integrate(final DataSet function, final double xMin, final double xMax, final double xMinLocal, final double xMaxLocal, final double sign, final DoubleErrorDataSet output) {
+        final int nLength = function.getDataCount();
+        int count = 0;
         if (nLength <= 1) {
-            retFunction.add(function.get(DIM_X, 0), 0, 0, 0);
-            return retFunction;
+            return append(output, count, function.get(DIM_X, 0), 0, 0, 0);
         }
 
         double integral = 0;
@@ -667,10 +941,10 @@ public final class DataSetMath { // NOPMD - nomen est omen
             integralEN = Math.hypot(integralEN, step * en1);
             integralEP = Math.hypot(integralEP, step * ep1);
 
-            retFunction.add(x0, integral, 0, 0);
+            count = append(output, count, x0, integral, 0, 0);
         }
 
-        retFunction.add(function.get(DIM_X, 0), integral, integralEN, integralEP);
+        count = append(output, count, function.get(DIM_X, 0), integral, integralEN, integralEP);
         for (int i = 1; i < nLength; i++) {
             final double x0 = function.get(DIM_X, i - 1);
             final double x1 = function.get(DIM_X, i);
@@ -693,7 +967,7 @@ public final class DataSetMath { // NOPMD - nomen est omen
             } else if (x1 < xMinLocal && x0 < xMinLocal) {
                 // see below
             } else if (x0 < xMinLocal && x1 > xMinLocal) {
-                retFunction.add(xMin, integral, integralEN, integralEP);
+                count = append(output, count, xMin, integral, integralEN, integralEP);
                 step = x1 - xMinLocal;
                 integral += sign * 0.5 * step * (function.getValue(DIM_X, xMinLocal) + y1);
 
@@ -709,10 +983,10 @@ public final class DataSetMath { // NOPMD - nomen est omen
                 integralEN = Math.hypot(integralEN, 0.5 * step * (en1 + en2));
                 integralEP = Math.hypot(integralEP, 0.5 * step * (ep1 + ep2));
 
-                retFunction.add(xMaxLocal, integral, integralEN, integralEP);
+                count = append(output, count, xMaxLocal, integral, integralEN, integralEP);
             }
 
-            retFunction.add(x1, integral, integralEN, integralEP);
+            count = append(output, count, x1, integral, integralEN, integralEP);
         }
 
         if (Double.isFinite(xMax) && xMax > function.get(DIM_X, nLength - 1)) {
@@ -729,10 +1003,10 @@ public final class DataSetMath { // NOPMD - nomen est omen
             integralEP = Math.hypot(integralEP, step * ep1);
 
             integral += 0.5 * step * (val1 + val2);
-            retFunction.add(xMax, integral, integralEN, integralEP);
+            count = append(output, count, xMax, integral, integralEN, integralEP);
         }
 
-        return retFunction;
+        return count;
     }
 
     public static DataSet log10Function(final DataSet function) {
@@ -753,32 +1027,64 @@ public final class DataSetMath { // NOPMD - nomen est omen
 
     public static DataSet magnitudeSpectrum(final DataSet function, final Apodization apodization,
             final boolean dbScale, final boolean normalisedFrequency) {
+        return magnitudeSpectrum(function, apodization, dbScale, normalisedFrequency, new DoubleErrorDataSet(function.getName(), function.getDataCount() / 2), true);
+    }
+
+    /**
+     * @param function input function
+     * @param apodization apodization window applied prior to the FFT
+     * @param dbScale {@code true}: magnitude in decibel
+     * @param normalisedFrequency {@code true}: frequency axis normalised to the sampling frequency
+     * @param output the re-used output data set (may be identical to {@code function})
+     * @param <D> generic output data set type
+     * @return output (fluent design, N.B. the name of the output data set is retained)
+     */
+    public static <D extends DoubleErrorDataSet> D magnitudeSpectrum(final DataSet function, final Apodization apodization,
+            final boolean dbScale, final boolean normalisedFrequency, final D output) {
+        return magnitudeSpectrum(function, apodization, dbScale, normalisedFrequency, output, false);
+    }
+
+    private static <D extends DoubleErrorDataSet> D magnitudeSpectrum(final DataSet function, final Apodization apodization,
+            final boolean dbScale, final boolean normalisedFrequency, final D output, final boolean nameOutput) {
+        AssertUtils.notNull(OUTPUT, output);
         final int n = function.getDataCount();
+        final int n2 = n / 2;
 
-        final DoubleFFT_1D fastFourierTrafo = new DoubleFFT_1D(n);
+        final DoubleFFT_1D fastFourierTrafo = FFTPlanCache.getDoubleFFT_1D(n);
+        final double[] window = apodization.getWindow(n);
 
-        // N.B. since realForward computes the FFT in-place -> generate a copy
-        final double[] fftSpectra = new double[n];
+        // N.B. since realForward computes the FFT in-place -> generate a (cached) copy
+        final double[] fftSpectra = ArrayCache.getCachedDoubleArray(CACHED_ARRAY_SPECTRUM, n);
         for (int i = 0; i < n; i++) {
-            final double window = apodization.getIndex(i, n);
-            fftSpectra[i] = function.get(DIM_Y, i) * window;
+            fftSpectra[i] = function.get(DIM_Y, i) * window[i];
         }
 
         fastFourierTrafo.realForward(fftSpectra);
-        final double[] mag = dbScale ? SpectrumTools.computeMagnitudeSpectrum_dB(fftSpectra, true)
-                                     : SpectrumTools.computeMagnitudeSpectrum(fftSpectra, true);
         final double dt = function.get(DIM_X, function.getDataCount() - 1) - function.get(DIM_X, 0);
-        final double fsampling = normalisedFrequency || dt <= 0 ? 0.5 / mag.length : 1.0 / dt;
+        final double fsampling = normalisedFrequency || dt <= 0 ? 0.5 / n2 : 1.0 / dt;
 
-        final String functionName = "Mag" + (dbScale ? "[dB]" : "") + "(" + function.getName() + ")";
+        final String functionName = nameOutput ? "Mag" + (dbScale ? "[dB]" : "") + "(" + function.getName() + ")" : null;
 
-        final DoubleErrorDataSet ret = new DoubleErrorDataSet(functionName, mag.length);
-        for (int i = 0; i < mag.length; i++) {
+        output.lock().writeLockGuard(() -> {
+            resizeOutput(output, functionName, n2);
+            final double[] x = output.getXValues();
+            final double[] mag = output.getYValues();
+            if (dbScale) {
+                SpectrumTools.computeMagnitudeSpectrum_dB(fftSpectra, 0, n, mag, 0, true);
+            } else {
+                SpectrumTools.computeMagnitudeSpectrum(fftSpectra, 0, n, mag, 0, true);
+            }
+            for (int i = 0; i < n2; i++) {
+                x[i] = i * fsampling;
+            }
             // TODO: consider magnitude error estimate
-            ret.add(i * fsampling, mag[i], 0, 0);
-        }
+            Arrays.fill(output.getErrorsNegative(DIM_Y), 0, n2, 0.0);
+            Arrays.fill(output.getErrorsPositive(DIM_Y), 0, n2, 0.0);
+            output.getAxisDescriptions().forEach(AxisDescription::clear);
+        });
+        ArrayCache.release(CACHED_ARRAY_SPECTRUM, fftSpectra);
 
-        return ret;
+        return notifyOutput(output);
     }
 
     public static DataSet magnitudeSpectrumComplex(final DataSet function) {
@@ -789,14 +1095,14 @@ public final class DataSetMath { // NOPMD - nomen est omen
             final boolean dbScale, final boolean normalisedFrequency) {
         final int n = function.getDataCount();
 
-        final DoubleFFT_1D fastFourierTrafo = new DoubleFFT_1D(n);
+        final DoubleFFT_1D fastFourierTrafo = FFTPlanCache.getDoubleFFT_1D(n);
+        final double[] window = apodization.getWindow(n);
 
         // N.B. since realForward computes the FFT in-place -> generate a copy
         final double[] fftSpectra = new double[2 * n];
         for (int i = 0; i < n; i++) {
-            final double window = apodization.getIndex(i, n);
-            fftSpectra[2 * i] = function.get(DIM_Y, i) * window;
-            fftSpectra[2 * i + 1] = function.get(DIM_Z, i) * window;
+            fftSpectra[2 * i] = function.get(DIM_Y, i) * window[i];
+            fftSpectra[2 * i + 1] = function.get(DIM_Z, i) * window[i];
         }
 
         fastFourierTrafo.complexForward(fftSpectra);
@@ -825,143 +1131,364 @@ public final class DataSetMath { // NOPMD - nomen est omen
     }
 
     public static DataSet mathFunction(final DataSet function1, final DataSet function2, final MathOp op) {
-        final DoubleErrorDataSet ret = new DoubleErrorDataSet(function1.getName() + op.getTag() + function2.getName(),
-                function1.getDataCount());
-        ret.getAxisDescription(DIM_X).set(function1.getAxisDescription(DIM_X));
-        ret.getAxisDescription(DIM_Y).set(function1.getAxisDescription(DIM_Y).getName(),
-                function1.getAxisDescription(DIM_Y).getUnit());
-
-        for (int i = 0; i < function1.getDataCount(); i++) {
-            final double X1 = function1.get(DIM_X, i);
-            final double X2 = function1.get(DIM_X, i);
-            final boolean inter = X1 != X2;
-            final double Y1 = function1.get(DIM_Y, i);
-            final double Y2 = inter ? function2.get(DIM_Y, i) : function2.getValue(DIM_Y, X1);
-            final double eyn1 = error(function1, EYN, i);
-            final double eyp1 = error(function1, EYP, i);
-            final double eyn2 = error(function2, EYN, i, X1, inter);
-            final double eyp2 = error(function2, EYP, i, X1, inter);
-            double newY;
-            double nEYN;
-            double nEYP;
-            double norm;
-
-            // switch through math operations
-            switch (op) {
-            case ADD:
-                newY = Y1 + Y2;
-                nEYN = Math.hypot(eyn1, eyn2);
-                nEYP = Math.hypot(eyp1, eyp2);
-                break;
-            case SUBTRACT:
-                newY = Y1 - Y2;
-                nEYN = Math.hypot(eyn1, eyn2);
-                nEYP = Math.hypot(eyp1, eyp2);
-                break;
-            case MULTIPLY:
-                newY = Y1 * Y2;
-                nEYN = Math.hypot(Y2 * eyn1, Y1 * eyn2);
-                nEYP = Math.hypot(Y2 * eyp1, Y1 * eyp2);
-                break;
-            case DIVIDE:
-                newY = Y1 / Y2;
-                nEYN = Math.hypot(eyn1 / Y2, newY * eyn2 / Y2);
-                nEYP = Math.hypot(eyp1 / Y2, newY * eyp2 / Y2);
-                break;
-            case SQR:
-                newY = TMathConstants.Sqr(Y1 + Y2);
-                nEYN = 2 * Math.abs(Y1 + Y2) * Math.hypot(eyn1, eyn2);
-                nEYP = 2 * Math.abs(Y1 + Y2) * Math.hypot(eyp1, eyp2);
-                break;
-            case SQRT:
-                newY = TMathConstants.Sqrt(Y1 + Y2);
-                nEYN = Math.sqrt(Math.abs(Y1 + Y2)) * Math.hypot(eyn1, eyn2);
-                nEYP = Math.sqrt(Math.abs(Y1 + Y2)) * Math.hypot(eyp1, eyp2);
-                break;
-            case LOG10:
-                norm = 1.0 / Math.log(10);
-                newY = TMathConstants.Log10(Y1 + Y2);
-                nEYN = Y1 + Y2 > 0 ? norm / Math.abs(Y1 + Y2) * Math.hypot(eyn1, eyn2) : Double.NaN;
-                nEYP = Y1 + Y2 > 0 ? norm / Math.abs(Y1 + Y2) * Math.hypot(eyp1, eyp2) : Double.NaN;
-                break;
-            case DB:
-                norm = 20.0 / Math.log(10);
-                newY = 20 * TMathConstants.Log10(Y1 + Y2);
-                nEYN = Y1 + Y2 > 0 ? norm / Math.abs(Y1 + Y2) * Math.hypot(eyn1, eyn2) : Double.NaN;
-                nEYP = Y1 + Y2 > 0 ? norm / Math.abs(Y1 + Y2) * Math.hypot(eyp1, eyp2) : Double.NaN;
-                break;
-            default:
-                newY = Y1;
-                nEYN = eyn1;
-                nEYP = eyp1;
-                break;
+        return mathFunction(function1, function2, op, new DoubleErrorDataSet(function1.getName(), function1.getDataCount()), true);
+    }
+
+    /**
+     * Computes the math operation between function1 and function2, the latter being linearly interpolated at the
+     * x-coordinates of function1.
+     * <p>
+     * The second function is first aligned to the x-grid of the first: values are taken directly if both share an
+     * identical x-grid, sorted x-axes are walked once in a merge-join with linear interpolation (O(n + m)). Only
+     * unsorted x-coordinates fall back to a per-sample (binary search) interpolation. The operation itself is then
+     * computed in a single loop over the aligned arrays.
+     *
+     * @param function1 first input function
+     * @param function2 second input function
+     * @param op the math operation
+     * @param output the re-used output data set (may be identical to {@code function1} or {@code function2})
+     * @param <D> generic output data set type
+     * @return output (fluent design, N.B. the name of the output data set is retained)
+     */
+    public static <D extends DoubleErrorDataSet> D mathFunction(final DataSet function1, final DataSet function2, final MathOp op, final D output) {
+        return mathFunction(function1, function2, op, output, false);
+    }
+
+    private static <D extends DoubleErrorDataSet> D mathFunction(final DataSet function1, final DataSet function2, final MathOp op, final D output, final boolean nameOutput) {
+        AssertUtils.notNull(OUTPUT, output);
+        final String functionName = nameOutput ? function1.getName() + op.getTag() + function2.getName() : null;
+        final int ncount = function1.getDataCount();
+
+        output.lock().writeLockGuard(() -> {
+            output.getAxisDescription(DIM_X).set(function1.getAxisDescription(DIM_X).getName(), function1.getAxisDescription(DIM_X).getUnit());
+            output.getAxisDescription(DIM_Y).set(function1.getAxisDescription(DIM_Y).getName(), function1.getAxisDescription(DIM_Y).getUnit());
+
+            final double[] x1 = values(DIM_X, function1);
+            final double[] y1 = values(DIM_Y, function1);
+            final double[] eyn1 = errorValuesOrZero(function1, EYN, ncount);
+            final double[] eyp1 = errorValuesOrZero(function1, EYP, ncount);
+
+            // N.B. alignment stage: the aligned values are either the (unmodified) arrays of function2 or cached
+            // copies computed prior to writing the output -> safe for in-place operation
+            final double[] y2;
+            final double[] eyn2;
+            final double[] eyp2;
+            final boolean aligned = isIdenticalGrid(x1, ncount, function2);
+            if (aligned) {
+                y2 = values(DIM_Y, function2);
+                eyn2 = errorValuesOrZero(function2, EYN, ncount);
+                eyp2 = errorValuesOrZero(function2, EYP, ncount);
+            } else {
+                y2 = ArrayCache.getCachedDoubleArray(CACHED_ARRAY_ALIGNED, ncount);
+                eyn2 = ArrayCache.getCachedDoubleArray(CACHED_ARRAY_ALIGNED, ncount);
+                eyp2 = ArrayCache.getCachedDoubleArray(CACHED_ARRAY_ALIGNED, ncount);
+                align(x1, ncount, function2, y2, eyn2, eyp2);
             }
 
-            ret.add(X1, newY, nEYN, nEYP);
+            resizeOutput(output, functionName, ncount);
+            System.arraycopy(x1, 0, output.getXValues(), 0, ncount);
+            mathFunction(op, ncount, y1, eyn1, eyp1, y2, eyn2, eyp2, output.getYValues(), output.getErrorsNegative(DIM_Y), output.getErrorsPositive(DIM_Y));
+
+            if (!aligned) {
+                ArrayCache.release(CACHED_ARRAY_ALIGNED, y2);
+                ArrayCache.release(CACHED_ARRAY_ALIGNED, eyn2);
+                ArrayCache.release(CACHED_ARRAY_ALIGNED, eyp2);
+            }
+            releaseZeroErrors(function1, eyn1, eyp1);
+            if (aligned) {
+                releaseZeroErrors(function2, eyn2, eyp2);
+            }
+            output.getAxisDescriptions().forEach(AxisDescription::clear);
+        });
+
+        return notifyOutput(output);
+    }
+
+    /**
+     * Linearly interpolates the sorted source function onto the sorted target x-coordinates by walking both x-axes
+     * once (merge-join). Outside the source range, the first or last source sample is used. The interpolated value is
+     * NaN if one of the bracketing source samples is NaN (gap in the function).
+     *
+     * @param xTarget sorted target x-coordinates
+     * @param nTarget number of target samples
+     * @param xSource sorted source x-coordinates
+     * @param ySource source y-coordinates
+     * @param eynSource source negative y-errors
+     * @param eypSource source positive y-errors
+     * @param nSource number of source samples (&gt; 0)
+     * @param y interpolated y-coordinates
+     * @param eyn interpolated negative y-errors
+     * @param eyp interpolated positive y-errors
+     */
+    static void interpolateSorted(final double[] xTarget, final int nTarget, final double[] xSource, final double[] ySource, final double[] eynSource, final double[] eypSource, final int nSource, //
+            final double[] y, final double[] eyn, final double[] eyp) {
+        AssertUtils.gtThanZero("nSource", nSource);
+        final int last = nSource - 1;
+        int k = 0;
+        for (int i = 0; i < nTarget; i++) {
+            final double x = xTarget[i];
+            while (k < last && xSource[k + 1] <= x) {
+                k++;
+            }
+            // xSource[k] <= x < xSource[k + 1], or x is outside the source range
+            if (k == last || x <= xSource[k]) {
+                y[i] = ySource[k];
+                eyn[i] = eynSource[k];
+                eyp[i] = eypSource[k];
+                continue;
+            }
+            final double yL = ySource[k];
+            final double yR = ySource[k + 1];
+            if (Double.isNaN(yL) || Double.isNaN(yR)) {
+                // case where the function has a gap (y-coordinate equals to NaN)
+                y[i] = Double.NaN;
+                eyn[i] = Double.NaN;
+                eyp[i] = Double.NaN;
+                continue;
+            }
+            final double weight = (x - xSource[k]) / (xSource[k + 1] - xSource[k]);
+            y[i] = yL + (yR - yL) * weight;
+            eyn[i] = eynSource[k] + (eynSource[k + 1] - eynSource[k]) * weight;
+            eyp[i] = eypSource[k] + (eypSource[k + 1] - eypSource[k]) * weight;
         }
+    }
 
-        return ret;
+    private static void align(final double[] x1, final int n1, final DataSet function2, final double[] y2, final double[] eyn2, final double[] eyp2) {
+        final int n2 = function2.getDataCount();
+        final double[] x2 = n2 > 0 ? values(DIM_X, function2) : null;
+        if (n2 > 0 && SlidingWindowFilter.isSorted(x1, n1) && SlidingWindowFilter.isSorted(x2, n2)) {
+            final double[] errorNeg2 = errorValuesOrZero(function2, EYN, n2);
+            final double[] errorPos2 = errorValuesOrZero(function2, EYP, n2);
+            interpolateSorted(x1, n1, x2, values(DIM_Y, function2), errorNeg2, errorPos2, n2, y2, eyn2, eyp2);
+            releaseZeroErrors(function2, errorNeg2, errorPos2);
+            return;
+        }
+
+        // fall-back for unsorted x-coordinates: per-sample (binary search) interpolation
+        for (int i = 0; i < n1; i++) {
+            final double x = x1[i];
+            y2[i] = function2.getValue(DIM_Y, x);
+            eyn2[i] = error(function2, EYN, i, x, true);
+            eyp2[i] = error(function2, EYP, i, x, true);
+        }
+    }
+
+    private static boolean isIdenticalGrid(final double[] x1, final int n1, final DataSet function2) {
+        if (function2.getDataCount() != n1) {
+            return false;
+        }
+        final double[] x2 = values(DIM_X, function2);
+        if (x1 == x2) {
+            return true;
+        }
+        for (int i = 0; i < n1; i++) {
+            if (x1[i] != x2[i]) { // NOPMD - exact comparison by design
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // N.B. aliasing-safe, i.e. the output arrays may be identical to the input arrays
+    private static void mathFunction(final MathOp op, final int n, final double[] y1, final double[] eyn1, final double[] eyp1, final double[] y2, final double[] eyn2, final double[] eyp2, //
+            final double[] y, final double[] eyn, final double[] eyp) {
+        switch (op) {
+        case ADD:
+            for (int i = 0; i < n; i++) {
+                final double a = y1[i];
+                final double b = y2[i];
+                final double en = Math.hypot(eyn1[i], eyn2[i]);
+                final double ep = Math.hypot(eyp1[i], eyp2[i]);
+                y[i] = a + b;
+                eyn[i] = en;
+                eyp[i] = ep;
+            }
+            break;
+        case SUBTRACT:
+            for (int i = 0; i < n; i++) {
+                final double a = y1[i];
+                final double b = y2[i];
+                final double en = Math.hypot(eyn1[i], eyn2[i]);
+                final double ep = Math.hypot(eyp1[i], eyp2[i]);
+                y[i] = a - b;
+                eyn[i] = en;
+                eyp[i] = ep;
+            }
+            break;
+        case MULTIPLY:
+            for (int i = 0; i < n; i++) {
+                final double a = y1[i];
+                final double b = y2[i];
+                final double en = Math.hypot(b * eyn1[i], a * eyn2[i]);
+                final double ep = Math.hypot(b * eyp1[i], a * eyp2[i]);
+                y[i] = a * b;
+                eyn[i] = en;
+                eyp[i] = ep;
+            }
+            break;
+        case DIVIDE:
+            for (int i = 0; i < n; i++) {
+                final double a = y1[i];
+                final double b = y2[i];
+                final double newY = a / b;
+                final double en = Math.hypot(eyn1[i] / b, newY * eyn2[i] / b);
+                final double ep = Math.hypot(eyp1[i] / b, newY * eyp2[i] / b);
+                y[i] = newY;
+                eyn[i] = en;
+                eyp[i] = ep;
+            }
+            break;
+        case SQR:
+            for (int i = 0; i < n; i++) {
+                final double sum = y1[i] + y2[i];
+                final double en = 2 * Math.abs(sum) * Math.hypot(eyn1[i], eyn2[i]);
+                final double ep = 2 * Math.abs(sum) * Math.hypot(eyp1[i], eyp2[i]);
+                y[i] = TMathConstants.Sqr(sum);
+                eyn[i] = en;
+                eyp[i] = ep;
+            }
+            break;
+        case SQRT:
+            for (int i = 0; i < n; i++) {
+                final double sum = y1[i] + y2[i];
+                final double en = Math.sqrt(Math.abs(sum)) * Math.hypot(eyn1[i], eyn2[i]);
+                final double ep = Math.sqrt(Math.abs(sum)) * Math.hypot(eyp1[i], eyp2[i]);
+                y[i] = TMathConstants.Sqrt(sum);
+                eyn[i] = en;
+                eyp[i] = ep;
+            }
+            break;
+        case LOG10:
+        case DB:
+            final double scale = op == MathOp.DB ? 20.0 : 1.0;
+            final double norm = scale / Math.log(10);
+            for (int i = 0; i < n; i++) {
+                final double sum = y1[i] + y2[i];
+                final double en = sum > 0 ? norm / Math.abs(sum) * Math.hypot(eyn1[i], eyn2[i]) : Double.NaN;
+                final double ep = sum > 0 ? norm / Math.abs(sum) * Math.hypot(eyp1[i], eyp2[i]) : Double.NaN;
+                y[i] = scale * TMathConstants.Log10(sum);
+                eyn[i] = en;
+                eyp[i] = ep;
+            }
+            break;
+        default:
+            System.arraycopy(y1, 0, y, 0, n);
+            System.arraycopy(eyn1, 0, eyn, 0, n);
+            System.arraycopy(eyp1, 0, eyp, 0, n);
+            break;
+        }
     }
 
     public static DataSet mathFunction(final DataSet function, final double value, final MathOp op) {
-        final String functionName = op.getTag() + "(" + function.getName() + ")";
-        final double[] y = values(DIM_Y, function);
-        final double[] eyn = Arrays.copyOf(errors(function, EYN), y.length);
-        final double[] eyp = Arrays.copyOf(errors(function, EYP), y.length);
+        return mathFunction(function, value, op, new DoubleErrorDataSet(function.getName(), function.getDataCount()), true);
+    }
+
+    /**
+     * @param function input function
+     * @param value the scalar argument of the math operation
+     * @param op the math operation
+     * @param output the re-used output data set (may be identical to {@code function})
+     * @param <D> generic output data set type
+     * @return output (fluent design, N.B. the name of the output data set is retained)
+     */
+    public static <D extends DoubleErrorDataSet> D mathFunction(final DataSet function, final double value, final MathOp op, final D output) {
+        return mathFunction(function, value, op, output, false);
+    }
 
+    private static <D extends DoubleErrorDataSet> D mathFunction(final DataSet function, final double value, final MathOp op, final D output, final boolean nameOutput) {
+        AssertUtils.notNull(OUTPUT, output);
+        final String functionName = nameOutput ? op.getTag() + "(" + function.getName() + ")" : null;
         final int ncount = function.getDataCount();
+
+        output.lock().writeLockGuard(() -> {
+            final double[] x0 = values(DIM_X, function);
+            final double[] y0 = values(DIM_Y, function);
+            final double[] eyn0 = errorValuesOrZero(function, EYN, ncount);
+            final double[] eyp0 = errorValuesOrZero(function, EYP, ncount);
+
+            // N.B. element-wise operation -> safe for in-place operation
+            resizeOutput(output, functionName, ncount);
+            System.arraycopy(x0, 0, output.getXValues(), 0, ncount);
+            mathFunction(op, ncount, y0, eyn0, eyp0, value, output.getYValues(), output.getErrorsNegative(DIM_Y), output.getErrorsPositive(DIM_Y));
+            releaseZeroErrors(function, eyn0, eyp0);
+            output.getAxisDescriptions().forEach(AxisDescription::clear);
+        });
+
+        return notifyOutput(output);
+    }
+
+    // N.B. aliasing-safe, i.e. the output arrays may be identical to the input arrays
+    private static void mathFunction(final MathOp op, final int n, final double[] y0, final double[] eyn0, final double[] eyp0, final double value, //
+            final double[] y, final double[] eyn, final double[] eyp) {
         switch (op) {
         case ADD:
-            return new DoubleErrorDataSet(functionName, values(DIM_X, function), ArrayMath.add(y, value), eyn, eyp,
-                    ncount, true);
+            for (int i = 0; i < n; i++) {
+                y[i] = y0[i] + value;
+                eyn[i] = eyn0[i];
+                eyp[i] = eyp0[i];
+            }
+            break;
         case SUBTRACT:
-            return new DoubleErrorDataSet(functionName, values(DIM_X, function), ArrayMath.subtract(y, value), eyn, eyp,
-                    ncount, true);
+            for (int i = 0; i < n; i++) {
+                y[i] = y0[i] - value;
+                eyn[i] = eyn0[i];
+                eyp[i] = eyp0[i];
+            }
+            break;
         case MULTIPLY:
-            return new DoubleErrorDataSet(functionName, values(DIM_X, function), ArrayMath.multiply(y, value),
-                    ArrayMath.multiply(eyn, value), ArrayMath.multiply(eyp, value), ncount, true);
+            for (int i = 0; i < n; i++) {
+                y[i] = y0[i] * value;
+                eyn[i] = eyn0[i] * value;
+                eyp[i] = eyp0[i] * value;
+            }
+            break;
         case DIVIDE:
-            return new DoubleErrorDataSet(functionName, values(DIM_X, function), ArrayMath.divide(y, value),
-                    ArrayMath.divide(eyn, value), ArrayMath.divide(eyp, value), ncount, true);
+            for (int i = 0; i < n; i++) {
+                y[i] = y0[i] / value;
+                eyn[i] = eyn0[i] / value;
+                eyp[i] = eyp0[i] / value;
+            }
+            break;
         case SQR:
-            for (int i = 0; i < eyn.length; i++) {
-                eyn[i] = 2 * Math.abs(y[i]) * eyn[i];
-                eyp[i] = 2 * Math.abs(y[i]) * eyp[i];
+            for (int i = 0; i < n; i++) {
+                final double val = y0[i];
+                y[i] = val * val;
+                eyn[i] = 2 * Math.abs(val) * eyn0[i];
+                eyp[i] = 2 * Math.abs(val) * eyp0[i];
             }
-            return new DoubleErrorDataSet(functionName, values(DIM_X, function), ArrayMath.sqr(y), eyn, eyp, ncount,
-                    true);
+            break;
         case SQRT:
-            for (int i = 0; i < eyn.length; i++) {
-                eyn[i] = Math.sqrt(Math.abs(y[i])) * eyn[i];
-                eyp[i] = Math.sqrt(Math.abs(y[i])) * eyp[i];
+            for (int i = 0; i < n; i++) {
+                final double val = y0[i];
+                y[i] = TMathConstants.Sqrt(val);
+                eyn[i] = Math.sqrt(Math.abs(val)) * eyn0[i];
+                eyp[i] = Math.sqrt(Math.abs(val)) * eyp0[i];
             }
-            return new DoubleErrorDataSet(functionName, values(DIM_X, function), ArrayMath.sqrt(y), eyn, eyp, ncount,
-                    true);
+            break;
         case LOG10:
-            for (int i = 0; i < eyn.length; i++) {
-                eyn[i] = 0.0; // 0.0 as a work-around
-                eyp[i] = 0.0;
-            }
-            return new DoubleErrorDataSet(functionName, values(DIM_X, function), ArrayMath.tenLog10(y), eyn, eyp,
-                    ncount, true);
         case DB:
-            for (int i = 0; i < eyn.length; i++) {
-                eyn[i] = 0.0; // 0.0 as a work-around
-                eyp[i] = 0.0;
+            final double scale = op == MathOp.DB ? 20.0 : 10.0;
+            for (int i = 0; i < n; i++) {
+                y[i] = scale * TMathConstants.Log10(y0[i]);
             }
-            return new DoubleErrorDataSet(functionName, values(DIM_X, function), ArrayMath.decibel(y), eyn, eyp, ncount,
-                    true);
+            // 0.0 as a work-around
+            Arrays.fill(eyn, 0, n, 0.0);
+            Arrays.fill(eyp, 0, n, 0.0);
+            break;
         case INV_DB:
-            for (int i = 0; i < eyn.length; i++) {
-                eyn[i] = 0.0; // 0.0 as a work-around
-                eyp[i] = 0.0;
+            for (int i = 0; i < n; i++) {
+                y[i] = Math.pow(10, y0[i] / 20);
             }
-            return new DoubleErrorDataSet(functionName, values(DIM_X, function), ArrayMath.inverseDecibel(y), eyn, eyp,
-                    ncount, true);
+            // 0.0 as a work-around
+            Arrays.fill(eyn, 0, n, 0.0);
+            Arrays.fill(eyp, 0, n, 0.0);
+            break;
         default:
-            // return copy if nothing else matches
-            return new DoubleErrorDataSet(functionName, values(DIM_X, function), values(DIM_Y, function),
-                    errors(function, EYN), errors(function, EYP), ncount, true);
+            // copy if nothing else matches
+            System.arraycopy(y0, 0, y, 0, n);
+            System.arraycopy(eyn0, 0, eyn, 0, n);
+            System.arraycopy(eyp0, 0, eyp, 0, n);
+            break;
         }
     }
 
@@ -1007,6 +1534,12 @@ public final class DataSetMath { // NOPMD - nomen est omen
         return new DoubleErrorDataSet(function.getName(), xValues, yValues, eyp, eyn, ncount, true);
     }
 
+    // fires the deferred update event after the output write lock has been released
+    private static <D extends DoubleErrorDataSet> D notifyOutput(final D output) {
+        output.fireInvalidated(new UpdatedDataEvent(output, "DataSetMath"));
+        return output;
+    }
+
     public static DataSet normalisedMagnitudeSpectrumDecibel(final DataSet function) {
         return magnitudeSpectrum(function, Apodization.Hann, true, true);
     }
@@ -1015,10 +1548,31 @@ public final class DataSetMath { // NOPMD - nomen est omen
         return filterFunction(function, width, Filter.P2P);
     }
 
+    private static void releaseZeroErrors(final DataSet dataSet, final double[] eyn, final double[] eyp) {
+        if (!(dataSet instanceof DataSetError)) {
+            // N.B. only the cached zero arrays may be returned, never the data set's own error arrays
+            ArrayCache.release(CACHED_ARRAY_ZERO_ERRORS, eyn);
+            ArrayCache.release(CACHED_ARRAY_ZERO_ERRORS, eyp);
+        }
+    }
+
     public static DataSet rmsFilteredFunction(final DataSet function, final double width) {
         return filterFunction(function, width, Filter.RMS);
     }
 
+    // N.B. to be called within the output write lock: re-uses the existing capacity of the backing arrays
+    // name: name of a freshly allocated output, null: caller-supplied output whose name is retained
+    private static void resizeOutput(final DoubleErrorDataSet output, final String name, final int nSamples) {
+        output.getDataLabelMap().clear();
+        output.getDataStyleMap().clear();
+        if (output.getDataCount() != nSamples) {
+            output.resize(nSamples, false);
+        }
+        if (name != null) {
+            output.setName(name);
+        }
+    }
+
     public static EditableDataSet setFunction(final EditableDataSet function, final double value, final double xMin,
             final double xMax) {
         final int nLength = function.getDataCount();
@@ -3349,7 +3349,7 @@ public class TMath extends TMathConstants {
         final double[] temp = Sort(data, length, false);
 
         if (length % 2 == 0) {
-            return 0.5 * (temp[length / 2] + temp[length / 2 + 1]);
+            return 0.5 * (temp[length / 2 - 1] + temp[length / 2]);
         } else {
             return temp[length / 2];
         }
@@ -3367,9 +3367,9 @@ public class TMath extends TMathConstants {
     public static float Median(float[] data, int length) {
         final float[] temp = Sort(data, length, false);
         if (length % 2 == 0) {
-            return 0.5f * (temp[length / 2] + temp[length / 2 + 1]);
+            return 0.5f * (temp[length / 2 - 1] + temp[length / 2]);
         } else {
-            return data[length / 2];
+            return temp[length / 2];
         }
     }
 
@@ -3385,7 +3385,7 @@ public class TMath extends TMathConstants {
     public static int Median(int[] data, int length) {
         final int[] temp = Sort(data, length, false);
         if (length % 2 == 0) {
-            return (int) (0.5 * (temp[length / 2] + temp[length / 2 + 1]));
+            return (int) (0.5 * (temp[length / 2 - 1] + temp[length / 2]));
         } else {
             return temp[length / 2];
         }
@@ -3406,7 +3406,7 @@ public class TMath extends TMathConstants {
     public static long Median(long[] data, int length) {
         final long[] temp = Sort(data, length, false);
         if (length % 2 == 0) {
-            return (long) (0.5 * (temp[length / 2] + data[length / 2 + 1]));
+            return (long) (0.5 * (temp[length / 2 - 1] + temp[length / 2]));
         } else {
             return temp[length / 2];
         }
@@ -3424,7 +3424,7 @@ public class TMath extends TMathConstants {
     public static short Median(short[] data, int length) {
         final short[] temp = Sort(data, length, false);
         if (length % 2 == 0) {
-            return (short) (0.5 * (temp[length / 2] + temp[length / 2 + 1]));
+            return (short) (0.5 * (temp[length / 2 - 1] + temp[length / 2]));
         } else {
             return temp[length / 2];
         }
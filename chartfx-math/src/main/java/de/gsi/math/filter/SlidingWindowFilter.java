@@ -0,0 +1,397 @@
+package de.gsi.math.filter;
+
+import de.gsi.dataset.utils.ArrayCache;
+import de.gsi.dataset.utils.AssertUtils;
+import de.gsi.math.DataSetMath.Filter;
+import de.gsi.math.TMath;
+
+/**
+ * Sliding-window implementation of the {@link Filter} types used by
+ * {@link de.gsi.math.DataSetMath#filterFunction(de.gsi.dataset.DataSet, double, Filter)} for data with sorted
+ * x-coordinates.
+ * <p>
+ * For sorted x-coordinates the windows {@code |x[i] - x[j]| <= width} are contiguous index ranges whose boundaries
+ * increase monotonically with {@code i}. This permits incremental updates as samples enter and leave the window:
+ * <ul>
+ * <li>MIN, MAX, P2P: monotonic deques -- O(n)</li>
+ * <li>MEAN, RMS, GEOMMEAN: compensated running sums -- O(n)</li>
+ * <li>MEDIAN: two heaps with lazy deletion -- O(n log w)</li>
+ * </ul>
+ * rather than the O(n^2) brute-force scan over all samples for each output sample.
+ */
+public final class SlidingWindowFilter {
+    private static final String CACHED_ARRAY_DEQUE = "SlidingWindowFilter::extremum:deque";
+    private static final String CACHED_ARRAY_HEAP = "SlidingWindowFilter::median:heap";
+    private static final String CACHED_ARRAY_IN_LOWER = "SlidingWindowFilter::median:inLower";
+    private static final String CACHED_ARRAY_MINIMUM = "SlidingWindowFilter::p2p:minimum";
+    private static final String CACHED_ARRAY_SCRATCH = "SlidingWindowFilter::runningSum:scratch";
+
+    private SlidingWindowFilter() {
+        // static helper class
+    }
+
+    /**
+     * Computes the index ranges {@code [from[i], to[i])} of all samples j with {@code |x[i] - x[j]| <= width}.
+     *
+     * @param xValues sorted (see {@link #isSorted(double[], int)}) x-coordinates
+     * @param length number of samples to be used
+     * @param width half-width of the filter window (needs to be &gt;= 0)
+     * @param from first index of the window (inclusive) for each sample
+     * @param to last index of the window (exclusive) for each sample
+     */
+    public static void computeWindows(final double[] xValues, final int length, final double width, final int[] from, final int[] to) {
+        AssertUtils.gtEqThanZero("width", width);
+        int lo = 0;
+        int hi = 0;
+        for (int i = 0; i < length; i++) {
+            final double x0 = xValues[i];
+            // N.B. same predicate as the brute-force implementation to obtain identical windows
+            while (Math.abs(x0 - xValues[lo]) > width) {
+                lo++;
+            }
+            if (hi < i) {
+                hi = i;
+            }
+            while (hi < length && Math.abs(xValues[hi] - x0) <= width) {
+                hi++;
+            }
+            from[i] = lo;
+            to[i] = hi;
+        }
+    }
+
+    /**
+     * Applies the filter to the values within the given (monotonic) windows.
+     *
+     * @param values input values
+     * @param from first index of the window (inclusive) for each sample, see {@link #computeWindows}
+     * @param to last index of the window (exclusive) for each sample, see {@link #computeWindows}
+     * @param length number of samples to be used
+     * @param filterType the filter type
+     * @param result output values
+     */
+    public static void filter(final double[] values, final int[] from, final int[] to, final int length, final Filter filterType, final double[] result) {
+        AssertUtils.notNull("filterType", filterType);
+        switch (filterType) {
+        case MEDIAN:
+            median(values, from, to, length, result);
+            break;
+        case MIN:
+            extremum(values, from, to, length, true, result);
+            break;
+        case MAX:
+            extremum(values, from, to, length, false, result);
+            break;
+        case P2P:
+            final double[] minimum = ArrayCache.getCachedDoubleArray(CACHED_ARRAY_MINIMUM, length);
+            extremum(values, from, to, length, true, minimum);
+            extremum(values, from, to, length, false, result);
+            for (int i = 0; i < length; i++) {
+                result[i] = Math.abs(result[i] - minimum[i]);
+            }
+            ArrayCache.release(CACHED_ARRAY_MINIMUM, minimum);
+            break;
+        case RMS:
+        case GEOMMEAN:
+        case MEAN:
+        default:
+            runningSum(values, from, to, length, filterType, result);
+            break;
+        }
+    }
+
+    /**
+     * @param xValues x-coordinates
+     * @param length number of samples to be checked
+     * @return {@code true} if all values are finite and sorted in ascending order
+     */
+    public static boolean isSorted(final double[] xValues, final int length) {
+        double last = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < length; i++) {
+            final double x = xValues[i];
+            if (!Double.isFinite(x) || x < last) {
+                return false;
+            }
+            last = x;
+        }
+        return true;
+    }
+
+    private static void extremum(final double[] values, final int[] from, final int[] to, final int length, final boolean minimum, final double[] result) {
+        // monotonic deque of indices: values are increasing (minimum) or decreasing (maximum) from head to tail
+        // N.B. each index is pushed at most once -> no ring-buffer needed
+        final int[] deque = ArrayCache.getCachedIntArray(CACHED_ARRAY_DEQUE, length);
+        int head = 0;
+        int tail = 0;
+        int nNaN = 0;
+        int hi = 0;
+        int lo = 0;
+        final double sign = minimum ? 1.0 : -1.0;
+        for (int i = 0; i < length; i++) {
+            for (; hi < to[i]; hi++) {
+                final double value = values[hi];
+                if (Double.isNaN(value)) {
+                    nNaN++;
+                    continue;
+                }
+                while (tail > head && sign * Double.compare(values[deque[tail - 1]], value) >= 0) {
+                    tail--;
+                }
+                deque[tail++] = hi;
+            }
+            for (; lo < from[i]; lo++) {
+                if (Double.isNaN(values[lo])) {
+                    nNaN--;
+                }
+            }
+            while (tail > head && deque[head] < lo) {
+                head++;
+            }
+
+            if (nNaN > 0) {
+                // Math.min/max semantic of TMath.Minimum/Maximum
+                result[i] = Double.NaN;
+            } else if (tail == head) {
+                result[i] = minimum ? +Double.MAX_VALUE : -Double.MAX_VALUE;
+            } else {
+                // N.B. TMath.Minimum/Maximum are initialised with +- Double.MAX_VALUE
+                result[i] = minimum ? Math.min(+Double.MAX_VALUE, values[deque[head]]) : Math.max(-Double.MAX_VALUE, values[deque[head]]);
+            }
+        }
+        ArrayCache.release(CACHED_ARRAY_DEQUE, deque);
+    }
+
+    private static void median(final double[] values, final int[] from, final int[] to, final int length, final double[] result) {
+        final int[] lowerHeap = ArrayCache.getCachedIntArray(CACHED_ARRAY_HEAP, length);
+        final int[] upperHeap = ArrayCache.getCachedIntArray(CACHED_ARRAY_HEAP, length);
+        final IndexHeap lower = new IndexHeap(values, lowerHeap, true);
+        final IndexHeap upper = new IndexHeap(values, upperHeap, false);
+        final boolean[] inLower = ArrayCache.getCachedBooleanArray(CACHED_ARRAY_IN_LOWER, length);
+        int hi = 0;
+        int lo = 0;
+        for (int i = 0; i < length; i++) {
+            for (; hi < to[i]; hi++) {
+                if (lower.size() == 0 || IndexHeap.compare(values, hi, lower.peek(lo)) <= 0) {
+                    lower.push(hi);
+                    inLower[hi] = true;
+                } else {
+                    upper.push(hi);
+                    inLower[hi] = false;
+                }
+                rebalance(lower, upper, inLower, lo);
+            }
+            for (; lo < from[i];) {
+                // lazy deletion: only the valid counts are updated, expired indices are purged once they reach the top
+                if (inLower[lo]) {
+                    lower.invalidate();
+                } else {
+                    upper.invalidate();
+                }
+                lo++;
+                rebalance(lower, upper, inLower, lo);
+            }
+
+            final int count = lower.size() + upper.size();
+            if (count == 0) {
+                result[i] = Double.NaN;
+            } else if (count % 2 == 0) {
+                result[i] = 0.5 * (values[lower.peek(lo)] + values[upper.peek(lo)]);
+            } else {
+                result[i] = values[lower.peek(lo)];
+            }
+        }
+        ArrayCache.release(CACHED_ARRAY_HEAP, lowerHeap);
+        ArrayCache.release(CACHED_ARRAY_HEAP, upperHeap);
+        ArrayCache.release(CACHED_ARRAY_IN_LOWER, inLower);
+    }
+
+    private static void rebalance(final IndexHeap lower, final IndexHeap upper, final boolean[] inLower, final int lo) {
+        // invariant: lower.size() == upper.size() or lower.size() == upper.size() + 1
+        while (lower.size() > upper.size() + 1) {
+            final int index = lower.pop(lo);
+            upper.push(index);
+            inLower[index] = false;
+        }
+        while (lower.size() < upper.size()) {
+            final int index = upper.pop(lo);
+            lower.push(index);
+            inLower[index] = true;
+        }
+    }
+
+    private static void runningSum(final double[] values, final int[] from, final int[] to, final int length, final Filter filterType, final double[] result) {
+        final KahanSum sum = new KahanSum();
+        final KahanSum sum2 = new KahanSum();
+        int nNonFinite = 0;
+        int nZero = 0;
+        int hi = 0;
+        int lo = 0;
+        double[] scratch = null;
+        for (int i = 0; i < length; i++) {
+            for (; hi < to[i]; hi++) {
+                final double value = values[hi];
+                if (!Double.isFinite(value)) {
+                    nNonFinite++;
+                    continue;
+                }
+                if (value == 0.0) {
+                    nZero++;
+                }
+                sum.add(filterType == Filter.GEOMMEAN ? (value == 0.0 ? 0.0 : Math.log(Math.abs(value))) : value);
+                sum2.add(value * value);
+            }
+            for (; lo < from[i]; lo++) {
+                final double value = values[lo];
+                if (!Double.isFinite(value)) {
+                    nNonFinite--;
+                    continue;
+                }
+                if (value == 0.0) {
+                    nZero--;
+                }
+                sum.add(filterType == Filter.GEOMMEAN ? (value == 0.0 ? 0.0 : -Math.log(Math.abs(value))) : -value);
+                sum2.add(-value * value);
+            }
+
+            final int count = hi - lo;
+            if (nNonFinite > 0) {
+                // rare: non-finite values would poison the running sums -> direct computation
+                if (scratch == null) {
+                    scratch = ArrayCache.getCachedDoubleArray(CACHED_ARRAY_SCRATCH, length);
+                }
+                System.arraycopy(values, lo, scratch, 0, count);
+                result[i] = filterType == Filter.GEOMMEAN ? TMath.GeometricMean(scratch, count) : filterType == Filter.RMS ? TMath.RMS(scratch, count) : TMath.Mean(scratch, count);
+                continue;
+            }
+
+            final double norm = 1.0 / count;
+            switch (filterType) {
+            case GEOMMEAN:
+                result[i] = nZero > 0 ? 0.0 : Math.exp(sum.get() * norm);
+                break;
+            case RMS:
+                final double mean = sum.get() * norm;
+                // un-biased rms -- same definition as TMath.RMS
+                result[i] = count <= 0 ? -1 : Math.sqrt(Math.abs(sum2.get() * norm - mean * mean));
+                break;
+            case MEAN:
+            default:
+                result[i] = sum.get() * norm;
+                break;
+            }
+        }
+        ArrayCache.release(CACHED_ARRAY_SCRATCH, scratch);
+    }
+
+    /**
+     * binary heap of sample indices ordered by value (and index for equal values) with lazy deletion of indices below
+     * the current window start
+     */
+    private static class IndexHeap {
+        private final double[] values;
+        private final int[] heap;
+        private final boolean maxHeap;
+        private int heapSize; // including expired indices
+        private int validSize; // excluding expired indices
+
+        IndexHeap(final double[] values, final int[] heap, final boolean maxHeap) {
+            this.values = values;
+            this.heap = heap;
+            this.maxHeap = maxHeap;
+        }
+
+        void invalidate() {
+            validSize--;
+        }
+
+        int peek(final int lo) {
+            purge(lo);
+            return heap[0];
+        }
+
+        int pop(final int lo) {
+            purge(lo);
+            validSize--;
+            return removeTop();
+        }
+
+        void push(final int index) {
+            int pos = heapSize++;
+            validSize++;
+            while (pos > 0) {
+                final int parent = (pos - 1) >> 1;
+                if (!higher(index, heap[parent])) {
+                    break;
+                }
+                heap[pos] = heap[parent];
+                pos = parent;
+            }
+            heap[pos] = index;
+        }
+
+        int size() {
+            return validSize;
+        }
+
+        private boolean higher(final int a, final int b) {
+            final int cmp = compare(values, a, b);
+            return maxHeap ? cmp > 0 : cmp < 0;
+        }
+
+        private void purge(final int lo) {
+            while (heapSize > 0 && heap[0] < lo) {
+                removeTop();
+            }
+        }
+
+        private int removeTop() {
+            final int top = heap[0];
+            final int last = heap[--heapSize];
+            int pos = 0;
+            while (true) {
+                int child = 2 * pos + 1;
+                if (child >= heapSize) {
+                    break;
+                }
+                if (child + 1 < heapSize && higher(heap[child + 1], heap[child])) {
+                    child++;
+                }
+                if (!higher(heap[child], last)) {
+                    break;
+                }
+                heap[pos] = heap[child];
+                pos = child;
+            }
+            heap[pos] = last;
+            return top;
+        }
+
+        static int compare(final double[] values, final int a, final int b) {
+            // N.B. Double.compare: same total order (-0.0 < 0.0 < NaN) as the Arrays.sort used in TMath.Median
+            final int cmp = Double.compare(values[a], values[b]);
+            return cmp == 0 ? Integer.compare(a, b) : cmp;
+        }
+    }
+
+    /**
+     * Kahan-Babuska (Neumaier) compensated sum: keeps the round-off of the repeated add/subtract small
+     */
+    private static class KahanSum {
+        private double sum;
+        private double compensation;
+
+        void add(final double value) {
+            final double t = sum + value;
+            if (Math.abs(sum) >= Math.abs(value)) {
+                compensation += (sum - t) + value;
+            } else {
+                compensation += (value - t) + sum;
+            }
+            sum = t;
+        }
+
+        double get() {
+            return sum + compensation;
+        }
+    }
+}
@@ -21,14 +21,30 @@
 
 package de.gsi.math.filter.iir;
 
+import java.util.Arrays;
+
 import org.apache.commons.math3.complex.Complex;
 import org.apache.commons.math3.complex.ComplexUtils;
 
+import de.gsi.dataset.utils.ArrayCache;
+import de.gsi.dataset.utils.AssertUtils;
+
 /**
  * The mother of all filters. It contains the coefficients of all filter stages as a sequence of 2nd order filters and
  * the states of the 2nd order filters which also imply if it's direct form I or II
+ * <p>
+ * Besides the sample-by-sample {@link #filter(double)}, blocks of samples may be processed via
+ * {@link #filter(double[], double[], int, int)} and several independent channels in lock-step via
+ * {@link #filter(double[][], double[][], int, int)}. The filter state is carried over between consecutive calls, the
+ * results are identical to feeding the same samples one-by-one.
  */
 public class Cascade {
+    private static final String CACHED_ARRAY_CHANNEL_BUFFER = "Cascade::filter:channelBuffer";
+    // number of samples processed through all stages before advancing to the next chunk (keeps the chunk in L1 cache)
+    private static final int CHUNK_SIZE = 1024;
+    // number of interleaved samples (all channels) of the multi-channel working buffer
+    private static final int CHANNEL_BUFFER_SIZE = 4096;
+
     // coefficients
     private Biquad[] mBiquads;
 
@@ -38,6 +54,12 @@ public class Cascade {
     // number of biquads in the system
     private int mNumBiquads;
 
+    private int mDirectFormType = DirectFormAbstract.DIRECT_FORM_II;
+
+    // multi-channel states: per biquad 4 (DF-I: x1, x2, y1, y2) or 2 (DF-II: v1, v2) arrays of mNumChannels values
+    private double[] mChannelStates = new double[0];
+    private int mNumChannels;
+
     public Cascade() {
         mNumBiquads = 0;
     }
@@ -60,6 +82,91 @@ public class Cascade {
         return out;
     }
 
+    /**
+     * filters a block of samples, equivalent to calling {@link #filter(double)} for each sample
+     *
+     * @param in input samples
+     * @param out output samples (may be the same array as {@code in} for in-place filtering)
+     * @param from index of the first sample
+     * @param len number of samples
+     */
+    public void filter(final double[] in, final double[] out, final int from, final int len) {
+        AssertUtils.notNull("in", in);
+        AssertUtils.notNull("out", out);
+        checkRange(in.length, out.length, from, len);
+        if (in != out) {
+            System.arraycopy(in, from, out, from, len);
+        }
+        final int to = from + len;
+        for (int start = from; start < to; start += CHUNK_SIZE) {
+            final int chunk = Math.min(CHUNK_SIZE, to - start);
+            for (int i = 0; i < mNumBiquads; i++) {
+                if (mStates[i] != null) {
+                    mStates[i].process(out, out, start, chunk, mBiquads[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * filters several independent channels in lock-step. The samples of all channels are interleaved block-wise so that
+     * the inner loop runs over the channels with contiguous memory access. The channel states are independent of the
+     * single-channel state used by {@link #filter(double)} and are reset if the number of channels changes.
+     *
+     * @param in input samples [channel][sample]
+     * @param out output samples [channel][sample] (may be the same arrays as {@code in} for in-place filtering)
+     * @param from index of the first sample
+     * @param len number of samples
+     */
+    public void filter(final double[][] in, final double[][] out, final int from, final int len) {
+        AssertUtils.notNull("in", in);
+        AssertUtils.notNull("out", out);
+        final int nChannels = in.length;
+        if (out.length != nChannels) {
+            throw new IllegalArgumentException("number of input (" + nChannels + ") and output (" + out.length + ") channels must agree");
+        }
+        for (int channel = 0; channel < nChannels; channel++) {
+            checkRange(in[channel].length, out[channel].length, from, len);
+        }
+        if (nChannels == 0 || len == 0) {
+            return;
+        }
+        final int stateSize = (mDirectFormType == DirectFormAbstract.DIRECT_FORM_I ? 4 : 2) * nChannels * mNumBiquads;
+        if (nChannels != mNumChannels || mChannelStates.length != stateSize) {
+            mNumChannels = nChannels;
+            mChannelStates = new double[stateSize];
+        }
+
+        final int blockSize = Math.max(1, CHANNEL_BUFFER_SIZE / nChannels);
+        final double[] buffer = ArrayCache.getCachedDoubleArray(CACHED_ARRAY_CHANNEL_BUFFER, blockSize * nChannels);
+        try {
+            for (int start = from; start < from + len; start += blockSize) {
+                final int nSamples = Math.min(blockSize, from + len - start);
+                for (int channel = 0; channel < nChannels; channel++) {
+                    final double[] data = in[channel];
+                    for (int i = 0; i < nSamples; i++) {
+                        buffer[i * nChannels + channel] = data[start + i];
+                    }
+                }
+                for (int stage = 0; stage < mNumBiquads; stage++) {
+                    if (mDirectFormType == DirectFormAbstract.DIRECT_FORM_I) {
+                        processDirectFormI(buffer, nSamples, nChannels, mBiquads[stage], 4 * nChannels * stage);
+                    } else {
+                        processDirectFormII(buffer, nSamples, nChannels, mBiquads[stage], 2 * nChannels * stage);
+                    }
+                }
+                for (int channel = 0; channel < nChannels; channel++) {
+                    final double[] data = out[channel];
+                    for (int i = 0; i < nSamples; i++) {
+                        data[start + i] = buffer[i * nChannels + channel];
+                    }
+                }
+            }
+        } finally {
+            ArrayCache.release(CACHED_ARRAY_CHANNEL_BUFFER, buffer);
+        }
+    }
+
     public Biquad getBiquad(final int index) {
         return mBiquads[index];
     }
@@ -72,6 +179,7 @@ public class Cascade {
         for (int i = 0; i < mNumBiquads; i++) {
             mStates[i].reset();
         }
+        Arrays.fill(mChannelStates, 0.0);
     }
 
     public Complex response(final double normalizedFrequency) {
@@ -103,6 +211,9 @@ public class Cascade {
         final int numPoles = proto.getNumPoles();
         mNumBiquads = (numPoles + 1) / 2;
         mBiquads = new Biquad[mNumBiquads];
+        mDirectFormType = filterTypes == DirectFormAbstract.DIRECT_FORM_I ? DirectFormAbstract.DIRECT_FORM_I : DirectFormAbstract.DIRECT_FORM_II;
+        mChannelStates = new double[0];
+        mNumChannels = 0;
         switch (filterTypes) {
         case DirectFormAbstract.DIRECT_FORM_I:
             mStates = new DirectFormI[mNumBiquads];
@@ -125,4 +236,56 @@ public class Cascade {
         }
         applyScale(proto.getNormalGain() / response(proto.getNormalW() / (2 * Math.PI)).abs());
     }
+
+    private static void checkRange(final int inLength, final int outLength, final int from, final int len) {
+        AssertUtils.gtEqThanZero("from", from);
+        AssertUtils.gtEqThanZero("len", len);
+        AssertUtils.gtOrEqual("input length", from + len, inLength);
+        AssertUtils.gtOrEqual("output length", from + len, outLength);
+    }
+
+    private void processDirectFormI(final double[] buffer, final int nSamples, final int nChannels, final Biquad s, final int offset) {
+        final double b0 = s.mB0;
+        final double b1 = s.mB1;
+        final double b2 = s.mB2;
+        final double a1 = s.mA1;
+        final double a2 = s.mA2;
+        final double[] state = mChannelStates;
+        final int x1 = offset;
+        final int x2 = x1 + nChannels;
+        final int y1 = x2 + nChannels;
+        final int y2 = y1 + nChannels;
+        for (int i = 0; i < nSamples; i++) {
+            final int row = i * nChannels;
+            for (int c = 0; c < nChannels; c++) {
+                final double input = buffer[row + c];
+                final double output = b0 * input + b1 * state[x1 + c] + b2 * state[x2 + c] - a1 * state[y1 + c] - a2 * state[y2 + c];
+                state[x2 + c] = state[x1 + c];
+                state[y2 + c] = state[y1 + c];
+                state[x1 + c] = input;
+                state[y1 + c] = output;
+                buffer[row + c] = output;
+            }
+        }
+    }
+
+    private void processDirectFormII(final double[] buffer, final int nSamples, final int nChannels, final Biquad s, final int offset) {
+        final double b0 = s.mB0;
+        final double b1 = s.mB1;
+        final double b2 = s.mB2;
+        final double a1 = s.mA1;
+        final double a2 = s.mA2;
+        final double[] state = mChannelStates;
+        final int v1 = offset;
+        final int v2 = v1 + nChannels;
+        for (int i = 0; i < nSamples; i++) {
+            final int row = i * nChannels;
+            for (int c = 0; c < nChannels; c++) {
+                final double w = buffer[row + c] - a1 * state[v1 + c] - a2 * state[v2 + c];
+                buffer[row + c] = b0 * w + b1 * state[v1 + c] + b2 * state[v2 + c];
+                state[v2 + c] = state[v1 + c];
+                state[v1 + c] = w;
+            }
+        }
+    }
 }
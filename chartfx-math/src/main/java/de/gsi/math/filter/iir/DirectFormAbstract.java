@@ -34,6 +34,22 @@ public abstract class DirectFormAbstract {
         reset();
     }
 
+    /**
+     * filters a block of samples, carrying the state over to the next call
+     *
+     * @param in input samples
+     * @param out output samples (may be the same array as {@code in})
+     * @param from index of the first sample
+     * @param len number of samples
+     * @param s filter coefficients
+     */
+    public void process(final double[] in, final double[] out, final int from, final int len, final Biquad s) {
+        final int to = from + len;
+        for (int i = from; i < to; i++) {
+            out[i] = process1(in[i], s);
+        }
+    }
+
     public abstract double process1(double in, Biquad s);
 
     public abstract void reset();
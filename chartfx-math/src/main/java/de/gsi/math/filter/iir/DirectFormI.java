@@ -30,6 +30,33 @@ public class DirectFormI extends DirectFormAbstract {
     public double mX1; // x[n-1]
     public double mY1; // y[n-1]
 
+    @Override
+    public void process(final double[] in, final double[] out, final int from, final int len, final Biquad s) {
+        final double b0 = s.mB0;
+        final double b1 = s.mB1;
+        final double b2 = s.mB2;
+        final double a1 = s.mA1;
+        final double a2 = s.mA2;
+        double x1 = mX1;
+        double x2 = mX2;
+        double y1 = mY1;
+        double y2 = mY2;
+        final int to = from + len;
+        for (int i = from; i < to; i++) {
+            final double input = in[i];
+            final double output = b0 * input + b1 * x1 + b2 * x2 - a1 * y1 - a2 * y2;
+            x2 = x1;
+            y2 = y1;
+            x1 = input;
+            y1 = output;
+            out[i] = output;
+        }
+        mX1 = x1;
+        mX2 = x2;
+        mY1 = y1;
+        mY2 = y2;
+    }
+
     @Override
     public double process1(final double input, final Biquad s) {
         final double output = s.mB0 * input + s.mB1 * mX1 + s.mB2 * mX2 - s.mA1 * mY1 - s.mA2 * mY2;
@@ -29,6 +29,30 @@ public class DirectFormII extends DirectFormAbstract {
     public double mV1; // v[-1]
     public double mV2; // v[-2]
 
+    @Override
+    public void process(final double[] in, final double[] out, final int from, final int len, final Biquad s) {
+        if (s == null) {
+            System.arraycopy(in, from, out, from, len);
+            return;
+        }
+        final double b0 = s.mB0;
+        final double b1 = s.mB1;
+        final double b2 = s.mB2;
+        final double a1 = s.mA1;
+        final double a2 = s.mA2;
+        double v1 = mV1;
+        double v2 = mV2;
+        final int to = from + len;
+        for (int i = from; i < to; i++) {
+            final double w = in[i] - a1 * v1 - a2 * v2;
+            out[i] = b0 * w + b1 * v1 + b2 * v2;
+            v2 = v1;
+            v1 = w;
+        }
+        mV1 = v1;
+        mV2 = v2;
+    }
+
     @Override
     public double process1(final double in, final Biquad s) {
         if (s != null) {
@@ -0,0 +1,239 @@
+package de.gsi.math.fitter;
+
+import java.util.List;
+import java.util.function.IntConsumer;
+
+import de.gsi.dataset.utils.AssertUtils;
+import de.gsi.dataset.utils.CachedDaemonThreadFactory;
+import de.gsi.math.functions.Function1D;
+import de.gsi.math.utils.ForkJoinComputation;
+
+/**
+ * Executes many independent fits (e.g. of the individual peaks of a spectrum) in parallel on the shared
+ * {@link CachedDaemonThreadFactory#getCommonPool()}.
+ * <p>
+ * Each {@link FitTask} is fitted via the Nelder-Mead simplex of {@link NonLinearRegressionFitter}. The fits are
+ * distributed across the pool with one fitter (and thus one set of internal work arrays) per task. N.B. since the fit
+ * modifies the parameters of the model function, each task requires its own {@link Function1D} instance.
+ *
+ * <pre>
+ * final List&lt;BatchFitter.FitTask&gt; tasks = new ArrayList&lt;&gt;();
+ * for (...) {
+ *     tasks.add(new BatchFitter.FitTask(x, y, null, new GaussianFunction("peak"), start, step));
+ * }
+ * final BatchFitter.FitResult[] results = BatchFitter.fit(tasks);
+ * </pre>
+ */
+public final class BatchFitter { // NOPMD - nomen est omen
+
+    private BatchFitter() {
+        // utility class
+    }
+
+    /**
+     * fits all tasks in parallel and waits for the results
+     *
+     * @param tasks the independent fits
+     * @return the fit results (same order as the tasks)
+     */
+    public static FitResult[] fit(final List<FitTask> tasks) {
+        return fitAsync(tasks, null).join();
+    }
+
+    /**
+     * fits a single task in the calling thread
+     *
+     * @param task the fit definition
+     * @return the fit result
+     */
+    public static FitResult fit(final FitTask task) {
+        AssertUtils.notNull("task", task);
+        final NonLinearRegressionFitter fitter = task.weights == null ? new NonLinearRegressionFitter(task.x, task.y) : new NonLinearRegressionFitter(task.x, task.y, task.weights);
+        fitter.setParallelResiduals(task.parallelResiduals);
+        if (task.maxIterations > 0) {
+            fitter.setNmax(task.maxIterations);
+        }
+        fitter.simplex(task.function, task.start.clone(), task.step.clone());
+        return new FitResult(fitter.getBestEstimates(), fitter.getBestEstimatesErrors(), fitter.sumOfSquares, fitter.weightOpt ? fitter.chiSquare : Double.NaN, fitter.nIter, fitter.nlrStatus);
+    }
+
+    /**
+     * Asynchronous version of {@link #fit(List)}
+     *
+     * @param tasks the independent fits
+     * @param progressListener optional listener notified with the progress in percent (may be {@code null})
+     * @return handle to query the progress, cancel or wait for the fit results (same order as the tasks)
+     */
+    public static ForkJoinComputation<FitResult[]> fitAsync(final List<FitTask> tasks, final IntConsumer progressListener) {
+        AssertUtils.notNull("tasks", tasks);
+        final FitTask[] taskArray = tasks.toArray(new FitTask[0]);
+        final ForkJoinComputation<FitResult[]> computation = new ForkJoinComputation<>(taskArray.length, progressListener, handle -> {
+            final FitResult[] results = new FitResult[taskArray.length];
+            handle.parallelFor(0, taskArray.length, 1, index -> results[index] = fit(taskArray[index]));
+            return results;
+        });
+        return computation.fork(CachedDaemonThreadFactory.getCommonPool());
+    }
+
+    /**
+     * estimates the location and width of many Gaussian peaks of the same spectrum in parallel
+     *
+     * @param sliceX horizontal slice
+     * @param sliceY vertical slice
+     * @param meanEstimates initial (index-based) mean estimates of the individual peaks
+     * @param sigma initial sigma estimate
+     * @param nSigma n-sigma definition to be used
+     * @return the estimates (same order as the mean estimates)
+     * @see GaussFitting#estimate(double[], double[], double, double, double)
+     */
+    public static GaussFitting.Result[] fitGaussians(final double[] sliceX, final double[] sliceY, final double[] meanEstimates, final double sigma, final double nSigma) {
+        return fitGaussiansAsync(sliceX, sliceY, meanEstimates, sigma, nSigma, null).join();
+    }
+
+    /**
+     * Asynchronous version of {@link #fitGaussians(double[], double[], double[], double, double)}
+     *
+     * @param sliceX horizontal slice
+     * @param sliceY vertical slice
+     * @param meanEstimates initial (index-based) mean estimates of the individual peaks
+     * @param sigma initial sigma estimate
+     * @param nSigma n-sigma definition to be used
+     * @param progressListener optional listener notified with the progress in percent (may be {@code null})
+     * @return handle to query the progress, cancel or wait for the estimates
+     */
+    public static ForkJoinComputation<GaussFitting.Result[]> fitGaussiansAsync(final double[] sliceX, final double[] sliceY, final double[] meanEstimates, final double sigma, final double nSigma,
+            final IntConsumer progressListener) {
+        AssertUtils.notNull("sliceX", sliceX);
+        AssertUtils.notNull("sliceY", sliceY);
+        AssertUtils.notNull("meanEstimates", meanEstimates);
+        final ForkJoinComputation<GaussFitting.Result[]> computation = new ForkJoinComputation<>(meanEstimates.length, progressListener, handle -> {
+            final GaussFitting.Result[] results = new GaussFitting.Result[meanEstimates.length];
+            handle.parallelFor(0, meanEstimates.length, 16, index -> results[index] = GaussFitting.estimate(sliceX, sliceY, meanEstimates[index], sigma, nSigma));
+            return results;
+        });
+        return computation.fork(CachedDaemonThreadFactory.getCommonPool());
+    }
+
+    /**
+     * Immutable result of a single fit
+     */
+    public static class FitResult {
+        private final double[] parameters;
+        private final double[] errors;
+        private final double sumOfSquares;
+        private final double chiSquare;
+        private final int nIterations;
+        private final boolean converged;
+
+        private FitResult(final double[] parameters, final double[] errors, final double sumOfSquares, final double chiSquare, final int nIterations, final boolean converged) {
+            this.parameters = parameters;
+            this.errors = errors;
+            this.sumOfSquares = sumOfSquares;
+            this.chiSquare = chiSquare;
+            this.nIterations = nIterations;
+            this.converged = converged;
+        }
+
+        /**
+         * @return chi square of the fit or {@code NaN} if the data are not weighted
+         */
+        public double getChiSquare() {
+            return chiSquare;
+        }
+
+        /**
+         * @return estimates of the errors of the best estimates
+         */
+        public double[] getErrors() {
+            return errors.clone();
+        }
+
+        /**
+         * @return number of simplex iterations performed
+         */
+        public int getIterations() {
+            return nIterations;
+        }
+
+        /**
+         * @return best estimates of the unknown parameters
+         */
+        public double[] getParameters() {
+            return parameters.clone();
+        }
+
+        /**
+         * @return sum of the squares of the residuals
+         */
+        public double getSumOfSquares() {
+            return sumOfSquares;
+        }
+
+        /**
+         * @return {@code true} if the convergence was achieved before the maximum number of iterations
+         */
+        public boolean isConverged() {
+            return converged;
+        }
+    }
+
+    /**
+     * Definition of a single fit
+     */
+    public static class FitTask {
+        private final double[] x;
+        private final double[] y;
+        private final double[] weights;
+        private final Function1D function;
+        private final double[] start;
+        private final double[] step;
+        private boolean parallelResiduals;
+        private int maxIterations;
+
+        /**
+         * @param x x coordinates
+         * @param y y coordinates
+         * @param weights weights (standard deviations) of the y coordinates (may be {@code null}: unweighted fit)
+         * @param function model function (N.B. exclusive instance, modified by the fit)
+         * @param start initial parameter estimates
+         * @param step initial simplex step sizes
+         */
+        public FitTask(final double[] x, final double[] y, final double[] weights, final Function1D function, final double[] start, final double[] step) {
+            AssertUtils.notNull("x", x);
+            AssertUtils.notNull("y", y);
+            AssertUtils.notNull("function", function);
+            AssertUtils.notNull("start", start);
+            AssertUtils.notNull("step", step);
+            AssertUtils.equalDoubleArrays(x, y);
+            if (weights != null) {
+                AssertUtils.equalDoubleArrays(y, weights);
+            }
+            AssertUtils.equalDoubleArrays(start, step);
+            this.x = x;
+            this.y = y;
+            this.weights = weights;
+            this.function = function;
+            this.start = start;
+            this.step = step;
+        }
+
+        /**
+         * @param maxIterations maximum number of simplex iterations (&lt;=0: fitter default)
+         * @return itself (fluent design)
+         */
+        public FitTask setMaxIterations(final int maxIterations) {
+            this.maxIterations = maxIterations;
+            return this;
+        }
+
+        /**
+         * @param parallelResiduals {@code true}: evaluate the residuals of this (large) fit in parallel
+         * @return itself (fluent design)
+         * @see NonLinearRegressionFitter#setParallelResiduals(boolean)
+         */
+        public FitTask setParallelResiduals(final boolean parallelResiduals) {
+            this.parallelResiduals = parallelResiduals;
+            return this;
+        }
+    }
+}
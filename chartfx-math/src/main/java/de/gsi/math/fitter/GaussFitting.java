@@ -12,114 +12,71 @@ public class GaussFitting { // NOPMD - nomen est omen
     private static double fconstantError = 1.0;
 
     /**
-     * fit precise Gaussian curve width and location based on peak indication and width estimate
-     * 
+     * Thread-safe and allocation-free estimate of the Gaussian curve width and location based on peak indication and
+     * width estimate. Contrary to {@link #fitData(double[], double[], double, double, double)}, the result is returned
+     * rather than stored in the (shared) static state and may thus be used for many peaks in parallel (see
+     * {@link BatchFitter#fitGaussians(double[], double[], double[], double, double)}).
+     *
      * @param sliceX horizontal slice
      * @param sliceY vertical slice
      * @param meanEstimate initial mean estimate
      * @param sigma initial sigma estimate
      * @param nSigma n-sigma definition to be used
+     * @return the Gaussian estimate
      */
-    public static void fitData(double[] sliceX, double[] sliceY, double meanEstimate, double sigma, double nSigma) {
-        int tmin = 0;
-        int tmax = sliceX.length - 1;
-        int center = (int) meanEstimate;
-        int nadd = 100;
-        // for zero padding at the front and end of the measurements to simplify the fit
+    public static Result estimate(final double[] sliceX, final double[] sliceY, final double meanEstimate, final double sigma, final double nSigma) {
+        final int tmin = 0;
+        final int tmax = sliceX.length - 1;
+        final int center = (int) meanEstimate;
 
         int halfWidth = (int) (nSigma * sigma);
-        if (center - tmin < halfWidth)
+        if (center - tmin < halfWidth) {
             halfWidth = center - tmin;
-        if (tmax - center < halfWidth)
+        }
+        if (tmax - center < halfWidth) {
             halfWidth = tmax - center;
+        }
 
-        // create initial starting values for parameters
+        // moments of the measurement window (the former zero-padding does not contribute)
         double x = 0.;
         double x2 = 0.;
         double norm = 0.;
-        double dx = sliceX[1] - sliceX[0];
+        final double dx = sliceX[1] - sliceX[0];
         double area = 0.0;
         double eqArea = 0.0;
-        double[] pos = new double[2 * halfWidth + 2 * nadd];
-        double[] meas = new double[2 * halfWidth + 2 * nadd];
-        double[] var = new double[2 * halfWidth + 2 * nadd];
-        // GaussFcn theFCN = new GaussFcn(meas, pos, var);
-
-        // copy data
-        for (int i = 0; i < 2 * halfWidth; i++) {
-            double valX = sliceX[center - halfWidth + i];
-            double valY = sliceY[center - halfWidth + i];
-            pos[i + nadd] = valX;
-            meas[i + nadd] = valY;
+        for (int i = center - halfWidth; i < center + halfWidth; i++) {
+            final double pos = sliceX[i];
+            final double meas = sliceY[i];
+            norm += meas;
+            x += (meas * pos);
+            x2 += (meas * pos * pos);
+            area += dx * meas;
+            eqArea += meas;
         }
 
-        // zero padding at the begin and end of the data sample
-        for (int i = 0; i < nadd; i++) {
-            pos[nadd - i] = pos[nadd] - dx * i;
-            pos[nadd + 2 * halfWidth + i] = pos[nadd + 2 * halfWidth - 1] + dx * i;
-            meas[i] = 0.0;
-            meas[nadd + 2 * halfWidth + i] = 0.0;
-        }
-
-        for (int i = 0; i < meas.length; i++) {
+        final double mean = x / norm;
+        final double rms2 = x2 / norm - mean * mean;
+        final double rms = rms2 > 0. ? Math.sqrt(rms2) : 1.;
 
-            // pos[i] = (double)i/(double)(meas.length);
-            // meas[i] = testdata.valueAt(pos[i]);
-
-            var[i] = Math.pow(meas[i] * 0.1, 2);
-            norm += meas[i];
-            x += (meas[i] * pos[i]);
-            x2 += (meas[i] * pos[i] * pos[i]);
-            area += dx * meas[i];
-            eqArea += meas[i];
-        }
+        return new Result(mean, rms, area, eqArea);
+    }
 
-        double mean = x / norm;
-        double rms2 = x2 / norm - mean * mean;
-        double rms = rms2 > 0. ? Math.sqrt(rms2) : 1.;
-
-        // System.out.printf("initial assumption: %g %g %g\n",mean,rms,area);
-        // System.out.printf("measurement array as %s elements\n", meas.length);
-        // MnUserParameters upar = new MnUserParameters();
-        // upar.add("mean", mean, 0.01);
-        // upar.add("rms", rms, rms*0.1);
-        // upar.add("area", area, area*0.1);
-        // upar.add("mean", mean, mean);
-        // upar.add("rms", rms, rms);
-        // upar.add("area", area, area);
-
-        // redirect migrad output to nirvana
-        // TODO: redirect output to some error string
-        // PrintStream temp = System.out;
-        // System.setOut(null);
-        // create minimizer (default constructor)
-        // MnMigrad migrad = new MnMigrad(theFCN, init_par, init_err);
-        // MnMigrad migrad = new MnMigrad(theFCN, upar);
-        // migrad.setCheckAnalyticalDerivatives(false);
-        // migrad.setErrorDef(2);
-
-        // ... and minimise
-        // FunctionMinimum min = migrad.minimize(300, 0.3);
-        // fmean = min.userState().value("mean");
-        // frms = min.userState().value("rms");
-        // fconstant = min.userState().value("area");
-
-        fmean = mean;
-        frms = rms;
-        fconstant = area;
-        farea = eqArea;
-
-        // output
-        // System.out.println("minimum: " + min);
-
-        // create MINOS error factory
-        // MnMinos minos = new MnMinos(theFCN, min);
-        // System.setOut(temp);
-        // System.out.printf("mean %s rms %s\n", fmean, frms);
-
-        // fmean_error = choose_absmax(minos.lower(0),minos.upper(0));
-        // frms_error = choose_absmax(minos.lower(1),minos.upper(1));
-        // fconstant_error = choose_absmax(minos.lower(2),minos.upper(2));
+    /**
+     * fit precise Gaussian curve width and location based on peak indication and width estimate
+     * N.B. results are stored in the static state of this class, see {@link #estimate} for a thread-safe alternative
+     * 
+     * @param sliceX horizontal slice
+     * @param sliceY vertical slice
+     * @param meanEstimate initial mean estimate
+     * @param sigma initial sigma estimate
+     * @param nSigma n-sigma definition to be used
+     */
+    public static void fitData(double[] sliceX, double[] sliceY, double meanEstimate, double sigma, double nSigma) {
+        final Result result = estimate(sliceX, sliceY, meanEstimate, sigma, nSigma);
+        fmean = result.getMean();
+        frms = result.getRMS();
+        fconstant = result.getConstant();
+        farea = result.getArea();
     }
 
     public static double getArea() {
@@ -178,6 +135,44 @@ public class GaussFitting { // NOPMD - nomen est omen
                 getAreaError());
     }
 
+    /**
+     * Immutable result of {@link GaussFitting#estimate(double[], double[], double, double, double)}
+     */
+    public static class Result {
+        private final double mean;
+        private final double rms;
+        private final double constant;
+        private final double area;
+
+        private Result(final double mean, final double rms, final double constant, final double area) {
+            this.mean = mean;
+            this.rms = rms;
+            this.constant = constant;
+            this.area = area;
+        }
+
+        public double getArea() {
+            return area;
+        }
+
+        public double getConstant() {
+            return constant;
+        }
+
+        public double getMean() {
+            return mean;
+        }
+
+        public double getRMS() {
+            return rms;
+        }
+
+        @Override
+        public String toString() {
+            return "GaussFitting.Result [mean=" + mean + ", rms=" + rms + ", constant=" + constant + ", area=" + area + "]";
+        }
+    }
+
 //    public static int removeSpuriousPeaks(double[] posX, double[] measY, double sigma) {
 //        int npeaks = posX.length;
 //
@@ -153,6 +153,8 @@ public class NonLinearRegressionFitter {
     protected boolean nFactorOption = false; // = true varaiance, covariance and standard deviation denominator = n
     // = false varaiance, covariance and standard deviation denominator = n-1
 
+    protected boolean parallelResiduals = false; // if true, large chi^2 sums are evaluated in parallel (see WeightedSquareSum)
+
     /**
      * Constructor with data with x as 1D array and no weights provided
      *
@@ -1495,6 +1497,24 @@ public class NonLinearRegressionFitter {
         return yData.clone();
     }
 
+    /**
+     * @return {@code true} if the sum of the weighted squared residuals of large data sets is evaluated in parallel
+     */
+    public boolean isParallelResiduals() {
+        return parallelResiduals;
+    }
+
+    /**
+     * Evaluate the sum of the weighted squared residuals of large (&gt;= 16k samples) one-dimensional data sets in
+     * parallel on the common fork-join pool. N.B. requires {@link Function1D#getValue(double)} to be free of
+     * side-effects; the result may differ from the sequential sum by rounding.
+     *
+     * @param parallelResiduals {@code true}: enable parallel evaluation (default: {@code false})
+     */
+    public void setParallelResiduals(final boolean parallelResiduals) {
+        this.parallelResiduals = parallelResiduals;
+    }
+
     /**
      * Ignore check on whether degrees of freedom are greater than zero
      */
@@ -2973,14 +2993,7 @@ public class NonLinearRegressionFitter {
 
             ss = 0.0;
             if (!multipleY) {
-                final Function1D g1 = (Function1D) regFun;
-                for (int i = 0; i < nData; i++) {
-                    for (int j = 0; j < nXarrays; j++) {
-                        xd[j] = xData[j][i];
-                    }
-
-                    ss += TMathConstants.Sqr((yData[i] - g1.getValue(xd[0])) / weight[i]);
-                }
+                ss = WeightedSquareSum.compute((Function1D) regFun, xData[0], yData, weight, nData, parallelResiduals);
             } else {
                 final FunctionND g2 = (FunctionND) regFun;
 
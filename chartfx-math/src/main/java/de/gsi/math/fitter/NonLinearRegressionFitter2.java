@@ -150,6 +150,10 @@ public class NonLinearRegressionFitter2 {
     protected boolean nFactorOption = false; // = true varaiance, covariance and standard deviation denominator = n
     // = false varaiance, covariance and standard deviation denominator = n-1
 
+    protected boolean parallelResiduals = false; // if true, large chi^2 sums are evaluated in parallel (see WeightedSquareSum)
+
+    private double[] parameterWorkspace = new double[0]; // re-used (rescaled) parameter vector of sumSquares
+
     /**
      * Constructor with data with x as 1D array and weights provided
      *
@@ -607,6 +611,24 @@ public class NonLinearRegressionFitter2 {
         return null;
     }
 
+    /**
+     * @return {@code true} if the sum of the weighted squared residuals of large data sets is evaluated in parallel
+     */
+    public boolean isParallelResiduals() {
+        return parallelResiduals;
+    }
+
+    /**
+     * Evaluate the sum of the weighted squared residuals of large (&gt;= 16k samples) one-dimensional data sets in
+     * parallel on the common fork-join pool. N.B. requires {@link Function1D#getValue(double)} to be free of
+     * side-effects; the result may differ from the sequential sum by rounding.
+     *
+     * @param parallelResiduals {@code true}: enable parallel evaluation (default: {@code false})
+     */
+    public void setParallelResiduals(final boolean parallelResiduals) {
+        this.parallelResiduals = parallelResiduals;
+    }
+
     // Ignore check on whether degrees of freedom are greater than zero
     public void ignoreDofFcheck() {
         ignoreDofFcheck = true;
@@ -1773,7 +1795,10 @@ public class NonLinearRegressionFitter2 {
      */
     protected double sumSquares(final Object regFun, final double[] testParameter) {
         double ss = -3.0D;
-        final double[] param = new double[nTerms];
+        if (parameterWorkspace.length != nTerms) {
+            parameterWorkspace = new double[nTerms];
+        }
+        final double[] param = parameterWorkspace;
 
         // rescale
         for (int i = 0; i < nTerms; i++) {
@@ -1894,15 +1919,13 @@ public class NonLinearRegressionFitter2 {
                     throw new RuntimeException("weight-data storage is not a 1D array");
                 }
 
-                for (int i = 0; i < yd.length; i++) {
-                    ss += TMathConstants.Sqr((yd[i] - g1.getValue(xd[i])) / weightd[i]);
-                }
+                ss = WeightedSquareSum.compute(g1, xd, yd, weightd, yd.length, parallelResiduals);
 
             } else {
                 final FunctionND g2 = (FunctionND) regFun;
-                double[] xd = new double[xData.getValueDimension()];
-                double[] yd = new double[yData.getValueDimension()];
-                double[] weightd = new double[yData.getValueDimension()];
+                double[] xd;
+                double[] yd;
+                double[] weightd;
 
                 // loops over all dimensions
                 for (int i = 0; i < xData.getLocalStorageDim(); i++) {
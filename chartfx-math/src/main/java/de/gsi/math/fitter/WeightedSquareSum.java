@@ -0,0 +1,83 @@
+package de.gsi.math.fitter;
+
+import java.util.concurrent.RecursiveTask;
+
+import de.gsi.math.TMathConstants;
+import de.gsi.math.functions.Function1D;
+
+/**
+ * Sum of the weighted squared residuals sum_i ((y_i - f(x_i))/w_i)^2 used as the objective of the non-linear regression
+ * fitters.
+ * <p>
+ * For large data sets the sum may be evaluated in parallel on the common fork-join pool: the samples are split into
+ * fixed chunks of {@value #CHUNK_SIZE} samples whose partial sums are combined in a fixed order, so that the result is
+ * deterministic (but may differ by rounding from the sequential sum). N.B. this requires
+ * {@link Function1D#getValue(double)} to be free of side-effects.
+ */
+final class WeightedSquareSum { // NOPMD - nomen est omen
+    /** minimum number of samples for which the sum is evaluated in parallel */
+    static final int MIN_PARALLEL_SAMPLES = 1 << 14;
+    private static final int CHUNK_SIZE = 4096;
+
+    private WeightedSquareSum() {
+        // utility class
+    }
+
+    /**
+     * @param function model function
+     * @param x x coordinates
+     * @param y y coordinates
+     * @param weight weights (standard deviations) of the y coordinates
+     * @param length number of samples
+     * @param parallel whether large sums may be evaluated in parallel
+     * @return sum of the weighted squared residuals
+     */
+    static double compute(final Function1D function, final double[] x, final double[] y, final double[] weight, final int length, final boolean parallel) {
+        if (!parallel || length < MIN_PARALLEL_SAMPLES) {
+            return compute(function, x, y, weight, 0, length);
+        }
+        return new SumTask(function, x, y, weight, 0, length).invoke();
+    }
+
+    private static double compute(final Function1D function, final double[] x, final double[] y, final double[] weight, final int from, final int to) {
+        double ss = 0.0;
+        for (int i = from; i < to; i++) {
+            ss += TMathConstants.Sqr((y[i] - function.getValue(x[i])) / weight[i]);
+        }
+        return ss;
+    }
+
+    private static class SumTask extends RecursiveTask<Double> {
+        private static final long serialVersionUID = 1L;
+        private final transient Function1D function;
+        private final double[] x;
+        private final double[] y;
+        private final double[] weight;
+        private final int from;
+        private final int to;
+
+        private SumTask(final Function1D function, final double[] x, final double[] y, final double[] weight, final int from, final int to) {
+            super();
+            this.function = function;
+            this.x = x;
+            this.y = y;
+            this.weight = weight;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Double compute() {
+            if (to - from <= CHUNK_SIZE) {
+                return WeightedSquareSum.compute(function, x, y, weight, from, to);
+            }
+            // split at a chunk boundary -> partition independent of the scheduling
+            final int mid = from + ((to - from) / CHUNK_SIZE / 2) * CHUNK_SIZE;
+            final SumTask left = new SumTask(function, x, y, weight, from, Math.max(mid, from + CHUNK_SIZE));
+            final SumTask right = new SumTask(function, x, y, weight, Math.max(mid, from + CHUNK_SIZE), to);
+            left.fork();
+            final double rightSum = right.compute();
+            return left.join() + rightSum;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package de.gsi.math.matrix;
+
+import java.util.Arrays;
+
+import de.gsi.dataset.utils.AssertUtils;
+
+/**
+ * Dense matrix stored as one flat row-major {@code double[]} array.
+ * <p>
+ * Contrary to the {@code double[][]} based {@link MatrixD}, the contiguous storage allows cache-blocked kernels: the
+ * multiplication and the LU, QR and Cholesky decompositions are computed block-wise and distributed across the common
+ * fork-join pool (see {@link BlockedMatrixOps}). The decompositions are returned in the representation of the reference
+ * implementations so that the existing solve/determinant/inverse logic can be reused.
+ * <p>
+ * {@link MatrixD} delegates to this backend for large matrices if selected via
+ * {@link MatrixFactory#setBackend(MatrixFactory.Backend)}.
+ */
+public class BlockedMatrixD extends AbstractMatrix {
+    private static final long serialVersionUID = -3203364416616442839L;
+    private final double[] element; // row-major storage
+
+    /**
+     * Construct an m-by-n matrix of zeros.
+     *
+     * @param m Number of rows.
+     * @param n Number of columns.
+     */
+    public BlockedMatrixD(final int m, final int n) {
+        this(m, n, new double[m * n]);
+    }
+
+    /**
+     * Construct a matrix from a one-dimensional row-major array (N.B. the array is used as backing storage, not copied)
+     *
+     * @param m Number of rows.
+     * @param n Number of columns.
+     * @param element row-major array of length m*n
+     */
+    public BlockedMatrixD(final int m, final int n, final double[] element) {
+        super();
+        AssertUtils.notNull("element", element);
+        if (element.length != m * n) {
+            throw new IllegalArgumentException("Array length must be m*n = " + (m * n) + " vs. " + element.length);
+        }
+        this.m = m;
+        this.n = n;
+        this.element = element;
+    }
+
+    /**
+     * Construct a matrix from a copy of another matrix
+     *
+     * @param A source matrix
+     */
+    public BlockedMatrixD(final MatrixD A) {
+        this(A.getRowDimension(), A.getColumnDimension(), BlockedMatrixOps.toRowPacked(A.getArray(), A.getRowDimension(), A.getColumnDimension()));
+    }
+
+    /**
+     * Cholesky Decomposition
+     *
+     * @return CholeskyDecomposition
+     * @exception IllegalArgumentException Matrix must be square.
+     * @see CholeskyDecomposition
+     */
+    public CholeskyDecomposition chol() {
+        if (m != n) {
+            throw new IllegalArgumentException("Matrix must be square.");
+        }
+        final double[] l = new double[n * n];
+        final boolean isspd = BlockedMatrixOps.cholesky(element, n, l);
+        return new CholeskyDecomposition(BlockedMatrixOps.toArray(l, n, n), n, isspd);
+    }
+
+    @Override
+    public BlockedMatrixD copy() {
+        return new BlockedMatrixD(m, n, Arrays.copyOf(element, element.length));
+    }
+
+    @Override
+    public double get(final int i, final int j) {
+        return element[i * n + j];
+    }
+
+    /**
+     * Access the internal row-major array.
+     *
+     * @return Pointer to the array of matrix elements, element (i,j) is stored at index i*n + j.
+     */
+    public double[] getArray() {
+        return element;
+    }
+
+    /**
+     * LU Decomposition
+     *
+     * @return LUDecomposition
+     * @see LUDecomposition
+     */
+    public LUDecomposition lu() {
+        final double[] lu = Arrays.copyOf(element, element.length);
+        final int[] piv = new int[m];
+        final int pivsign = BlockedMatrixOps.lu(lu, m, n, piv);
+        return new LUDecomposition(BlockedMatrixOps.toArray(lu, m, n), m, n, piv, pivsign);
+    }
+
+    /**
+     * QR Decomposition
+     *
+     * @return QRDecomposition
+     * @see QRDecomposition
+     */
+    public QRDecomposition qr() {
+        final double[] qr = Arrays.copyOf(element, element.length);
+        final double[] rdiag = new double[n];
+        BlockedMatrixOps.qr(qr, m, n, rdiag);
+        return new QRDecomposition(BlockedMatrixOps.toArray(qr, m, n), m, n, rdiag);
+    }
+
+    @Override
+    public void set(final int i, final int j, final double val) {
+        element[i * n + j] = val;
+    }
+
+    /**
+     * Linear algebraic matrix multiplication, A * B
+     *
+     * @param B another matrix
+     * @return Matrix product, A * B
+     * @exception IllegalArgumentException Matrix inner dimensions must agree.
+     */
+    public BlockedMatrixD times(final BlockedMatrixD B) {
+        if (B.m != n) {
+            throw new IllegalArgumentException("Matrix inner dimensions must agree.");
+        }
+        final BlockedMatrixD X = new BlockedMatrixD(m, B.n);
+        BlockedMatrixOps.multiplyAdd(1.0, element, 0, n, B.element, 0, B.n, X.element, 0, B.n, m, B.n, n, false);
+        return X;
+    }
+
+    /**
+     * Convert to the {@code double[][]} based matrix representation
+     *
+     * @return deep copy as MatrixD
+     */
+    public MatrixD toMatrixD() {
+        return new MatrixD(BlockedMatrixOps.toArray(element, m, n), m, n);
+    }
+
+    /**
+     * Matrix transpose.
+     *
+     * @return A'
+     */
+    public BlockedMatrixD transpose() {
+        return new BlockedMatrixD(n, m, BlockedMatrixOps.transpose(element, m, n));
+    }
+}
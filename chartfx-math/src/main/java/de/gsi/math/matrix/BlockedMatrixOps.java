@@ -0,0 +1,423 @@
+package de.gsi.math.matrix;
+
+import java.util.Arrays;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Cache-blocked and fork-join parallel kernels operating on flat row-major {@code double[]} storage.
+ * <p>
+ * The multiplication is tiled into {@value #TILE_ROWS} x {@value #TILE_COLUMNS} output tiles that are distributed
+ * across the common fork-join pool; within a tile the inner dimension is processed in {@value #BLOCK_INNER} wide blocks
+ * so that the touched part of the right-hand operand remains cache-resident. Each output element is owned by exactly one
+ * tile and accumulated in a fixed order, so that results do not depend on the number of threads.
+ * <p>
+ * The decompositions use right-looking blocked algorithms (LU, Cholesky) whose trailing-matrix updates are performed by
+ * the parallel multiplication kernel, and a panel-blocked Householder QR that applies the reflectors of each panel to
+ * cache-sized column chunks in parallel. The results are stored in the same representation as the reference
+ * {@link LUDecomposition}, {@link CholeskyDecomposition} and {@link QRDecomposition} implementations.
+ */
+final class BlockedMatrixOps { // NOPMD - nomen est omen
+    /** panel width of the blocked decompositions */
+    static final int PANEL = 64;
+    static final int TILE_ROWS = 64;
+    static final int TILE_COLUMNS = 256;
+    static final int BLOCK_INNER = 64;
+    /** minimum number of multiply-adds for which the work is distributed across the fork-join pool */
+    static final long PARALLEL_THRESHOLD = 1L << 18;
+
+    private BlockedMatrixOps() {
+        // utility class
+    }
+
+    /**
+     * Cholesky decomposition A = L*L' following the conventions of {@link CholeskyDecomposition}
+     *
+     * @param a n x n row-major input matrix (not modified)
+     * @param n matrix dimension
+     * @param l n x n row-major output storage for the lower triangular factor
+     * @return {@code true} if the matrix is symmetric and positive definite
+     */
+    static boolean cholesky(final double[] a, final int n, final double[] l) {
+        boolean isspd = true;
+        for (int i = 0; i < n; i++) {
+            final int row = i * n;
+            for (int j = 0; j < i; j++) {
+                isspd &= a[row + j] == a[j * n + i];
+            }
+            System.arraycopy(a, row, l, row, i + 1);
+            Arrays.fill(l, row + i + 1, row + n, 0.0);
+        }
+
+        for (int j0 = 0; j0 < n; j0 += PANEL) {
+            final int jb = Math.min(PANEL, n - j0);
+            final int jEnd = j0 + jb;
+
+            // factorise diagonal block
+            for (int j = j0; j < jEnd; j++) {
+                final int rowj = j * n;
+                double d = 0.0;
+                for (int k = j0; k < j; k++) {
+                    final int rowk = k * n;
+                    double s = l[rowj + k];
+                    for (int p = j0; p < k; p++) {
+                        s -= l[rowk + p] * l[rowj + p];
+                    }
+                    s /= l[rowk + k];
+                    l[rowj + k] = s;
+                    d += s * s;
+                }
+                d = l[rowj + j] - d;
+                isspd &= d > 0.0;
+                l[rowj + j] = Math.sqrt(Math.max(d, 0.0));
+            }
+
+            final int remaining = n - jEnd;
+            if (remaining == 0) {
+                break;
+            }
+
+            // panel below the diagonal block: L21 = A21 * L11^-T
+            final int jStart = j0;
+            parallelFor(jEnd, n, (long) jb * jb * n, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    final int rowi = i * n;
+                    for (int k = jStart; k < jEnd; k++) {
+                        final int rowk = k * n;
+                        double s = l[rowi + k];
+                        for (int p = jStart; p < k; p++) {
+                            s -= l[rowi + p] * l[rowk + p];
+                        }
+                        l[rowi + k] = s / l[rowk + k];
+                    }
+                }
+            });
+
+            // symmetric trailing update of the lower triangle: A22 -= L21 * L21'
+            final double[] transposed = new double[jb * remaining];
+            for (int i = 0; i < remaining; i++) {
+                final int rowi = (jEnd + i) * n + j0;
+                for (int p = 0; p < jb; p++) {
+                    transposed[p * remaining + i] = l[rowi + p];
+                }
+            }
+            multiplyAdd(-1.0, l, jEnd * n + j0, n, transposed, 0, remaining, l, jEnd * n + jEnd, n, remaining, remaining, jb, true);
+        }
+
+        // the trailing updates also touch the upper triangle of tiles crossing the diagonal
+        for (int i = 0; i < n; i++) {
+            Arrays.fill(l, i * n + i + 1, (i + 1) * n, 0.0);
+        }
+        return isspd;
+    }
+
+    /**
+     * LU decomposition with partial pivoting following the conventions of {@link LUDecomposition}
+     *
+     * @param lu m x n row-major matrix, overwritten by the packed L (unit diagonal omitted) and U factors
+     * @param m number of rows
+     * @param n number of columns
+     * @param piv row permutation vector of length m (output)
+     * @return pivot sign (+1 or -1)
+     */
+    static int lu(final double[] lu, final int m, final int n, final int[] piv) {
+        for (int i = 0; i < m; i++) {
+            piv[i] = i;
+        }
+        int pivsign = 1;
+        final int kmax = Math.min(m, n);
+        for (int j0 = 0; j0 < kmax; j0 += PANEL) {
+            final int jEnd = Math.min(j0 + PANEL, kmax);
+
+            // unblocked factorisation of the panel columns [j0, jEnd[
+            for (int j = j0; j < jEnd; j++) {
+                int p = j;
+                for (int i = j + 1; i < m; i++) {
+                    if (Math.abs(lu[i * n + j]) > Math.abs(lu[p * n + j])) {
+                        p = i;
+                    }
+                }
+                if (p != j) {
+                    swapRows(lu, n, p, j);
+                    final int k = piv[p];
+                    piv[p] = piv[j];
+                    piv[j] = k;
+                    pivsign = -pivsign;
+                }
+
+                final int rowj = j * n;
+                final double pivot = lu[rowj + j];
+                if (pivot == 0.0) {
+                    continue;
+                }
+                for (int i = j + 1; i < m; i++) {
+                    final int rowi = i * n;
+                    final double lij = lu[rowi + j] /= pivot;
+                    for (int c = j + 1; c < jEnd; c++) {
+                        lu[rowi + c] -= lij * lu[rowj + c];
+                    }
+                }
+            }
+
+            if (jEnd == n) {
+                continue;
+            }
+
+            // U12 = L11^-1 * A12
+            for (int j = j0; j < jEnd; j++) {
+                final int rowj = j * n;
+                for (int i = j + 1; i < jEnd; i++) {
+                    final int rowi = i * n;
+                    final double lij = lu[rowi + j];
+                    for (int c = jEnd; c < n; c++) {
+                        lu[rowi + c] -= lij * lu[rowj + c];
+                    }
+                }
+            }
+
+            // A22 -= L21 * U12
+            if (jEnd < m) {
+                multiplyAdd(-1.0, lu, jEnd * n + j0, n, lu, j0 * n + jEnd, n, lu, jEnd * n + jEnd, n, m - jEnd, n - jEnd, jEnd - j0, false);
+            }
+        }
+        return pivsign;
+    }
+
+    /**
+     * C += alpha * A * B for row-major (sub-)matrices addressed via offset and leading dimension (row stride)
+     *
+     * @param alpha scaling factor
+     * @param a left-hand operand storage
+     * @param aOffset index of A(0,0)
+     * @param lda row stride of A
+     * @param b right-hand operand storage
+     * @param bOffset index of B(0,0)
+     * @param ldb row stride of B
+     * @param c result storage
+     * @param cOffset index of C(0,0)
+     * @param ldc row stride of C
+     * @param m number of rows of A and C
+     * @param n number of columns of B and C
+     * @param k number of columns of A and rows of B
+     * @param lowerOnly whether only tiles intersecting the lower triangle (incl. diagonal) of C need to be updated
+     */
+    static void multiplyAdd(final double alpha, final double[] a, final int aOffset, final int lda, final double[] b, final int bOffset, final int ldb, // NOPMD
+            final double[] c, final int cOffset, final int ldc, final int m, final int n, final int k, final boolean lowerOnly) {
+        final int nTileRows = (m + TILE_ROWS - 1) / TILE_ROWS;
+        final int nTileColumns = (n + TILE_COLUMNS - 1) / TILE_COLUMNS;
+        parallelFor(0, nTileRows * nTileColumns, (long) m * n * k, (from, to) -> {
+            for (int tile = from; tile < to; tile++) {
+                final int i0 = (tile / nTileColumns) * TILE_ROWS;
+                final int j0 = (tile % nTileColumns) * TILE_COLUMNS;
+                final int i1 = Math.min(i0 + TILE_ROWS, m);
+                if (lowerOnly && j0 >= i1) {
+                    continue;
+                }
+                multiplyAddTile(alpha, a, aOffset, lda, b, bOffset, ldb, c, cOffset, ldc, i0, i1, j0, Math.min(j0 + TILE_COLUMNS, n), k);
+            }
+        });
+    }
+
+    /**
+     * Householder QR decomposition following the conventions of {@link QRDecomposition}. The reflectors are applied
+     * column-wise in the same order as the reference implementation, so that the results are identical.
+     *
+     * @param qr m x n row-major matrix, overwritten by the Householder vectors and the strict upper triangle of R
+     * @param m number of rows
+     * @param n number of columns
+     * @param rdiag diagonal of R of length n (output)
+     */
+    static void qr(final double[] qr, final int m, final int n, final double[] rdiag) {
+        for (int k0 = 0; k0 < n; k0 += PANEL) {
+            final int kEnd = Math.min(k0 + PANEL, n);
+
+            // unblocked factorisation of the panel columns [k0, kEnd[
+            for (int k = k0; k < kEnd; k++) {
+                double nrm = 0;
+                for (int i = k; i < m; i++) {
+                    nrm = Math.hypot(nrm, qr[i * n + k]);
+                }
+                if (nrm != 0.0) {
+                    if (qr[k * n + k] < 0) {
+                        nrm = -nrm;
+                    }
+                    for (int i = k; i < m; i++) {
+                        qr[i * n + k] /= nrm;
+                    }
+                    qr[k * n + k] += 1.0;
+                }
+                rdiag[k] = -nrm;
+                applyReflectors(qr, m, n, k, k + 1, rdiag, k + 1, kEnd);
+            }
+
+            // apply the panel reflectors to cache-sized chunks of the trailing columns
+            if (kEnd < n) {
+                final int kStart = k0;
+                final int nChunks = (n - kEnd + TILE_ROWS - 1) / TILE_ROWS;
+                parallelFor(0, nChunks, 2L * (kEnd - k0) * (m - k0) * (n - kEnd), (from, to) -> {
+                    for (int chunk = from; chunk < to; chunk++) {
+                        final int c0 = kEnd + chunk * TILE_ROWS;
+                        applyReflectors(qr, m, n, kStart, kEnd, rdiag, c0, Math.min(c0 + TILE_ROWS, n));
+                    }
+                });
+            }
+        }
+    }
+
+    static double[][] toArray(final double[] element, final int m, final int n) {
+        final double[][] array = new double[m][n];
+        for (int i = 0; i < m; i++) {
+            System.arraycopy(element, i * n, array[i], 0, n);
+        }
+        return array;
+    }
+
+    static double[] toRowPacked(final double[][] array, final int m, final int n) {
+        final double[] element = new double[m * n];
+        for (int i = 0; i < m; i++) {
+            System.arraycopy(array[i], 0, element, i * n, n);
+        }
+        return element;
+    }
+
+    /**
+     * @param element m x n row-major source
+     * @param m number of rows
+     * @param n number of columns
+     * @return n x m row-major transpose, computed in square cache blocks
+     */
+    static double[] transpose(final double[] element, final int m, final int n) {
+        final double[] transposed = new double[m * n];
+        for (int i0 = 0; i0 < m; i0 += BLOCK_INNER) {
+            final int i1 = Math.min(i0 + BLOCK_INNER, m);
+            for (int j0 = 0; j0 < n; j0 += BLOCK_INNER) {
+                final int j1 = Math.min(j0 + BLOCK_INNER, n);
+                for (int i = i0; i < i1; i++) {
+                    for (int j = j0; j < j1; j++) {
+                        transposed[j * m + i] = element[i * n + j];
+                    }
+                }
+            }
+        }
+        return transposed;
+    }
+
+    /**
+     * applies the reflectors stored in columns [kFrom, kTo[ (skipping null reflectors) to columns [c0, c1[
+     */
+    private static void applyReflectors(final double[] qr, final int m, final int n, final int kFrom, final int kTo, final double[] rdiag, final int c0, final int c1) {
+        if (c0 >= c1) {
+            return;
+        }
+        final double[] s = new double[c1 - c0];
+        for (int k = kFrom; k < kTo; k++) {
+            if (rdiag[k] == 0.0) {
+                continue; // null column: no transformation
+            }
+            Arrays.fill(s, 0.0);
+            for (int i = k; i < m; i++) {
+                final int row = i * n;
+                final double v = qr[row + k];
+                for (int j = c0; j < c1; j++) {
+                    s[j - c0] += v * qr[row + j];
+                }
+            }
+            final double vkk = qr[k * n + k];
+            for (int j = c0; j < c1; j++) {
+                s[j - c0] = -s[j - c0] / vkk;
+            }
+            for (int i = k; i < m; i++) {
+                final int row = i * n;
+                final double v = qr[row + k];
+                for (int j = c0; j < c1; j++) {
+                    qr[row + j] += s[j - c0] * v;
+                }
+            }
+        }
+    }
+
+    private static void multiplyAddTile(final double alpha, final double[] a, final int aOffset, final int lda, final double[] b, final int bOffset, final int ldb, // NOPMD
+            final double[] c, final int cOffset, final int ldc, final int i0, final int i1, final int j0, final int j1, final int k) {
+        for (int p0 = 0; p0 < k; p0 += BLOCK_INNER) {
+            final int p1 = Math.min(p0 + BLOCK_INNER, k);
+            for (int i = i0; i < i1; i++) {
+                final int aRow = aOffset + i * lda;
+                final int cRow = cOffset + i * ldc;
+                int p = p0;
+                // four rows of B per sweep over the C row reduce the load/store traffic on C
+                for (; p + 3 < p1; p += 4) {
+                    final double a0 = alpha * a[aRow + p];
+                    final double a1 = alpha * a[aRow + p + 1];
+                    final double a2 = alpha * a[aRow + p + 2];
+                    final double a3 = alpha * a[aRow + p + 3];
+                    final int b0 = bOffset + p * ldb;
+                    final int b1 = b0 + ldb;
+                    final int b2 = b1 + ldb;
+                    final int b3 = b2 + ldb;
+                    for (int j = j0; j < j1; j++) {
+                        c[cRow + j] += a0 * b[b0 + j] + a1 * b[b1 + j] + a2 * b[b2 + j] + a3 * b[b3 + j];
+                    }
+                }
+                for (; p < p1; p++) {
+                    final double aip = alpha * a[aRow + p];
+                    final int bRow = bOffset + p * ldb;
+                    for (int j = j0; j < j1; j++) {
+                        c[cRow + j] += aip * b[bRow + j];
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * executes {@code body} on [from, to[, split into work-stealing sub-ranges if the total {@code work} is large enough
+     */
+    private static void parallelFor(final int from, final int to, final long work, final RangeBody body) {
+        if (to - from <= 1 || work < PARALLEL_THRESHOLD) {
+            body.apply(from, to);
+            return;
+        }
+        final long grain = Math.max(1, (to - from) * PARALLEL_THRESHOLD / work);
+        new RangeAction(from, to, (int) Math.min(grain, to - from), body).invoke();
+    }
+
+    private static void swapRows(final double[] element, final int n, final int row1, final int row2) {
+        final int offset1 = row1 * n;
+        final int offset2 = row2 * n;
+        for (int k = 0; k < n; k++) {
+            final double t = element[offset1 + k];
+            element[offset1 + k] = element[offset2 + k];
+            element[offset2 + k] = t;
+        }
+    }
+
+    @FunctionalInterface
+    private interface RangeBody {
+        void apply(int from, int to);
+    }
+
+    private static class RangeAction extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int from;
+        private final int to;
+        private final int grain;
+        private final transient RangeBody body;
+
+        private RangeAction(final int from, final int to, final int grain, final RangeBody body) {
+            super();
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                body.apply(from, to);
+                return;
+            }
+            final int mid = (from + to) >>> 1;
+            invokeAll(new RangeAction(from, mid, grain, body), new RangeAction(mid, to, grain, body));
+        }
+    }
+}
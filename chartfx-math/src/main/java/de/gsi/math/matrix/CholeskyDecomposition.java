@@ -42,6 +42,19 @@ public class CholeskyDecomposition implements java.io.Serializable {
      * ------------------------ Constructor ------------------------
      */
 
+    /**
+     * Cholesky Decomposition from a precomputed factor (e.g. computed by {@link BlockedMatrixOps})
+     *
+     * @param L lower triangular factor
+     * @param n matrix dimension
+     * @param isspd symmetric and positive definite flag
+     */
+    CholeskyDecomposition(final double[][] L, final int n, final boolean isspd) {
+        this.L = L;
+        this.n = n;
+        this.isspd = isspd;
+    }
+
     /**
      * Cholesky algorithm for symmetric and positive definite matrix.
      * 
@@ -47,6 +47,23 @@ public class LUDecomposition implements java.io.Serializable {
      * ------------------------ Constructor ------------------------
      */
 
+    /**
+     * LU Decomposition from precomputed factors (e.g. computed by {@link BlockedMatrixOps})
+     *
+     * @param LU packed L (unit diagonal omitted) and U factors
+     * @param m row dimension
+     * @param n column dimension
+     * @param piv pivot vector
+     * @param pivsign pivot sign
+     */
+    LUDecomposition(final double[][] LU, final int m, final int n, final int[] piv, final int pivsign) {
+        this.LU = LU;
+        this.m = m;
+        this.n = n;
+        this.piv = piv;
+        this.pivsign = pivsign;
+    }
+
     /**
      * LU Decomposition
      * 
@@ -294,6 +294,9 @@ public class MatrixD extends AbstractMatrix {
      */
 
     public CholeskyDecomposition chol() {
+        if (m == n && MatrixFactory.isBlocked(n)) {
+            return new BlockedMatrixD(this).chol();
+        }
         return new CholeskyDecomposition(this);
     }
 
@@ -528,6 +531,9 @@ public class MatrixD extends AbstractMatrix {
      * @see LUDecomposition
      */
     public LUDecomposition lu() {
+        if (MatrixFactory.isBlocked(m, n)) {
+            return new BlockedMatrixD(this).lu();
+        }
         return new LUDecomposition(this);
     }
 
@@ -706,6 +712,9 @@ public class MatrixD extends AbstractMatrix {
      */
 
     public QRDecomposition qr() {
+        if (MatrixFactory.isBlocked(m, n)) {
+            return new BlockedMatrixD(this).qr();
+        }
         return new QRDecomposition(this);
     }
 
@@ -892,6 +901,9 @@ public class MatrixD extends AbstractMatrix {
         if (B.m != n) {
             throw new IllegalArgumentException("Matrix inner dimensions must agree.");
         }
+        if (MatrixFactory.isBlocked(m, n, B.n)) {
+            return new BlockedMatrixD(this).times(new BlockedMatrixD(B)).toMatrixD();
+        }
         final MatrixD X = new MatrixD(m, B.n);
         final double[][] C = X.getArray();
         final double[] vector = new double[n];
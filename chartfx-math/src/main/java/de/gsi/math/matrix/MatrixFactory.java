@@ -1,6 +1,26 @@
 package de.gsi.math.matrix;
 
+import java.util.Locale;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.gsi.dataset.utils.AssertUtils;
+
+/**
+ * Factory methods for matrices and selection of the computational backend used by {@link MatrixD}.
+ * <p>
+ * The backend is initialised from the system property {@value #BACKEND_PROPERTY} (e.g.
+ * {@code -Dchartfx.matrix.backend=blocked}) and may be changed at run-time via {@link #setBackend(Backend)}. With the
+ * {@link Backend#BLOCKED} backend, the multiplication and the LU, QR and Cholesky decompositions of matrices with at
+ * least {@link #getBlockedThreshold()} rows and columns are delegated to {@link BlockedMatrixD}.
+ */
 public class MatrixFactory {
+    /** system property used to initialise the backend */
+    public static final String BACKEND_PROPERTY = "chartfx.matrix.backend";
+    private static final Logger LOGGER = LoggerFactory.getLogger(MatrixFactory.class);
+    private static volatile Backend backend = parse(System.getProperty(BACKEND_PROPERTY));
+    private static volatile int blockedThreshold = 64;
 
     /**
      * Construct a matrix from a copy of a 2-D array.
@@ -60,4 +80,77 @@ public class MatrixFactory {
         return A;
     }
 
+    /**
+     * @return the backend used by {@link MatrixD} for multiplications and decompositions
+     */
+    public static Backend getBackend() {
+        return backend;
+    }
+
+    /**
+     * @return minimum row and column dimension for which the {@link Backend#BLOCKED} backend is used
+     */
+    public static int getBlockedThreshold() {
+        return blockedThreshold;
+    }
+
+    /**
+     * @param newBackend the backend used by {@link MatrixD} for multiplications and decompositions
+     */
+    public static void setBackend(final Backend newBackend) {
+        AssertUtils.notNull("newBackend", newBackend);
+        backend = newBackend;
+    }
+
+    /**
+     * @param threshold minimum row and column dimension (&gt;0) for which the {@link Backend#BLOCKED} backend is used,
+     *            smaller matrices are processed by the reference implementation (default: 64)
+     */
+    public static void setBlockedThreshold(final int threshold) {
+        AssertUtils.gtThanZero("threshold", threshold);
+        blockedThreshold = threshold;
+    }
+
+    /**
+     * @param dimensions the relevant dimensions of the operation (e.g. m, n and k of a multiplication)
+     * @return {@code true} if the operation should be delegated to {@link BlockedMatrixD}
+     */
+    static boolean isBlocked(final int... dimensions) {
+        if (backend != Backend.BLOCKED) {
+            return false;
+        }
+        final int threshold = blockedThreshold;
+        for (final int dimension : dimensions) {
+            if (dimension < threshold) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Backend parse(final String name) {
+        if (name == null || name.isBlank()) {
+            return Backend.JAMA;
+        }
+        try {
+            return Backend.valueOf(name.trim().toUpperCase(Locale.UK));
+        } catch (IllegalArgumentException e) {
+            LOGGER.atWarn().addArgument(BACKEND_PROPERTY).addArgument(name).log("unknown {} = '{}' - using JAMA");
+            return Backend.JAMA;
+        }
+    }
+
+    /**
+     * computational backend of {@link MatrixD}
+     */
+    public enum Backend {
+        /**
+         * reference (Jama) algorithms operating on the {@code double[][]} storage (default)
+         */
+        JAMA,
+        /**
+         * flat row-major, cache-blocked and fork-join parallel algorithms of {@link BlockedMatrixD} for large matrices
+         */
+        BLOCKED
+    }
 }
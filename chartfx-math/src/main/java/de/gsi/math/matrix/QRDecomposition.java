@@ -44,6 +44,21 @@ public class QRDecomposition implements java.io.Serializable {
      * ------------------------ Constructor ------------------------
      */
 
+    /**
+     * QR Decomposition from precomputed Householder vectors (e.g. computed by {@link BlockedMatrixOps})
+     *
+     * @param QR Householder vectors and strict upper triangle of R
+     * @param m row dimension
+     * @param n column dimension
+     * @param Rdiag diagonal of R
+     */
+    QRDecomposition(final double[][] QR, final int m, final int n, final double[] Rdiag) {
+        this.QR = QR;
+        this.m = m;
+        this.n = n;
+        this.Rdiag = Rdiag;
+    }
+
     /**
      * QR Decomposition, computed by Householder reflections.
      * 
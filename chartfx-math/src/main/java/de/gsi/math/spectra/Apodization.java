@@ -1,17 +1,18 @@
 package de.gsi.math.spectra;
 
 import java.util.Map;
-import java.util.WeakHashMap;
 
 import de.gsi.dataset.utils.AssertUtils;
+import de.gsi.dataset.utils.LruCache;
 import de.gsi.math.TMathConstants;
 
 /**
  * implementation of frequenty used apodization (aka. windowing) functions reference:
  * http://en.wikipedia.org/wiki/Apodization_function - feel free to populate this with the other (however also less
  * frequently used) windows
- * The array for the windows are cached. By default a WeakHashMap is used, but the cache can be replaced e.g by
- * {@link de.gsi.dataset.utils.Cache} if different caching behaviour is wanted.
+ * The array for the windows are cached. By default a thread-safe {@link LruCache} (which also provides hit-rate
+ * metrics) is used, but the cache can be replaced e.g by {@link de.gsi.dataset.utils.Cache} if different caching
+ * behaviour is wanted.
  *
  * @author rstein
  * @author akrimm
@@ -28,7 +29,9 @@ public enum Apodization {
     FlatTop("Flat-Top"),
     Exponential("exponential");
 
-    private static Map<ApodizationArrayDescription, double[]> windowCache = new WeakHashMap<>();
+    /** default maximum number of cached windows (per type and length) */
+    public static final int DEFAULT_WINDOW_CACHE_CAPACITY = 64;
+    private static Map<ApodizationArrayDescription, double[]> windowCache = new LruCache<>(DEFAULT_WINDOW_CACHE_CAPACITY);
 
     private String fname;
 
@@ -194,8 +197,10 @@ public enum Apodization {
      * Changes the map used to cache the apodization windows.
      * The map should implement some sort of caching behaviour e.g
      * <ul>
+     * <li>{@link LruCache} {@code<ApodizationArrayDescription, double[]>} thread-safe, limited number of entries (The
+     * default)
      * <li>{@link java.util.WeakHashMap} {@code<ApodizationArrayDescription, double[]>} invalidates under memory
-     * pressure (The default)
+     * pressure (N.B. not thread-safe)
      * <li>{@link de.gsi.dataset.utils.Cache} limits retention time and number of cached entries
      * <li>custom implementation
      * </ul>
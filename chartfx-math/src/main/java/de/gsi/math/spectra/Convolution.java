@@ -6,6 +6,7 @@ import java.util.Arrays;
 import org.jtransforms.fft.DoubleFFT_1D;
 
 import de.gsi.math.TMathConstants;
+import de.gsi.math.spectra.fft.FFTPlanCache;
 import de.gsi.math.utils.ConcurrencyUtils;
 
 /**
@@ -17,9 +18,7 @@ public class Convolution {
     public DoubleFFT_1D f1dFFT;
 
     private void init(final int size) {
-        if (f1dFFT == null) {
-            f1dFFT = new DoubleFFT_1D(size);
-        }
+        f1dFFT = FFTPlanCache.getDoubleFFT_1D(size);
     }
 
     public void Test() {
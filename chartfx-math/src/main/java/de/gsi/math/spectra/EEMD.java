@@ -1,143 +1,73 @@
 package de.gsi.math.spectra;
 
+import java.util.function.IntConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import de.gsi.dataset.DataSet;
 import de.gsi.dataset.spi.DataSetBuilder;
+import de.gsi.dataset.utils.CachedDaemonThreadFactory;
 import de.gsi.math.Spline;
 import de.gsi.math.TMath;
 import de.gsi.math.TMathConstants;
 import de.gsi.math.TRandom;
 import de.gsi.math.matrix.MatrixD;
 import de.gsi.math.utils.ConcurrencyUtils;
+import de.gsi.math.utils.ForkJoinComputation;
 
 /**
  * @author rstein
  */
 public class EEMD {
-    private static TRandom rnd = new TRandom(0);
-    private int fstatus = 100;
+    private static final Logger LOGGER = LoggerFactory.getLogger(EEMD.class);
+    private volatile ForkJoinComputation<?> lastComputation;
 
+    /**
+     * Ensemble empirical mode decomposition, the ensemble members are sifted in parallel on the shared
+     * {@link CachedDaemonThreadFactory#getCommonPool()}
+     *
+     * @param data input data
+     * @param rms_noise RMS of the white noise added to each ensemble member (relative to the data RMS)
+     * @param NE number of ensemble members
+     * @return ensemble average of the modes (column 0: input data, 1..n-1: intrinsic mode functions normalised to the
+     *         input data RMS, n: residual)
+     */
     public MatrixD eemd(final double[] data, final double rms_noise, final double NE) {
-        final int xsize = data.length;
-        final double[] X1 = new double[xsize];
-        final double[] xorigin = new double[xsize];
-        final double[] xstart = new double[xsize];
-        final double[] xstart_old = new double[xsize];
-        final double[] xend = new double[xsize];
-        // dd=1:1:xsize;
-        final double Ystd = TMath.RMS(data);
-
-        final int TNM = (int) Math.floor(TMathConstants.Log2(xsize)) - 1;
-        final int TNM2 = TNM + 2;
-
-        final MatrixD allmode = new MatrixD(xsize, TNM2 + 1);
-        final MatrixD mode = new MatrixD(xsize, TNM2 + 1);
-
-        for (int iii = 0; iii < NE; iii++) {
-            for (int i = 0; i < xsize; i++) {
-                final double temp = rnd.Gaus(0, rms_noise);
-                X1[i] = data[i] / Ystd + temp;
-            }
-
-            for (int jj = 0; jj < xsize; jj++) {
-                mode.set(jj, 0, data[jj]);
-            }
-
-            System.arraycopy(X1, 0, xorigin, 0, xsize);
-            System.arraycopy(X1, 0, xend, 0, xsize);
-
-            for (int nmode = 1; nmode < TNM; nmode++) {
-                System.arraycopy(xend, 0, xstart, 0, xsize);
-                System.arraycopy(xend, 0, xstart_old, 0, xsize);
-
-                fstatus = (int) ((double) nmode / (double) TNM) * 100;
-                // the sifting process
-                // need to implement a more proper break condition than
-                // limited number of interactions
-                boolean abort = false;
-                for (int iter = 0; iter < 30000; iter++) {
-                    final double[][] spmax = SpectrumTools.computeMaxima(xstart);
-                    final double[][] spmin = SpectrumTools.computeMinima(xstart);
-                    final int nextrema = spmax[0].length + spmin[0].length;
-                    final int ncrossing = computeZeroCrossings(xstart);
-
-                    if (spmax[0].length < 3 || spmin[0].length < 3) {
-                        abort = true;
-                        System.err.println("break loop: iter = " + iter + " nmode " + nmode);
-                        break;
-                    }
-
-                    // System.err.printf("extrema %d vs. %d zero-crossings = %d vs (%d)\n", spmax[0].length,
-                    // spmin[0].length, ncrossing, nextrema);
-
-                    final Spline upper = new Spline(spmax[0], spmax[1]);
-                    final Spline lower = new Spline(spmin[0], spmin[1]);
-
-                    for (int i = 0; i < xsize; i++) {
-                        final double x = i;
-                        final double mean_ul = (upper.getValue(x) + lower.getValue(x)) / 2.0;
-                        xstart[i] -= mean_ul;
-                    }
-                    // final double residual = TMath.Mean(xstart);
-                    // final double rms = TMath.RMS(xstart);
-                    // System.err.printf("mode %d iter %d -> residual = %f\n",
-                    // nmode, iter, residual/rms);
-
-                    // check breaking condition
-                    double sum_sqr = 0, diff_sqr = 0;
-                    for (int i = 0; i < xstart.length; i++) {
-                        diff_sqr += TMathConstants.Sqr(xstart_old[i] - xstart[i]);
-                        sum_sqr += TMathConstants.Sqr(xstart_old[i]);
-                    }
-
-                    final double break_crit = 1e-12; // 0.3;
-
-                    final double estimate = sum_sqr != 0 ? diff_sqr / sum_sqr : 42;
-
-                    if (true) {
-                        if (sum_sqr == 0 || estimate < break_crit) {
-                            System.err.printf("break at mode %d and  iteration %d with criteria %e\n", nmode, iter,
-                                    estimate);
-                            break;
-                        }
-                    }
-
-                    if (true) {
-                        if (sum_sqr == 0 || Math.abs(nextrema - ncrossing) <= 0) {
-                            System.err.printf("break (crossing) at mode %d and  iteration %d with criteria %f\n", nmode,
-                                    iter, diff_sqr / sum_sqr);
-                            break;
-                        }
-                    }
-
-                    System.arraycopy(xstart, 0, xstart_old, 0, xstart.length);
-                }
-                for (int i = 0; i < xsize; i++) {
-                    xend[i] -= xstart[i];
-                }
-
-                // System.out.printf("store mode %d -> %f\n", nmode,
-                // TMath.RMS(xstart));
-                for (int jj = 0; jj < xsize; jj++) {
-                    mode.set(jj, nmode, xstart[jj]);
-                }
+        return eemdAsync(data, rms_noise, NE, null).join();
+    }
 
-                if (abort) {
-                    nmode = TNM + 1;
+    /**
+     * Asynchronous version of {@link #eemd(double[], double, double)}
+     *
+     * @param data input data
+     * @param rms_noise RMS of the white noise added to each ensemble member (relative to the data RMS)
+     * @param NE number of ensemble members
+     * @param progressListener optional listener notified with the progress in percent (may be {@code null})
+     * @return handle to query the progress, cancel or wait for the ensemble average of the modes
+     */
+    public ForkJoinComputation<MatrixD> eemdAsync(final double[] data, final double rms_noise, final double NE,
+            final IntConsumer progressListener) {
+        final int nEnsemble = Math.max(1, (int) Math.ceil(NE));
+        final ForkJoinComputation<MatrixD> computation = new ForkJoinComputation<>(nEnsemble, progressListener, handle -> {
+            final int xsize = data.length;
+            final double Ystd = TMath.RMS(data);
+            final int TNM = (int) Math.floor(TMathConstants.Log2(xsize)) - 1;
+
+            // ensemble members are independent of each other
+            final MatrixD[] modes = new MatrixD[nEnsemble];
+            handle.parallelFor(0, nEnsemble, 1, member -> modes[member] = sift(data, rms_noise, Ystd, TNM));
+
+            final MatrixD allmode = new MatrixD(xsize, TNM + 3);
+            for (final MatrixD mode : modes) {
+                if (mode != null) {
+                    allmode.plusEquals(mode);
                 }
             }
-
-            // store remainder of the sifting process
-            for (int jj = 0; jj < xsize; jj++) {
-                mode.set(jj, TNM + 1, xend[jj]);
-            }
-
-            allmode.plus(mode);
-        }
-
-        allmode.times(1.0 / NE);
-        allmode.times(Ystd);
-
-        return mode;
+            return allmode.timesEquals(1.0 / nEnsemble);
+        });
+        lastComputation = computation;
+        return computation.fork(CachedDaemonThreadFactory.getCommonPool());
     }
 
     /**
@@ -148,9 +78,8 @@ public class EEMD {
      * @param nQuanty quantisation in Y
      * @return the complex HHT spectrum
      */
-    public synchronized DataSet getScalogram(final double[] data, final int nQuantx, final int nQuanty) {
+    public DataSet getScalogram(final double[] data, final int nQuantx, final int nQuanty) {
         // create and return data set.
-        fstatus = 0;
         final int nsamples = data.length;
         final double[] time = new double[nsamples];
         final double[] frequency = new double[nsamples / 2];
@@ -169,7 +98,6 @@ public class EEMD {
                                    .setValues(DataSet.DIM_Z, getSpectrumArray(data, nQuantx, nQuanty)) //
                                    .build();
 
-        fstatus = 100;
         return ds;
     }
 
@@ -222,17 +150,19 @@ public class EEMD {
     }
 
     /**
-     * @return progress of pending calculations in percent
+     * @return progress of the most recently started decomposition in percent
      */
     public int getStatus() {
-        return fstatus;
+        final ForkJoinComputation<?> computation = lastComputation;
+        return computation == null || computation.isDone() ? 100 : computation.getProgress();
     }
 
     /**
-     * @return whether class is busy computing a spectra
+     * @return whether the most recently started decomposition is still being computed
      */
     public boolean isBusy() {
-        return fstatus < 100;
+        final ForkJoinComputation<?> computation = lastComputation;
+        return computation != null && !computation.isDone();
     }
 
     public static int computeZeroCrossings(final double[] data) {
@@ -307,4 +237,114 @@ public class EEMD {
 
         return kk + ll > 2 ? 1 : -1;
     }
+
+    private static MatrixD sift(final double[] data, final double rms_noise, final double Ystd, final int TNM) {
+        final int xsize = data.length;
+        final double[] X1 = new double[xsize];
+        final double[] xorigin = new double[xsize];
+        final double[] xstart = new double[xsize];
+        final double[] xstart_old = new double[xsize];
+        final double[] xend = new double[xsize];
+        final MatrixD mode = new MatrixD(xsize, TNM + 3);
+
+        // N.B. TRandom is backed by a global generator state
+        synchronized (TRandom.class) {
+            for (int i = 0; i < xsize; i++) {
+                final double temp = TRandom.Gaus(0, rms_noise);
+                X1[i] = data[i] / Ystd + temp;
+            }
+        }
+
+        for (int jj = 0; jj < xsize; jj++) {
+            mode.set(jj, 0, data[jj]);
+        }
+
+        System.arraycopy(X1, 0, xorigin, 0, xsize);
+        System.arraycopy(X1, 0, xend, 0, xsize);
+
+        for (int nmode = 1; nmode < TNM; nmode++) {
+            System.arraycopy(xend, 0, xstart, 0, xsize);
+            System.arraycopy(xend, 0, xstart_old, 0, xsize);
+
+            // the sifting process
+            // need to implement a more proper break condition than
+            // limited number of interactions
+            boolean abort = false;
+            for (int iter = 0; iter < 30000; iter++) {
+                final double[][] spmax = SpectrumTools.computeMaxima(xstart);
+                final double[][] spmin = SpectrumTools.computeMinima(xstart);
+                final int nextrema = spmax[0].length + spmin[0].length;
+                final int ncrossing = computeZeroCrossings(xstart);
+
+                if (spmax[0].length < 3 || spmin[0].length < 3) {
+                    abort = true;
+                    LOGGER.atDebug().addArgument(iter).addArgument(nmode).log("break loop: iter = {} nmode {}");
+                    break;
+                }
+
+                // System.err.printf("extrema %d vs. %d zero-crossings = %d vs (%d)\n", spmax[0].length,
+                // spmin[0].length, ncrossing, nextrema);
+
+                final Spline upper = new Spline(spmax[0], spmax[1]);
+                final Spline lower = new Spline(spmin[0], spmin[1]);
+
+                for (int i = 0; i < xsize; i++) {
+                    final double x = i;
+                    final double mean_ul = (upper.getValue(x) + lower.getValue(x)) / 2.0;
+                    xstart[i] -= mean_ul;
+                }
+                // final double residual = TMath.Mean(xstart);
+                // final double rms = TMath.RMS(xstart);
+                // System.err.printf("mode %d iter %d -> residual = %f\n",
+                // nmode, iter, residual/rms);
+
+                // check breaking condition
+                double sum_sqr = 0, diff_sqr = 0;
+                for (int i = 0; i < xstart.length; i++) {
+                    diff_sqr += TMathConstants.Sqr(xstart_old[i] - xstart[i]);
+                    sum_sqr += TMathConstants.Sqr(xstart_old[i]);
+                }
+
+                final double break_crit = 1e-12; // 0.3;
+
+                final double estimate = sum_sqr != 0 ? diff_sqr / sum_sqr : 42;
+
+                if (true) {
+                    if (sum_sqr == 0 || estimate < break_crit) {
+                        LOGGER.atDebug().addArgument(nmode).addArgument(iter).addArgument(estimate).log("break at mode {} and iteration {} with criteria {}");
+                        break;
+                    }
+                }
+
+                if (true) {
+                    if (sum_sqr == 0 || Math.abs(nextrema - ncrossing) <= 0) {
+                        LOGGER.atDebug().addArgument(nmode).addArgument(iter).addArgument(diff_sqr / sum_sqr).log("break (crossing) at mode {} and iteration {} with criteria {}");
+                        break;
+                    }
+                }
+
+                System.arraycopy(xstart, 0, xstart_old, 0, xstart.length);
+            }
+            for (int i = 0; i < xsize; i++) {
+                xend[i] -= xstart[i];
+            }
+
+            // System.out.printf("store mode %d -> %f\n", nmode,
+            // TMath.RMS(xstart));
+            for (int jj = 0; jj < xsize; jj++) {
+                mode.set(jj, nmode, xstart[jj]);
+            }
+
+            if (abort) {
+                nmode = TNM + 1;
+            }
+        }
+
+        // store remainder of the sifting process
+        for (int jj = 0; jj < xsize; jj++) {
+            mode.set(jj, TNM + 1, xend[jj]);
+        }
+
+        return mode;
+    }
 }
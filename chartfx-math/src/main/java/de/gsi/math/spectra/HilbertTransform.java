@@ -1,6 +1,7 @@
 package de.gsi.math.spectra;
 
 import de.gsi.math.TMathConstants;
+import de.gsi.math.spectra.fft.InterleavedComplexFFT_1D;
 import de.gsi.math.utils.ConcurrencyUtils;
 
 public class HilbertTransform extends Convolution {
@@ -19,6 +20,38 @@ public class HilbertTransform extends Convolution {
         return amplitude;
     }
 
+    /**
+     * Analytic signal z = x + i H{x} computed via the complex FFT of the (periodic) input: the negative frequencies are
+     * suppressed and the positive ones doubled. N.B. in contrast to {@link #transformFourier(double[])} no zero-padding to
+     * a power-of-two length is required.
+     *
+     * @param data real valued input data (arbitrary length)
+     * @return interleaved complex analytic signal [re0, im0, re1, im1, ...] with re = data and im = Hilbert-transformed
+     *         signal
+     */
+    public double[] computeAnalyticSignal(final double[] data) {
+        final int nsamples = data.length;
+        final double[] analytic = new double[2 * nsamples];
+        for (int i = 0; i < nsamples; i++) {
+            analytic[i << 1] = data[i];
+        }
+        InterleavedComplexFFT_1D.fftInPlace(analytic);
+
+        // keep DC (and Nyquist for even lengths), double positive and remove negative frequencies
+        final int nPositive = (nsamples + 1) / 2;
+        for (int k = 1; k < nPositive; k++) {
+            analytic[k << 1] *= 2.0;
+            analytic[(k << 1) + 1] *= 2.0;
+        }
+        for (int k = nsamples / 2 + 1; k < nsamples; k++) {
+            analytic[k << 1] = 0.0;
+            analytic[(k << 1) + 1] = 0.0;
+        }
+
+        InterleavedComplexFFT_1D.ifftInPlace(analytic);
+        return analytic;
+    }
+
     public double[] computeInstantaneousAmplitude(final double[] data) {
         final int nsamples = data.length;
         final double[] amplitude = computeAmplitude(data);
@@ -150,6 +183,22 @@ public class HilbertTransform extends Convolution {
         return transform(data, filter, false);
     }
 
+    /**
+     * FFT based Hilbert Transform assuming periodic boundary conditions, computation is done in Fourier domain
+     *
+     * @param data input data (arbitrary length)
+     * @return Hilbert-transformed signal
+     * @see #computeAnalyticSignal(double[])
+     */
+    public double[] transformAnalytic(final double[] data) {
+        final double[] analytic = computeAnalyticSignal(data);
+        final double[] htransformed = new double[data.length];
+        for (int i = 0; i < htransformed.length; i++) {
+            htransformed[i] = analytic[(i << 1) + 1];
+        }
+        return htransformed;
+    }
+
     /**
      * discrete Hilbert transform according to: S. Kak, The discrete Hilbert transform. Proc. IEEE, vol. 58, pp.
      * 585-586, 1970. computation is done in time domain
@@ -0,0 +1,376 @@
+package de.gsi.math.spectra;
+
+import static de.gsi.dataset.DataSet.DIM_X;
+import static de.gsi.dataset.DataSet.DIM_Y;
+import static de.gsi.dataset.DataSet.DIM_Z;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.jtransforms.fft.DoubleFFT_1D;
+
+import de.gsi.dataset.AxisDescription;
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.event.UpdatedDataEvent;
+import de.gsi.dataset.spi.DoubleErrorDataSet;
+import de.gsi.dataset.spi.MultiDimDoubleDataSet;
+import de.gsi.dataset.utils.AssertUtils;
+import de.gsi.math.MathDataSet;
+import de.gsi.math.MathDataSet.DataSetsFunction;
+import de.gsi.math.spectra.fft.FFTPlanCache;
+
+/**
+ * Incremental (streaming) short-time Fourier transform of real valued input data.
+ * <p>
+ * In contrast to {@link ShortTimeFourierTransform#real(DataSet, DataSet, int, int, Apodization,
+ * ShortTimeFourierTransform.Padding, boolean, boolean)}, which recomputes the whole spectrogram on every call, this
+ * class keeps the last {@code nFFT} input samples and only transforms the hops that were completed by newly appended
+ * samples, i.e. an update costs O(new samples) rather than O(all samples). The FFT plan and apodization window are
+ * taken from the shared caches ({@link FFTPlanCache}, {@link Apodization#getWindow(int)}).
+ * <p>
+ * The output is a {@link MultiDimDoubleDataSet} with the frequency axis in DIM_X, the time axis in DIM_Y and the
+ * magnitudes in DIM_Z (same layout as the batch transform), that is used as a ring of {@code nTimeSlices} time
+ * columns: the most recent spectrum is stored at time index {@link #getRingHead()} and the oldest one at the
+ * following index (modulo {@code nTimeSlices}). Time slices that have not been filled yet contain {@code NaN}. The
+ * time of each column is the x-coordinate of the first sample of the transformed frame.
+ * <p>
+ * Frames are only transformed once all of their {@code nFFT} samples are available, thus no padding is required and
+ * the columns are identical to those of the batch transform for the same hop.
+ * <p>
+ * Usage example, continuously updating a spectrogram and a {@link MathDataSet} with the latest magnitude spectrum:
+ *
+ * <pre>
+ * {@code
+ * final IncrementalShortTimeFourierTransform stft = new IncrementalShortTimeFourierTransform("STFT", 1024, 256, 200,
+ *         Apodization.Hann, true, true);
+ * final MathDataSet latestSpectrum = new MathDataSet("spectrum", stft.getDataSetsFunction(), source);
+ * chart.getDatasets().add(stft.getOutput()); // spectrogram, updated together with 'latestSpectrum'
+ * }
+ * </pre>
+ */
+public class IncrementalShortTimeFourierTransform {
+    private static final String META_PREFIX = "RealSTFT-";
+    private final int nFFT;
+    private final int step;
+    private final int nTimeSlices;
+    private final int nBins;
+    private final boolean dbScale;
+    private final boolean truncateDCNy;
+    private final double[] window;
+    private final DoubleFFT_1D fastFourierTrafo;
+    private final double[] raw;
+    private final double[] historyX; // ring buffer of the last nFFT input samples
+    private final double[] historyY;
+    private final double[] columnMin;
+    private final double[] columnMax;
+    private final double[] zeroErrors;
+    private final double[] frequencyAxis;
+    private final double[] timeAxis;
+    private final double[] magnitudes;
+    private final MultiDimDoubleDataSet output;
+    private int historyPosition;
+    private int samplesUntilNextFrame;
+    private int ringHead;
+    private int timeSliceCount;
+    private long transformCount;
+    private double lastX = Double.NEGATIVE_INFINITY;
+    private double dt = Double.NaN;
+
+    /**
+     * @param name name of the output spectrogram DataSet
+     * @param nFFT the number of samples per transform (frame length)
+     * @param step the time step (hop size) in samples
+     * @param nTimeSlices the number of time slices kept in the output ring
+     * @param apodization the apodization window function to use
+     * @param dbScale {@code true} to convert the spectrum to dB scale
+     * @param truncateDCNy {@code true} to interpolate the DC- and Nyquist-bins to their respective nearest neighbours
+     */
+    public IncrementalShortTimeFourierTransform(final String name, final int nFFT, final int step, final int nTimeSlices,
+            final Apodization apodization, final boolean dbScale, final boolean truncateDCNy) {
+        AssertUtils.notNull("name", name);
+        AssertUtils.gtThanZero("nFFT", nFFT);
+        AssertUtils.gtThanZero("step", step);
+        AssertUtils.gtThanZero("nTimeSlices", nTimeSlices);
+        AssertUtils.notNull("apodization", apodization);
+        if (nFFT < 4 || nFFT % 2 != 0) {
+            throw new IllegalArgumentException("nFFT must be an even number >= 4, is: " + nFFT);
+        }
+        this.nFFT = nFFT;
+        this.step = step;
+        this.nTimeSlices = nTimeSlices;
+        this.nBins = nFFT / 2;
+        this.dbScale = dbScale;
+        this.truncateDCNy = truncateDCNy;
+        this.window = apodization.getWindow(nFFT);
+        this.fastFourierTrafo = FFTPlanCache.getDoubleFFT_1D(nFFT);
+        this.raw = new double[nFFT];
+        this.historyX = new double[nFFT];
+        this.historyY = new double[nFFT];
+        this.columnMin = new double[nTimeSlices];
+        this.columnMax = new double[nTimeSlices];
+        this.zeroErrors = new double[nBins];
+        this.frequencyAxis = new double[nBins];
+        this.timeAxis = new double[nTimeSlices];
+        this.magnitudes = new double[nBins * nTimeSlices];
+        this.output = new MultiDimDoubleDataSet(name, false, frequencyAxis, timeAxis, magnitudes);
+        output.getMetaInfo().put(META_PREFIX + "nFFT", Integer.toString(nFFT));
+        output.getMetaInfo().put(META_PREFIX + "step", Integer.toString(step));
+        output.getAxisDescription(DIM_X).set("Frequency", "Hz");
+        output.getAxisDescription(DIM_Y).set("Time", "s");
+        output.getAxisDescription(DIM_Z).set("Magnitude", "a.u.");
+        resetState();
+    }
+
+    /**
+     * Appends new samples and transforms all hops that are completed by them. The x-coordinates are expected to be
+     * equidistant and increasing.
+     *
+     * @param xValues the sample times
+     * @param yValues the sample values
+     * @param offset index of the first new sample
+     * @param length number of new samples
+     * @return number of newly computed time slices
+     */
+    public int append(final double[] xValues, final double[] yValues, final int offset, final int length) {
+        AssertUtils.notNull("xValues", xValues);
+        AssertUtils.notNull("yValues", yValues);
+        AssertUtils.gtOrEqual("offset", 0, offset);
+        AssertUtils.gtOrEqual("length", 0, length);
+        AssertUtils.indexInBounds(offset + length, Math.min(xValues.length, yValues.length) + 1, "offset + length");
+        final int newSlices = output.lock().writeLockGuard(() -> appendInternal(xValues, yValues, offset, length));
+        if (newSlices > 0) {
+            output.fireInvalidated(new UpdatedDataEvent(output, "appended " + newSlices + " time slices"));
+        }
+        return newSlices;
+    }
+
+    /**
+     * @return number of frames that have been transformed since construction (performance diagnostic)
+     */
+    public long getTransformCount() {
+        return transformCount;
+    }
+
+    /**
+     * @return {@link MathDataSet} function that feeds the newly appended samples of the first source DataSet into
+     *         this transform and sets the output to the most recent magnitude spectrum
+     */
+    public DataSetsFunction getDataSetsFunction() {
+        return this::transform;
+    }
+
+    /**
+     * @return the spectrogram ring buffer, see class description for the data layout
+     */
+    public MultiDimDoubleDataSet getOutput() {
+        return output;
+    }
+
+    /**
+     * @return time index of the most recent spectrum within the output (-1 if no spectrum has been computed yet)
+     */
+    public int getRingHead() {
+        return ringHead;
+    }
+
+    /**
+     * @return number of valid time slices within the output (at most {@code nTimeSlices})
+     */
+    public int getTimeSliceCount() {
+        return timeSliceCount;
+    }
+
+    /**
+     * Clears the sample history and all time slices of the output.
+     */
+    public void reset() {
+        output.lock().writeLockGuard(this::resetState);
+        output.fireInvalidated(new UpdatedDataEvent(output, "reset"));
+    }
+
+    /**
+     * Transforms the samples of the input that have been appended since the last call, i.e. those with an
+     * x-coordinate larger than the last processed sample. The input is assumed to be a time series with increasing
+     * x-coordinates (e.g. a growing or circular buffer). If the input's last x-coordinate lies before the last
+     * processed sample (ie. the input has been cleared or restarted) the transform is reset.
+     *
+     * @param input the source DataSet
+     * @return number of newly computed time slices
+     */
+    public int update(final DataSet input) {
+        AssertUtils.notNull("input", input);
+        final int newSlices = output.lock().writeLockGuard(() -> input.lock().readLockGuard(() -> updateInternal(input)));
+        if (newSlices > 0) {
+            output.fireInvalidated(new UpdatedDataEvent(output, "appended " + newSlices + " time slices"));
+        }
+        return newSlices;
+    }
+
+    protected void transform(final List<DataSet> inputDataSets, final MathDataSet outputDataSet) {
+        if (inputDataSets.isEmpty()) {
+            return;
+        }
+        update(inputDataSets.get(0));
+        output.lock().readLockGuard(() -> {
+            final int count = ringHead < 0 ? 0 : nBins;
+            outputDataSet.resize(count);
+            if (count > 0) {
+                System.arraycopy(frequencyAxis, 0, outputDataSet.getXValues(), 0, nBins);
+                System.arraycopy(magnitudes, ringHead * nBins, outputDataSet.getYValues(), 0, nBins);
+                System.arraycopy(zeroErrors, 0, outputDataSet.getErrorsNegative(DIM_Y), 0, nBins);
+                System.arraycopy(zeroErrors, 0, outputDataSet.getErrorsPositive(DIM_Y), 0, nBins);
+            }
+            outputDataSet.getAxisDescription(DIM_X).set(output.getAxisDescription(DIM_X).getName(), output.getAxisDescription(DIM_X).getUnit());
+            outputDataSet.getAxisDescription(DIM_Y).set(output.getAxisDescription(DIM_Z).getName(), output.getAxisDescription(DIM_Z).getUnit());
+            outputDataSet.getAxisDescriptions().forEach(AxisDescription::clear);
+        });
+    }
+
+    private int appendInternal(final double[] xValues, final double[] yValues, final int offset, final int length) {
+        int newSlices = 0;
+        int index = offset;
+        int remaining = length;
+        while (remaining > 0) {
+            final int chunk = Math.min(remaining, samplesUntilNextFrame);
+            pushHistory(xValues, yValues, index, chunk);
+            index += chunk;
+            remaining -= chunk;
+            samplesUntilNextFrame -= chunk;
+            if (samplesUntilNextFrame > 0) {
+                break;
+            }
+            samplesUntilNextFrame = step;
+            // skip frames that would be overwritten within this call anyway (long back-logs)
+            if (1 + remaining / step <= nTimeSlices) {
+                computeFrame();
+                newSlices++;
+            }
+        }
+        if (length > 0) {
+            lastX = xValues[offset + length - 1];
+        }
+        if (newSlices > 0) {
+            updateLimits();
+        }
+        return newSlices;
+    }
+
+    private void computeFrame() {
+        // unroll history ring (oldest sample first) and apply apodization window
+        final int nTail = nFFT - historyPosition;
+        for (int i = 0; i < nTail; i++) {
+            raw[i] = historyY[historyPosition + i] * window[i];
+        }
+        for (int i = nTail; i < nFFT; i++) {
+            raw[i] = historyY[i - nTail] * window[i];
+        }
+        final double frameStart = historyX[historyPosition];
+        final double frameEnd = historyX[historyPosition == 0 ? nFFT - 1 : historyPosition - 1];
+        final double newDt = (frameEnd - frameStart) / (nFFT - 1);
+        if (newDt != dt) { // NOPMD - exact comparison intended, axis needs to be recomputed only on change
+            dt = newDt;
+            ShortTimeFourierTransform.getFrequencyAxisReal(dt, nFFT, frequencyAxis);
+        }
+
+        fastFourierTrafo.realForward(raw);
+
+        ringHead = (ringHead + 1) % nTimeSlices;
+        timeSliceCount = Math.min(timeSliceCount + 1, nTimeSlices);
+        final int columnOffset = ringHead * nBins;
+        if (dbScale) {
+            SpectrumTools.computeMagnitudeSpectrum_dB(raw, 0, nFFT, magnitudes, columnOffset, truncateDCNy);
+        } else {
+            SpectrumTools.computeMagnitudeSpectrum(raw, 0, nFFT, magnitudes, columnOffset, truncateDCNy);
+        }
+        timeAxis[ringHead] = frameStart;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = columnOffset; i < columnOffset + nBins; i++) {
+            final double value = magnitudes[i];
+            if (Double.isFinite(value)) {
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+        }
+        columnMin[ringHead] = min;
+        columnMax[ringHead] = max;
+        transformCount++;
+    }
+
+    private void pushHistory(final double[] xValues, final double[] yValues, final int offset, final int length) {
+        // only the last nFFT samples are needed
+        final int nCopy = Math.min(length, nFFT);
+        final int from = offset + length - nCopy;
+        final int nFirst = Math.min(nCopy, nFFT - historyPosition);
+        System.arraycopy(xValues, from, historyX, historyPosition, nFirst);
+        System.arraycopy(yValues, from, historyY, historyPosition, nFirst);
+        System.arraycopy(xValues, from + nFirst, historyX, 0, nCopy - nFirst);
+        System.arraycopy(yValues, from + nFirst, historyY, 0, nCopy - nFirst);
+        historyPosition = (historyPosition + nCopy) % nFFT;
+    }
+
+    private void resetState() {
+        historyPosition = 0;
+        samplesUntilNextFrame = nFFT;
+        ringHead = -1;
+        timeSliceCount = 0;
+        lastX = Double.NEGATIVE_INFINITY;
+        dt = Double.NaN;
+        Arrays.fill(timeAxis, Double.NaN);
+        Arrays.fill(magnitudes, Double.NaN);
+        Arrays.fill(columnMin, Double.NaN);
+        Arrays.fill(columnMax, Double.NaN);
+        output.getAxisDescriptions().forEach(AxisDescription::clear);
+        output.getMetaInfo().put(META_PREFIX + "ringHead", Integer.toString(ringHead));
+    }
+
+    private void updateLimits() {
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < timeSliceCount; i++) {
+            if (columnMin[i] < min) {
+                min = columnMin[i];
+            }
+            if (columnMax[i] > max) {
+                max = columnMax[i];
+            }
+        }
+        final int oldest = timeSliceCount < nTimeSlices ? 0 : (ringHead + 1) % nTimeSlices;
+        output.getAxisDescription(DIM_X).set(frequencyAxis[0], frequencyAxis[nBins - 1]);
+        output.getAxisDescription(DIM_Y).set(timeAxis[oldest], timeAxis[ringHead]);
+        output.getAxisDescription(DIM_Z).set(min, max);
+        output.getMetaInfo().put(META_PREFIX + "ringHead", Integer.toString(ringHead));
+    }
+
+    private int updateInternal(final DataSet input) {
+        final int nSamples = input.getDataCount();
+        if (nSamples == 0) {
+            return 0;
+        }
+        final double[] xValues = input.getValues(DIM_X);
+        final double[] yValues = input.getValues(DIM_Y);
+        if (xValues[nSamples - 1] < lastX) {
+            // input has been cleared or restarted
+            resetState();
+        }
+        if (timeSliceCount == 0 && samplesUntilNextFrame == nFFT) {
+            final String timeUnit = input.getAxisDescription(DIM_X).getUnit();
+            output.getAxisDescription(DIM_X).set("Frequency", "s".equals(timeUnit) ? "Hz" : "1/" + timeUnit);
+            output.getAxisDescription(DIM_Y).set("Time", timeUnit);
+            output.getAxisDescription(DIM_Z).set("Magnitude", input.getAxisDescription(DIM_Y).getUnit());
+        }
+
+        // binary search for the first sample after the last processed one
+        int low = 0;
+        int high = nSamples;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (xValues[mid] > lastX) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return appendInternal(xValues, yValues, low, nSamples - low);
+    }
+}
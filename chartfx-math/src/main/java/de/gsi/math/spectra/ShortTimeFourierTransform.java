@@ -15,6 +15,7 @@ import de.gsi.dataset.spi.DataSetBuilder;
 import de.gsi.dataset.spi.MultiDimDoubleDataSet;
 import de.gsi.dataset.utils.AssertUtils;
 import de.gsi.dataset.utils.DoubleArrayCache;
+import de.gsi.math.spectra.fft.FFTPlanCache;
 
 /**
  * Static utility class providing magnitude spectrograms from complex and real valued input data.
@@ -154,7 +155,7 @@ public class ShortTimeFourierTransform {
         final double[] amplitudeData = output == null || output.length != nFFT * nT ? new double[nFFT * nT] : output; // output array
         final double[] currentMagnitudeData = DoubleArrayCache.getInstance().getArray(nFFT);
         // calculate spectrogram
-        final DoubleFFT_1D fastFourierTrafo = new DoubleFFT_1D(nFFT);
+        final DoubleFFT_1D fastFourierTrafo = FFTPlanCache.getDoubleFFT_1D(nFFT);
         final double[] raw = DoubleArrayCache.getInstance().getArrayExact(2 * nFFT); // array to perform calculations in
         for (int i = 0; i < nT; i++) {
             // obtain input data for FFT
@@ -208,7 +209,7 @@ public class ShortTimeFourierTransform {
         final double[] amplitudeData = output == null || output.length != nFFT * nT ? new double[nFFT * nT] : output; // output array
         final double[] currentMagnitudeData = DoubleArrayCache.getInstance().getArray(nFFT);
         // calculate spectrogram
-        final DoubleFFT_1D fastFourierTrafo = new DoubleFFT_1D(nFFT);
+        final DoubleFFT_1D fastFourierTrafo = FFTPlanCache.getDoubleFFT_1D(nFFT);
         final double[] raw = DoubleArrayCache.getInstance().getArrayExact(2 * nFFT); // array to perform calculations in
         for (int i = 0; i < nT; i++) {
             // obtain input data for FFT
@@ -369,7 +370,7 @@ public class ShortTimeFourierTransform {
                                                                                         : output; // output array
         final double[] currentMagnitudeData = DoubleArrayCache.getInstance().getArray(nFFT / 2);
         // calculate spectrogram
-        final DoubleFFT_1D fastFourierTrafo = new DoubleFFT_1D(nFFT);
+        final DoubleFFT_1D fastFourierTrafo = FFTPlanCache.getDoubleFFT_1D(nFFT);
         final double[] raw = DoubleArrayCache.getInstance().getArrayExact(nFFT); // array to perform calculations in
         for (int i = 0; i < nT; i++) {
             // obtain input data for FFT
@@ -8,6 +8,7 @@ import de.gsi.math.TMath;
 import de.gsi.math.TMathConstants;
 import de.gsi.math.fitter.NonLinearRegressionFitter;
 import de.gsi.math.functions.CombFunction;
+import de.gsi.math.spectra.fft.FFTPlanCache;
 
 /**
  * Class implements frequency interpolation of spectral peaks. The main idea behind these algorithm is: The resolution
@@ -599,14 +600,14 @@ public class SpectrumTools {
     public static synchronized double[] interpolateSpectrum(final double[] data, final int noversampling) {
         final double[] val1 = Arrays.copyOf(data, data.length);
 
-        DoubleFFT_1D fft1D = new DoubleFFT_1D(data.length);
+        DoubleFFT_1D fft1D = FFTPlanCache.getDoubleFFT_1D(data.length);
         fft1D.realInverse(val1, true);
 
         final double[] val2 = new double[noversampling * val1.length];
         System.arraycopy(val1, 0, val2, 0, val1.length - 2);
 
         final int fftLength = noversampling * data.length;
-        fft1D = new DoubleFFT_1D(fftLength);
+        fft1D = FFTPlanCache.getDoubleFFT_1D(fftLength);
         fft1D.realForward(val2);
 
         for (int i = 0; i < val2.length; i++) {
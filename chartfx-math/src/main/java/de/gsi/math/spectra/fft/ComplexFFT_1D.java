@@ -8,8 +8,35 @@ import org.apache.commons.math3.complex.Complex;
  * @author rstein
  */
 public class ComplexFFT_1D {
-    private static Complex[][] coef; // FFT coefficients (calculated once
-    private static int coef_order = 0; // power of two till the coefficients are computed
+    private static volatile Complex[][] coef; // FFT coefficients (calculated once, published only once complete)
+
+    /**
+     * @param base required power-of-two order
+     * @return shared FFT coefficient table containing at least the given order (thread-safe)
+     */
+    private static Complex[][] getCoefficients(final int base) {
+        final Complex[][] table = coef;
+        if (table != null && base < table.length) {
+            return table;
+        }
+        synchronized (ComplexFFT_1D.class) {
+            if (coef != null && base < coef.length) {
+                return coef;
+            }
+            // compute usually coefficients only required up to 2^16 point FFT
+            final int order = Math.max(16, base + 1);
+            final Complex[][] newTable = new Complex[order][];
+            for (int i = 0; i < order; i++) {
+                newTable[i] = new Complex[1 << i];
+                for (int j = 0; j < 1 << i; j++) {
+                    final double kth = -2 * j * Math.PI / (1 << i);
+                    newTable[i][j] = new Complex(Math.cos(kth), Math.sin(kth));
+                }
+            }
+            coef = newTable;
+            return newTable;
+        }
+    }
 
     // compute the circular convolution of x and y
     public static Complex[] cconvolve(final Complex[] x, final Complex[] y) {
@@ -81,26 +108,7 @@ public class ComplexFFT_1D {
             precalculate = false;
         }
 
-        if ((coef == null || base > coef_order) && precalculate) {
-            // System.out.printf("compute FFT coefficients\n");
-            // compute usually coefficients only required up to 2^16 point FFT
-            int order = 0;
-            if (base < 16) {
-                order = 16;
-            } else {
-                order = base + 1;
-            }
-            coef = new Complex[order][];
-            for (int i = 0; i < order; i++) {
-                coef[i] = new Complex[(int) Math.pow(2, i)];
-                for (int j = 0; j < (int) Math.pow(2, i); j++) {
-                    final double kth = -2 * j * Math.PI / Math.pow(2, i);
-                    coef[i][j] = new Complex(Math.cos(kth), Math.sin(kth));
-                }
-            }
-            coef_order = order;
-            // System.out.printf("compute FFT coefficients - done\n");
-        }
+        final Complex[][] coefficients = precalculate ? getCoefficients(base) : null;
 
         // fft of even terms
         final Complex[] even = new Complex[N / 2];
@@ -121,8 +129,8 @@ public class ComplexFFT_1D {
 
         for (int k = 0; k < N / 2; k++) {
             if (precalculate) {
-                y[k] = q[k].add(coef[base][k].multiply(r[k]));
-                y[k + N / 2] = q[k].subtract(coef[base][k].multiply(r[k]));
+                y[k] = q[k].add(coefficients[base][k].multiply(r[k]));
+                y[k + N / 2] = q[k].subtract(coefficients[base][k].multiply(r[k]));
             } else {
                 final double kth = -2 * k * Math.PI / N;
                 final Complex wk = new Complex(Math.cos(kth), Math.sin(kth));
@@ -0,0 +1,57 @@
+package de.gsi.math.spectra.fft;
+
+import org.jtransforms.fft.DoubleFFT_1D;
+
+import de.gsi.dataset.utils.AssertUtils;
+import de.gsi.dataset.utils.LruCache;
+import de.gsi.math.spectra.Apodization;
+
+/**
+ * Global, thread-safe cache of FFT plans shared by the spectral tools (e.g. {@link de.gsi.math.spectra.Convolution},
+ * {@link de.gsi.math.spectra.SpectrumTools}, {@link de.gsi.math.spectra.ShortTimeFourierTransform},
+ * {@link de.gsi.math.DataSetMath#magnitudeSpectrum(de.gsi.dataset.DataSet)}, {@link InterleavedComplexFFT_1D}).
+ * <p>
+ * Constructing a {@link DoubleFFT_1D} pre-computes the twiddle factors (and for non power-of-two lengths the Bluestein
+ * chirp), which often dominates the cost of transforming short or medium-sized spectra. Plans are kept in a
+ * least-recently-used cache keyed on the transform length. N.B. plans are immutable after construction and may be
+ * used concurrently by several threads on different data arrays. The apodization windows are cached by
+ * {@link Apodization#getWindow(int)} (see {@link Apodization#getWindowCache()}).
+ */
+public final class FFTPlanCache {
+    /** default maximum number of cached plans */
+    public static final int DEFAULT_PLAN_CAPACITY = 32;
+    private static final LruCache<Integer, DoubleFFT_1D> DOUBLE_FFT_1D_PLANS = new LruCache<>(DEFAULT_PLAN_CAPACITY);
+    private static final LruCache<Integer, InterleavedComplexFFT_1D.Plan> COMPLEX_PLANS = new LruCache<>(DEFAULT_PLAN_CAPACITY);
+
+    private FFTPlanCache() {
+        // utility class
+    }
+
+    /**
+     * @return the underlying cache of {@link InterleavedComplexFFT_1D} plans, e.g. to query its hit-rate metrics or to
+     *         change its capacity
+     */
+    public static LruCache<Integer, ?> getComplexFFTCache() {
+        return COMPLEX_PLANS;
+    }
+
+    /**
+     * @param n transform length
+     * @return (cached) 1D double precision FFT plan for the given length
+     */
+    public static DoubleFFT_1D getDoubleFFT_1D(final int n) {
+        AssertUtils.gtThanZero("n", n);
+        return DOUBLE_FFT_1D_PLANS.computeIfAbsent(n, DoubleFFT_1D::new);
+    }
+
+    /**
+     * @return the underlying plan cache, e.g. to query its hit-rate metrics or to change its capacity
+     */
+    public static LruCache<Integer, DoubleFFT_1D> getDoubleFFT_1DCache() {
+        return DOUBLE_FFT_1D_PLANS;
+    }
+
+    static InterleavedComplexFFT_1D.Plan getComplexPlan(final int n) {
+        return COMPLEX_PLANS.computeIfAbsent(n, InterleavedComplexFFT_1D.Plan::new);
+    }
+}
@@ -0,0 +1,301 @@
+package de.gsi.math.spectra.fft;
+
+import java.util.Arrays;
+
+import org.apache.commons.math3.complex.Complex;
+
+import de.gsi.dataset.utils.ArrayCache;
+import de.gsi.dataset.utils.AssertUtils;
+
+/**
+ * Complex FFT operating on primitive arrays in the "interleaved" layout used by JTransforms, i.e. {@code [re0, im0,
+ * re1, im1, ...]}, providing the same functionality as {@link ComplexFFT_1D} without allocating one {@link Complex}
+ * object per bin and recursion stage.
+ * <p>
+ * Power-of-two lengths are transformed by an iterative, in-place radix-2 Cooley-Tukey algorithm, all other lengths
+ * via Bluestein's chirp-z algorithm (which maps the transform onto a power-of-two sized circular convolution). The
+ * twiddle factors, bit-reversal permutations and chirp spectra are pre-computed per length and shared via the
+ * {@link FFTPlanCache}.
+ */
+public final class InterleavedComplexFFT_1D {
+    private static final String CACHED_ARRAY_BLUESTEIN = "InterleavedComplexFFT_1D::bluestein:scratch";
+
+    private InterleavedComplexFFT_1D() {
+        // utility class
+    }
+
+    /**
+     * compute the circular convolution of x and y
+     *
+     * @param x interleaved complex input
+     * @param y interleaved complex input (same length as x)
+     * @return new interleaved complex array containing the circular convolution
+     */
+    public static double[] cconvolve(final double[] x, final double[] y) {
+        AssertUtils.notNull("x", x);
+        AssertUtils.notNull("y", y);
+        if (x.length != y.length) {
+            throw new IllegalArgumentException("dimensions don't agree: x.length = " + x.length + " vs. y.length = " + y.length);
+        }
+        final double[] a = fft(x);
+        final double[] b = fft(y);
+        multiply(a, b);
+        ifftInPlace(a);
+        return a;
+    }
+
+    /**
+     * compute the linear convolution of x and y
+     *
+     * @param x interleaved complex input
+     * @param y interleaved complex input (same length as x)
+     * @return new interleaved complex array (twice the input length) containing the linear convolution
+     */
+    public static double[] convolve(final double[] x, final double[] y) {
+        AssertUtils.notNull("x", x);
+        AssertUtils.notNull("y", y);
+        return cconvolve(Arrays.copyOf(x, 2 * x.length), Arrays.copyOf(y, 2 * y.length));
+    }
+
+    /**
+     * @param data interleaved complex input (unmodified)
+     * @return new interleaved complex array containing the forward transform
+     */
+    public static double[] fft(final double[] data) {
+        AssertUtils.notNull("data", data);
+        final double[] result = Arrays.copyOf(data, data.length);
+        fftInPlace(result);
+        return result;
+    }
+
+    /**
+     * in-place forward transform
+     *
+     * @param data interleaved complex data, replaced by its (un-normalised) forward transform
+     */
+    public static void fftInPlace(final double[] data) {
+        transform(data, false);
+    }
+
+    /**
+     * @param data interleaved complex input (unmodified)
+     * @return new interleaved complex array containing the inverse transform (normalised by 1/n)
+     */
+    public static double[] ifft(final double[] data) {
+        AssertUtils.notNull("data", data);
+        final double[] result = Arrays.copyOf(data, data.length);
+        ifftInPlace(result);
+        return result;
+    }
+
+    /**
+     * in-place inverse transform
+     *
+     * @param data interleaved complex data, replaced by its inverse transform (normalised by 1/n)
+     */
+    public static void ifftInPlace(final double[] data) {
+        transform(data, true);
+        final double norm = 2.0 / data.length;
+        for (int i = 0; i < data.length; i++) {
+            data[i] *= norm;
+        }
+    }
+
+    /**
+     * point-wise complex multiplication {@code a[i] *= b[i]}
+     *
+     * @param a interleaved complex data (modified in-place)
+     * @param b interleaved complex data
+     */
+    public static void multiply(final double[] a, final double[] b) {
+        final int length = Math.min(a.length, b.length) & ~1;
+        for (int i = 0; i < length; i += 2) {
+            final double re = a[i];
+            final double im = a[i + 1];
+            a[i] = re * b[i] - im * b[i + 1];
+            a[i + 1] = re * b[i + 1] + im * b[i];
+        }
+    }
+
+    /**
+     * @param data interleaved complex data
+     * @return equivalent Complex object array
+     */
+    public static Complex[] toComplex(final double[] data) {
+        AssertUtils.notNull("data", data);
+        final Complex[] result = new Complex[data.length / 2];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = new Complex(data[2 * i], data[2 * i + 1]);
+        }
+        return result;
+    }
+
+    /**
+     * @param data Complex object array
+     * @return equivalent interleaved complex data
+     */
+    public static double[] toInterleaved(final Complex[] data) {
+        AssertUtils.notNull("data", data);
+        final double[] result = new double[2 * data.length];
+        for (int i = 0; i < data.length; i++) {
+            result[2 * i] = data[i].getReal();
+            result[2 * i + 1] = data[i].getImaginary();
+        }
+        return result;
+    }
+
+    private static void bluestein(final double[] data, final Plan plan, final boolean inverse) {
+        final int n = plan.n;
+        final Plan convolutionPlan = plan.convolutionPlan;
+        final double[] chirp = plan.chirp;
+        final int m2 = 2 * convolutionPlan.n;
+        final double[] scratch = ArrayCache.getCachedDoubleArray(CACHED_ARRAY_BLUESTEIN, m2);
+        // N.B. the inverse transform is computed as conj(fft(conj(x)))
+        final double sign = inverse ? -1.0 : 1.0;
+        for (int i = 0; i < 2 * n; i += 2) {
+            final double re = data[i];
+            final double im = sign * data[i + 1];
+            scratch[i] = re * chirp[i] - im * chirp[i + 1];
+            scratch[i + 1] = re * chirp[i + 1] + im * chirp[i];
+        }
+        Arrays.fill(scratch, 2 * n, m2, 0.0);
+
+        radix2(scratch, convolutionPlan, false);
+        multiply(scratch, plan.chirpSpectrum);
+        radix2(scratch, convolutionPlan, true);
+
+        final double norm = 1.0 / convolutionPlan.n;
+        for (int i = 0; i < 2 * n; i += 2) {
+            final double re = scratch[i] * norm;
+            final double im = scratch[i + 1] * norm;
+            data[i] = re * chirp[i] - im * chirp[i + 1];
+            data[i + 1] = sign * (re * chirp[i + 1] + im * chirp[i]);
+        }
+        ArrayCache.release(CACHED_ARRAY_BLUESTEIN, scratch);
+    }
+
+    private static boolean isPowerOfTwo(final int n) {
+        return (n & (n - 1)) == 0;
+    }
+
+    private static void radix2(final double[] data, final Plan plan, final boolean inverse) {
+        final int n = plan.n;
+        // bit-reversal permutation
+        final int[] bitReversal = plan.bitReversal;
+        for (int i = 0; i < n; i++) {
+            final int j = bitReversal[i];
+            if (j > i) {
+                final int i2 = i << 1;
+                final int j2 = j << 1;
+                final double re = data[i2];
+                final double im = data[i2 + 1];
+                data[i2] = data[j2];
+                data[i2 + 1] = data[j2 + 1];
+                data[j2] = re;
+                data[j2 + 1] = im;
+            }
+        }
+
+        // butterflies
+        final double[] cos = plan.cos;
+        final double[] sin = plan.sin;
+        final double sign = inverse ? 1.0 : -1.0;
+        for (int size = 2; size <= n; size <<= 1) {
+            final int half = size >> 1;
+            final int tableStep = n / size;
+            for (int start = 0; start < n; start += size) {
+                for (int k = 0, t = 0; k < half; k++, t += tableStep) {
+                    final double wRe = cos[t];
+                    final double wIm = sign * sin[t];
+                    final int even = (start + k) << 1;
+                    final int odd = (start + k + half) << 1;
+                    final double oddRe = data[odd];
+                    final double oddIm = data[odd + 1];
+                    final double re = wRe * oddRe - wIm * oddIm;
+                    final double im = wRe * oddIm + wIm * oddRe;
+                    data[odd] = data[even] - re;
+                    data[odd + 1] = data[even + 1] - im;
+                    data[even] += re;
+                    data[even + 1] += im;
+                }
+            }
+        }
+    }
+
+    private static void transform(final double[] data, final boolean inverse) {
+        AssertUtils.notNull("data", data);
+        if (data.length % 2 != 0) {
+            throw new IllegalArgumentException("interleaved complex data requires an even array length, is: " + data.length);
+        }
+        final int n = data.length / 2;
+        if (n <= 1) {
+            return;
+        }
+        final Plan plan = FFTPlanCache.getComplexPlan(n);
+        if (plan.convolutionPlan == null) {
+            radix2(data, plan, inverse);
+        } else {
+            bluestein(data, plan, inverse);
+        }
+    }
+
+    /**
+     * immutable pre-computed tables for a given transform length
+     */
+    static final class Plan {
+        private final int n;
+        // radix-2 tables
+        private final int[] bitReversal;
+        private final double[] cos;
+        private final double[] sin;
+        // Bluestein tables
+        private final Plan convolutionPlan;
+        private final double[] chirp; // interleaved exp(-i*pi*k^2/n)
+        private final double[] chirpSpectrum; // FFT of the (conjugate) chirp convolution kernel
+
+        Plan(final int n) {
+            AssertUtils.gtThanZero("n", n);
+            this.n = n;
+            if (isPowerOfTwo(n)) {
+                final int bits = Integer.numberOfTrailingZeros(n);
+                bitReversal = new int[n];
+                for (int i = 0; i < n; i++) {
+                    bitReversal[i] = bits == 0 ? 0 : Integer.reverse(i) >>> (Integer.SIZE - bits);
+                }
+                cos = new double[Math.max(1, n / 2)];
+                sin = new double[cos.length];
+                for (int k = 0; k < cos.length; k++) {
+                    final double phi = 2.0 * Math.PI * k / n;
+                    cos[k] = Math.cos(phi);
+                    sin[k] = Math.sin(phi);
+                }
+                convolutionPlan = null;
+                chirp = null;
+                chirpSpectrum = null;
+                return;
+            }
+            bitReversal = null;
+            cos = null;
+            sin = null;
+            final int m = Integer.highestOneBit(2 * n - 1) << 1;
+            convolutionPlan = FFTPlanCache.getComplexPlan(m);
+            chirp = new double[2 * n];
+            for (int k = 0; k < n; k++) {
+                // N.B. k^2 mod 2n keeps the phase argument small and thus accurate for large n
+                final double phi = Math.PI * (((long) k * k) % (2L * n)) / n;
+                chirp[2 * k] = Math.cos(phi);
+                chirp[2 * k + 1] = -Math.sin(phi);
+            }
+            chirpSpectrum = new double[2 * m];
+            chirpSpectrum[0] = chirp[0];
+            chirpSpectrum[1] = -chirp[1];
+            for (int k = 1; k < n; k++) {
+                chirpSpectrum[2 * k] = chirp[2 * k];
+                chirpSpectrum[2 * k + 1] = -chirp[2 * k + 1];
+                chirpSpectrum[2 * (m - k)] = chirp[2 * k];
+                chirpSpectrum[2 * (m - k) + 1] = -chirp[2 * k + 1];
+            }
+            radix2(chirpSpectrum, convolutionPlan, false);
+        }
+    }
+}
@@ -1,22 +1,32 @@
 package de.gsi.math.spectra.wavelet;
 
 import java.security.InvalidParameterException;
-import java.util.concurrent.Future;
+import java.util.Arrays;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
 
 import org.apache.commons.math3.complex.Complex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import de.gsi.dataset.DataSet;
 import de.gsi.dataset.spi.DataSetBuilder;
+import de.gsi.dataset.utils.ArrayCache;
+import de.gsi.dataset.utils.CachedDaemonThreadFactory;
 import de.gsi.math.TMath;
 import de.gsi.math.TMathConstants;
 import de.gsi.math.spectra.Convolution;
+import de.gsi.math.spectra.fft.InterleavedComplexFFT_1D;
 import de.gsi.math.utils.ConcurrencyUtils;
+import de.gsi.math.utils.ForkJoinComputation;
 
 public class ContinuousWavelet {
-    protected int START_THREADS = 512;
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContinuousWavelet.class);
+    private static final String CACHED_ARRAY_DATA = "ContinuousWavelet::WaveletTransform:data";
+    private static final String CACHED_ARRAY_KERNEL = "ContinuousWavelet::WaveletTransform:kernel";
+    private static final int TIME_BLOCK_MIN = 4096; // minimum number of translations per (scale, time) tile
     protected boolean DEBUG = false;
-    private int fstatus = 100;
-    private final Convolution[] fdecon = new Convolution[ConcurrencyUtils.getNumberOfThreads()];
+    private volatile ForkJoinComputation<?> lastComputation;
 
     /**
      * Wavelet Scalogram implementation with truncated convolution the assumption is made that the wavelet vanishes for
@@ -32,27 +42,7 @@ public class ContinuousWavelet {
      */
     public DataSet getScalogram(final double[] data, final int nQuantx, final int nQuanty, final double nu,
             final double fmin, final double fmax) {
-        if (data == null || data.length == 0) {
-            throw new InvalidParameterException(
-                    " getScalogram(double[],int,int,double,fmin,fmax) - data null or zero length");
-        }
-
-        if (fmin < 0 || fmax > 0.5 || fmax <= fmin) {
-            throw new InvalidParameterException(" getScalogram(double[],int,int,double," + fmin + "," + fmax
-                                                + ") - frequency range not within 0<=fmin<fmax<=0.5");
-        }
-
-        if (nQuantx <= 0 || nQuantx > data.length) {
-            throw new InvalidParameterException(" getScalogram(double[]," + nQuantx + ",int,double," + fmin + "," + fmax
-                                                + ") - nQuantx out of range [0," + data.length + "]");
-        }
-
-        // create and return data set.
-        return new DataSetBuilder("Scalogram") //
-                .setValues(DataSet.DIM_X, getScalogramTimeAxis(data, nQuantx, nQuanty, nu, fmin, fmax)) //
-                .setValues(DataSet.DIM_Y, getScalogramFrequencyAxis(nQuantx, nQuanty, nu, fmin, fmax)) //
-                .setValues(DataSet.DIM_Z, getScalogramArrayFourier(data, nQuantx, nQuanty, nu, fmin, fmax)) //
-                .build();
+        return getScalogramAsync(data, nQuantx, nQuanty, nu, fmin, fmax, null).join();
     }
 
     /**
@@ -64,39 +54,66 @@ public class ContinuousWavelet {
      * @param fmax maximum scalogram frequency range
      * @return Scalogram power in dB
      */
-    public synchronized double[][] getScalogramArray(final double[] data, final int nQuantx, final int nQuanty,
+    public double[][] getScalogramArray(final double[] data, final int nQuantx, final int nQuanty,
             final double nu, final double fmin, final double fmax) {
-        final int nQuantyInternal = (int) Math.floor(nQuanty * (fmax - fmin) / 0.5) + 1;
-        final double[][] ret = new double[nQuantx][nQuantyInternal];
-
-        fstatus = 0;
-
-        for (int i = 0; i < nQuantx; i++) {
-            final double t = data.length / nQuantx * i;
-
-            // update status variable
-            fstatus = (int) ((double) i / (double) nQuantx * 100);
-
-            final int min = (int) (2 * fmin * nQuanty);
-            final int max = (int) (2 * fmax * nQuanty);
+        return getScalogramArrayAsync(data, nQuantx, nQuanty, nu, fmin, fmax, null).join();
+    }
 
-            for (int j = min; j < max; j++) {
+    /**
+     * Asynchronous version of {@link #getScalogramArray(double[], int, int, double, double, double)}: the scalogram is
+     * split into (scale, time) tiles that are computed in parallel on the shared {@link CachedDaemonThreadFactory#getCommonPool()}.
+     *
+     * @param data input data
+     * @param nQuantx number of bins on the time axis
+     * @param nQuanty number of frequency bins of full range
+     * @param nu Morlet wavelet oscillation parameter
+     * @param fmin minimum scalogram frequency range
+     * @param fmax maximum scalogram frequency range
+     * @param progressListener optional listener notified with the progress in percent (may be {@code null})
+     * @return handle to query the progress, cancel or wait for the scalogram power in dB
+     */
+    public ForkJoinComputation<double[][]> getScalogramArrayAsync(final double[] data, final int nQuantx,
+            final int nQuanty, final double nu, final double fmin, final double fmax, final IntConsumer progressListener) {
+        final int nQuantyInternal = (int) Math.floor(nQuanty * (fmax - fmin) / 0.5) + 1;
+        final int min = (int) (2 * fmin * nQuanty);
+        final int max = (int) (2 * fmax * nQuanty);
+        final int stride = data.length / nQuantx;
+
+        // time tiles should be long compared to the wavelet support of the largest scale (FFT overhead)
+        final double fLowest = 0.5 * Math.max(1, min) / nQuanty;
+        final int maxWidth = (int) Math.min(data.length, 10.0 * nu / fLowest);
+        final int tileSamples = Math.max(TIME_BLOCK_MIN, 4 * maxWidth);
+        final int binsPerTile = Math.max(1, tileSamples / Math.max(1, stride));
+        final int nTimeTiles = (nQuantx + binsPerTile - 1) / binsPerTile;
+        final int nTiles = Math.max(0, max - min) * nTimeTiles;
+
+        return startComputation(Math.max(1, nTiles), progressListener, computation -> {
+            final double[][] ret = new double[nQuantx][nQuantyInternal];
+            computation.parallelFor(0, nTiles, 1, tile -> {
+                final int j = min + tile / nTimeTiles;
+                final int i0 = (tile % nTimeTiles) * binsPerTile;
+                final int i1 = Math.min(nQuantx, i0 + binsPerTile);
                 final double f = 0.5 * j / nQuanty;
+                if (f == 0) {
+                    for (int i = i0; i < i1; i++) {
+                        ret[i][j - min] = Double.NaN;
+                    }
+                    return;
+                }
 
-                if (f != 0) {
-                    final double scale = nu / f;
-
-                    final Complex val = WaveletTransform(data, scale, t, nu);
-
-                    final double power = val.getReal() * val.getReal() + val.getImaginary() * val.getImaginary();
+                // all translations of the tile at once (FFT-based truncated convolution)
+                final int from = stride * i0;
+                final int to = stride * (i1 - 1) + 1;
+                final double[] val = new double[2 * (to - from)];
+                waveletTransform(data, nu / f, nu, from, to, val);
+                for (int i = i0; i < i1; i++) {
+                    final int t2 = (stride * i - from) << 1;
+                    final double power = val[t2] * val[t2] + val[t2 + 1] * val[t2 + 1];
                     ret[i][j - min] = 10 * TMathConstants.Log10(power + 1e-99);
-                } else {
-                    ret[i][j - min] = Double.NaN;
                 }
-            }
-        }
-        fstatus = 100;
-        return ret;
+            });
+            return ret;
+        });
     }
 
     /**
@@ -108,149 +125,70 @@ public class ContinuousWavelet {
      * @param fmax maximum scalogram frequency range
      * @return Scalogram power in dB
      */
-    public synchronized double[][] getScalogramArrayFourier(final double[] data, final int nQuantx, final int nQuanty,
+    public double[][] getScalogramArrayFourier(final double[] data, final int nQuantx, final int nQuanty,
             final double nu, final double fmin, final double fmax) {
-        final int nQuantyInternal = (int) Math.floor(nQuanty * (fmax - fmin) / 0.5) + 1;
-        final double[][] ret = new double[nQuantyInternal][nQuantx];
-        final boolean cyclicBoundaries = true;
-
-        final long start = System.nanoTime();
-
-        fstatus = 0;
-
-        final int min = (int) (2 * fmin * nQuanty);
-        final int max = (int) (2 * fmax * nQuanty);
-        final int n = max - min;
-        final int filterDim = ConcurrencyUtils.nextPow2((cyclicBoundaries ? 1 : 3) * data.length);
+        return getScalogramArrayFourierAsync(data, nQuantx, nQuanty, nu, fmin, fmax, null).join();
+    }
 
-        final int nthreads = ConcurrencyUtils.getNumberOfThreads();
-        if (nthreads > 1 && n > START_THREADS) {
-            final Future<?>[] futures = new Future[nthreads];
-            final int k = n / nthreads;
-            for (int thread = 0; thread < nthreads; thread++) {
-                final int firstIdx = min + thread * k;
-                final int lastIdx = thread == nthreads - 1 ? max : firstIdx + k;
-                final int thread_id = thread;
-
-                futures[thread] = ConcurrencyUtils.submit(new Runnable() {
-                    @Override
-                    public void run() {
-                        if (fdecon[thread_id] == null) {
-                            fdecon[thread_id] = new Convolution();
-                        }
-
-                        for (int j = firstIdx; j < lastIdx; j++) {
-                            final double f0 = 0.5 * j / nQuanty;
-                            // update status variable
-                            if (thread_id == 0) {
-                                fstatus = (int) ((double) j / (double) lastIdx * 100);
-                            }
-                            final double[] filter = Convolution.getMorletFilter(filterDim, f0, nu);
-                            final double[] wtransformed = fdecon[thread_id].transformFull(data, filter,
-                                    cyclicBoundaries);
-
-                            // compute magnitude spectra
-                            if (f0 != 0) {
-                                if (nQuantx != filterDim) {
-                                    final int nbin = filterDim / nQuantx;
-                                    for (int i = 0; i < nQuantx; i++) {
-                                        final int index = i * nbin;
-                                        final int i2 = index << 1;
-                                        double power = 0.0;
-                                        for (int l = 0; l < nbin; l++) {
-                                            final int l2 = l << 1;
-                                            final double Re = wtransformed[i2 + l2];
-                                            final double Im = wtransformed[i2 + l2 + 1];
-
-                                            power += TMathConstants.Sqr(Re) + TMathConstants.Sqr(Im);
-                                        }
-                                        power /= nbin;
-
-                                        ret[j - min][i] = 10 * TMathConstants.Log10(power + 1e-99);
-                                    }
-                                } else {
-                                    for (int i = 0; i < filterDim; i++) {
-                                        final int index = i;
-                                        final int i2 = index << 1;
-                                        final double Re = wtransformed[i2];
-                                        final double Im = wtransformed[i2 + 1];
-
-                                        final double power = TMathConstants.Sqr(Re) + TMathConstants.Sqr(Im);
-                                        ret[j - min][i] = 10 * TMathConstants.Log10(power + 1e-99);
-                                    }
-                                }
-
-                            } else {
-                                for (int i = 0; i < nQuantx; i++) {
-                                    ret[j - min][i] = Double.NaN;
-                                }
-                            }
-                        }
-                    }
-                });
-            }
-            ConcurrencyUtils.waitForCompletion(futures);
+    /**
+     * Asynchronous version of {@link #getScalogramArrayFourier(double[], int, int, double, double, double)}: the scales
+     * are computed in parallel on the shared {@link CachedDaemonThreadFactory#getCommonPool()}.
+     *
+     * @param data input data
+     * @param nQuantx number of bins on the time axis
+     * @param nQuanty number of frequency bins of full range
+     * @param nu Morlet wavelet oscillation parameter
+     * @param fmin minimum scalogram frequency range
+     * @param fmax maximum scalogram frequency range
+     * @param progressListener optional listener notified with the progress in percent (may be {@code null})
+     * @return handle to query the progress, cancel or wait for the scalogram power in dB
+     */
+    public ForkJoinComputation<double[][]> getScalogramArrayFourierAsync(final double[] data, final int nQuantx,
+            final int nQuanty, final double nu, final double fmin, final double fmax, final IntConsumer progressListener) {
+        final int nScales = Math.max(0, (int) (2 * fmax * nQuanty) - (int) (2 * fmin * nQuanty));
+        return startComputation(Math.max(1, nScales), progressListener,
+                computation -> computeScalogramArrayFourier(computation, data, nQuantx, nQuanty, nu, fmin, fmax));
+    }
 
-        } else {
-            // single thread code
-            final int thread_id = 0;
-            if (fdecon[thread_id] == null) {
-                fdecon[thread_id] = new Convolution();
-            }
-            for (int j = min; j < max; j++) {
-                final double f0 = 0.5 * j / nQuanty;
-                // update status variable
-                fstatus = (int) ((double) j / (double) nQuanty * 100);
-                final double[] filter = Convolution.getMorletFilter(filterDim, f0, nu);
-                final double[] wtransformed = fdecon[thread_id].transformFull(data, filter, cyclicBoundaries);
-
-                // compute magnitude spectra
-                if (f0 != 0) {
-                    if (nQuantx != filterDim) {
-                        final int nbin = filterDim / nQuantx;
-                        for (int i = 0; i < nQuantx; i++) {
-                            final int index = i * nbin;
-                            final int i2 = index << 1;
-                            double power = 0.0;
-                            for (int k = 0; k < nbin; k++) {
-                                final int k2 = k << 1;
-                                final double Re = wtransformed[i2 + k2];
-                                final double Im = wtransformed[i2 + k2 + 1];
-
-                                power += TMathConstants.Sqr(Re) + TMathConstants.Sqr(Im);
-                            }
-                            power /= nbin;
-
-                            ret[j - min][i] = 10 * TMathConstants.Log10(power + 1e-99);
-                        }
-                    } else {
-                        for (int i = 0; i < filterDim; i++) {
-                            final int index = i;
-                            final int i2 = index << 1;
-                            final double Re = wtransformed[i2];
-                            final double Im = wtransformed[i2 + 1];
-
-                            final double power = TMathConstants.Sqr(Re) + TMathConstants.Sqr(Im);
-                            ret[j - min][i] = 10 * TMathConstants.Log10(power + 1e-99);
-                        }
-                    }
+    /**
+     * Asynchronous version of {@link #getScalogram(double[], int, int, double, double, double)}
+     *
+     * @param data real valued input data
+     * @param nQuantx number of bins on the time axis
+     * @param nQuanty number of frequency bins of full range
+     * @param nu the number of oscillations per wavelet
+     * @param fmin minimum scalogram frequency range
+     * @param fmax maximum scalogram frequency range
+     * @param progressListener optional listener notified with the progress in percent (may be {@code null})
+     * @return handle to query the progress, cancel or wait for the complex scalogram spectrum
+     */
+    public ForkJoinComputation<DataSet> getScalogramAsync(final double[] data, final int nQuantx, final int nQuanty,
+            final double nu, final double fmin, final double fmax, final IntConsumer progressListener) {
+        if (data == null || data.length == 0) {
+            throw new InvalidParameterException(
+                    " getScalogram(double[],int,int,double,fmin,fmax) - data null or zero length");
+        }
 
-                } else {
-                    for (int i = 0; i < nQuantx; i++) {
-                        ret[j - min][i] = Double.NaN;
-                    }
-                }
-            }
+        if (fmin < 0 || fmax > 0.5 || fmax <= fmin) {
+            throw new InvalidParameterException(" getScalogram(double[],int,int,double," + fmin + "," + fmax
+                                                + ") - frequency range not within 0<=fmin<fmax<=0.5");
         }
 
-        final long stop = System.nanoTime();
-        if (DEBUG) {
-            System.err.printf("getScalogramArrayFourier(double[],int,int,double,double,double) - took %f ms\n",
-                    (stop - start) * 1e-6);
+        if (nQuantx <= 0 || nQuantx > data.length) {
+            throw new InvalidParameterException(" getScalogram(double[]," + nQuantx + ",int,double," + fmin + "," + fmax
+                                                + ") - nQuantx out of range [0," + data.length + "]");
         }
 
-        fstatus = 100;
-        return ret;
+        final int nScales = Math.max(0, (int) (2 * fmax * nQuanty) - (int) (2 * fmin * nQuanty));
+        return startComputation(Math.max(1, nScales), progressListener, computation -> {
+            final double[][] scalogram = computeScalogramArrayFourier(computation, data, nQuantx, nQuanty, nu, fmin, fmax);
+            // create and return data set.
+            return new DataSetBuilder("Scalogram") //
+                    .setValues(DataSet.DIM_X, getScalogramTimeAxis(data, nQuantx, nQuanty, nu, fmin, fmax)) //
+                    .setValues(DataSet.DIM_Y, getScalogramFrequencyAxis(nQuantx, nQuanty, nu, fmin, fmax)) //
+                    .setValues(DataSet.DIM_Z, scalogram) //
+                    .build();
+        });
     }
 
     public double[] getScalogramFrequencyAxis(final int nQuantx, final int nQuanty, final double nu, final double fmin,
@@ -273,16 +211,24 @@ public class ContinuousWavelet {
 
     /**
      * @return progress of pending calculations in percent
+     * @deprecated polls only the most recently started computation, use the progress listener or
+     *             {@link ForkJoinComputation#getProgress()} of the handles returned by the asynchronous methods instead
      */
+    @Deprecated
     public int getStatus() {
-        return fstatus;
+        final ForkJoinComputation<?> computation = lastComputation;
+        return computation == null || computation.isDone() ? 100 : computation.getProgress();
     }
 
     /**
      * @return whether class is busy computing a spectra
+     * @deprecated polls only the most recently started computation, use {@link ForkJoinComputation#isDone()} of the
+     *             handles returned by the asynchronous methods instead
      */
+    @Deprecated
     public boolean isBusy() {
-        return fstatus < 100 ? true : false;
+        final ForkJoinComputation<?> computation = lastComputation;
+        return computation != null && !computation.isDone();
     }
 
     public Complex MexicanHat(final double x) {
@@ -356,16 +302,22 @@ public class ContinuousWavelet {
      * @param nu the number of oscillations per wavelet
      * @return the complex scalogram spectrum coefficient
      */
-    public synchronized Complex WaveletTransform(final Complex[] data, final double scale, final double translation,
+    public Complex WaveletTransform(final Complex[] data, final double scale, final double translation,
             final double nu) {
         double re = 0;
         double im = 0;
+        final double[] ret = new double[2]; // temp. real/imaginary storage for the morlet wavelet
         final double norm = 1.0 / Math.sqrt(scale);
 
         for (int i = 0; i < data.length; i++) {
-            final Complex morlet = Morlet((i - translation) / scale, nu).multiply(norm);
-            re += data[i].multiply(morlet).getReal();
-            im += data[i].multiply(morlet).getImaginary();
+            Morlet((i - translation) / scale, nu, ret);
+            // N.B. Morlet(double, double) returns (Im, Re) of the primitive variant
+            final double morletRe = ret[1] * norm;
+            final double morletIm = ret[0] * norm;
+            final double dataRe = data[i].getReal();
+            final double dataIm = data[i].getImaginary();
+            re += dataRe * morletRe - dataIm * morletIm;
+            im += dataRe * morletIm + dataIm * morletRe;
         }
 
         return new Complex(re, im);
@@ -381,7 +333,7 @@ public class ContinuousWavelet {
      * @param nu the number of oscillations per wavelet
      * @return the complex scalogram spectrum coefficient
      */
-    public synchronized Complex WaveletTransform(final double[] data, final double scale, final double translation,
+    public Complex WaveletTransform(final double[] data, final double scale, final double translation,
             final double nu) {
         double re = 0, im = 0;
         final double[] ret = new double[2]; // temp. real/imaginary storage for
@@ -410,6 +362,136 @@ public class ContinuousWavelet {
         return new Complex(re, im);
     }
 
+    /**
+     * Wavelet Scalogram implementation with truncated convolution for all integer translations at once. Uses the same
+     * truncated Morlet kernel as {@link #WaveletTransform(double[], double, double, double)} but evaluates the
+     * convolution in the Fourier domain, i.e. O(n log n) rather than O(n scale) operations per scale.
+     *
+     * @param data real valued input data
+     * @param scale the scale parameter
+     * @param nu the number of oscillations per wavelet
+     * @return interleaved complex scalogram spectrum coefficients [re0, im0, re1, im1, ...] for the translations 0, 1,
+     *         ..., data.length - 1
+     */
+    public double[] WaveletTransform(final double[] data, final double scale, final double nu) {
+        final double[] result = new double[2 * data.length];
+        waveletTransform(data, scale, nu, 0, data.length, result);
+        return result;
+    }
+
+    private double[][] computeScalogramArrayFourier(final ForkJoinComputation<?> computation, final double[] data,
+            final int nQuantx, final int nQuanty, final double nu, final double fmin, final double fmax) {
+        final int nQuantyInternal = (int) Math.floor(nQuanty * (fmax - fmin) / 0.5) + 1;
+        final double[][] ret = new double[nQuantyInternal][nQuantx];
+        final boolean cyclicBoundaries = true;
+
+        final long start = System.nanoTime();
+
+        final int min = (int) (2 * fmin * nQuanty);
+        final int max = (int) (2 * fmax * nQuanty);
+        final int filterDim = ConcurrencyUtils.nextPow2((cyclicBoundaries ? 1 : 3) * data.length);
+
+        computation.parallelFor(min, max, 1, j -> {
+            final double f0 = 0.5 * j / nQuanty;
+            if (f0 == 0) {
+                Arrays.fill(ret[j - min], Double.NaN);
+                return;
+            }
+            final double[] filter = Convolution.getMorletFilter(filterDim, f0, nu);
+            // N.B. Convolution keeps per-instance FFT state -> one instance per task
+            final double[] wtransformed = new Convolution().transformFull(data, filter, cyclicBoundaries);
+
+            // compute magnitude spectra
+            if (nQuantx != filterDim) {
+                final int nbin = filterDim / nQuantx;
+                for (int i = 0; i < nQuantx; i++) {
+                    final int index = i * nbin;
+                    final int i2 = index << 1;
+                    double power = 0.0;
+                    for (int k = 0; k < nbin; k++) {
+                        final int k2 = k << 1;
+                        final double Re = wtransformed[i2 + k2];
+                        final double Im = wtransformed[i2 + k2 + 1];
+
+                        power += TMathConstants.Sqr(Re) + TMathConstants.Sqr(Im);
+                    }
+                    power /= nbin;
+
+                    ret[j - min][i] = 10 * TMathConstants.Log10(power + 1e-99);
+                }
+            } else {
+                for (int i = 0; i < filterDim; i++) {
+                    final int i2 = i << 1;
+                    final double Re = wtransformed[i2];
+                    final double Im = wtransformed[i2 + 1];
+
+                    final double power = TMathConstants.Sqr(Re) + TMathConstants.Sqr(Im);
+                    ret[j - min][i] = 10 * TMathConstants.Log10(power + 1e-99);
+                }
+            }
+        });
+
+        final long stop = System.nanoTime();
+        if (DEBUG && LOGGER.isDebugEnabled()) {
+            LOGGER.atDebug().addArgument((stop - start) * 1e-6).log("getScalogramArrayFourier(double[],int,int,double,double,double) - took {} ms");
+        }
+        return ret;
+    }
+
+    private <T> ForkJoinComputation<T> startComputation(final int nTasks, final IntConsumer progressListener,
+            final Function<ForkJoinComputation<T>, T> function) {
+        final ForkJoinComputation<T> computation = new ForkJoinComputation<>(nTasks, progressListener, function);
+        lastComputation = computation;
+        return computation.fork(CachedDaemonThreadFactory.getCommonPool());
+    }
+
+    /**
+     * FFT-based truncated convolution for the translations [from, to[ (see
+     * {@link #WaveletTransform(double[], double, double)}), only the data samples within the wavelet support of these
+     * translations are transformed
+     */
+    private void waveletTransform(final double[] data, final double scale, final double nu, final int from, final int to,
+            final double[] result) {
+        final int nsamples = data.length;
+        // significant half-width (morlet), wider kernels cannot overlap the data
+        final int width = Math.min(nsamples, (int) (10.0 * scale));
+        if (width == 0) {
+            Arrays.fill(result, 0, 2 * (to - from), 0.0);
+            return;
+        }
+        final double[] ret = new double[2];
+        final double norm = 1.0 / Math.sqrt(scale);
+        final int segmentStart = Math.max(0, from + 1 - width);
+        final int segmentLength = Math.min(nsamples, to + width) - segmentStart;
+        // N.B. zero-padding to length + 2*width suppresses the circular wrap-around -> linear convolution
+        final int fftSamples = ConcurrencyUtils.nextPow2(segmentLength + 2 * width);
+
+        final double[] signal = ArrayCache.getCachedDoubleArray(CACHED_ARRAY_DATA, 2 * fftSamples);
+        final double[] kernel = ArrayCache.getCachedDoubleArray(CACHED_ARRAY_KERNEL, 2 * fftSamples);
+        Arrays.fill(signal, 0.0);
+        Arrays.fill(kernel, 0.0);
+        for (int i = 0; i < segmentLength; i++) {
+            signal[i << 1] = data[segmentStart + i];
+        }
+        // W(tau) = sum_i data[i] * g(i - tau) with g(u) = (Im, Re)(Morlet(u/scale)) for u in [1 - width, width]
+        // -> convolution with the time-reversed kernel h(v) = g(-v)
+        for (int v = -width; v < width; v++) {
+            Morlet(-v / scale, nu, ret);
+            final int index = (v < 0 ? v + fftSamples : v) << 1;
+            kernel[index] = ret[1] * norm;
+            kernel[index + 1] = ret[0] * norm;
+        }
+
+        InterleavedComplexFFT_1D.fftInPlace(signal);
+        InterleavedComplexFFT_1D.fftInPlace(kernel);
+        InterleavedComplexFFT_1D.multiply(signal, kernel);
+        InterleavedComplexFFT_1D.ifftInPlace(signal);
+
+        System.arraycopy(signal, 2 * (from - segmentStart), result, 0, 2 * (to - from));
+        ArrayCache.release(CACHED_ARRAY_DATA, signal);
+        ArrayCache.release(CACHED_ARRAY_KERNEL, kernel);
+    }
+
     public static void main(final String[] args) {
         final ContinuousWavelet wTrafo = new ContinuousWavelet();
 
@@ -0,0 +1,287 @@
+package de.gsi.math.utils;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+import de.gsi.dataset.utils.AssertUtils;
+import de.gsi.dataset.utils.CachedDaemonThreadFactory;
+
+/**
+ * Handle of a long-running computation executed on an {@link Executor} (typically the shared
+ * {@link CachedDaemonThreadFactory#getCommonPool()} following the global {@link de.gsi.dataset.utils.ExecutorStrategy})
+ * that supports progress reporting and cooperative cancellation.
+ * <p>
+ * The computation is split into {@code totalWork} units that are typically processed via
+ * {@link #parallelFor(int, int, int, IntConsumer)}: on a {@link ForkJoinPool} the index range is recursively halved into
+ * work-stealing sub-tasks, on other executors it is split into chunks that are claimed by the computing thread and
+ * helper tasks submitted to the same executor. Each completed index is accounted as one unit of progress and no further
+ * indices are started once the computation has been cancelled. Progress changes (in percent) are forwarded to the
+ * optional listener from the worker threads.
+ *
+ * <pre>
+ * final ForkJoinComputation&lt;double[][]&gt; handle = wavelet.getScalogramArrayAsync(data, ..., percent -&gt; ...);
+ * ...
+ * handle.cancel(true); // or: final double[][] result = handle.get();
+ * </pre>
+ *
+ * @param <T> result type
+ */
+public class ForkJoinComputation<T> implements Future<T> {
+    private final ForkJoinTask<T> task;
+    private final long totalWork;
+    private final IntConsumer progressListener;
+    private final AtomicLong completedWork = new AtomicLong();
+    private final AtomicInteger progress = new AtomicInteger();
+    private final AtomicBoolean submitted = new AtomicBoolean();
+    private volatile Executor executor; // non-fork-join executor the computation has been submitted to
+
+    /**
+     * @param totalWork total number of work units (&gt;0) reported via {@link #addProgress(long)}
+     * @param progressListener optional listener notified with the progress in percent [0, 100] (may be {@code null})
+     * @param computation the computation, receives this handle e.g. to call
+     *            {@link #parallelFor(int, int, int, IntConsumer)} or to check {@link #isCancelled()}
+     */
+    public ForkJoinComputation(final long totalWork, final IntConsumer progressListener, final Function<ForkJoinComputation<T>, T> computation) {
+        AssertUtils.gtThanZero("totalWork", totalWork);
+        AssertUtils.notNull("computation", computation);
+        this.totalWork = totalWork;
+        this.progressListener = progressListener;
+        task = ForkJoinTask.adapt(() -> computation.apply(this));
+    }
+
+    /**
+     * accounts for completed work units and notifies the listener if the progress percentage changed
+     *
+     * @param units number of completed work units
+     */
+    public void addProgress(final long units) {
+        final long completed = completedWork.addAndGet(units);
+        final int percent = (int) Math.min(100, completed * 100 / totalWork);
+        int previous;
+        do {
+            previous = progress.get();
+            if (percent <= previous) {
+                return;
+            }
+        } while (!progress.compareAndSet(previous, percent));
+        if (progressListener != null) {
+            progressListener.accept(percent);
+        }
+    }
+
+    @Override
+    public boolean cancel(final boolean mayInterruptIfRunning) {
+        return task.cancel(mayInterruptIfRunning);
+    }
+
+    /**
+     * submits the computation to the given executor
+     *
+     * @param pool the executor running the computation, e.g. {@link CachedDaemonThreadFactory#getCommonPool()}
+     * @return this handle
+     * @throws IllegalStateException if the computation has already been submitted
+     */
+    public ForkJoinComputation<T> fork(final Executor pool) {
+        AssertUtils.notNull("pool", pool);
+        if (!submitted.compareAndSet(false, true)) {
+            throw new IllegalStateException("computation has already been submitted");
+        }
+        if (pool instanceof ForkJoinPool) {
+            ((ForkJoinPool) pool).execute(task);
+            return this;
+        }
+        executor = pool;
+        // N.B. result, exception or cancellation are recorded in the task and reported via get()/join()
+        pool.execute(task::quietlyInvoke);
+        return this;
+    }
+
+    @Override
+    public T get() throws InterruptedException, ExecutionException {
+        return task.get();
+    }
+
+    @Override
+    public T get(final long timeout, final TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        return task.get(timeout, unit);
+    }
+
+    /**
+     * @return progress in percent [0, 100]
+     */
+    public int getProgress() {
+        return task.isDone() && !task.isCompletedAbnormally() ? 100 : progress.get();
+    }
+
+    /**
+     * executes the computation in the given pool and waits for its completion. If the computation has already been
+     * submitted (e.g. via {@link #fork(Executor)}), it is not executed a second time but only waited for.
+     *
+     * @param pool the executor running the computation (N.B. non-fork-join executors only run the parallel
+     *            sub-tasks, the computation itself is executed on the calling thread)
+     * @return the computed result
+     * @throws CancellationException if the computation has been cancelled
+     */
+    public T invoke(final Executor pool) {
+        AssertUtils.notNull("pool", pool);
+        if (!submitted.compareAndSet(false, true)) {
+            return task.join();
+        }
+        if (pool instanceof ForkJoinPool) {
+            return ((ForkJoinPool) pool).invoke(task);
+        }
+        executor = pool;
+        return task.invoke();
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return task.isCancelled();
+    }
+
+    @Override
+    public boolean isDone() {
+        return task.isDone();
+    }
+
+    /**
+     * waits for the computation to complete
+     *
+     * @return the computed result
+     * @throws CancellationException if the computation has been cancelled
+     */
+    public T join() {
+        return task.join();
+    }
+
+    /**
+     * executes {@code body} for each index in [from, to[ by splitting the range into sub-tasks of at most {@code grain}
+     * indices (work-stealing on a {@link ForkJoinPool}, claimed by the calling thread and helper tasks on other
+     * executors). Each completed index is reported as one work unit. No further indices are started once the
+     * computation has been cancelled.
+     *
+     * @param from first index (inclusive)
+     * @param to last index (exclusive)
+     * @param grain maximum number of indices processed sequentially by a sub-task (&gt;0)
+     * @param body the per-index computation
+     */
+    public void parallelFor(final int from, final int to, final int grain, final IntConsumer body) {
+        AssertUtils.gtThanZero("grain", grain);
+        AssertUtils.notNull("body", body);
+        if (from >= to) {
+            return;
+        }
+        final Executor pool = executor;
+        if (pool == null || ForkJoinTask.inForkJoinPool()) {
+            new RangeAction(from, to, grain, body).invoke();
+            return;
+        }
+        parallelFor(pool, from, to, grain, body);
+    }
+
+    private void parallelFor(final Executor pool, final int from, final int to, final int grain, final IntConsumer body) {
+        final int nChunks = (int) ((to - (long) from + grain - 1) / grain);
+        final AtomicInteger nextChunk = new AtomicInteger();
+        final CountDownLatch chunksDone = new CountDownLatch(nChunks);
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        final Runnable worker = () -> {
+            // N.B. chunks are only claimed by running threads: waiting for all chunks cannot starve a bounded pool
+            for (int chunk = nextChunk.getAndIncrement(); chunk < nChunks; chunk = nextChunk.getAndIncrement()) {
+                try {
+                    final int chunkStart = from + chunk * grain;
+                    final int chunkStop = Math.min(to, chunkStart + grain);
+                    for (int index = chunkStart; index < chunkStop && !isCancelled() && error.get() == null; index++) {
+                        body.accept(index);
+                        addProgress(1);
+                    }
+                } catch (final Throwable t) { // NOPMD -- forwarded to the calling thread
+                    error.compareAndSet(null, t);
+                } finally {
+                    chunksDone.countDown();
+                }
+            }
+        };
+        final int nHelpers = Math.min(nChunks, CachedDaemonThreadFactory.getNumbersOfThreads()) - 1;
+        try {
+            for (int i = 0; i < nHelpers; i++) {
+                pool.execute(worker);
+            }
+        } catch (final RejectedExecutionException e) { // NOPMD -- e.g. pool shut down by a strategy switch
+            // the calling thread processes the chunks that have not been claimed by the already started helpers
+        }
+        worker.run();
+
+        boolean interrupted = false;
+        while (chunksDone.getCount() > 0) {
+            try {
+                chunksDone.await();
+            } catch (final InterruptedException e) { // NOPMD -- the claimed chunks are still being written
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        final Throwable t = error.get();
+        if (t instanceof RuntimeException) {
+            throw (RuntimeException) t;
+        } else if (t instanceof Error) {
+            throw (Error) t;
+        } else if (t != null) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return ForkJoinComputation.class.getSimpleName() + "[progress=" + getProgress() + "%, done=" + isDone() + ", cancelled=" + isCancelled() + "]";
+    }
+
+    private class RangeAction extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int from;
+        private final int to;
+        private final int grain;
+        private final transient IntConsumer body;
+
+        private RangeAction(final int from, final int to, final int grain, final IntConsumer body) {
+            super();
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            // N.B. cancellation state of the enclosing computation rather than of this sub-task
+            if (ForkJoinComputation.this.isCancelled()) {
+                return;
+            }
+            if (to - from <= grain) {
+                for (int index = from; index < to && !ForkJoinComputation.this.isCancelled(); index++) {
+                    body.accept(index);
+                    addProgress(1);
+                }
+                return;
+            }
+            final int mid = (from + to) >>> 1;
+            invokeAll(new RangeAction(from, mid, grain, body), new RangeAction(mid, to, grain, body));
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package de.gsi.math;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import org.junit.jupiter.api.Test;
+
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.DataSetError;
+import de.gsi.dataset.spi.DoubleDataSet;
+import de.gsi.dataset.spi.DoubleErrorDataSet;
+import de.gsi.math.DataSetMath.Filter;
+import de.gsi.math.DataSetMath.MathOp;
+import de.gsi.math.spectra.Apodization;
+
+/**
+ * Tests the re-usable output and in-place variants of DataSetMath
+ */
+public class DataSetMathTests {
+    private static final int N_SAMPLES = 128;
+
+    @Test
+    public void iirLowPassFilterFunctionTests() {
+        final int nSamples = 2000;
+        final double[] x = new double[nSamples];
+        final double[] y = new double[nSamples];
+        final double[] ey = new double[nSamples];
+        final double[] signal = new double[nSamples];
+        for (int i = 0; i < nSamples; i++) {
+            x[i] = 0.1 * i;
+            signal[i] = 3.0 + Math.sin(2.0 * Math.PI * 0.01 * x[i]);
+            y[i] = signal[i] + ((i * 7919) % 13 - 6) * 0.1; // deterministic 'noise'
+            ey[i] = 0.1;
+        }
+        final DoubleErrorDataSet function = new DoubleErrorDataSet("noisy", x, y, ey, ey, nSamples, true);
+
+        final DataSet filtered = DataSetMath.iirLowPassFilterFunction(function, 2.0, 4);
+        assertEquals(nSamples, filtered.getDataCount());
+        double rawDeviation = 0.0;
+        double filteredDeviation = 0.0;
+        for (int i = 0; i < nSamples; i++) {
+            assertEquals(x[i], filtered.get(DataSet.DIM_X, i));
+            rawDeviation += Math.abs(y[i] - signal[i]);
+            filteredDeviation += Math.abs(filtered.get(DataSet.DIM_Y, i) - signal[i]);
+            assertTrue(((DataSetError) filtered).getErrorNegative(DataSet.DIM_Y, i) >= 0.1);
+        }
+        assertTrue(filteredDeviation < 0.2 * rawDeviation, "deviation filtered = " + filteredDeviation + " vs. raw = " + rawDeviation);
+
+        // constant input -> constant output (no start-up transient, zero-phase)
+        final double[] five = new double[nSamples];
+        Arrays.fill(five, 5.0);
+        final DoubleErrorDataSet constant = new DoubleErrorDataSet("constant", x, five, ey, ey, nSamples, true);
+        final DataSet filteredConstant = DataSetMath.iirLowPassFilterFunction(constant, 10.0, 2);
+        for (int i = 0; i < nSamples; i++) {
+            assertEquals(5.0, filteredConstant.get(DataSet.DIM_Y, i), 1e-9);
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> DataSetMath.iirLowPassFilterFunction(function, 2.0, 0));
+        assertEquals(1, DataSetMath.iirLowPassFilterFunction(new DoubleErrorDataSet("single", new double[] { 1.0 }, new double[] { 2.0 }, new double[1], new double[1], 1, true), 2.0, 4).getDataCount());
+    }
+
+    @Test
+    public void mathFunctionTests() {
+        final DoubleErrorDataSet function = generateTestData(N_SAMPLES);
+        final DataSet sum = DataSetMath.mathFunction(function, 2.0, MathOp.ADD);
+        assertEquals("+(test)", sum.getName());
+        assertEquals(N_SAMPLES, sum.getDataCount());
+        for (int i = 0; i < N_SAMPLES; i++) {
+            assertEquals(function.get(DataSet.DIM_Y, i) + 2.0, sum.get(DataSet.DIM_Y, i));
+            assertEquals(function.getErrorNegative(DataSet.DIM_Y, i), ((DataSetError) sum).getErrorNegative(DataSet.DIM_Y, i));
+        }
+        final DataSet product = DataSetMath.mathFunction(function, 2.0, MathOp.MULTIPLY);
+        assertEquals(2.0 * function.get(DataSet.DIM_Y, 7), product.get(DataSet.DIM_Y, 7));
+        assertEquals(2.0 * function.getErrorPositive(DataSet.DIM_Y, 7), ((DataSetError) product).getErrorPositive(DataSet.DIM_Y, 7));
+
+        // data set without errors
+        final DoubleDataSet noErrors = new DoubleDataSet("noErrors", function.getXValues(), function.getYValues(), N_SAMPLES, true);
+        final DataSet sqr = DataSetMath.mathFunction(noErrors, 0.0, MathOp.SQR);
+        assertEquals(Math.pow(function.get(DataSet.DIM_Y, 3), 2), sqr.get(DataSet.DIM_Y, 3));
+        assertEquals(0.0, ((DataSetError) sqr).getErrorPositive(DataSet.DIM_Y, 3));
+
+        assertThrows(IllegalArgumentException.class, () -> DataSetMath.mathFunction(function, 1.0, MathOp.ADD, null));
+
+        for (final MathOp op : MathOp.values()) {
+            assertOutputVariant(function, (in, out) -> DataSetMath.mathFunction(in, 0.5, op, out));
+            assertOutputVariant(function, (in, out) -> DataSetMath.mathFunction(in, function, op, out));
+            assertOutputVariant(function, (in, out) -> DataSetMath.mathFunction(function, in, op, out));
+        }
+    }
+
+    @Test
+    public void alignmentTests() {
+        final DoubleErrorDataSet function1 = generateTestData(N_SAMPLES);
+        // finer, shifted and irregular grid that only partially overlaps with function1
+        final DoubleErrorDataSet function2 = new DoubleErrorDataSet("function2", 3 * N_SAMPLES);
+        for (int i = 0; i < 3 * N_SAMPLES; i++) {
+            final double x = -10.25 + 0.33 * i + (i % 3 == 0 ? 0.1 : 0.0);
+            function2.add(x, Math.cos(0.1 * x), 0.01 * i, 0.02 * i);
+        }
+
+        for (final MathOp op : new MathOp[] { MathOp.ADD, MathOp.SUBTRACT, MathOp.MULTIPLY, MathOp.DIVIDE }) {
+            final DataSet result = DataSetMath.mathFunction(function1, function2, op);
+            assertEquals(N_SAMPLES, result.getDataCount());
+            for (int i = 0; i < N_SAMPLES; i++) {
+                final double x = function1.get(DataSet.DIM_X, i);
+                final double y1 = function1.get(DataSet.DIM_Y, i);
+                // reference: binary search interpolation
+                final double y2 = function2.getValue(DataSet.DIM_Y, x);
+                final double expected = op == MathOp.ADD ? y1 + y2 : op == MathOp.SUBTRACT ? y1 - y2 : op == MathOp.MULTIPLY ? y1 * y2 : y1 / y2;
+                assertEquals(x, result.get(DataSet.DIM_X, i));
+                assertEquals(expected, result.get(DataSet.DIM_Y, i), 1e-12, op + " at x = " + x);
+                if (op == MathOp.ADD) {
+                    final double eyn = Math.hypot(function1.getErrorNegative(DataSet.DIM_Y, i), function2.getErrorNegative(DataSet.DIM_Y, x));
+                    assertEquals(eyn, ((DataSetError) result).getErrorNegative(DataSet.DIM_Y, i), 1e-12);
+                }
+            }
+        }
+
+        // identical grid
+        final DoubleDataSet sameGrid = new DoubleDataSet("sameGrid", function1.getXValues(), function1.getYValues(), N_SAMPLES, true);
+        final DataSet difference = DataSetMath.mathFunction(function1, sameGrid, MathOp.SUBTRACT);
+        for (int i = 0; i < N_SAMPLES; i++) {
+            assertEquals(0.0, difference.get(DataSet.DIM_Y, i));
+            assertEquals(function1.getErrorPositive(DataSet.DIM_Y, i), ((DataSetError) difference).getErrorPositive(DataSet.DIM_Y, i));
+        }
+
+        // gap in function2 (NaN at x = 10) and samples outside its range
+        final DoubleErrorDataSet withGap = new DoubleErrorDataSet(function1);
+        withGap.set(10, 10.0, Double.NaN);
+        final double[] xGrid = { -1.0, 0.5, 9.5, 10.5, 20.5, 1000.0 };
+        final double[] zeros = new double[xGrid.length];
+        final DoubleErrorDataSet grid = new DoubleErrorDataSet("grid", xGrid, zeros, zeros, zeros, xGrid.length, true);
+        final DataSet gap = DataSetMath.mathFunction(grid, withGap, MathOp.ADD);
+        assertEquals(withGap.get(DataSet.DIM_Y, 0), gap.get(DataSet.DIM_Y, 0), "before first sample");
+        assertEquals(0.5 * (withGap.get(DataSet.DIM_Y, 0) + withGap.get(DataSet.DIM_Y, 1)), gap.get(DataSet.DIM_Y, 1), 1e-12);
+        assertEquals(Double.NaN, gap.get(DataSet.DIM_Y, 2));
+        assertEquals(Double.NaN, gap.get(DataSet.DIM_Y, 3));
+        assertEquals(withGap.getValue(DataSet.DIM_Y, 20.5), gap.get(DataSet.DIM_Y, 4), 1e-12);
+        assertEquals(withGap.get(DataSet.DIM_Y, N_SAMPLES - 1), gap.get(DataSet.DIM_Y, 5), "after last sample");
+
+        // unsorted x-coordinates: per-sample interpolation fall-back
+        final DoubleErrorDataSet unsorted = new DoubleErrorDataSet(function2);
+        unsorted.set(0, 1000.0, 1.0);
+        final DataSet result = DataSetMath.mathFunction(function1, unsorted, MathOp.ADD);
+        for (int i = 0; i < N_SAMPLES; i++) {
+            final double x = function1.get(DataSet.DIM_X, i);
+            assertEquals(function1.get(DataSet.DIM_Y, i) + unsorted.getValue(DataSet.DIM_Y, x), result.get(DataSet.DIM_Y, i));
+        }
+    }
+
+    @Test
+    public void filterFunctionTests() {
+        final DoubleErrorDataSet function = generateTestData(N_SAMPLES);
+        for (final Filter filter : new Filter[] { Filter.MEAN, Filter.MIN, Filter.MAX, Filter.P2P, Filter.RMS }) {
+            assertOutputVariant(function, (in, out) -> DataSetMath.filterFunction(in, 2.0, filter, out));
+            // brute-force implementation
+            assertOutputVariant(function, (in, out) -> DataSetMath.filterFunction(in, 2.0, filter, false, out));
+        }
+        final DataSet slidingWindow = DataSetMath.filterFunction(function, 2.0, Filter.MEAN, true);
+        final DataSet bruteForce = DataSetMath.filterFunction(function, 2.0, Filter.MEAN, false);
+        assertArrayEquals(bruteForce.getValues(DataSet.DIM_Y), slidingWindow.getValues(DataSet.DIM_Y), 1e-12);
+        assertArrayEquals(((DataSetError) bruteForce).getErrorsPositive(DataSet.DIM_Y), ((DataSetError) slidingWindow).getErrorsPositive(DataSet.DIM_Y), 1e-12);
+    }
+
+    @Test
+    public void derivativeIntegralSpectrumTests() {
+        final DoubleErrorDataSet function = generateTestData(N_SAMPLES);
+        assertOutputVariant(function, (in, out) -> DataSetMath.derivativeFunction(in, -1.0, out));
+        assertOutputVariant(function, (in, out) -> DataSetMath.integrateFunction(in, Double.NaN, Double.NaN, out));
+        assertOutputVariant(function, (in, out) -> DataSetMath.integrateFunction(in, 10.5, 20.5, out));
+        assertOutputVariant(function, (in, out) -> DataSetMath.magnitudeSpectrum(in, Apodization.Hann, true, false, out));
+
+        final DataSet derivative = DataSetMath.derivativeFunction(generateTestData(3));
+        assertEquals(0, derivative.getDataCount());
+
+        final DataSet integral = DataSetMath.integrateFunction(function, 10.5, 20.5);
+        assertEquals(N_SAMPLES + 2, integral.getDataCount(), "samples + integration boundaries");
+        assertEquals(DataSetMath.integral(function, 10.5, 20.5).getY(), integral.get(DataSet.DIM_Y, integral.getDataCount() - 1));
+
+        final DataSet spectrum = DataSetMath.magnitudeSpectrum(function);
+        assertEquals(N_SAMPLES / 2, spectrum.getDataCount());
+    }
+
+    @Test
+    public void outputReuseTests() {
+        final DoubleErrorDataSet function = generateTestData(N_SAMPLES);
+        final MathDataSet output = new MathDataSet("output", ds -> ds, generateTestData(2 * N_SAMPLES));
+        final AtomicInteger notifyCounter = new AtomicInteger();
+        output.addListener(evt -> notifyCounter.incrementAndGet());
+        final double[] xValues = output.getXValues();
+        final double[] yValues = output.getYValues();
+        final String outputName = output.getName();
+
+        assertSame(output, DataSetMath.filterFunction(function, 1.0, Filter.MEDIAN, output));
+        assertEquals(N_SAMPLES, output.getDataCount());
+        assertEquals(outputName, output.getName(), "caller-supplied output name retained");
+        assertEquals("Median(test,1.0)", DataSetMath.filterFunction(function, 1.0, Filter.MEDIAN).getName(), "newly allocated output");
+        assertEquals(1, notifyCounter.get(), "single update notification");
+        assertSame(xValues, output.getXValues(), "re-used x-array");
+        assertSame(yValues, output.getYValues(), "re-used y-array");
+
+        for (int i = 0; i < 10; i++) {
+            DataSetMath.mathFunction(function, function, MathOp.SUBTRACT, output);
+            DataSetMath.derivativeFunction(function, 1.0, output);
+            DataSetMath.integrateFunction(function, Double.NaN, Double.NaN, output);
+            DataSetMath.magnitudeSpectrum(function, Apodization.Hann, false, false, output);
+        }
+        assertEquals(N_SAMPLES / 2, output.getDataCount());
+        assertSame(xValues, output.getXValues(), "re-used x-array");
+        assertSame(yValues, output.getYValues(), "re-used y-array");
+        assertEquals(41, notifyCounter.get());
+    }
+
+    /**
+     * checks that the allocating, re-used output and in-place variants yield identical results
+     *
+     * @param function input function
+     * @param operation operation (input, output) to be tested
+     */
+    private static void assertOutputVariant(final DoubleErrorDataSet function, final BiFunction<DoubleErrorDataSet, DoubleErrorDataSet, DataSet> operation) {
+        final DoubleErrorDataSet reference = new DoubleErrorDataSet("reference", 0);
+        operation.apply(function, reference);
+        final int n = reference.getDataCount();
+
+        // re-used output with a larger capacity and different previous content
+        final DoubleErrorDataSet output = generateTestData(3 * N_SAMPLES);
+        output.addDataLabel(0, "stale label");
+        final String outputName = output.getName();
+        operation.apply(function, output);
+        assertEquals("reference", reference.getName(), "caller-supplied output name retained");
+        assertEquals(outputName, output.getName(), "caller-supplied output name retained");
+        assertEquals(n, output.getDataCount());
+        assertNull(output.getDataLabel(0), "cleared stale label");
+        assertDataEquals(reference, output);
+
+        // in-place operation
+        final DoubleErrorDataSet inPlace = new DoubleErrorDataSet(function);
+        operation.apply(inPlace, inPlace);
+        assertEquals(n, inPlace.getDataCount());
+        assertDataEquals(reference, inPlace);
+    }
+
+    private static void assertDataEquals(final DoubleErrorDataSet expected, final DoubleErrorDataSet actual) {
+        final int n = expected.getDataCount();
+        assertArrayEquals(Arrays.copyOf(expected.getXValues(), n), Arrays.copyOf(actual.getXValues(), n));
+        assertArrayEquals(Arrays.copyOf(expected.getYValues(), n), Arrays.copyOf(actual.getYValues(), n));
+        assertArrayEquals(Arrays.copyOf(expected.getErrorsNegative(DataSet.DIM_Y), n), Arrays.copyOf(actual.getErrorsNegative(DataSet.DIM_Y), n));
+        assertArrayEquals(Arrays.copyOf(expected.getErrorsPositive(DataSet.DIM_Y), n), Arrays.copyOf(actual.getErrorsPositive(DataSet.DIM_Y), n));
+        assertEquals(expected.getAxisDescription(DataSet.DIM_Y).getMin(), actual.getAxisDescription(DataSet.DIM_Y).getMin());
+        assertEquals(expected.getAxisDescription(DataSet.DIM_Y).getMax(), actual.getAxisDescription(DataSet.DIM_Y).getMax());
+    }
+
+    private static DoubleErrorDataSet generateTestData(final int nSamples) {
+        final DoubleErrorDataSet dataSet = new DoubleErrorDataSet("test", nSamples);
+        for (int i = 0; i < nSamples; i++) {
+            dataSet.add(i, 2.0 + Math.sin(0.2 * i) + 0.01 * i, 0.1 + 0.001 * i, 0.2);
+        }
+        return dataSet;
+    }
+}
@@ -0,0 +1,63 @@
+package de.gsi.math;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.spi.DoubleErrorDataSet;
+import de.gsi.math.DataSetMath.Filter;
+
+/**
+ * Simple benchmark comparing the brute-force O(n^2) {@link DataSetMath#filterFunction(DataSet, double, Filter)}
+ * implementation with the sliding-window engine ({@link de.gsi.math.filter.SlidingWindowFilter}) used for sorted
+ * x-coordinates.
+ * <p>
+ * The brute-force reference is only evaluated up to {@value #MAX_BRUTE_FORCE_SAMPLES} samples (it would take minutes
+ * to hours beyond that).
+ */
+public class FilterFunctionBenchmark { // NOPMD - nomen est omen
+    private static final Logger LOGGER = LoggerFactory.getLogger(FilterFunctionBenchmark.class);
+    private static final int[] N_SAMPLES = { 1_000, 10_000, 100_000, 1_000_000, 10_000_000 };
+    private static final int MAX_BRUTE_FORCE_SAMPLES = 30_000;
+    private static final int WINDOW_SAMPLES = 50; // samples within +- width
+    private static final Filter[] FILTERS = { Filter.MEAN, Filter.MEDIAN, Filter.MAX, Filter.RMS };
+
+    private static void benchmark(final DataSet dataSet, final Filter filter, final boolean slidingWindow) {
+        final int nSamples = dataSet.getDataCount();
+        // warm-up
+        DataSetMath.filterFunction(dataSet, WINDOW_SAMPLES, filter, slidingWindow);
+
+        final long start = System.nanoTime();
+        final DataSet result = DataSetMath.filterFunction(dataSet, WINDOW_SAMPLES, filter, slidingWindow);
+        final long elapsed = System.nanoTime() - start;
+        LOGGER.atTrace().addArgument(result.get(DataSet.DIM_Y, nSamples / 2)).log("checksum = {}");
+        LOGGER.atInfo().addArgument(String.format("%-8s", filter)).addArgument(String.format("%9d", nSamples)) //
+                .addArgument(slidingWindow ? "sliding window" : "brute force   ") //
+                .addArgument(String.format("%10.2f", elapsed * 1e-6)) //
+                .addArgument(String.format("%8.1f", elapsed / (double) nSamples)) //
+                .log("{} - n = {} - {}: {} ms ({} ns per sample)");
+    }
+
+    public static void main(final String[] args) {
+        for (final int nSamples : N_SAMPLES) {
+            final DoubleErrorDataSet dataSet = new DoubleErrorDataSet("test", nSamples);
+            final TRandom random = new TRandom(42);
+            final double[] x = new double[nSamples];
+            final double[] y = new double[nSamples];
+            final double[] ey = new double[nSamples];
+            for (int i = 0; i < nSamples; i++) {
+                x[i] = i;
+                y[i] = Math.sin(0.001 * i) + random.Gaus(0, 0.1);
+                ey[i] = 0.1;
+            }
+            dataSet.set(x, y, ey, ey, nSamples, false);
+
+            for (final Filter filter : FILTERS) {
+                if (nSamples <= MAX_BRUTE_FORCE_SAMPLES) {
+                    benchmark(dataSet, filter, false);
+                }
+                benchmark(dataSet, filter, true);
+            }
+        }
+    }
+}
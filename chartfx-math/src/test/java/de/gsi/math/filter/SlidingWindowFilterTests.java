@@ -0,0 +1,154 @@
+package de.gsi.math.filter;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.spi.DoubleErrorDataSet;
+import de.gsi.math.DataSetMath;
+import de.gsi.math.DataSetMath.Filter;
+import de.gsi.math.TMath;
+
+/**
+ * Tests the sliding-window filter engine against a brute-force evaluation of each window
+ */
+public class SlidingWindowFilterTests {
+    private static final int N_SAMPLES = 500;
+
+    @Test
+    public void windowTests() {
+        assertTrue(SlidingWindowFilter.isSorted(new double[] { 0, 1, 1, 2 }, 4));
+        assertTrue(SlidingWindowFilter.isSorted(new double[] { 0, 1, -1 }, 2));
+        assertFalse(SlidingWindowFilter.isSorted(new double[] { 0, 1, -1 }, 3));
+        assertFalse(SlidingWindowFilter.isSorted(new double[] { 0, Double.NaN, 2 }, 3));
+        assertFalse(SlidingWindowFilter.isSorted(new double[] { 0, Double.POSITIVE_INFINITY }, 2));
+
+        final double[] x = { 0.0, 0.5, 1.0, 1.0, 3.0, 3.5 };
+        final int[] from = new int[x.length];
+        final int[] to = new int[x.length];
+        assertThrows(IllegalArgumentException.class, () -> SlidingWindowFilter.computeWindows(x, x.length, -1.0, from, to));
+        SlidingWindowFilter.computeWindows(x, x.length, 0.5, from, to);
+        assertArrayEquals(new int[] { 0, 0, 1, 1, 4, 4 }, from);
+        assertArrayEquals(new int[] { 2, 4, 4, 4, 6, 6 }, to);
+    }
+
+    @Test
+    public void filterTests() {
+        final Random random = new Random(42);
+        final double[] x = new double[N_SAMPLES];
+        final double[] y = new double[N_SAMPLES];
+        for (int i = 1; i < N_SAMPLES; i++) {
+            // irregular spacing including duplicate x-coordinates and y-values
+            x[i] = x[i - 1] + (random.nextInt(4) == 0 ? 0.0 : random.nextDouble());
+            y[i] = random.nextInt(5) == 0 ? Math.floor(10 * random.nextGaussian()) : random.nextGaussian();
+        }
+        final double[] yWithNaN = y.clone();
+        yWithNaN[N_SAMPLES / 2] = Double.NaN;
+        final double[] yWithZero = y.clone();
+        yWithZero[N_SAMPLES / 3] = 0.0;
+
+        for (final double width : new double[] { 0.0, 0.7, 3.3, 50.0, 1e6 }) {
+            final int[] from = new int[N_SAMPLES];
+            final int[] to = new int[N_SAMPLES];
+            SlidingWindowFilter.computeWindows(x, N_SAMPLES, width, from, to);
+            for (int i = 0; i < N_SAMPLES; i++) {
+                for (int j = 0; j < N_SAMPLES; j++) {
+                    assertEquals(Math.abs(x[i] - x[j]) <= width, j >= from[i] && j < to[i], "window i=" + i + " j=" + j);
+                }
+            }
+
+            for (final Filter filter : Filter.values()) {
+                for (final double[] values : new double[][] { y, yWithNaN, yWithZero }) {
+                    final double[] result = new double[N_SAMPLES];
+                    SlidingWindowFilter.filter(values, from, to, N_SAMPLES, filter, result);
+                    for (int i = 0; i < N_SAMPLES; i++) {
+                        final double expected = reference(filter, Arrays.copyOfRange(values, from[i], to[i]));
+                        final double tolerance = Double.isFinite(expected) ? 1e-9 * Math.max(1.0, Math.abs(expected)) : 0.0;
+                        assertEquals(expected, result[i], tolerance, filter + " width=" + width + " i=" + i);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void dataSetMathTests() {
+        final DoubleErrorDataSet dataSet = new DoubleErrorDataSet("test");
+        for (int i = 0; i < 100; i++) {
+            dataSet.add(i, i % 7, 0.1, 0.1);
+        }
+        final DataSet median = DataSetMath.filterFunction(dataSet, 2.0, Filter.MEDIAN);
+        assertEquals(100, median.getDataCount());
+        assertEquals("Median(test,2.0)", median.getName());
+        assertEquals(1.0, median.get(DataSet.DIM_Y, 0), "boundary window [0, 1, 2]");
+        assertEquals(3.0, median.get(DataSet.DIM_Y, 3), "window [1, 2, 3, 4, 5]");
+        final DataSet max = DataSetMath.filterFunction(dataSet, 1.0, Filter.MAX);
+        assertEquals(6.0, max.get(DataSet.DIM_Y, 7), "window [6, 0, 1]");
+
+        // unsorted x-coordinates: brute-force implementation
+        dataSet.set(0, 1000.0, 0.0);
+        final DataSet unsorted = DataSetMath.filterFunction(dataSet, 1.0, Filter.MAX);
+        assertEquals(6.0, unsorted.get(DataSet.DIM_Y, 7));
+    }
+
+    @Test
+    public void medianTests() {
+        // even lengths: mean of the two central elements
+        assertEquals(1.5, TMath.Median(new double[] { 2.0, 1.0 }));
+        assertEquals(1.5f, TMath.Median(new float[] { 2.0f, 1.0f }));
+        assertEquals(3, TMath.Median(new int[] { 4, 2 }));
+        assertEquals(3L, TMath.Median(new long[] { 4L, 2L }));
+        assertEquals((short) 3, TMath.Median(new short[] { 4, 2 }));
+        assertEquals(2.5, TMath.Median(new double[] { 4.0, 1.0, 3.0, 2.0 }));
+        assertEquals(2.5, TMath.Median(new double[] { 4.0, 1.0, 3.0, 2.0, -10.0 }, 4), "length < data.length");
+        assertEquals(3.0f, TMath.Median(new float[] { 5.0f, 1.0f, 3.0f }));
+
+        // sorted (sliding-window) and unsorted (brute-force) x-coordinates yield the same even-window medians
+        final DoubleErrorDataSet sorted = new DoubleErrorDataSet("sorted");
+        final DoubleErrorDataSet unsorted = new DoubleErrorDataSet("unsorted");
+        for (int i = 0; i < 20; i++) {
+            final double y = (i * 7) % 5;
+            sorted.add(i, y, 0.1, 0.1);
+            unsorted.add(i, y, 0.1, 0.1);
+        }
+        unsorted.add(-1000.0, 0.0, 0.1, 0.1);
+        for (final double width : new double[] { 1.0, 1.5, 3.0 }) {
+            final DataSet sortedMedian = DataSetMath.filterFunction(sorted, width, Filter.MEDIAN);
+            final DataSet unsortedMedian = DataSetMath.filterFunction(unsorted, width, Filter.MEDIAN);
+            for (int i = 0; i < sorted.getDataCount(); i++) {
+                assertEquals(sortedMedian.get(DataSet.DIM_Y, i), unsortedMedian.get(DataSet.DIM_Y, i), "width=" + width + " i=" + i);
+            }
+        }
+        // boundary window [0, 2]
+        assertEquals(1.0, DataSetMath.filterFunction(unsorted, 1.0, Filter.MEDIAN).get(DataSet.DIM_Y, 0));
+    }
+
+    private static double reference(final Filter filter, final double[] window) {
+        final int count = window.length;
+        switch (filter) {
+        case MEDIAN:
+            return TMath.Median(window, count);
+        case MIN:
+            return TMath.Minimum(window, count);
+        case MAX:
+            return TMath.Maximum(window, count);
+        case P2P:
+            return TMath.PeakToPeak(window, count);
+        case RMS:
+            return TMath.RMS(window, count);
+        case GEOMMEAN:
+            return TMath.GeometricMean(window, count);
+        case MEAN:
+        default:
+            return TMath.Mean(window, count);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package de.gsi.math.filter.iir;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -476,6 +477,65 @@ public class IirFilterTests {
         assertThat("low-pass pass-band ripple", getRange(magLowPass, 0, magLowPass.getIndex(DIM_X, F_CUT_LOW * 0.1)), lessThan(ALLOWED_IN_BAND_RIPPLE_DB + EPSILON_DB));
     }
 
+    @DisplayName("block and multi-channel processing")
+    @ParameterizedTest(name = "{displayName}: direct form: {0}")
+    @CsvSource({ "0", "1" })
+    public void testBlockProcessing(final int directFormType) {
+        final int nSamples = 3000;
+        final int nChannels = 5;
+        final double[][] data = new double[nChannels][nSamples];
+        for (int channel = 0; channel < nChannels; channel++) {
+            for (int i = 0; i < nSamples; i++) {
+                data[channel][i] = Math.sin(0.01 * (channel + 1) * i) + (i % (17 + channel) == 0 ? 1.0 : 0.0);
+            }
+        }
+
+        final Butterworth reference = new Butterworth();
+        reference.lowPass(4, 1.0, 0.05, directFormType);
+        final double[][] expected = new double[nChannels][nSamples];
+        for (int channel = 0; channel < nChannels; channel++) {
+            reference.reset();
+            for (int i = 0; i < nSamples; i++) {
+                expected[channel][i] = reference.filter(data[channel][i]);
+            }
+        }
+
+        // single channel, state carried across blocks of varying length
+        final Butterworth blockFilter = new Butterworth();
+        blockFilter.lowPass(4, 1.0, 0.05, directFormType);
+        final double[] output = new double[nSamples];
+        int from = 0;
+        for (final int len : new int[] { 0, 1, 7, 1500, 1024, 468 }) {
+            blockFilter.filter(data[0], output, from, len);
+            from += len;
+        }
+        assertEquals(nSamples, from);
+        assertArrayEquals(expected[0], output);
+
+        // in-place
+        blockFilter.reset();
+        final double[] inPlace = data[1].clone();
+        blockFilter.filter(inPlace, inPlace, 0, nSamples);
+        assertArrayEquals(expected[1], inPlace);
+
+        // all channels in lock-step, split into two calls
+        final Butterworth multiChannel = new Butterworth();
+        multiChannel.lowPass(4, 1.0, 0.05, directFormType);
+        final double[][] channelOutput = new double[nChannels][nSamples];
+        multiChannel.filter(data, channelOutput, 0, 1001);
+        multiChannel.filter(data, channelOutput, 1001, nSamples - 1001);
+        for (int channel = 0; channel < nChannels; channel++) {
+            assertArrayEquals(expected[channel], channelOutput[channel], "channel " + channel);
+        }
+        multiChannel.reset();
+        multiChannel.filter(data, data, 0, nSamples);
+        assertArrayEquals(expected[2], data[2]);
+
+        assertThrows(IllegalArgumentException.class, () -> blockFilter.filter(output, output, 10, nSamples));
+        assertThrows(IllegalArgumentException.class, () -> blockFilter.filter(output, output, -1, 1));
+        assertThrows(IllegalArgumentException.class, () -> multiChannel.filter(data, new double[1][nSamples], 0, 1));
+    }
+
     @Test
     public void testConstructors() {
         assertDoesNotThrow(() -> new Butterworth());
@@ -0,0 +1,104 @@
+package de.gsi.math.fitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.gsi.math.functions.GaussianFunction;
+
+/**
+ * Simple benchmark comparing the fit throughput (fits/second) of sequential {@link NonLinearRegressionFitter} fits with
+ * the fork-join parallel {@link BatchFitter} as well as a single large fit with and without parallel residual
+ * evaluation.
+ */
+public class BatchFitterBenchmark { // NOPMD - nomen est omen
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchFitterBenchmark.class);
+    private static final int N_PEAKS = 2000;
+    private static final int N_SAMPLES_PEAK = 200;
+    private static final int N_SAMPLES_LARGE = 1 << 18;
+    private static final double[] START = { 0.2, 0.4, 8.0 };
+    private static final double[] STEP = { 0.1, 0.1, 1.0 };
+
+    private static void benchmark(final String name, final int nIterations, final IntSupplier function) {
+        // warm-up
+        function.getAsInt();
+
+        final long start = System.nanoTime();
+        int nFits = 0;
+        for (int i = 0; i < nIterations; i++) {
+            nFits += function.getAsInt();
+        }
+        final double elapsed = (System.nanoTime() - start) * 1e-9;
+        LOGGER.atInfo().addArgument(String.format("%-40s", name)) //
+                .addArgument(String.format("%10.2f", elapsed * 1e3 / nIterations)) //
+                .addArgument(String.format("%10.1f", nFits / elapsed)) //
+                .log("{}: {} ms per iteration - {} fits/s");
+    }
+
+    private static double[][] gaussian(final int nSamples, final Random random) {
+        final double[][] data = new double[2][nSamples];
+        for (int i = 0; i < nSamples; i++) {
+            data[0][i] = 6.0 * (i - nSamples / 2) / nSamples;
+            data[1][i] = 10.0 / (Math.sqrt(2 * Math.PI) * 0.5) * Math.exp(-2.0 * data[0][i] * data[0][i]) + 0.01 * random.nextGaussian();
+        }
+        return data;
+    }
+
+    private static List<BatchFitter.FitTask> peakTasks(final List<double[][]> peaks) {
+        final List<BatchFitter.FitTask> tasks = new ArrayList<>(peaks.size());
+        for (final double[][] peak : peaks) {
+            tasks.add(new BatchFitter.FitTask(peak[0], peak[1], null, new GaussianFunction("peak"), START, STEP));
+        }
+        return tasks;
+    }
+
+    public static void main(final String[] args) {
+        LOGGER.atInfo().addArgument(Runtime.getRuntime().availableProcessors()).log("available processors: {}");
+        final Random random = new Random(42);
+        final List<double[][]> peaks = new ArrayList<>(N_PEAKS);
+        for (int i = 0; i < N_PEAKS; i++) {
+            peaks.add(gaussian(N_SAMPLES_PEAK, random));
+        }
+
+        benchmark("sequential NonLinearRegressionFitter", 3, () -> {
+            for (final double[][] peak : peaks) {
+                final NonLinearRegressionFitter fitter = new NonLinearRegressionFitter(peak[0], peak[1]);
+                fitter.simplex(new GaussianFunction("peak"), START.clone(), STEP.clone());
+            }
+            return peaks.size();
+        });
+        benchmark("BatchFitter.fit(List)", 3, () -> BatchFitter.fit(peakTasks(peaks)).length);
+
+        final double[] sliceX = new double[N_PEAKS * N_SAMPLES_PEAK];
+        final double[] sliceY = new double[sliceX.length];
+        final double[] meanEstimates = new double[N_PEAKS];
+        for (int i = 0; i < N_PEAKS; i++) {
+            System.arraycopy(peaks.get(i)[1], 0, sliceY, i * N_SAMPLES_PEAK, N_SAMPLES_PEAK);
+            meanEstimates[i] = i * N_SAMPLES_PEAK + N_SAMPLES_PEAK / 2.0;
+        }
+        for (int i = 0; i < sliceX.length; i++) {
+            sliceX[i] = i;
+        }
+        benchmark("sequential GaussFitting.fitData", 100, () -> {
+            for (final double mean : meanEstimates) {
+                GaussFitting.fitData(sliceX, sliceY, mean, 20, 3);
+            }
+            return meanEstimates.length;
+        });
+        benchmark("BatchFitter.fitGaussians", 100, () -> BatchFitter.fitGaussians(sliceX, sliceY, meanEstimates, 20, 3).length);
+
+        final double[][] large = gaussian(N_SAMPLES_LARGE, random);
+        benchmark("single large fit - sequential residuals", 1, () -> {
+            BatchFitter.fit(new BatchFitter.FitTask(large[0], large[1], null, new GaussianFunction("peak"), START, STEP));
+            return 1;
+        });
+        benchmark("single large fit - parallel residuals", 1, () -> {
+            BatchFitter.fit(new BatchFitter.FitTask(large[0], large[1], null, new GaussianFunction("peak"), START, STEP).setParallelResiduals(true));
+            return 1;
+        });
+    }
+}
@@ -0,0 +1,140 @@
+package de.gsi.math.fitter;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import de.gsi.math.functions.GaussianFunction;
+import de.gsi.math.utils.ForkJoinComputation;
+
+/**
+ * Tests the parallel batch fitting against the sequential fits
+ */
+public class BatchFitterTests {
+    @Test
+    public void batchFitTests() {
+        final Random random = new Random(42);
+        final List<BatchFitter.FitTask> tasks = new ArrayList<>();
+        final List<BatchFitter.FitTask> references = new ArrayList<>();
+        for (int peak = 0; peak < 16; peak++) {
+            final double mean = 2.0 + 0.1 * peak;
+            final double[][] data = gaussian(200, mean, 0.5, 10.0, 0.01, random);
+            final double[] weights = new double[data[0].length];
+            Arrays.fill(weights, 0.01);
+            final double[] start = { mean + 0.2, 0.4, 8.0 };
+            final double[] step = { 0.1, 0.1, 1.0 };
+            tasks.add(new BatchFitter.FitTask(data[0], data[1], peak % 2 == 0 ? weights : null, new GaussianFunction("peak"), start, step));
+            references.add(new BatchFitter.FitTask(data[0], data[1], peak % 2 == 0 ? weights : null, new GaussianFunction("peak"), start, step));
+        }
+
+        final ForkJoinComputation<BatchFitter.FitResult[]> computation = BatchFitter.fitAsync(tasks, null);
+        final BatchFitter.FitResult[] results = computation.join();
+        assertEquals(100, computation.getProgress());
+        assertEquals(tasks.size(), results.length);
+        for (int peak = 0; peak < results.length; peak++) {
+            final BatchFitter.FitResult reference = BatchFitter.fit(references.get(peak));
+            assertArrayEquals(reference.getParameters(), results[peak].getParameters(), "peak " + peak);
+            assertArrayEquals(reference.getErrors(), results[peak].getErrors(), "peak " + peak);
+            assertEquals(reference.getSumOfSquares(), results[peak].getSumOfSquares());
+            assertEquals(reference.getIterations(), results[peak].getIterations());
+            assertEquals(2.0 + 0.1 * peak, results[peak].getParameters()[0], 1e-2);
+            assertEquals(0.5, results[peak].getParameters()[1], 1e-2);
+            assertTrue(results[peak].isConverged());
+            assertEquals(peak % 2 == 0, !Double.isNaN(results[peak].getChiSquare()));
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> new BatchFitter.FitTask(new double[3], new double[2], null, new GaussianFunction("peak"), new double[3], new double[3]));
+    }
+
+    @Test
+    public void parallelResidualsTests() {
+        final double[][] data = gaussian(3 * WeightedSquareSum.MIN_PARALLEL_SAMPLES, 3.0, 0.5, 10.0, 0.01, new Random(42));
+        final double[] start = { 3.2, 0.4, 8.0 };
+        final double[] step = { 0.1, 0.1, 1.0 };
+
+        final BatchFitter.FitResult sequential = BatchFitter.fit(new BatchFitter.FitTask(data[0], data[1], null, new GaussianFunction("peak"), start, step));
+        final BatchFitter.FitResult parallel = BatchFitter.fit(new BatchFitter.FitTask(data[0], data[1], null, new GaussianFunction("peak"), start, step).setParallelResiduals(true));
+        assertArrayEquals(sequential.getParameters(), parallel.getParameters(), 1e-6);
+        assertEquals(sequential.getSumOfSquares(), parallel.getSumOfSquares(), 1e-9 * sequential.getSumOfSquares());
+
+        final NonLinearRegressionFitter fitter = new NonLinearRegressionFitter(data[0], data[1]);
+        assertEquals(false, fitter.isParallelResiduals());
+        fitter.setParallelResiduals(true);
+        assertEquals(true, fitter.isParallelResiduals());
+    }
+
+    @Test
+    public void gaussFittingTests() {
+        // spectrum of well separated peaks with known mean, sigma and area (N.B. peak distance > 10 sigma)
+        final int nSamples = 4000;
+        final double dx = 0.01;
+        final int nPeaks = 9;
+        final double[] x = new double[nSamples];
+        final double[] y = new double[nSamples];
+        for (int i = 0; i < nSamples; i++) {
+            x[i] = dx * i;
+            for (int peak = 0; peak < nPeaks; peak++) {
+                final double val = (x[i] - peakMean(peak)) / peakSigma(peak);
+                y[i] += peakArea(peak) / (Math.sqrt(2 * Math.PI) * peakSigma(peak)) * Math.exp(-0.5 * val * val);
+            }
+        }
+        final double[] meanEstimates = new double[nPeaks];
+        for (int peak = 0; peak < nPeaks; peak++) {
+            meanEstimates[peak] = peakMean(peak) / dx;
+        }
+
+        // per-peak estimates with a common (index-based) width: +-4 sigma of the widest peak
+        final GaussFitting.Result[] results = BatchFitter.fitGaussians(x, y, meanEstimates, peakSigma(nPeaks - 1) / dx, 4.0);
+        assertEquals(nPeaks, results.length);
+        for (int peak = 0; peak < nPeaks; peak++) {
+            assertEquals(peakMean(peak), results[peak].getMean(), 1e-4, "mean of peak " + peak);
+            assertEquals(peakSigma(peak), results[peak].getRMS(), 1e-3 * peakSigma(peak), "rms of peak " + peak);
+            assertEquals(peakArea(peak), results[peak].getConstant(), 1e-3 * peakArea(peak), "integral of peak " + peak);
+            assertEquals(peakArea(peak) / dx, results[peak].getArea(), 1e-3 * peakArea(peak) / dx, "sum of peak " + peak);
+        }
+
+        // +-4 sigma windows: reference values of the former zero-padded 'fitData' implementation
+        final double[][] reference = { //
+            { 3.999994646450668, 0.19989261022955415, 0.9999364345867157, 99.99364345867147 }, //
+            { 19.999994646451245, 0.2798498532334766, 4.999682718732814, 499.9682718732819 }, //
+            { 35.99999464645149, 0.35980705942510083, 8.999429298166424, 899.9429298166414 } };
+        for (int i = 0; i < reference.length; i++) {
+            final int peak = 4 * i;
+            final GaussFitting.Result result = GaussFitting.estimate(x, y, meanEstimates[peak], peakSigma(peak) / dx, 4.0);
+            final double[] actual = { result.getMean(), result.getRMS(), result.getConstant(), result.getArea() };
+            for (int k = 0; k < actual.length; k++) {
+                assertEquals(reference[i][k], actual[k], 1e-12 * Math.abs(reference[i][k]), "peak " + peak + " parameter " + k);
+            }
+        }
+    }
+
+    private static double[][] gaussian(final int nSamples, final double mean, final double sigma, final double scale, final double noise, final Random random) {
+        final double[][] data = new double[2][nSamples];
+        for (int i = 0; i < nSamples; i++) {
+            data[0][i] = 6.0 * (i - nSamples / 2) / nSamples + mean;
+            final double val = (data[0][i] - mean) / sigma;
+            data[1][i] = scale / (Math.sqrt(2 * Math.PI) * sigma) * Math.exp(-0.5 * val * val) + (random == null ? 0.0 : noise * random.nextGaussian());
+        }
+        return data;
+    }
+
+    private static double peakArea(final int peak) {
+        return 1.0 + peak;
+    }
+
+    private static double peakMean(final int peak) {
+        return 4.0 * (peak + 1);
+    }
+
+    private static double peakSigma(final int peak) {
+        return 0.2 + 0.02 * peak;
+    }
+}
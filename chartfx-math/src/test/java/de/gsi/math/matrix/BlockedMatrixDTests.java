@@ -0,0 +1,185 @@
+package de.gsi.math.matrix;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the flat row-major, cache-blocked matrix backend against the reference (Jama) implementation
+ */
+public class BlockedMatrixDTests {
+    private static final double TOLERANCE = 1e-9;
+
+    @Test
+    public void backendSelectionTests() {
+        assertEquals(MatrixFactory.Backend.JAMA, MatrixFactory.getBackend());
+        assertThrows(IllegalArgumentException.class, () -> MatrixFactory.setBackend(null));
+        assertThrows(IllegalArgumentException.class, () -> MatrixFactory.setBlockedThreshold(0));
+
+        final MatrixD a = random(100, 90, 1);
+        final MatrixD b = random(90, 80, 2);
+        final MatrixD referenceProduct = a.times(b);
+        final LUDecomposition referenceLU = a.lu();
+        final int threshold = MatrixFactory.getBlockedThreshold();
+        try {
+            MatrixFactory.setBackend(MatrixFactory.Backend.BLOCKED);
+            MatrixFactory.setBlockedThreshold(10);
+            assertFalse(MatrixFactory.isBlocked(100, 9));
+            assertTrue(MatrixFactory.isBlocked(100, 90, 80));
+            assertMatrixEquals(referenceProduct, a.times(b), TOLERANCE);
+            assertArrayEquals(referenceLU.getPivot(), a.lu().getPivot());
+            assertMatrixEquals(referenceLU.getL(), a.lu().getL(), TOLERANCE);
+        } finally {
+            MatrixFactory.setBackend(MatrixFactory.Backend.JAMA);
+            MatrixFactory.setBlockedThreshold(threshold);
+        }
+        assertFalse(MatrixFactory.isBlocked(100, 90, 80));
+    }
+
+    @Test
+    public void basicTests() {
+        assertThrows(IllegalArgumentException.class, () -> new BlockedMatrixD(2, 3, new double[5]));
+        assertThrows(IllegalArgumentException.class, () -> new BlockedMatrixD(2, 3, null));
+
+        final MatrixD reference = random(37, 71, 3);
+        final BlockedMatrixD matrix = new BlockedMatrixD(reference);
+        assertEquals(37, matrix.getRowDimension());
+        assertEquals(71, matrix.getColumnDimension());
+        assertEquals(reference.get(5, 42), matrix.getArray()[5 * 71 + 42]);
+        assertMatrixEquals(reference, matrix.toMatrixD(), 0.0);
+        assertMatrixEquals(reference.transpose(), matrix.transpose().toMatrixD(), 0.0);
+        assertEquals(reference.normF(), matrix.normF(), TOLERANCE);
+
+        final BlockedMatrixD copy = matrix.copy();
+        copy.set(5, 42, -1.0);
+        assertEquals(-1.0, copy.get(5, 42));
+        assertEquals(reference.get(5, 42), matrix.get(5, 42));
+    }
+
+    @Test
+    public void choleskyTests() {
+        for (final int n : new int[] { 1, 7, 64, 150 }) {
+            final MatrixD a = random(n, n, n);
+            final MatrixD spd = a.times(a.transpose()).plus(MatrixFactory.identity(n, n).times(n));
+            final CholeskyDecomposition reference = new CholeskyDecomposition(spd);
+            final CholeskyDecomposition blocked = new BlockedMatrixD(spd).chol();
+            assertTrue(blocked.isSPD(), "n = " + n);
+            assertMatrixEquals(reference.getL(), blocked.getL(), TOLERANCE);
+        }
+
+        final MatrixD nonSymmetric = random(80, 80, 4);
+        assertFalse(new BlockedMatrixD(nonSymmetric).chol().isSPD());
+        final MatrixD negative = MatrixFactory.identity(80, 80).times(-1.0);
+        assertFalse(new BlockedMatrixD(negative).chol().isSPD());
+        assertThrows(IllegalArgumentException.class, () -> new BlockedMatrixD(random(80, 70, 5)).chol());
+    }
+
+    @Test
+    public void luTests() {
+        for (final int[] dim : new int[][] { { 1, 1 }, { 7, 7 }, { 150, 150 }, { 200, 130 } }) {
+            final MatrixD a = random(dim[0], dim[1], dim[0] + dim[1]);
+            final LUDecomposition reference = new LUDecomposition(a);
+            final LUDecomposition blocked = new BlockedMatrixD(a).lu();
+            assertArrayEquals(reference.getPivot(), blocked.getPivot());
+            assertMatrixEquals(reference.getL(), blocked.getL(), TOLERANCE);
+            assertMatrixEquals(reference.getU(), blocked.getU(), TOLERANCE);
+            if (dim[0] == dim[1]) {
+                assertEquals(reference.det(), blocked.det(), Math.abs(reference.det()) * TOLERANCE);
+            }
+        }
+
+        // wide matrix (not supported by the reference implementation): A(piv,:) = L*U
+        final MatrixD wide = random(70, 140, 10);
+        final double[] packed = new BlockedMatrixD(wide).getArray();
+        final int[] piv = new int[70];
+        BlockedMatrixOps.lu(packed, 70, 140, piv);
+        final MatrixD lower = new MatrixD(70, 70);
+        final MatrixD upper = new MatrixD(70, 140);
+        for (int i = 0; i < 70; i++) {
+            lower.set(i, i, 1.0);
+            for (int j = 0; j < 140; j++) {
+                if (j < i) {
+                    lower.set(i, j, packed[i * 140 + j]);
+                } else {
+                    upper.set(i, j, packed[i * 140 + j]);
+                }
+            }
+        }
+        assertMatrixEquals(wide.getMatrix(piv, 0, 139), lower.times(upper), TOLERANCE);
+
+        // singular matrix (two identical rows)
+        final MatrixD singular = random(100, 100, 6);
+        for (int j = 0; j < 100; j++) {
+            singular.set(42, j, singular.get(17, j));
+        }
+        assertFalse(new BlockedMatrixD(singular).lu().isNonsingular());
+
+        // solve
+        final MatrixD a = random(120, 120, 7);
+        final MatrixD x = random(120, 3, 8);
+        assertMatrixEquals(x, new BlockedMatrixD(a).lu().solve(a.times(x)), 1e-8);
+    }
+
+    @Test
+    public void multiplicationTests() {
+        for (final int[] dim : new int[][] { { 1, 1, 1 }, { 3, 5, 7 }, { 65, 129, 257 }, { 300, 270, 290 } }) {
+            final MatrixD a = random(dim[0], dim[1], 11);
+            final MatrixD b = random(dim[1], dim[2], 12);
+            final BlockedMatrixD product = new BlockedMatrixD(a).times(new BlockedMatrixD(b));
+            assertEquals(dim[0], product.getRowDimension());
+            assertEquals(dim[2], product.getColumnDimension());
+            assertMatrixEquals(a.times(b), product.toMatrixD(), TOLERANCE);
+        }
+        assertThrows(IllegalArgumentException.class, () -> new BlockedMatrixD(3, 4).times(new BlockedMatrixD(3, 4)));
+    }
+
+    @Test
+    public void qrTests() {
+        for (final int[] dim : new int[][] { { 1, 1 }, { 7, 5 }, { 150, 150 }, { 300, 140 } }) {
+            final MatrixD a = random(dim[0], dim[1], dim[0] * dim[1]);
+            final QRDecomposition reference = new QRDecomposition(a);
+            final QRDecomposition blocked = new BlockedMatrixD(a).qr();
+            // same sequence of floating point operations as the reference
+            assertMatrixEquals(reference.getR(), blocked.getR(), 0.0);
+            assertMatrixEquals(reference.getH(), blocked.getH(), 0.0);
+            assertTrue(blocked.isFullRank());
+        }
+
+        // rank deficient (null column)
+        final MatrixD a = random(100, 80, 9);
+        for (int i = 0; i < 100; i++) {
+            a.set(i, 70, 0.0);
+        }
+        final QRDecomposition blocked = new BlockedMatrixD(a).qr();
+        assertFalse(blocked.isFullRank());
+        assertMatrixEquals(new QRDecomposition(a).getR(), blocked.getR(), 0.0);
+    }
+
+    private static void assertMatrixEquals(final MatrixD expected, final MatrixD actual, final double tolerance) {
+        assertEquals(expected.getRowDimension(), actual.getRowDimension());
+        assertEquals(expected.getColumnDimension(), actual.getColumnDimension());
+        final double scale = Math.max(1.0, expected.normInf());
+        for (int i = 0; i < expected.getRowDimension(); i++) {
+            for (int j = 0; j < expected.getColumnDimension(); j++) {
+                assertEquals(expected.get(i, j), actual.get(i, j), tolerance * scale, "element (" + i + "," + j + ")");
+            }
+        }
+    }
+
+    private static MatrixD random(final int m, final int n, final long seed) {
+        final Random random = new Random(seed);
+        final MatrixD matrix = new MatrixD(m, n);
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < n; j++) {
+                matrix.set(i, j, random.nextDouble() - 0.5);
+            }
+        }
+        return matrix;
+    }
+}
@@ -0,0 +1,71 @@
+package de.gsi.math.matrix;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Simple benchmark comparing the reference (Jama) {@link MatrixD} multiplication and LU, QR and Cholesky decompositions
+ * with the flat row-major, cache-blocked and fork-join parallel {@link BlockedMatrixD} backend.
+ * <p>
+ * The O(n^3) reference is only evaluated up to {@value #MAX_REFERENCE_DIMENSION} (it would take minutes beyond that).
+ */
+public class MatrixBenchmark { // NOPMD - nomen est omen
+    private static final Logger LOGGER = LoggerFactory.getLogger(MatrixBenchmark.class);
+    private static final int[] DIMENSIONS = { 100, 250, 500, 1000, 2000, 4000 };
+    private static final int MAX_REFERENCE_DIMENSION = 2000;
+
+    private static void benchmark(final String operation, final int dimension, final String backend, final Supplier<Object> function) {
+        // warm-up
+        function.get();
+
+        final int nIterations = Math.max(1, 200_000_000 / dimension / dimension / dimension);
+        final long start = System.nanoTime();
+        Object result = null;
+        for (int i = 0; i < nIterations; i++) {
+            result = function.get();
+        }
+        final double elapsed = (System.nanoTime() - start) * 1e-9 / nIterations;
+        LOGGER.atTrace().addArgument(result).log("checksum = {}");
+        LOGGER.atInfo().addArgument(String.format("%-6s", operation)).addArgument(String.format("%5d", dimension)) //
+                .addArgument(backend) //
+                .addArgument(String.format("%10.2f", elapsed * 1e3)) //
+                .addArgument(String.format("%7.2f", 2.0 * dimension * dimension * dimension / elapsed * 1e-9)) //
+                .log("{} - n = {} - {}: {} ms ({} GFlop/s equivalent of 2n^3)");
+    }
+
+    public static void main(final String[] args) {
+        LOGGER.atInfo().addArgument(Runtime.getRuntime().availableProcessors()).log("available processors: {}");
+        for (final int n : DIMENSIONS) {
+            final Random random = new Random(42);
+            final MatrixD a = new MatrixD(n, n);
+            final MatrixD b = new MatrixD(n, n);
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    a.set(i, j, random.nextDouble() - 0.5);
+                    b.set(i, j, random.nextDouble() - 0.5);
+                }
+            }
+            final BlockedMatrixD blockedA = new BlockedMatrixD(a);
+            final BlockedMatrixD blockedB = new BlockedMatrixD(b);
+            final BlockedMatrixD blockedSpd = blockedA.times(blockedA.transpose());
+            for (int i = 0; i < n; i++) {
+                blockedSpd.set(i, i, blockedSpd.get(i, i) + n);
+            }
+            final MatrixD spd = blockedSpd.toMatrixD();
+
+            if (n <= MAX_REFERENCE_DIMENSION) {
+                benchmark("times", n, "reference", () -> a.times(b));
+                benchmark("lu", n, "reference", () -> new LUDecomposition(a));
+                benchmark("qr", n, "reference", () -> new QRDecomposition(a));
+                benchmark("chol", n, "reference", () -> new CholeskyDecomposition(spd));
+            }
+            benchmark("times", n, "blocked  ", () -> blockedA.times(blockedB));
+            benchmark("lu", n, "blocked  ", blockedA::lu);
+            benchmark("qr", n, "blocked  ", blockedA::qr);
+            benchmark("chol", n, "blocked  ", blockedSpd::chol);
+        }
+    }
+}
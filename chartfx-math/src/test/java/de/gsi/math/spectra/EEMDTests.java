@@ -5,6 +5,10 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import org.junit.jupiter.api.Test;
 
+import de.gsi.math.TMathConstants;
+import de.gsi.math.matrix.MatrixD;
+import de.gsi.math.utils.ForkJoinComputation;
+
 public class EEMDTests {
     @Test
     public void extremeTest() {
@@ -23,4 +27,32 @@ public class EEMDTests {
         assertArrayEquals(new double[] { 0, 4, 0, 0, 0, 0, 0, 0, 0, 0 }, spmin[0]);
         assertArrayEquals(new double[] { 1, 1, 0, 0, 0, 0, 0, 0, 0, 0 }, spmin[1]);
     }
+
+    @Test
+    public void parallelEnsembleTests() {
+        final int nSamples = 256;
+        final double[] data = new double[nSamples];
+        for (int i = 0; i < nSamples; i++) {
+            data[i] = Math.sin(2.0 * Math.PI * 0.02 * i) + 0.3 * Math.sin(2.0 * Math.PI * 0.23 * i);
+        }
+
+        final EEMD eemd = new EEMD();
+        final MatrixD single = eemd.eemd(data, 0.0, 1.0);
+        assertEquals(nSamples, single.getRowDimension());
+        assertEquals((int) Math.floor(TMathConstants.Log2(nSamples)) + 2, single.getColumnDimension());
+        for (int i = 0; i < nSamples; i++) {
+            assertEquals(data[i], single.get(i, 0));
+        }
+
+        // noise-free ensemble members are identical -> ensemble average equals the single decomposition
+        final ForkJoinComputation<MatrixD> computation = eemd.eemdAsync(data, 0.0, 4, null);
+        final MatrixD ensemble = computation.join();
+        assertEquals(100, computation.getProgress());
+        assertEquals(100, eemd.getStatus());
+        for (int i = 0; i < nSamples; i++) {
+            for (int j = 0; j < single.getColumnDimension(); j++) {
+                assertEquals(single.get(i, j), ensemble.get(i, j), 1e-12);
+            }
+        }
+    }
 }
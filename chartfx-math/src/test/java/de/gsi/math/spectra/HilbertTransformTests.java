@@ -0,0 +1,32 @@
+package de.gsi.math.spectra;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the analytic signal and Hilbert transform of a sampled cosine for power-of-two and arbitrary lengths
+ */
+public class HilbertTransformTests {
+    @Test
+    public void analyticSignalTests() {
+        final HilbertTransform hilbert = new HilbertTransform();
+        for (final int nSamples : new int[] { 512, 500, 333 }) {
+            // integer number of periods -> the periodic Hilbert transform of cos is sin
+            final double frequency = 17.0 / nSamples;
+            final double[] data = new double[nSamples];
+            for (int i = 0; i < nSamples; i++) {
+                data[i] = 2.0 * Math.cos(2.0 * Math.PI * frequency * i) + 0.5;
+            }
+
+            final double[] analytic = hilbert.computeAnalyticSignal(data);
+            assertEquals(2 * nSamples, analytic.length);
+            final double[] transformed = hilbert.transformAnalytic(data);
+            for (int i = 0; i < nSamples; i++) {
+                assertEquals(data[i], analytic[2 * i], 1e-9, "re n = " + nSamples + " i = " + i);
+                assertEquals(2.0 * Math.sin(2.0 * Math.PI * frequency * i), analytic[2 * i + 1], 1e-9, "im n = " + nSamples + " i = " + i);
+                assertEquals(analytic[2 * i + 1], transformed[i], 1e-12);
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package de.gsi.math.spectra;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static de.gsi.dataset.DataSet.DIM_X;
+import static de.gsi.dataset.DataSet.DIM_Y;
+import static de.gsi.dataset.DataSet.DIM_Z;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import de.gsi.dataset.spi.DoubleDataSet;
+import de.gsi.math.MathDataSet;
+import de.gsi.math.spectra.ShortTimeFourierTransform.Padding;
+
+/**
+ * Tests the incremental short-time Fourier transform against the batch {@link ShortTimeFourierTransform}
+ */
+public class IncrementalShortTimeFourierTransformTests {
+    private static final int N_FFT = 64;
+    private static final int STEP = 24;
+    private static final int N_TIME_SLICES = 10;
+    private static final int N_SAMPLES = 2000;
+    private static final double DT = 1e-3;
+
+    @Test
+    public void appendTests() {
+        final double[] x = new double[N_SAMPLES];
+        final double[] y = generateSignal(x);
+
+        for (final boolean dbScale : new boolean[] { false, true }) {
+            final IncrementalShortTimeFourierTransform stft = new IncrementalShortTimeFourierTransform("STFT", N_FFT, STEP, N_TIME_SLICES, Apodization.Hann, dbScale, true);
+            assertEquals(-1, stft.getRingHead());
+            assertEquals(N_FFT / 2, stft.getOutput().getDataCount(DIM_X));
+            assertEquals(N_TIME_SLICES, stft.getOutput().getDataCount(DIM_Y));
+            assertEquals(N_FFT / 2 * N_TIME_SLICES, stft.getOutput().getDataCount(DIM_Z));
+
+            final Random random = new Random(42);
+            int nAppended = 0;
+            while (nAppended < N_SAMPLES) {
+                final int length = Math.min(random.nextInt(3 * STEP), N_SAMPLES - nAppended);
+                stft.append(x, y, nAppended, length);
+                nAppended += length;
+                assertSpectrogram(stft, y, nAppended, dbScale, true);
+            }
+            assertEquals(nFrames(N_SAMPLES), stft.getTransformCount(), "each frame is transformed only once");
+        }
+
+        // large back-log: only the frames that end up in the ring are transformed
+        final IncrementalShortTimeFourierTransform stft = new IncrementalShortTimeFourierTransform("STFT", N_FFT, STEP, N_TIME_SLICES, Apodization.Hann, false, false);
+        stft.append(x, y, 0, N_SAMPLES);
+        assertEquals(N_TIME_SLICES, stft.getTransformCount());
+        assertSpectrogram(stft, y, N_SAMPLES, false, false);
+
+        assertThrows(IllegalArgumentException.class, () -> new IncrementalShortTimeFourierTransform("STFT", 63, STEP, N_TIME_SLICES, Apodization.Hann, false, false));
+        assertThrows(IllegalArgumentException.class, () -> new IncrementalShortTimeFourierTransform("STFT", N_FFT, 0, N_TIME_SLICES, Apodization.Hann, false, false));
+        assertThrows(IllegalArgumentException.class, () -> stft.append(x, y, -1, 10));
+        assertThrows(IndexOutOfBoundsException.class, () -> stft.append(x, y, N_SAMPLES - 5, 10));
+    }
+
+    @Test
+    public void mathDataSetTests() {
+        final double[] x = new double[N_SAMPLES];
+        final double[] y = generateSignal(x);
+        final DoubleDataSet source = new DoubleDataSet("source");
+        source.getAxisDescription(DIM_X).set("Time", "s");
+        source.getAxisDescription(DIM_Y).set("Voltage", "V");
+
+        final IncrementalShortTimeFourierTransform stft = new IncrementalShortTimeFourierTransform("STFT", N_FFT, STEP, N_TIME_SLICES, Apodization.Hann, false, true);
+        final MathDataSet latestSpectrum = new MathDataSet("spectrum", stft.getDataSetsFunction(), 0, null, source);
+        assertEquals(0, latestSpectrum.getDataCount());
+
+        int nAppended = 0;
+        for (final int length : new int[] { 10, N_FFT - 10, 1, STEP - 1, 5 * STEP, 1000, N_SAMPLES - 1000 - 6 * STEP - N_FFT }) {
+            source.add(Arrays.copyOfRange(x, nAppended, nAppended + length), Arrays.copyOfRange(y, nAppended, nAppended + length));
+            nAppended += length;
+            assertSpectrogram(stft, y, nAppended, false, true);
+            if (stft.getRingHead() >= 0) {
+                assertEquals(N_FFT / 2, latestSpectrum.getDataCount());
+                assertArrayEquals(Arrays.copyOfRange(stft.getOutput().getValues(DIM_Z), stft.getRingHead() * N_FFT / 2, (stft.getRingHead() + 1) * N_FFT / 2), //
+                        Arrays.copyOf(latestSpectrum.getYValues(), N_FFT / 2));
+                assertArrayEquals(Arrays.copyOf(stft.getOutput().getValues(DIM_X), N_FFT / 2), Arrays.copyOf(latestSpectrum.getXValues(), N_FFT / 2));
+            }
+        }
+        assertEquals(N_SAMPLES, nAppended);
+        assertTrue(stft.getTransformCount() <= nFrames(N_SAMPLES));
+        assertEquals("Hz", stft.getOutput().getAxisDescription(DIM_X).getUnit());
+        assertEquals("s", stft.getOutput().getAxisDescription(DIM_Y).getUnit());
+        assertEquals("V", stft.getOutput().getAxisDescription(DIM_Z).getUnit());
+        assertEquals(0.0, stft.getOutput().getAxisDescription(DIM_X).getMin(), 1e-9);
+        assertEquals((N_FFT / 2 - 1) / (N_FFT * DT), stft.getOutput().getAxisDescription(DIM_X).getMax(), 1e-6);
+        assertEquals(x[(nFrames(N_SAMPLES) - N_TIME_SLICES) * STEP], stft.getOutput().getAxisDescription(DIM_Y).getMin(), 1e-12);
+        assertEquals(x[(nFrames(N_SAMPLES) - 1) * STEP], stft.getOutput().getAxisDescription(DIM_Y).getMax(), 1e-12);
+
+        // restarted source: the transform is reset
+        source.clearData();
+        source.add(Arrays.copyOf(x, N_FFT), Arrays.copyOf(y, N_FFT));
+        assertEquals(1, stft.getTimeSliceCount());
+        assertSpectrogram(stft, y, N_FFT, false, true);
+
+        stft.reset();
+        assertEquals(-1, stft.getRingHead());
+        assertEquals(0, stft.getTimeSliceCount());
+        assertTrue(Double.isNaN(stft.getOutput().get(DIM_Z, 0)));
+    }
+
+    private static void assertSpectrogram(final IncrementalShortTimeFourierTransform stft, final double[] y, final int nSamples, final boolean dbScale, final boolean truncateDCNy) {
+        final int nFrames = nFrames(nSamples);
+        assertEquals(Math.min(nFrames, N_TIME_SLICES), stft.getTimeSliceCount());
+        if (nFrames == 0) {
+            assertEquals(-1, stft.getRingHead());
+            return;
+        }
+        final double[] reference = ShortTimeFourierTransform.real(Arrays.copyOf(y, nSamples), null, N_FFT, STEP, Apodization.Hann, Padding.ZERO, dbScale, truncateDCNy);
+        final double[] magnitudes = stft.getOutput().getValues(DIM_Z);
+        final double[] timeAxis = stft.getOutput().getValues(DIM_Y);
+        for (int frame = Math.max(0, nFrames - N_TIME_SLICES); frame < nFrames; frame++) {
+            final int slot = Math.floorMod(stft.getRingHead() - (nFrames - 1 - frame), N_TIME_SLICES);
+            assertEquals(frame * STEP * DT, timeAxis[slot], 1e-12, "time of frame " + frame);
+            assertArrayEquals(Arrays.copyOfRange(reference, frame * N_FFT / 2, (frame + 1) * N_FFT / 2), //
+                    Arrays.copyOfRange(magnitudes, slot * N_FFT / 2, (slot + 1) * N_FFT / 2), 1e-12, "frame " + frame);
+        }
+    }
+
+    private static double[] generateSignal(final double[] x) {
+        final Random random = new Random(1);
+        final double[] y = new double[x.length];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = i * DT;
+            y[i] = Math.sin(2 * Math.PI * (50 + 0.1 * i) * x[i]) + 0.1 * random.nextGaussian();
+        }
+        return y;
+    }
+
+    private static int nFrames(final int nSamples) {
+        return nSamples < N_FFT ? 0 : 1 + (nSamples - N_FFT) / STEP;
+    }
+}
@@ -0,0 +1,67 @@
+package de.gsi.math.spectra.fft;
+
+import org.apache.commons.math3.complex.Complex;
+import org.jtransforms.fft.DoubleFFT_1D;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.gsi.math.TRandom;
+
+/**
+ * Simple benchmark comparing the {@link Complex}-object based {@link ComplexFFT_1D}, the primitive-array
+ * {@link InterleavedComplexFFT_1D} and JTransforms' {@link DoubleFFT_1D#complexForward(double[])}.
+ * <p>
+ * {@link ComplexFFT_1D} supports only power-of-two lengths and is skipped for the other (Bluestein) lengths.
+ */
+public class ComplexFFTBenchmark { // NOPMD - nomen est omen
+    private static final Logger LOGGER = LoggerFactory.getLogger(ComplexFFTBenchmark.class);
+    private static final int[] N_SAMPLES = { 256, 1024, 1000, 4096, 65_536, 100_000, 1_048_576 };
+    private static final long MIN_DURATION = 500_000_000L; // [ns] per measurement
+
+    private static void benchmark(final String name, final int nSamples, final Runnable transform) {
+        // warm-up
+        for (int i = 0; i < 10; i++) {
+            transform.run();
+        }
+
+        int nIterations = 0;
+        final long start = System.nanoTime();
+        long elapsed;
+        do {
+            transform.run();
+            nIterations++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < MIN_DURATION);
+
+        final double perTransform = elapsed / (double) nIterations;
+        LOGGER.atInfo().addArgument(String.format("%-24s", name)).addArgument(String.format("%9d", nSamples)) //
+                .addArgument(String.format("%12.2f", perTransform * 1e-3)) //
+                .addArgument(String.format("%8.2f", perTransform / (nSamples * Math.log(nSamples) / Math.log(2)))) //
+                .log("{} - n = {}: {} us per transform ({} ns per n log2(n))");
+    }
+
+    public static void main(final String[] args) {
+        for (final int nSamples : N_SAMPLES) {
+            final TRandom random = new TRandom(42);
+            final double[] interleaved = new double[2 * nSamples];
+            for (int i = 0; i < interleaved.length; i++) {
+                interleaved[i] = random.Gaus(0.0, 1.0);
+            }
+            final Complex[] complex = InterleavedComplexFFT_1D.toComplex(interleaved);
+            final double[] buffer = new double[2 * nSamples];
+
+            if (Integer.bitCount(nSamples) == 1) {
+                benchmark("ComplexFFT_1D", nSamples, () -> ComplexFFT_1D.fft(complex));
+            }
+            benchmark("InterleavedComplexFFT_1D", nSamples, () -> {
+                System.arraycopy(interleaved, 0, buffer, 0, buffer.length);
+                InterleavedComplexFFT_1D.fftInPlace(buffer);
+            });
+            final DoubleFFT_1D jtransforms = FFTPlanCache.getDoubleFFT_1D(nSamples);
+            benchmark("JTransforms DoubleFFT_1D", nSamples, () -> {
+                System.arraycopy(interleaved, 0, buffer, 0, buffer.length);
+                jtransforms.complexForward(buffer);
+            });
+        }
+    }
+}
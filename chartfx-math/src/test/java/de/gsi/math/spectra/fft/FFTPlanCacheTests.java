@@ -0,0 +1,43 @@
+package de.gsi.math.spectra.fft;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.jtransforms.fft.DoubleFFT_1D;
+import org.junit.jupiter.api.Test;
+
+import de.gsi.dataset.utils.LruCache;
+import de.gsi.math.spectra.Apodization;
+
+/**
+ * Tests the shared FFT plan cache
+ */
+public class FFTPlanCacheTests {
+    @Test
+    public void planCacheTests() {
+        assertThrows(IllegalArgumentException.class, () -> FFTPlanCache.getDoubleFFT_1D(0));
+
+        final LruCache<Integer, DoubleFFT_1D> cache = FFTPlanCache.getDoubleFFT_1DCache();
+        final long hits = cache.getHitCount();
+        final DoubleFFT_1D plan = FFTPlanCache.getDoubleFFT_1D(1000);
+        assertSame(plan, FFTPlanCache.getDoubleFFT_1D(1000));
+        assertNotSame(plan, FFTPlanCache.getDoubleFFT_1D(1024));
+        assertTrue(cache.getHitCount() > hits);
+
+        // cached plan yields the same result as a new plan
+        final double[] data1 = new double[1000];
+        for (int i = 0; i < data1.length; i++) {
+            data1[i] = Math.sin(0.1 * i) + 0.01 * i;
+        }
+        final double[] data2 = data1.clone();
+        plan.realForward(data1);
+        new DoubleFFT_1D(1000).realForward(data2);
+        assertArrayEquals(data2, data1);
+
+        // apodization windows are shared as well
+        assertSame(Apodization.Hann.getWindow(512), Apodization.Hann.getWindow(512));
+    }
+}
@@ -0,0 +1,133 @@
+package de.gsi.math.spectra.fft;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.apache.commons.math3.complex.Complex;
+import org.junit.jupiter.api.Test;
+
+import de.gsi.math.TRandom;
+
+/**
+ * Tests the primitive-array (interleaved) complex FFT against the {@link Complex}-object based {@link ComplexFFT_1D}
+ * and a naive DFT
+ */
+public class InterleavedComplexFFT_1DTests {
+    private static final double TOLERANCE = 1e-9;
+
+    @Test
+    public void basicTests() {
+        assertThrows(IllegalArgumentException.class, () -> InterleavedComplexFFT_1D.fft(null));
+        assertThrows(IllegalArgumentException.class, () -> InterleavedComplexFFT_1D.fftInPlace(new double[3]));
+        assertThrows(IllegalArgumentException.class, () -> InterleavedComplexFFT_1D.cconvolve(new double[4], new double[6]));
+
+        // trivial lengths
+        assertArrayEquals(new double[0], InterleavedComplexFFT_1D.fft(new double[0]));
+        assertArrayEquals(new double[] { 1.0, 2.0 }, InterleavedComplexFFT_1D.fft(new double[] { 1.0, 2.0 }));
+
+        final double[] data = randomData(16);
+        final Complex[] complex = InterleavedComplexFFT_1D.toComplex(data);
+        assertEquals(8, complex.length);
+        assertEquals(new Complex(data[2], data[3]), complex[1]);
+        assertArrayEquals(data, InterleavedComplexFFT_1D.toInterleaved(complex));
+    }
+
+    @Test
+    public void convolutionTests() {
+        for (final int n : new int[] { 8, 12, 64 }) {
+            final double[] x = randomData(2 * n);
+            final double[] y = randomData(2 * n);
+
+            final double[] cconvolve = InterleavedComplexFFT_1D.cconvolve(x, y);
+            assertArrayEquals(naiveCircularConvolution(x, y), cconvolve, TOLERANCE * n);
+
+            final double[] convolve = InterleavedComplexFFT_1D.convolve(x, y);
+            assertEquals(4 * n, convolve.length);
+            assertArrayEquals(naiveCircularConvolution(Arrays.copyOf(x, 4 * n), Arrays.copyOf(y, 4 * n)), convolve, TOLERANCE * n);
+            if (Integer.bitCount(n) != 1) {
+                continue; // reference implementation supports only power-of-two lengths
+            }
+            final Complex[] reference = ComplexFFT_1D.convolve(InterleavedComplexFFT_1D.toComplex(x), InterleavedComplexFFT_1D.toComplex(y));
+            assertArrayEquals(InterleavedComplexFFT_1D.toInterleaved(reference), convolve, TOLERANCE * n);
+        }
+    }
+
+    @Test
+    public void transformTests() {
+        // power-of-two (radix-2) lengths vs. the Complex-object based reference implementation
+        for (final int n : new int[] { 2, 4, 8, 64, 1024 }) {
+            final double[] data = randomData(2 * n);
+            final double[] reference = InterleavedComplexFFT_1D.toInterleaved(ComplexFFT_1D.fft(InterleavedComplexFFT_1D.toComplex(data)));
+            assertArrayEquals(reference, InterleavedComplexFFT_1D.fft(data), TOLERANCE * n, "fft n = " + n);
+            final double[] referenceInverse = InterleavedComplexFFT_1D.toInterleaved(ComplexFFT_1D.ifft(InterleavedComplexFFT_1D.toComplex(data)));
+            assertArrayEquals(referenceInverse, InterleavedComplexFFT_1D.ifft(data), TOLERANCE, "ifft n = " + n);
+        }
+
+        // arbitrary (Bluestein) lengths vs. naive DFT
+        for (final int n : new int[] { 3, 5, 6, 7, 12, 100, 127, 1000 }) {
+            final double[] data = randomData(2 * n);
+            final double[] reference = naiveDFT(data, false);
+            assertArrayEquals(reference, InterleavedComplexFFT_1D.fft(data), TOLERANCE * n, "fft n = " + n);
+
+            final double[] referenceInverse = naiveDFT(data, true);
+            assertArrayEquals(referenceInverse, InterleavedComplexFFT_1D.ifft(data), TOLERANCE, "ifft n = " + n);
+        }
+
+        // in-place round-trip
+        for (final int n : new int[] { 256, 300 }) {
+            final double[] data = randomData(2 * n);
+            final double[] copy = data.clone();
+            InterleavedComplexFFT_1D.fftInPlace(copy);
+            InterleavedComplexFFT_1D.ifftInPlace(copy);
+            assertArrayEquals(data, copy, TOLERANCE, "round-trip n = " + n);
+        }
+        assertTrue(FFTPlanCache.getComplexFFTCache().containsKey(300));
+        assertTrue(FFTPlanCache.getComplexFFTCache().containsKey(1024)); // Bluestein convolution length for n = 300
+    }
+
+    private static double[] naiveCircularConvolution(final double[] x, final double[] y) {
+        final int n = x.length / 2;
+        final double[] result = new double[2 * n];
+        for (int k = 0; k < n; k++) {
+            for (int i = 0; i < n; i++) {
+                final int j = Math.floorMod(k - i, n);
+                result[2 * k] += x[2 * i] * y[2 * j] - x[2 * i + 1] * y[2 * j + 1];
+                result[2 * k + 1] += x[2 * i] * y[2 * j + 1] + x[2 * i + 1] * y[2 * j];
+            }
+        }
+        return result;
+    }
+
+    private static double[] naiveDFT(final double[] data, final boolean inverse) {
+        final int n = data.length / 2;
+        final double[] result = new double[2 * n];
+        final double sign = inverse ? 1.0 : -1.0;
+        for (int k = 0; k < n; k++) {
+            for (int i = 0; i < n; i++) {
+                final double phi = sign * 2.0 * Math.PI * ((long) i * k % n) / n;
+                final double c = Math.cos(phi);
+                final double s = Math.sin(phi);
+                result[2 * k] += data[2 * i] * c - data[2 * i + 1] * s;
+                result[2 * k + 1] += data[2 * i] * s + data[2 * i + 1] * c;
+            }
+            if (inverse) {
+                result[2 * k] /= n;
+                result[2 * k + 1] /= n;
+            }
+        }
+        return result;
+    }
+
+    private static double[] randomData(final int length) {
+        final TRandom random = new TRandom(length);
+        final double[] data = new double[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = random.Gaus(0.0, 1.0);
+        }
+        return data;
+    }
+}
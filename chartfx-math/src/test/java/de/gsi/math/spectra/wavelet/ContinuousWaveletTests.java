@@ -0,0 +1,105 @@
+package de.gsi.math.spectra.wavelet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+
+import org.apache.commons.math3.complex.Complex;
+import org.junit.jupiter.api.Test;
+
+import de.gsi.dataset.DataSet;
+import de.gsi.math.utils.ForkJoinComputation;
+
+/**
+ * Tests the FFT-based continuous wavelet transform against the direct (truncated) convolution
+ */
+public class ContinuousWaveletTests {
+    @Test
+    public void waveletTransformTests() {
+        final int nSamples = 500;
+        final double[] data = new double[nSamples];
+        final Complex[] complexData = new Complex[nSamples];
+        for (int i = 0; i < nSamples; i++) {
+            data[i] = Math.sin(2.0 * Math.PI * 0.05 * i) + 0.5 * Math.sin(2.0 * Math.PI * 0.21 * i * i / nSamples);
+            complexData[i] = new Complex(data[i], 0.0);
+        }
+
+        final ContinuousWavelet wavelet = new ContinuousWavelet();
+        final double nu = 5.0;
+        for (final double frequency : new double[] { 0.01, 0.05, 0.2, 0.45 }) {
+            final double scale = nu / frequency;
+            final double[] all = wavelet.WaveletTransform(data, scale, nu);
+            assertEquals(2 * nSamples, all.length);
+            for (int t = 0; t < nSamples; t += 7) {
+                final Complex direct = wavelet.WaveletTransform(data, scale, t, nu);
+                assertEquals(direct.getReal(), all[2 * t], 1e-9, "re - f = " + frequency + " t = " + t);
+                assertEquals(direct.getImaginary(), all[2 * t + 1], 1e-9, "im - f = " + frequency + " t = " + t);
+            }
+        }
+
+        // complex input (no truncation) vs. real input
+        final double scale = nu / 0.1;
+        final Complex complex = wavelet.WaveletTransform(complexData, scale, 250, nu);
+        final Complex real = wavelet.WaveletTransform(data, scale, 250, nu);
+        assertEquals(real.getReal(), complex.getReal(), 1e-9);
+        assertEquals(real.getImaginary(), complex.getImaginary(), 1e-9);
+
+        final double[][] scalogram = wavelet.getScalogramArray(data, 50, 64, nu, 0.0, 0.5);
+        assertEquals(50, scalogram.length);
+        assertEquals(65, scalogram[0].length);
+        assertEquals(Double.NaN, scalogram[0][0]);
+        final Complex reference = wavelet.WaveletTransform(data, nu / (0.5 * 10 / 64), 10.0 * 3, nu);
+        assertEquals(10 * Math.log10(reference.getReal() * reference.getReal() + reference.getImaginary() * reference.getImaginary() + 1e-99), scalogram[3][10], 1e-6);
+        assertEquals(100, wavelet.getStatus());
+    }
+
+    @Test
+    public void parallelScalogramTests() {
+        final int nSamples = 20_000;
+        final double[] data = new double[nSamples];
+        for (int i = 0; i < nSamples; i++) {
+            data[i] = Math.sin(2.0 * Math.PI * (0.2 + 0.2 * i / nSamples) * i);
+        }
+        final ContinuousWavelet wavelet = new ContinuousWavelet();
+        final double nu = 5.0;
+        final int nQuantx = 2000;
+        final int nQuanty = 64;
+
+        // the time axis is split into several tiles for these scales
+        final double[][] scalogram = wavelet.getScalogramArray(data, nQuantx, nQuanty, nu, 0.2, 0.5);
+        final int min = (int) (2 * 0.2 * nQuanty);
+        for (final int i : new int[] { 0, 408, 409, 410, 1234, 1999 }) {
+            for (final int j : new int[] { min, 40, 63 }) {
+                final double f = 0.5 * j / nQuanty;
+                final Complex direct = wavelet.WaveletTransform(data, nu / f, nSamples / nQuantx * i, nu);
+                final double power = direct.getReal() * direct.getReal() + direct.getImaginary() * direct.getImaginary();
+                assertEquals(10 * Math.log10(power + 1e-99), scalogram[i][j - min], 1e-6, "i = " + i + " j = " + j);
+            }
+        }
+
+        // concurrent computations on the same instance
+        final ForkJoinComputation<double[][]> computation1 = wavelet.getScalogramArrayAsync(data, nQuantx, nQuanty, nu, 0.2, 0.5, null);
+        final double[] shortData = Arrays.copyOf(data, 1024);
+        final ForkJoinComputation<DataSet> computation2 = wavelet.getScalogramAsync(shortData, 512, nQuanty, nu, 0.2, 0.5, null);
+        final double[][] concurrent = computation1.join();
+        for (int i = 0; i < nQuantx; i++) {
+            assertArrayEquals(scalogram[i], concurrent[i]);
+        }
+        final DataSet dataSet = computation2.join();
+        assertEquals(512, dataSet.getDataCount(DataSet.DIM_X));
+        assertEquals(100, computation1.getProgress());
+        assertEquals(100, computation2.getProgress());
+        assertFalse(wavelet.isBusy());
+
+        // cancellation
+        final ForkJoinComputation<double[][]> cancelled = wavelet.getScalogramArrayFourierAsync(shortData, 512, 4096, nu, 0.0, 0.5, null);
+        assertTrue(cancelled.cancel(true));
+        assertThrows(CancellationException.class, cancelled::join);
+        assertTrue(cancelled.isDone());
+    }
+}
@@ -0,0 +1,147 @@
+package de.gsi.math.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the cancellable fork-join computation handle
+ */
+public class ForkJoinComputationTests {
+    @Test
+    public void cancellationTests() throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        final AtomicInteger processed = new AtomicInteger();
+        final ForkJoinComputation<Integer> computation = new ForkJoinComputation<>(10_000, null, handle -> {
+            handle.parallelFor(0, 10_000, 1, index -> {
+                started.countDown();
+                processed.incrementAndGet();
+                try {
+                    Thread.sleep(1);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            return processed.get();
+        });
+        computation.fork(ForkJoinPool.commonPool());
+
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        assertTrue(computation.cancel(true));
+        assertTrue(computation.isCancelled());
+        assertTrue(computation.isDone());
+        assertThrows(CancellationException.class, computation::join);
+        assertThrows(CancellationException.class, computation::get);
+
+        // no new indices are started after the cancellation
+        Thread.sleep(100);
+        final int count = processed.get();
+        Thread.sleep(100);
+        assertEquals(count, processed.get());
+        assertTrue(count < 10_000);
+        assertTrue(computation.getProgress() < 100);
+    }
+
+    @Test
+    public void executorTests() throws InterruptedException, ExecutionException, TimeoutException {
+        // N.B. bounded pool with fewer threads than concurrently running computations: must not starve
+        final ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            final List<ForkJoinComputation<long[]>> computations = new ArrayList<>();
+            for (int run = 0; run < 4; run++) {
+                final long[] result = new long[10_000];
+                computations.add(new ForkJoinComputation<long[]>(result.length, null, handle -> {
+                    handle.parallelFor(0, result.length, 10, index -> result[index] = (long) index * index);
+                    return result;
+                }).fork(pool));
+            }
+            for (final ForkJoinComputation<long[]> computation : computations) {
+                final long[] values = computation.get(10, TimeUnit.SECONDS);
+                for (int i = 0; i < values.length; i++) {
+                    assertEquals((long) i * i, values[i]);
+                }
+                assertEquals(100, computation.getProgress());
+            }
+
+            final ForkJoinComputation<Integer> failing = new ForkJoinComputation<>(100, null, handle -> {
+                handle.parallelFor(0, 100, 1, index -> {
+                    if (index == 42) {
+                        throw new IllegalStateException("test");
+                    }
+                });
+                return 0;
+            });
+            final ExecutionException exception = assertThrows(ExecutionException.class, () -> failing.fork(pool).get());
+            assertTrue(exception.getCause() instanceof IllegalStateException);
+
+            final AtomicInteger sum = new AtomicInteger();
+            final ForkJoinComputation<Integer> invoked = new ForkJoinComputation<>(100, null, handle -> {
+                handle.parallelFor(0, 100, 3, sum::addAndGet);
+                return sum.get();
+            });
+            assertEquals(Integer.valueOf(4950), invoked.invoke(pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void progressTests() throws InterruptedException, ExecutionException {
+        assertThrows(IllegalArgumentException.class, () -> new ForkJoinComputation<Integer>(0, null, handle -> 0));
+        assertThrows(IllegalArgumentException.class, () -> new ForkJoinComputation<Integer>(1, null, null));
+
+        final List<Integer> progress = new CopyOnWriteArrayList<>();
+        final int[] result = new int[1000];
+        final ForkJoinComputation<int[]> computation = new ForkJoinComputation<>(result.length, progress::add, handle -> {
+            handle.parallelFor(0, result.length, 7, index -> result[index] = index * index);
+            return result;
+        });
+        assertFalse(computation.isDone());
+        assertEquals(0, computation.getProgress());
+        computation.fork(ForkJoinPool.commonPool());
+
+        final int[] values = computation.get();
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(i * i, values[i]);
+        }
+        assertEquals(100, computation.getProgress());
+        assertEquals(100, progress.size()); // each percent reported once
+        assertEquals(100, progress.stream().distinct().count());
+        assertTrue(computation.toString().contains("progress=100%"));
+
+        final ForkJoinComputation<Integer> failing = new ForkJoinComputation<>(1, null, handle -> {
+            throw new IllegalStateException("test");
+        });
+        assertThrows(ExecutionException.class, () -> failing.fork(ForkJoinPool.commonPool()).get());
+    }
+
+    @Test
+    public void singleExecutionTests() {
+        final AtomicInteger executions = new AtomicInteger();
+        for (int run = 0; run < 200; run++) {
+            executions.set(0);
+            final ForkJoinComputation<Integer> computation = new ForkJoinComputation<>(1, null, handle -> executions.incrementAndGet());
+            computation.fork(ForkJoinPool.commonPool());
+            assertThrows(IllegalStateException.class, () -> computation.fork(ForkJoinPool.commonPool()));
+            assertEquals(Integer.valueOf(1), computation.invoke(ForkJoinPool.commonPool()), "invoke after fork only waits for the result");
+            assertEquals(Integer.valueOf(1), computation.join());
+            assertEquals(1, executions.get());
+        }
+    }
+}
@@ -148,18 +148,11 @@ public class DimReductionDataSetSample extends Application {
         // the wavelet scalogram computation
         final ContinuousWavelet wtrafo = new ContinuousWavelet();
 
-        new Thread() {
-            @Override
-            public void run() {
-                tempDataSet = wtrafo.getScalogram(yValues, nQuantx, nQuanty, nu, fmin, fmax);
+        tempDataSet = wtrafo.getScalogramAsync(yValues, nQuantx, nQuanty, nu, fmin, fmax, status -> {
+            if (status % 10 == 0) {
+                LOGGER.atInfo().log(status + " % of computation done");
             }
-        }.start();
-
-        do {
-            sleep(100);
-            final int status = wtrafo.getStatus();
-            LOGGER.atInfo().log(status + " % of computation done");
-        } while (wtrafo.isBusy());
+        }).join();
 
         final DoubleFFT_1D fft = new DoubleFFT_1D(yValues.length);
         final double[] fftSpectra = Arrays.copyOf(yValues, yValues.length);
@@ -242,15 +235,4 @@ public class DimReductionDataSetSample extends Application {
 
         return new double[1000];
     }
-
-    private static void sleep(int millis) {
-        try {
-            Thread.sleep(millis);
-        } catch (InterruptedException e) {
-            if (LOGGER.isErrorEnabled()) {
-                LOGGER.atError().setCause(e).log("InterruptedException");
-            }
-            Thread.currentThread().interrupt();
-        }
-    }
 }
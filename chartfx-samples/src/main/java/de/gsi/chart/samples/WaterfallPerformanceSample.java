@@ -75,6 +75,7 @@ public class WaterfallPerformanceSample extends Application {
     private final CheckBox smooth = new CheckBox("smooth");
     private final CheckBox altImplementation = new CheckBox("alt impl.");
     private final CheckBox parallelImplementation = new CheckBox("parallel impl.");
+    private final CheckBox scrollingHeatMap = new CheckBox("scrolling heatmap");
 
     private TestDataSetSource dataSet = new TestDataSetSource();
     private Timer timer;
@@ -228,8 +229,12 @@ public class WaterfallPerformanceSample extends Application {
         parallelImplementation.selectedProperty().bindBidirectional(renderer.parallelImplementationProperty());
         parallelImplementation.selectedProperty().addListener((ch, old, selection) -> chart.requestLayout());
 
+        scrollingHeatMap.setSelected(renderer.isScrollingHeatMap());
+        scrollingHeatMap.selectedProperty().bindBidirectional(renderer.scrollingHeatMapProperty());
+        scrollingHeatMap.selectedProperty().addListener((ch, old, selection) -> chart.requestLayout());
+
         final ToolBar newCountourParameters = new ToolBar(dataReduction, hBoxReductionFactorSlider, reductionType,
-                smooth, altImplementation, parallelImplementation);
+                smooth, altImplementation, parallelImplementation, scrollingHeatMap);
 
         contourToolBar.getItems().addAll(new VBox(standardCountourParameters, newCountourParameters));
         return contourToolBar;
@@ -62,22 +62,11 @@ public class WaveletScalogram extends AbstractDemoApplication {
         // the wavelet scalogram computation
         final ContinuousWavelet wtrafo = new ContinuousWavelet();
 
-        new Thread() {
-            @Override
-            public void run() {
-                fdataset = wtrafo.getScalogram(yValues, nQuantx, nQuanty, nu, fmin, fmax);
-            }
-        }.start();
-
-        do {
-            sleep(1000);
-            final int status = wtrafo.getStatus();
-            if (status > 10) {
+        fdataset = wtrafo.getScalogramAsync(yValues, nQuantx, nQuanty, nu, fmin, fmax, status -> {
+            if (status % 10 == 0) {
                 LOGGER.atInfo().log(status + " % of computation done");
             }
-        } while (wtrafo.isBusy());
-
-        sleep(1000);
+        }).join();
 
         final DoubleFFT_1D fft = new DoubleFFT_1D(yValues.length);
         final double[] fftSpectra = Arrays.copyOf(yValues, yValues.length);
@@ -209,17 +198,6 @@ public class WaveletScalogram extends AbstractDemoApplication {
         return new double[1000];
     }
 
-    private void sleep(int millis) {
-        try {
-            Thread.sleep(millis);
-        } catch (InterruptedException e) {
-            if (LOGGER.isErrorEnabled()) {
-                LOGGER.atError().setCause(e).log("InterruptedException");
-            }
-            Thread.currentThread().interrupt();
-        }
-    }
-
     public static void main(final String[] args) {
         Application.launch(args);
     }